@@ -1,7 +1,7 @@
 package com.ecommerce_app.config;
 
-import java.text.ParseException;
-import com.nimbusds.jwt.SignedJWT;
+import com.ecommerce_app.service.security.JwtTokenVerifier;
+import lombok.RequiredArgsConstructor;
 import org.springframework.security.oauth2.jwt.Jwt;
 import org.springframework.security.oauth2.jwt.JwtDecoder;
 import org.springframework.security.oauth2.jwt.JwtException;
@@ -9,23 +9,13 @@ import org.springframework.stereotype.Component;
 
 
 @Component
+@RequiredArgsConstructor
 public class CustomJwtDecoder implements JwtDecoder {
 
+    private final JwtTokenVerifier jwtTokenVerifier;
+
     @Override
     public Jwt decode(String token) throws JwtException {
-
-        try {
-            SignedJWT signedJWT = SignedJWT.parse(token);
-
-            return new Jwt(token,
-                    signedJWT.getJWTClaimsSet().getIssueTime().toInstant(),
-                    signedJWT.getJWTClaimsSet().getExpirationTime().toInstant(),
-                    signedJWT.getHeader().toJSONObject(),
-                    signedJWT.getJWTClaimsSet().getClaims()
-            );
-
-        } catch (ParseException e) {
-            throw new JwtException("Invalid token");
-        }
+        return jwtTokenVerifier.decode(token);
     }
 }
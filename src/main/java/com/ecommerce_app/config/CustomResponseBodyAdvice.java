@@ -42,6 +42,11 @@ public class CustomResponseBodyAdvice implements ResponseBodyAdvice<Object> {
             return body;
         }
 
+        // Already serialized, e.g. enveloped responses served from CatalogResponseCache
+        if (body instanceof byte[]) {
+            return body;
+        }
+
         return ApiResult.success("Request processed successfully", body);
     }
 }
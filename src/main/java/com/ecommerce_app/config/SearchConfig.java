@@ -0,0 +1,17 @@
+package com.ecommerce_app.config;
+
+import com.ecommerce_app.service.search.ProductSearchIndex;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.nio.file.Path;
+
+@Configuration
+public class SearchConfig {
+
+    @Bean(destroyMethod = "close")
+    public ProductSearchIndex productSearchIndex(@Value("${app.search.index-dir}") String indexDir) {
+        return ProductSearchIndex.open(Path.of(indexDir));
+    }
+}
@@ -0,0 +1,10 @@
+package com.ecommerce_app.constant;
+
+/**
+ * Results of {@code OrderService.createOrder}, used as the {@code outcome} tag of the checkout metrics
+ */
+public class CheckoutOutcome {
+    public static final String SUCCESS = "success";
+    public static final String FAILURE = "failure";
+    private CheckoutOutcome() {}
+}
@@ -0,0 +1,18 @@
+package com.ecommerce_app.constant;
+
+/**
+ * Stages of {@code OrderService.createOrder}, used as the {@code stage} tag of the checkout metrics
+ */
+public class CheckoutStage {
+    public static final String LOOKUP = "lookup";
+    public static final String COUPON = "coupon";
+    public static final String ORDER = "order";
+    public static final String ITEMS = "items";
+    public static final String TOTALS = "totals";
+    public static final String PAYMENT = "payment";
+    public static final String SHIPPING = "shipping";
+    public static final String FLUSH = "flush";
+    public static final String RESPONSE = "response";
+    public static final String COMMIT = "commit";
+    private CheckoutStage() {}
+}
@@ -0,0 +1,8 @@
+package com.ecommerce_app.constant;
+
+public class EmailOutboxStatus {
+    public static final String PENDING = "PENDING";
+    public static final String SENT = "SENT";
+    public static final String FAILED = "FAILED";
+    private EmailOutboxStatus() {}
+}
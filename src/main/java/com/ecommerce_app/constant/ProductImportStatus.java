@@ -0,0 +1,9 @@
+package com.ecommerce_app.constant;
+
+public class ProductImportStatus {
+    public static final String QUEUED = "QUEUED";
+    public static final String RUNNING = "RUNNING";
+    public static final String COMPLETED = "COMPLETED";
+    public static final String FAILED = "FAILED";
+    private ProductImportStatus() {}
+}
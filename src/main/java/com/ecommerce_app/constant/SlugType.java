@@ -0,0 +1,8 @@
+package com.ecommerce_app.constant;
+
+public class SlugType {
+    public static final String PRODUCT = "PRODUCT";
+    public static final String CATEGORY = "CATEGORY";
+    public static final String TAG = "TAG";
+    private SlugType() {}
+}
@@ -1,5 +1,6 @@
 package com.ecommerce_app.controller;
 
+import com.ecommerce_app.dto.request.CartItemBatchRequest;
 import com.ecommerce_app.dto.request.CartItemCreationRequest;
 import com.ecommerce_app.dto.request.CartItemUpdateRequest;
 import com.ecommerce_app.dto.response.CartItemResponse;
@@ -38,6 +39,21 @@ public class CartItemController {
         return new ResponseEntity<>(addedItem, HttpStatus.CREATED);
     }
 
+    /**
+     * Adds several items to a cart at once, for reorder and bundle flows.
+     *
+     * @param cartId       the ID of the cart to which the items will be added
+     * @param batchRequest the items to be added
+     * @return the added or increased cart lines
+     */
+    @PostMapping("/cart/{cartId}/batch")
+    public ResponseEntity<List<CartItemResponse>> addItemsToCart(
+            @PathVariable UUID cartId,
+            @Valid @RequestBody CartItemBatchRequest batchRequest) {
+        List<CartItemResponse> addedItems = cartItemService.addItemsToCart(cartId, batchRequest.getItems());
+        return new ResponseEntity<>(addedItems, HttpStatus.CREATED);
+    }
+
     /**
      * Updates an existing cart item.
      *
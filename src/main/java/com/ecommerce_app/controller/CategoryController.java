@@ -6,6 +6,9 @@ import com.ecommerce_app.dto.response.ApiResult;
 import com.ecommerce_app.dto.response.CategoryBasicResponse;
 import com.ecommerce_app.dto.response.CategoryResponse;
 import com.ecommerce_app.dto.response.CategoryTreeResponse;
+import com.ecommerce_app.service.cache.CatalogResponseCache;
+import com.ecommerce_app.service.cache.CatalogVersionService;
+import com.ecommerce_app.service.catalog.CategoryProductCountService;
 import com.ecommerce_app.service.interfaces.CategoryService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -19,8 +22,10 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.web.PageableDefault;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 import java.util.UUID;
@@ -37,6 +42,9 @@ import java.util.UUID;
 public class CategoryController {
 
     private final CategoryService categoryService;
+    private final CatalogVersionService catalogVersionService;
+    private final CatalogResponseCache catalogResponseCache;
+    private final CategoryProductCountService categoryProductCountService;
 
     /**
      * Creates a new category.
@@ -96,7 +104,11 @@ public class CategoryController {
                     content = @Content(schema = @Schema(implementation = ApiResult.class))),
             @ApiResponse(responseCode = "404", description = "Category not found")
     })
-    public ApiResult<CategoryResponse> getCategoryById(@Parameter(description = "Category ID") @PathVariable UUID id) {
+    public ApiResult<CategoryResponse> getCategoryById(@Parameter(description = "Category ID") @PathVariable UUID id,
+            WebRequest webRequest) {
+        if (catalogVersionService.isCategoryNotModified(id, webRequest)) {
+            return null;
+        }
         CategoryResponse category = categoryService.getCategoryById(id);
         return ApiResult.success("Category retrieved successfully!", category);
     }
@@ -114,7 +126,11 @@ public class CategoryController {
                     content = @Content(schema = @Schema(implementation = ApiResult.class))),
             @ApiResponse(responseCode = "404", description = "Category not found")
     })
-    public ApiResult<CategoryResponse> getCategoryBySlug(@Parameter(description = "Category slug") @PathVariable String slug) {
+    public ApiResult<CategoryResponse> getCategoryBySlug(@Parameter(description = "Category slug") @PathVariable String slug,
+            WebRequest webRequest) {
+        if (catalogVersionService.isCategoryBySlugNotModified(slug, webRequest)) {
+            return null;
+        }
         CategoryResponse category = categoryService.getCategoryBySlug(slug);
         return ApiResult.success("Category retrieved successfully!", category);
     }
@@ -140,7 +156,8 @@ public class CategoryController {
     /**
      * Retrieves a list of basic category information for all categories.
      *
-     * @return ApiResult containing the list of basic category responses
+     * @param webRequest The request, checked against the category list's ETag and Last-Modified
+     * @return The serialized ApiResult containing the list of basic category responses
      */
     @GetMapping("/basic")
     @Operation(summary = "Get all categories (basic information)", description = "Retrieves a list of all categories with basic information.")
@@ -148,15 +165,18 @@ public class CategoryController {
             @ApiResponse(responseCode = "200", description = "Basic category information retrieved successfully",
                     content = @Content(schema = @Schema(implementation = ApiResult.class)))
     })
-    public ApiResult<List<CategoryBasicResponse>> getAllCategoriesBasic() {
-        List<CategoryBasicResponse> categories = categoryService.getAllCategoriesBasic();
-        return ApiResult.success("Basic category information retrieved successfully!", categories);
+    public ResponseEntity<byte[]> getAllCategoriesBasic(WebRequest webRequest) {
+        return catalogResponseCache.getCategoryListResponse("basic", webRequest, () -> {
+            List<CategoryBasicResponse> categories = categoryService.getAllCategoriesBasic();
+            return ApiResult.success("Basic category information retrieved successfully!", categories);
+        });
     }
 
     /**
      * Retrieves the category hierarchy as a tree structure.
      *
-     * @return ApiResult containing the category tree
+     * @param webRequest The request, checked against the category list's ETag and Last-Modified
+     * @return The serialized ApiResult containing the category tree
      */
     @GetMapping("/tree")
     @Operation(summary = "Get category tree", description = "Retrieves the hierarchical tree structure of all categories.")
@@ -164,9 +184,11 @@ public class CategoryController {
             @ApiResponse(responseCode = "200", description = "Category tree retrieved successfully",
                     content = @Content(schema = @Schema(implementation = ApiResult.class)))
     })
-    public ApiResult<List<CategoryTreeResponse>> getCategoryTree() {
-        List<CategoryTreeResponse> categoryTree = categoryService.getCategoryTree();
-        return ApiResult.success("Category tree retrieved successfully!", categoryTree);
+    public ResponseEntity<byte[]> getCategoryTree(WebRequest webRequest) {
+        return catalogResponseCache.getCategoryListResponse("tree", webRequest, () -> {
+            List<CategoryTreeResponse> categoryTree = categoryService.getCategoryTree();
+            return ApiResult.success("Category tree retrieved successfully!", categoryTree);
+        });
     }
 
     /**
@@ -182,11 +204,51 @@ public class CategoryController {
                     content = @Content(schema = @Schema(implementation = ApiResult.class))),
             @ApiResponse(responseCode = "404", description = "Parent category not found")
     })
-    public ApiResult<List<CategoryResponse>> getSubcategories(@Parameter(description = "Parent category ID") @PathVariable UUID parentId) {
+    public ApiResult<List<CategoryResponse>> getSubcategories(@Parameter(description = "Parent category ID") @PathVariable UUID parentId,
+            WebRequest webRequest) {
+        if (catalogVersionService.isCategoryListNotModified(webRequest)) {
+            return null;
+        }
         List<CategoryResponse> subcategories = categoryService.getSubcategories(parentId);
         return ApiResult.success("Subcategories retrieved successfully!", subcategories);
     }
 
+    /**
+     * Retrieves the ancestors of a category, root first, for breadcrumbs.
+     *
+     * @param id The UUID of the category
+     * @return ApiResult containing the ancestors from the root down to the direct parent
+     */
+    @GetMapping("/{id}/ancestors")
+    @Operation(summary = "Get category ancestors", description = "Retrieves the ancestors of a category from the root down to its parent.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Ancestors retrieved successfully",
+                    content = @Content(schema = @Schema(implementation = ApiResult.class))),
+            @ApiResponse(responseCode = "404", description = "Category not found")
+    })
+    public ApiResult<List<CategoryBasicResponse>> getAncestors(@Parameter(description = "Category ID") @PathVariable UUID id) {
+        List<CategoryBasicResponse> ancestors = categoryService.getAncestors(id);
+        return ApiResult.success("Ancestors retrieved successfully!", ancestors);
+    }
+
+    /**
+     * Retrieves every category below a category, at any depth.
+     *
+     * @param id The UUID of the category
+     * @return ApiResult containing the descendants level by level
+     */
+    @GetMapping("/{id}/descendants")
+    @Operation(summary = "Get category descendants", description = "Retrieves all categories below a category, at any depth.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Descendants retrieved successfully",
+                    content = @Content(schema = @Schema(implementation = ApiResult.class))),
+            @ApiResponse(responseCode = "404", description = "Category not found")
+    })
+    public ApiResult<List<CategoryBasicResponse>> getDescendants(@Parameter(description = "Category ID") @PathVariable UUID id) {
+        List<CategoryBasicResponse> descendants = categoryService.getDescendants(id);
+        return ApiResult.success("Descendants retrieved successfully!", descendants);
+    }
+
     /**
      * Deletes a category.
      *
@@ -230,4 +292,21 @@ public class CategoryController {
         CategoryResponse movedCategory = categoryService.moveCategory(id, parentId);
         return ApiResult.success("Category moved successfully!", movedCategory);
     }
-}
\ No newline at end of file
+
+    /**
+     * Recounts the products of every category in the product count table.
+     *
+     * @return ApiResult containing the number of categories counted
+     */
+    @PostMapping("/product-counts/rebuild")
+    @PreAuthorize("hasAuthority('CATEGORY_MANAGE')")
+    @Operation(summary = "Rebuild category product counts", description = "Recounts the product count table from the product links. Run once after enabling the table. Requires CATEGORY_MANAGE authority.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Product counts rebuilt successfully",
+                    content = @Content(schema = @Schema(implementation = ApiResult.class))),
+            @ApiResponse(responseCode = "403", description = "Access denied")
+    })
+    public ApiResult<Integer> rebuildProductCounts() {
+        return ApiResult.success("Product counts rebuilt successfully!", categoryProductCountService.rebuildCounts());
+    }
+}
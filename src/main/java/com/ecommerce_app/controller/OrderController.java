@@ -3,6 +3,7 @@ package com.ecommerce_app.controller;
 import com.ecommerce_app.dto.request.OrderCreationRequest;
 import com.ecommerce_app.dto.request.OrderUpdateRequest;
 import com.ecommerce_app.dto.response.ApiResult;
+import com.ecommerce_app.dto.response.CursorPageResponse;
 import com.ecommerce_app.dto.response.OrderResponse;
 import com.ecommerce_app.service.interfaces.OrderService;
 import io.swagger.v3.oas.annotations.Operation;
@@ -158,6 +159,29 @@ public class OrderController {
         return ApiResult.success("Orders retrieved successfully", orderService.getAllOrders(pageable));
     }
 
+    /**
+     * Retrieves all orders newest first using keyset pagination.
+     *
+     * @param after Cursor returned with the previous page; omit for the first page
+     * @param size Page size
+     * @return ApiResult containing a page of OrderResponse objects and the cursor of the next page
+     */
+    @GetMapping("/cursor")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Get all orders by cursor",
+            description = "Retrieves all orders newest first, following the cursor of the previous page")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Orders retrieved successfully"),
+            @ApiResponse(responseCode = "400", description = "Invalid cursor"),
+            @ApiResponse(responseCode = "401", description = "Unauthorized"),
+            @ApiResponse(responseCode = "403", description = "Forbidden")
+    })
+    public ApiResult<CursorPageResponse<OrderResponse>> getAllOrdersByCursor(
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "10") int size) {
+        return ApiResult.success("Orders retrieved successfully", orderService.getAllOrders(after, size));
+    }
+
     /**
      * Retrieves all orders for a specific user with pagination.
      *
@@ -180,6 +204,33 @@ public class OrderController {
         return ApiResult.success("User orders retrieved successfully", orderService.getOrdersByUser(userId, pageable));
     }
 
+    /**
+     * Retrieves orders for a specific user newest first using keyset pagination.
+     *
+     * @param userId UUID of the user
+     * @param after Cursor returned with the previous page; omit for the first page
+     * @param size Page size
+     * @return ApiResult containing a page of OrderResponse objects and the cursor of the next page
+     */
+    @GetMapping("/user/{userId}/cursor")
+    @PreAuthorize("hasRole('USER') or hasRole('ADMIN')")
+    @Operation(summary = "Get orders by user by cursor",
+            description = "Retrieves orders for a specific user newest first, following the cursor of the previous page")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Orders retrieved successfully"),
+            @ApiResponse(responseCode = "400", description = "Invalid cursor"),
+            @ApiResponse(responseCode = "401", description = "Unauthorized"),
+            @ApiResponse(responseCode = "403", description = "Forbidden"),
+            @ApiResponse(responseCode = "404", description = "User not found")
+    })
+    public ApiResult<CursorPageResponse<OrderResponse>> getOrdersByUserByCursor(
+            @PathVariable UUID userId,
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "10") int size) {
+        return ApiResult.success("User orders retrieved successfully",
+                orderService.getOrdersByUser(userId, after, size));
+    }
+
     /**
      * Retrieves all orders with a specific status with pagination.
      *
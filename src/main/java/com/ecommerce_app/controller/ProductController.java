@@ -3,9 +3,19 @@ package com.ecommerce_app.controller;
 import com.ecommerce_app.dto.request.ProductCreationRequest;
 import com.ecommerce_app.dto.request.ProductUpdateRequest;
 import com.ecommerce_app.dto.response.ApiResult;
+import com.ecommerce_app.dto.response.CursorPageResponse;
 import com.ecommerce_app.dto.response.ProductBasicResponse;
+import com.ecommerce_app.dto.response.ProductFacetResponse;
+import com.ecommerce_app.dto.response.ProductImportResponse;
 import com.ecommerce_app.dto.response.ProductResponse;
+import com.ecommerce_app.service.cache.CatalogResponseCache;
+import com.ecommerce_app.service.cache.ProductDetailCache;
+import com.ecommerce_app.service.catalog.ProductExportService;
+import com.ecommerce_app.service.catalog.ProductImportFormat;
+import com.ecommerce_app.service.catalog.ProductImportService;
 import com.ecommerce_app.service.interfaces.ProductService;
+import com.ecommerce_app.service.search.ProductFacetQuery;
+import com.ecommerce_app.service.search.ProductSearchService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
@@ -14,9 +24,18 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.InputStream;
+import java.util.Set;
 import java.util.UUID;
+import java.util.function.Supplier;
 
 /**
  * REST controller for managing product operations.
@@ -29,6 +48,11 @@ import java.util.UUID;
 public class ProductController {
 
     private final ProductService productService;
+    private final ProductSearchService productSearchService;
+    private final ProductImportService productImportService;
+    private final ProductExportService productExportService;
+    private final ProductDetailCache productDetailCache;
+    private final CatalogResponseCache catalogResponseCache;
 
     /**
      * Creates a new product.
@@ -63,11 +87,16 @@ public class ProductController {
      * Retrieves a product by its ID.
      *
      * @param id The ID of the product to retrieve
-     * @return ApiResult containing the product information
+     * @param webRequest The request, checked against the product's ETag and Last-Modified
+     * @return ApiResult containing the product information, or nothing if the client's copy is current
      */
     @GetMapping("/{id}")
     @Operation(summary = "Get product by ID", description = "Retrieves product information for the specified ID")
-    public ApiResult<ProductResponse> getProductById(@PathVariable UUID id) {
+    public ApiResult<ProductResponse> getProductById(@PathVariable UUID id, WebRequest webRequest) {
+        // Answered from the validators cached with the product, so a cached product needs no query
+        if (productDetailCache.isNotModified(id, webRequest)) {
+            return null;
+        }
         ProductResponse product = productService.getProductById(id);
         return ApiResult.success("Product retrieved successfully", product);
     }
@@ -76,13 +105,16 @@ public class ProductController {
      * Retrieves a product by its slug.
      *
      * @param slug The slug of the product to retrieve
-     * @return ApiResult containing the product information
+     * @param webRequest The request, checked against the product's ETag and Last-Modified
+     * @return The serialized ApiResult containing the product information, or nothing if the client's copy is current
      */
     @GetMapping("/slug/{slug}")
     @Operation(summary = "Get product by slug", description = "Retrieves product information for the specified slug")
-    public ApiResult<ProductResponse> getProductBySlug(@PathVariable String slug) {
-        ProductResponse product = productService.getProductBySlug(slug);
-        return ApiResult.success("Product retrieved successfully", product);
+    public ResponseEntity<byte[]> getProductBySlug(@PathVariable String slug, WebRequest webRequest) {
+        return catalogResponseCache.getProductBySlugResponse(slug, webRequest, () -> {
+            ProductResponse product = productService.getProductBySlug(slug);
+            return ApiResult.success("Product retrieved successfully", product);
+        });
     }
 
     /**
@@ -108,6 +140,22 @@ public class ProductController {
         return ApiResult.success("Products retrieved successfully", products);
     }
 
+    /**
+     * Retrieves all products newest first using keyset pagination.
+     *
+     * @param after The cursor returned with the previous page; omit for the first page
+     * @param size The page size
+     * @return ApiResult containing a page of products and the cursor of the next page
+     */
+    @GetMapping("/cursor")
+    @Operation(summary = "Get all products by cursor",
+            description = "Retrieves all products newest first, following the cursor of the previous page")
+    public ApiResult<CursorPageResponse<ProductBasicResponse>> getAllProductsByCursor(
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "10") int size) {
+        return ApiResult.success("Products retrieved successfully", productService.getAllProducts(after, size));
+    }
+
     /**
      * Retrieves active products with pagination.
      *
@@ -139,21 +187,34 @@ public class ProductController {
      * @param size The page size
      * @param sort The sort field
      * @param direction The sort direction
-     * @return ApiResult containing a page of products in the specified category
+     * @param includeSubcategories Whether products of subcategories, at any depth, are listed too
+     * @return ApiResult containing a page of products in the specified category; serialized when it is the first page
      */
     @GetMapping("/category/{categoryId}")
-    @Operation(summary = "Get products by category", description = "Retrieves products for the specified category with pagination")
-    public ApiResult<Page<ProductBasicResponse>> getProductsByCategory(
+    @Operation(summary = "Get products by category", description = "Retrieves products for the specified category and, unless disabled, its subcategories with pagination")
+    public ResponseEntity<?> getProductsByCategory(
             @PathVariable UUID categoryId,
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size,
             @RequestParam(defaultValue = "createdAt") String sort,
-            @RequestParam(defaultValue = "DESC") String direction) {
+            @RequestParam(defaultValue = "DESC") String direction,
+            @RequestParam(defaultValue = "true") boolean includeSubcategories) {
 
         Sort.Direction sortDirection = Sort.Direction.fromString(direction.toUpperCase());
         Pageable pageable = PageRequest.of(page, size, sortDirection, sort);
-        Page<ProductBasicResponse> products = productService.getProductsByCategory(categoryId, pageable);
-        return ApiResult.success("Products by category retrieved successfully", products);
+        Supplier<ApiResult<?>> loader = () -> {
+            Page<ProductBasicResponse> products = includeSubcategories
+                    ? productService.getProductsByCategoryTree(categoryId, pageable)
+                    : productService.getProductsByCategory(categoryId, pageable);
+            return ApiResult.success("Products by category retrieved successfully", products);
+        };
+
+        // Only the first page in the default size and order is hot enough to be worth caching; other
+        // variants would let clients fill the cache with one entry per size and sort field
+        if (page == 0 && size == 10 && "createdAt".equals(sort) && sortDirection == Sort.Direction.DESC) {
+            return catalogResponseCache.getCategoryProductsResponse(categoryId, includeSubcategories, loader);
+        }
+        return ResponseEntity.ok(loader.get());
     }
 
     /**
@@ -181,13 +242,47 @@ public class ProductController {
         return ApiResult.success("Products by tag retrieved successfully", products);
     }
 
+    /**
+     * Retrieves products filtered by any combination of facets, with the product count behind each facet value.
+     *
+     * @param categoryIds The categories to include (any of)
+     * @param tagIds The tags to include (any of)
+     * @param priceBands The price band indexes to include (any of)
+     * @param active The active status to filter by
+     * @param inStock The stock status to filter by
+     * @param page The page number
+     * @param size The page size
+     * @param sort The sort field, createdAt or price
+     * @param direction The sort direction
+     * @return ApiResult containing a page of matching products and the facet counts
+     */
+    @GetMapping("/facets")
+    @Operation(summary = "Filter products by facets", description = "Filters products by category, tag, price band, active and stock status and returns facet counts")
+    public ApiResult<ProductFacetResponse> getProductsByFacets(
+            @RequestParam(required = false) Set<UUID> categoryIds,
+            @RequestParam(required = false) Set<UUID> tagIds,
+            @RequestParam(required = false) Set<Integer> priceBands,
+            @RequestParam(defaultValue = "true") Boolean active,
+            @RequestParam(required = false) Boolean inStock,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(defaultValue = "createdAt") String sort,
+            @RequestParam(defaultValue = "DESC") String direction) {
+
+        Sort.Direction sortDirection = Sort.Direction.fromString(direction.toUpperCase());
+        Pageable pageable = PageRequest.of(page, size, sortDirection, sort);
+        ProductFacetQuery query = new ProductFacetQuery(categoryIds, tagIds, priceBands, active, inStock);
+        ProductFacetResponse products = productService.getProductsByFacets(query, pageable);
+        return ApiResult.success("Products by facets retrieved successfully", products);
+    }
+
     /**
      * Searches for products with pagination.
      *
      * @param keyword The search keyword
      * @param page The page number
      * @param size The page size
-     * @param sort The sort field
+     * @param sort The sort field, or "relevance" to rank by best match
      * @param direction The sort direction
      * @return ApiResult containing a page of products matching the search keyword
      */
@@ -197,15 +292,76 @@ public class ProductController {
             @RequestParam String keyword,
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size,
-            @RequestParam(defaultValue = "createdAt") String sort,
+            @RequestParam(defaultValue = "relevance") String sort,
             @RequestParam(defaultValue = "DESC") String direction) {
 
-        Sort.Direction sortDirection = Sort.Direction.fromString(direction.toUpperCase());
-        Pageable pageable = PageRequest.of(page, size, sortDirection, sort);
+        Pageable pageable;
+        if ("relevance".equalsIgnoreCase(sort)) {
+            pageable = PageRequest.of(page, size);
+        } else {
+            Sort.Direction sortDirection = Sort.Direction.fromString(direction.toUpperCase());
+            pageable = PageRequest.of(page, size, sortDirection, sort);
+        }
         Page<ProductBasicResponse> products = productService.searchProducts(keyword, pageable);
         return ApiResult.success("Product search results retrieved successfully", products);
     }
 
+    /**
+     * Rebuilds the product search index from the database.
+     *
+     * @return ApiResult containing the number of products indexed
+     */
+    @PostMapping("/search/reindex")
+    @Operation(summary = "Rebuild product search index", description = "Rebuilds the full-text search index from all products")
+    public ApiResult<Integer> rebuildSearchIndex() {
+        int indexed = productSearchService.rebuild();
+        return ApiResult.success("Product search index rebuilt successfully", indexed);
+    }
+
+    /**
+     * Starts a bulk import of products from a CSV or NDJSON request body.
+     *
+     * @param contentType The format of the body, text/csv or application/x-ndjson
+     * @param body The file to import
+     * @return ApiResult containing the queued import job
+     */
+    @PostMapping(value = "/import", consumes = {"text/csv", "application/x-ndjson"})
+    @ResponseStatus(HttpStatus.ACCEPTED)
+    @Operation(summary = "Import products", description = "Queues a bulk import of products from a CSV or NDJSON file")
+    public ApiResult<ProductImportResponse> importProducts(
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+            InputStream body) {
+        ProductImportResponse job = productImportService.start(body, ProductImportFormat.fromContentType(contentType));
+        return ApiResult.success("Product import queued successfully", job);
+    }
+
+    /**
+     * Streams every product with its variants and inventory as newline delimited JSON.
+     *
+     * @return The NDJSON body, written while the products are read
+     */
+    @GetMapping(value = "/export", produces = "application/x-ndjson")
+    @Operation(summary = "Export products", description = "Streams all products with variants and inventory as NDJSON")
+    public ResponseEntity<StreamingResponseBody> exportProducts() {
+        StreamingResponseBody body = productExportService::export;
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType("application/x-ndjson"))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"products.ndjson\"")
+                .body(body);
+    }
+
+    /**
+     * Retrieves the progress and row errors of a bulk import.
+     *
+     * @param jobId The id of the import job
+     * @return ApiResult containing the import progress
+     */
+    @GetMapping("/import/{jobId}")
+    @Operation(summary = "Get product import status", description = "Retrieves the progress and row errors of a bulk import")
+    public ApiResult<ProductImportResponse> getImportStatus(@PathVariable UUID jobId) {
+        return ApiResult.success("Product import status retrieved successfully", productImportService.getStatus(jobId));
+    }
+
     /**
      * Deletes a product.
      *
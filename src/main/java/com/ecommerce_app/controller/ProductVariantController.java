@@ -4,6 +4,9 @@ import com.ecommerce_app.dto.request.ProductVariantCreationRequest;
 import com.ecommerce_app.dto.request.ProductVariantUpdateRequest;
 import com.ecommerce_app.dto.response.ApiResult;
 import com.ecommerce_app.dto.response.ProductVariantResponse;
+import com.ecommerce_app.dto.response.VariantSelectionResponse;
+import com.ecommerce_app.service.cache.CatalogVersionService;
+import com.ecommerce_app.service.catalog.VariantMatrixService;
 import com.ecommerce_app.service.interfaces.ProductVariantService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -14,8 +17,10 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 /**
@@ -29,6 +34,8 @@ import java.util.UUID;
 public class ProductVariantController {
 
     private final ProductVariantService productVariantService;
+    private final CatalogVersionService catalogVersionService;
+    private final VariantMatrixService variantMatrixService;
 
     /**
      * Creates a new product variant for a specific product.
@@ -56,6 +63,7 @@ public class ProductVariantController {
      * Retrieves all variants for a specific product.
      *
      * @param productId The ID of the product
+     * @param webRequest The request, checked against the product's ETag and Last-Modified
      * @return API result containing list of product variants
      */
     @GetMapping
@@ -65,7 +73,11 @@ public class ProductVariantController {
             @ApiResponse(responseCode = "404", description = "Product not found")
     })
     public ApiResult<List<ProductVariantResponse>> getProductVariants(
-            @PathVariable UUID productId) {
+            @PathVariable UUID productId,
+            WebRequest webRequest) {
+        if (catalogVersionService.isProductNotModified(productId, webRequest)) {
+            return null;
+        }
         List<ProductVariantResponse> variants = productVariantService.getVariantsByProductId(productId);
         return ApiResult.success("Product variants retrieved successfully", variants);
     }
@@ -75,6 +87,7 @@ public class ProductVariantController {
      *
      * @param productId The ID of the product
      * @param variantId The ID of the variant
+     * @param webRequest The request, checked against the variant's ETag and Last-Modified
      * @return API result containing the product variant
      */
     @GetMapping("/{variantId}")
@@ -85,7 +98,11 @@ public class ProductVariantController {
     })
     public ApiResult<ProductVariantResponse> getProductVariant(
             @PathVariable UUID productId,
-            @PathVariable UUID variantId) {
+            @PathVariable UUID variantId,
+            WebRequest webRequest) {
+        if (catalogVersionService.isVariantNotModified(variantId, webRequest)) {
+            return null;
+        }
         ProductVariantResponse variant = productVariantService.getProductVariantById(variantId);
         return ApiResult.success("Product variant retrieved successfully", variant);
     }
@@ -156,4 +173,25 @@ public class ProductVariantController {
                 productId, attributeName, attributeValue);
         return ApiResult.success("Product variants filtered successfully", variants);
     }
-}
\ No newline at end of file
+
+    /**
+     * Resolves a variant from a full or partial set of attribute values.
+     *
+     * @param productId The ID of the product
+     * @param attributes Attribute names and values, e.g. {@code ?size=M&color=red}
+     * @return API result containing the matching variant, if any, and the options still available
+     */
+    @GetMapping("/resolve")
+    @Operation(summary = "Resolve a variant by attributes",
+            description = "Finds the variant matching all given attribute values and lists which values of each attribute remain available")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Selection resolved successfully"),
+            @ApiResponse(responseCode = "404", description = "Product not found")
+    })
+    public ApiResult<VariantSelectionResponse> resolveVariant(
+            @PathVariable UUID productId,
+            @RequestParam Map<String, String> attributes) {
+        VariantSelectionResponse selection = variantMatrixService.resolve(productId, attributes);
+        return ApiResult.success("Variant selection resolved successfully", selection);
+    }
+}
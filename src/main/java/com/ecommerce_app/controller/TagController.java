@@ -4,6 +4,7 @@ import com.ecommerce_app.dto.request.TagCreationRequest;
 import com.ecommerce_app.dto.request.TagUpdateRequest;
 import com.ecommerce_app.dto.response.ApiResult;
 import com.ecommerce_app.dto.response.TagResponse;
+import com.ecommerce_app.service.cache.CatalogVersionService;
 import com.ecommerce_app.service.interfaces.TagService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -14,6 +15,7 @@ import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 import java.util.UUID;
@@ -28,9 +30,11 @@ import java.util.UUID;
 public class TagController {
 
     private final TagService tagService;
+    private final CatalogVersionService catalogVersionService;
 
-    public TagController(TagService tagService) {
+    public TagController(TagService tagService, CatalogVersionService catalogVersionService) {
         this.tagService = tagService;
+        this.catalogVersionService = catalogVersionService;
     }
 
     /**
@@ -65,11 +69,39 @@ public class TagController {
             @ApiResponse(responseCode = "404", description = "Tag not found")
     })
     public ApiResult<TagResponse> getTag(
-            @Parameter(description = "ID of the tag to retrieve") @PathVariable UUID id) {
+            @Parameter(description = "ID of the tag to retrieve") @PathVariable UUID id,
+            WebRequest webRequest) {
+        if (catalogVersionService.isTagNotModified(id, webRequest)) {
+            return null;
+        }
         TagResponse response = tagService.getTagById(id);
         return ApiResult.success("Tag successfully retrieved", response);
     }
 
+    /**
+     * Retrieves a tag by its slug.
+     *
+     * @param slug The slug of the tag to retrieve
+     * @return ApiResult containing the tag response
+     */
+    @GetMapping("/slug/{slug}")
+    @Operation(summary = "Get tag by slug", description = "Retrieves a tag based on its slug")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Tag successfully retrieved",
+                    content = @Content(schema = @Schema(implementation = ApiResult.class))),
+            @ApiResponse(responseCode = "301", description = "Tag slug was renamed"),
+            @ApiResponse(responseCode = "404", description = "Tag not found")
+    })
+    public ApiResult<TagResponse> getTagBySlug(
+            @Parameter(description = "Slug of the tag to retrieve") @PathVariable String slug,
+            WebRequest webRequest) {
+        if (catalogVersionService.isTagBySlugNotModified(slug, webRequest)) {
+            return null;
+        }
+        TagResponse response = tagService.getTagBySlug(slug);
+        return ApiResult.success("Tag successfully retrieved", response);
+    }
+
     /**
      * Retrieves all tags.
      *
@@ -79,7 +111,10 @@ public class TagController {
     @Operation(summary = "Get all tags", description = "Retrieves a list of all tags")
     @ApiResponse(responseCode = "200", description = "Tags successfully retrieved",
             content = @Content(schema = @Schema(implementation = ApiResult.class)))
-    public ApiResult<List<TagResponse>> getAllTags() {
+    public ApiResult<List<TagResponse>> getAllTags(WebRequest webRequest) {
+        if (catalogVersionService.isTagListNotModified(webRequest)) {
+            return null;
+        }
         List<TagResponse> responses = tagService.getAllTags();
         return ApiResult.success("Tags successfully retrieved", responses);
     }
@@ -0,0 +1,21 @@
+package com.ecommerce_app.dto.request;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class CartItemBatchRequest {
+    @NotEmpty(message = "At least one item is required")
+    @Size(max = 200, message = "At most 200 items can be added at once")
+    @Valid
+    List<CartItemCreationRequest> items;
+}
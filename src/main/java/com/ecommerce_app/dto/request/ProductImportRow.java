@@ -0,0 +1,77 @@
+package com.ecommerce_app.dto.request;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * One product in a bulk import file. Categories and tags are referenced by slug or name.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductImportRow {
+
+    @NotBlank(message = "Product name is required")
+    @Size(min = 2, max = 255, message = "Product name must be between 2 and 255 characters")
+    private String name;
+
+    @Size(max = 2000, message = "Description cannot exceed 2000 characters")
+    private String description;
+
+    @NotNull(message = "Price is required")
+    @DecimalMin(value = "0.01", message = "Price must be greater than 0")
+    @Digits(integer = 8, fraction = 2, message = "Price must have at most 8 digits in whole part and 2 digits in decimal part")
+    private BigDecimal price;
+
+    @Pattern(regexp = "^[a-z0-9-]+$", message = "Slug must contain only lowercase letters, numbers, and hyphens")
+    private String slug;
+
+    private String sku;
+
+    private Boolean active;
+
+    @DecimalMin(value = "0.0", message = "Weight cannot be negative")
+    private BigDecimal weight;
+
+    private String dimensions;
+
+    @Builder.Default
+    private List<String> categories = new ArrayList<>();
+
+    @Builder.Default
+    private List<String> tags = new ArrayList<>();
+
+    @Builder.Default
+    @Valid
+    private List<Variant> variants = new ArrayList<>();
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Variant {
+
+        @NotBlank(message = "Variant name is required")
+        @Size(min = 1, max = 255, message = "Variant name must be between 1 and 255 characters")
+        private String name;
+
+        private String sku;
+
+        @DecimalMin(value = "-99999.99", message = "Price difference cannot be less than -99999.99")
+        @DecimalMax(value = "99999.99", message = "Price difference cannot be more than 99999.99")
+        @Digits(integer = 5, fraction = 2, message = "Price difference must have at most 5 digits in whole part and 2 digits in decimal part")
+        private BigDecimal priceDifference;
+
+        @Min(value = 0, message = "Stock quantity cannot be negative")
+        private Integer stockQuantity;
+    }
+}
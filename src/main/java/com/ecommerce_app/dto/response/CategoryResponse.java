@@ -36,4 +36,9 @@ public class CategoryResponse {
     private LocalDateTime updatedAt;
 
     private int productCount;
+
+    /**
+     * Product links of this category and every category below it
+     */
+    private int totalProductCount;
 }
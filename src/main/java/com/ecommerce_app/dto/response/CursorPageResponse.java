@@ -0,0 +1,40 @@
+package com.ecommerce_app.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.function.Function;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CursorPageResponse<T> {
+
+    private List<T> content;
+    private int size;
+    private boolean hasNext;
+    private String nextCursor;
+
+    /**
+     * Build a page from a query that fetched one row more than the page size
+     *
+     * @param rows     Up to {@code size + 1} rows; the extra row only signals that another page exists
+     * @param size     The page size
+     * @param cursorOf Encodes the cursor pointing after a row
+     * @return The page, with a next cursor when more rows exist
+     */
+    public static <T> CursorPageResponse<T> of(List<T> rows, int size, Function<T, String> cursorOf) {
+        boolean hasNext = rows.size() > size;
+        List<T> content = hasNext ? rows.subList(0, size) : rows;
+        return CursorPageResponse.<T>builder()
+                .content(content)
+                .size(size)
+                .hasNext(hasNext)
+                .nextCursor(hasNext ? cursorOf.apply(content.get(content.size() - 1)) : null)
+                .build();
+    }
+}
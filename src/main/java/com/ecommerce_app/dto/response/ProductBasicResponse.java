@@ -6,6 +6,7 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.UUID;
 
 @Data
@@ -19,4 +20,5 @@ public class ProductBasicResponse {
     private BigDecimal price;
     private Boolean active;
     private String mainImageUrl;
+    private LocalDateTime createdAt;
 }
\ No newline at end of file
@@ -0,0 +1,45 @@
+package com.ecommerce_app.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductExportResponse {
+    private UUID id;
+    private String name;
+    private String description;
+    private BigDecimal price;
+    private String slug;
+    private String sku;
+    private Boolean active;
+    private BigDecimal weight;
+    private String dimensions;
+    private List<UUID> categoryIds;
+    private List<UUID> tagIds;
+    private List<Variant> variants;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Variant {
+        private UUID id;
+        private String name;
+        private String sku;
+        private BigDecimal priceDifference;
+        private Integer stockQuantity;
+        private Integer reservedQuantity;
+    }
+}
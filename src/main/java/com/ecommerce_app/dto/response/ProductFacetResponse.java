@@ -0,0 +1,35 @@
+package com.ecommerce_app.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.domain.Page;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductFacetResponse {
+    private Page<ProductBasicResponse> products;
+    private Map<UUID, Integer> categoryCounts;
+    private Map<UUID, Integer> tagCounts;
+    private List<PriceBandCount> priceBands;
+    private Integer inStockCount;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class PriceBandCount {
+        private Integer index;
+        private BigDecimal minPrice;
+        private BigDecimal maxPrice;
+        private Integer count;
+    }
+}
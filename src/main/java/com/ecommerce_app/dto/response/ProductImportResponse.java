@@ -0,0 +1,36 @@
+package com.ecommerce_app.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductImportResponse {
+    private UUID jobId;
+    private String status;
+    private Long processedRows;
+    private Long importedRows;
+    private Long failedRows;
+    private List<RowError> errors;
+    private Boolean errorsTruncated;
+    private String message;
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class RowError {
+        private Long row;
+        private String message;
+    }
+}
@@ -0,0 +1,60 @@
+package com.ecommerce_app.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * The variant picked by a set of attribute values, and what can still be picked from there
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class VariantSelectionResponse {
+    private UUID productId;
+    @Builder.Default
+    private Map<String, String> selection = new LinkedHashMap<>();
+    /**
+     * The variant whose attributes are exactly the selection, or null if there is none
+     */
+    private UUID variantId;
+    private boolean variantAvailable;
+    /**
+     * Whether some in-stock variant still matches the selection
+     */
+    private boolean selectionAvailable;
+    @Builder.Default
+    private List<Attribute> attributes = new ArrayList<>();
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Attribute {
+        private String name;
+        @Builder.Default
+        private List<Option> options = new ArrayList<>();
+    }
+
+    /**
+     * A value of an attribute; available if choosing it, with the rest of the selection kept,
+     * still leaves an in-stock variant
+     */
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Option {
+        private String value;
+        private boolean selected;
+        private boolean available;
+    }
+}
@@ -9,7 +9,9 @@ import java.util.HashSet;
 import java.util.Set;
 
 @Entity
-@Table(name = "carts")
+@Table(name = "carts", indexes = {
+        @Index(name = "idx_carts_updated_at", columnList = "updated_at")
+})
 @Setter
 @Getter
 @NoArgsConstructor
@@ -29,4 +31,11 @@ public class Cart  extends BaseEntity {
     @ManyToOne
     @JoinColumn(name = "coupon_id")
     Coupon appliedCoupon;
+
+    /**
+     * Also bumped by the in-place total updates in {@code CartRepository}, so saving a cart read
+     * before a concurrent item edit fails instead of writing back a stale total
+     */
+    @Version
+    Long version;
 }
@@ -32,4 +32,7 @@ public class CartItem extends BaseEntity {
 
     @Column(precision = 10, scale = 2)
     BigDecimal price;
+
+    @Version
+    Long version;
 }
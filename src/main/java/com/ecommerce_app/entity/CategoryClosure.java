@@ -0,0 +1,52 @@
+package com.ecommerce_app.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+import java.io.Serializable;
+import java.util.UUID;
+
+/**
+ * One ancestor/descendant pair of the category hierarchy, including each category paired with
+ * itself at depth 0. The primary key serves descendant lookups and the descendant index serves
+ * ancestor lookups, so both are a single indexed query however deep the tree is.
+ */
+@Entity
+@Table(name = "category_closures", indexes = {
+        @Index(name = "idx_category_closures_descendant_depth", columnList = "descendant_id, depth")
+})
+@IdClass(CategoryClosure.Key.class)
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class CategoryClosure {
+
+    @Id
+    @JdbcTypeCode(SqlTypes.UUID)
+    @Column(name = "ancestor_id", nullable = false)
+    UUID ancestorId;
+
+    @Id
+    @JdbcTypeCode(SqlTypes.UUID)
+    @Column(name = "descendant_id", nullable = false)
+    UUID descendantId;
+
+    @Column(nullable = false)
+    int depth;
+
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @EqualsAndHashCode
+    @FieldDefaults(level = AccessLevel.PRIVATE)
+    public static class Key implements Serializable {
+        UUID ancestorId;
+        UUID descendantId;
+    }
+}
@@ -0,0 +1,35 @@
+package com.ecommerce_app.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+import java.util.UUID;
+
+/**
+ * Running product link counts of one category, adjusted in the same transaction as every change to
+ * {@code product_categories} and to the category hierarchy. The total covers the category and all
+ * categories below it; a product linked at several levels of one subtree counts once per link.
+ */
+@Entity
+@Table(name = "category_product_counts")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class CategoryProductCount {
+
+    @Id
+    @JdbcTypeCode(SqlTypes.UUID)
+    @Column(name = "category_id", nullable = false)
+    UUID categoryId;
+
+    @Column(name = "direct_count", nullable = false)
+    long directCount;
+
+    @Column(name = "total_count", nullable = false)
+    long totalCount;
+}
@@ -0,0 +1,48 @@
+package com.ecommerce_app.entity;
+
+import com.ecommerce_app.constant.EmailOutboxStatus;
+import jakarta.persistence.*;
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+import lombok.experimental.SuperBuilder;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "email_outbox", indexes = {
+        @Index(name = "idx_email_outbox_status_next_attempt", columnList = "status, next_attempt_at"),
+        @Index(name = "idx_email_outbox_status_sent_at", columnList = "status, sent_at")
+})
+@Getter
+@Setter
+@SuperBuilder
+@NoArgsConstructor
+@AllArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class EmailOutbox extends BaseEntity {
+
+    @Column(nullable = false)
+    String recipient;
+
+    @Column(nullable = false)
+    String subject;
+
+    @Column(nullable = false, columnDefinition = "text")
+    String body;
+
+    @Builder.Default
+    @Column(nullable = false, length = 20)
+    String status = EmailOutboxStatus.PENDING;
+
+    @Builder.Default
+    @Column(nullable = false)
+    Integer attempts = 0;
+
+    @Column(nullable = false)
+    LocalDateTime nextAttemptAt;
+
+    @Column(length = 1000)
+    String lastError;
+
+    LocalDateTime sentAt;
+}
@@ -4,6 +4,8 @@ import java.util.Date;
 
 import jakarta.persistence.Entity;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
 
 import lombok.*;
 import lombok.experimental.FieldDefaults;
@@ -15,6 +17,7 @@ import lombok.experimental.FieldDefaults;
 @AllArgsConstructor
 @FieldDefaults(level = AccessLevel.PRIVATE)
 @Entity
+@Table(indexes = @Index(name = "idx_invalidated_token_expiry_time", columnList = "expiry_time"))
 public class InvalidatedToken {
     @Id
     String id;
@@ -9,7 +9,10 @@ import java.util.Set;
 import java.util.UUID;
 
 @Entity
-@Table(name = "orders")
+@Table(name = "orders", indexes = {
+        @Index(name = "idx_orders_created_at_id", columnList = "created_at, id"),
+        @Index(name = "idx_orders_user_created_at_id", columnList = "user_id, created_at, id")
+})
 @Setter
 @Getter
 @NoArgsConstructor
@@ -37,4 +37,17 @@ public class OrderItem extends BaseEntity {
     BigDecimal totalPrice;
 
     String variantInfo;
+
+    /**
+     * Sets the unit price from the product price plus the chosen variant's price difference, the
+     * same price the cart line was added at, and the total price from the unit price and the quantity.
+     */
+    public void applyPricing() {
+        BigDecimal price = product.getPrice();
+        if (productVariant != null && productVariant.getPriceDifference() != null) {
+            price = price.add(productVariant.getPriceDifference());
+        }
+        unitPrice = price;
+        totalPrice = price.multiply(BigDecimal.valueOf(quantity));
+    }
 }
@@ -7,7 +7,10 @@ import lombok.experimental.SuperBuilder;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "password_reset_tokens")
+@Table(name = "password_reset_tokens", indexes = {
+        @Index(name = "idx_password_reset_tokens_token", columnList = "token"),
+        @Index(name = "idx_password_reset_tokens_expiry_date", columnList = "expiry_date")
+})
 @Getter
 @Setter
 @NoArgsConstructor
@@ -0,0 +1,41 @@
+package com.ecommerce_app.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+import lombok.experimental.SuperBuilder;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+import java.util.UUID;
+
+/**
+ * A slug a product, category or tag used to have, kept so links to it keep redirecting to the
+ * entity's current slug. The rows of an entity are dropped when it is deleted.
+ */
+@Entity
+@Table(name = "slug_history", indexes = {
+        @Index(name = "uk_slug_history_type_old_slug", columnList = "type, old_slug", unique = true),
+        @Index(name = "idx_slug_history_type_target", columnList = "type, target_id")
+})
+@Getter
+@Setter
+@SuperBuilder
+@NoArgsConstructor
+@AllArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class SlugHistory extends BaseEntity {
+
+    /**
+     * One of {@link com.ecommerce_app.constant.SlugType}
+     */
+    @Column(nullable = false, length = 20)
+    String type;
+
+    @Column(name = "old_slug", nullable = false)
+    String oldSlug;
+
+    @JdbcTypeCode(SqlTypes.UUID)
+    @Column(name = "target_id", nullable = false)
+    UUID targetId;
+}
@@ -0,0 +1,12 @@
+package com.ecommerce_app.event;
+
+import java.util.UUID;
+
+/**
+ * Published when a category is created, changed, moved or deleted. Products in a renamed
+ * category get their own {@link ProductChangedEvent}s.
+ *
+ * @param categoryId The id of the affected category
+ */
+public record CategoryChangedEvent(UUID categoryId) {
+}
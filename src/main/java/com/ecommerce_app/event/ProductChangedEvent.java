@@ -0,0 +1,21 @@
+package com.ecommerce_app.event;
+
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Published when a product, or anything rendered as part of it, is created, changed or deleted.
+ * Listeners reload the product by id and treat a missing product as deleted.
+ *
+ * @param productId            The id of the affected product
+ * @param categoryIds          Every category the product was or is linked to, if the publisher
+ *                             knows them; null leaves listeners to look up the current links
+ * @param categoryLinksChanged Whether the product gained or lost category links, which changes
+ *                             category product counts
+ */
+public record ProductChangedEvent(UUID productId, Set<UUID> categoryIds, boolean categoryLinksChanged) {
+
+    public ProductChangedEvent(UUID productId) {
+        this(productId, null, false);
+    }
+}
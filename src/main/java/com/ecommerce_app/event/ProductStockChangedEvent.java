@@ -0,0 +1,11 @@
+package com.ecommerce_app.event;
+
+import java.util.UUID;
+
+/**
+ * Published when inventory for any variant of a product changes, so in-stock views can be refreshed
+ *
+ * @param productId The product whose variant inventory changed
+ */
+public record ProductStockChangedEvent(UUID productId) {
+}
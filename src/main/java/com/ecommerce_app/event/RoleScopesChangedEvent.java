@@ -0,0 +1,7 @@
+package com.ecommerce_app.event;
+
+/**
+ * Published when roles or permissions change in a way that affects the scope claim of issued tokens.
+ */
+public record RoleScopesChangedEvent() {
+}
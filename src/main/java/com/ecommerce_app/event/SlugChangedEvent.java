@@ -0,0 +1,14 @@
+package com.ecommerce_app.event;
+
+import java.util.UUID;
+
+/**
+ * Published when a product, category or tag gets, changes or loses its slug.
+ *
+ * @param type         One of {@link com.ecommerce_app.constant.SlugType}
+ * @param id           The id of the product, category or tag
+ * @param previousSlug The slug before the change, or null if it is new
+ * @param slug         The slug after the change, or null if it was deleted
+ */
+public record SlugChangedEvent(String type, UUID id, String previousSlug, String slug) {
+}
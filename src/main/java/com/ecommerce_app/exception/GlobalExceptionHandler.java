@@ -13,7 +13,10 @@ import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.context.request.ServletWebRequest;
 import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.servlet.mvc.method.annotation.ResponseEntityExceptionHandler;
+import org.springframework.web.util.UriUtils;
 
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.AccessDeniedException;
 import java.time.LocalDateTime;
 import java.util.HashMap;
@@ -39,6 +42,34 @@ public class GlobalExceptionHandler extends ResponseEntityExceptionHandler {
         return new ResponseEntity<>(response, HttpStatus.NOT_FOUND);
     }
 
+    @ExceptionHandler(UnknownSlugException.class)
+    public ResponseEntity<ApiResult<ErrorDetails>> handleUnknownSlugException(
+            UnknownSlugException ex, WebRequest request) {
+        // Mostly crawlers and stale links; not worth a stack trace
+        log.debug("Unknown slug: {}", ex.getMessage());
+        ErrorDetails errorDetails = ErrorDetails.builder()
+                .timestamp(LocalDateTime.now())
+                .message(ex.getMessage())
+                .details(request.getDescription(false))
+                .status(HttpStatus.NOT_FOUND.value())
+                .error(HttpStatus.NOT_FOUND.getReasonPhrase())
+                .build();
+
+        ApiResult<ErrorDetails> response = ApiResult.error(ex.getMessage(), errorDetails);
+        return new ResponseEntity<>(response, HttpStatus.NOT_FOUND);
+    }
+
+    @ExceptionHandler(SlugMovedException.class)
+    public ResponseEntity<ApiResult<Void>> handleSlugMovedException(SlugMovedException ex, WebRequest request) {
+        // The slug is always the last path segment of the slug endpoints
+        String path = ((ServletWebRequest) request).getRequest().getRequestURI();
+        String location = path.substring(0, path.lastIndexOf('/') + 1)
+                + UriUtils.encodePathSegment(ex.getSlug(), StandardCharsets.UTF_8);
+        return ResponseEntity.status(HttpStatus.MOVED_PERMANENTLY)
+                .location(URI.create(location))
+                .body(ApiResult.error(ex.getMessage(), null));
+    }
+
     @ExceptionHandler(ResourceAlreadyExistsException.class)
     public ResponseEntity<ApiResult<ErrorDetails>> handleResourceAlreadyExistsException(
             ResourceAlreadyExistsException ex, WebRequest request) {
@@ -55,6 +86,22 @@ public class GlobalExceptionHandler extends ResponseEntityExceptionHandler {
         return new ResponseEntity<>(response, HttpStatus.CONFLICT);
     }
 
+    @ExceptionHandler(ConcurrentUpdateException.class)
+    public ResponseEntity<ApiResult<ErrorDetails>> handleConcurrentUpdateException(
+            ConcurrentUpdateException ex, WebRequest request) {
+        log.warn("Request rejected: {}", ex.getMessage());
+        ErrorDetails errorDetails = ErrorDetails.builder()
+                .timestamp(LocalDateTime.now())
+                .message(ex.getMessage())
+                .details(request.getDescription(false))
+                .status(HttpStatus.CONFLICT.value())
+                .error(HttpStatus.CONFLICT.getReasonPhrase())
+                .build();
+
+        ApiResult<ErrorDetails> response = ApiResult.error(ex.getMessage(), errorDetails);
+        return new ResponseEntity<>(response, HttpStatus.CONFLICT);
+    }
+
     @ExceptionHandler(BadRequestException.class)
     public ResponseEntity<ApiResult<ErrorDetails>> handleBadRequestException(
             BadRequestException ex, WebRequest request) {
@@ -87,6 +134,24 @@ public class GlobalExceptionHandler extends ResponseEntityExceptionHandler {
         return new ResponseEntity<>(response, HttpStatus.UNAUTHORIZED);
     }
 
+    @ExceptionHandler(TooManyRequestsException.class)
+    public ResponseEntity<ApiResult<ErrorDetails>> handleTooManyRequestsException(
+            TooManyRequestsException ex, WebRequest request) {
+        log.warn("Request rejected: {}", ex.getMessage());
+        ErrorDetails errorDetails = ErrorDetails.builder()
+                .timestamp(LocalDateTime.now())
+                .message(ex.getMessage())
+                .details(request.getDescription(false))
+                .status(HttpStatus.TOO_MANY_REQUESTS.value())
+                .error(HttpStatus.TOO_MANY_REQUESTS.getReasonPhrase())
+                .build();
+
+        ApiResult<ErrorDetails> response = ApiResult.error(ex.getMessage(), errorDetails);
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(response);
+    }
+
     @ExceptionHandler(AccessDeniedException.class)
     public ResponseEntity<ApiResult<ErrorDetails>> handleAccessDeniedException(
             AccessDeniedException ex, WebRequest request) {
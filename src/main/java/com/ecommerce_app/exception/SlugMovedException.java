@@ -0,0 +1,25 @@
+package com.ecommerce_app.exception;
+
+import lombok.Getter;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * A slug that was renamed; answered with a permanent redirect to the current slug.
+ */
+@Getter
+@ResponseStatus(HttpStatus.MOVED_PERMANENTLY)
+public class SlugMovedException extends RuntimeException {
+
+    private final String slug;
+
+    public SlugMovedException(String slug) {
+        super("Moved to slug: " + slug);
+        this.slug = slug;
+    }
+
+    @Override
+    public synchronized Throwable fillInStackTrace() {
+        return this;
+    }
+}
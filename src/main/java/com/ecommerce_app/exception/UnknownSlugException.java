@@ -0,0 +1,19 @@
+package com.ecommerce_app.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * A slug that names nothing. Thrown for every bot or stale link, so it carries no stack trace.
+ */
+@ResponseStatus(HttpStatus.NOT_FOUND)
+public class UnknownSlugException extends ResourceNotFoundException {
+    public UnknownSlugException(String message) {
+        super(message);
+    }
+
+    @Override
+    public synchronized Throwable fillInStackTrace() {
+        return this;
+    }
+}
@@ -25,6 +25,7 @@ public interface CartItemMapper {
     @Mapping(target = "id", ignore = true)
     @Mapping(target = "createdAt", ignore = true)
     @Mapping(target = "updatedAt", ignore = true)
+    @Mapping(target = "version", ignore = true)
     CartItem toCartItem(CartItemCreationRequest cartItemRequest);
 
     @Mapping(target = "cart", ignore = true)
@@ -34,6 +35,7 @@ public interface CartItemMapper {
     @Mapping(target = "id", ignore = true)
     @Mapping(target = "createdAt", ignore = true)
     @Mapping(target = "updatedAt", ignore = true)
+    @Mapping(target = "version", ignore = true)
     void updateCartItemFromDto(CartItemUpdateRequest updateRequest, @MappingTarget CartItem cartItem);
 
     default String getFirstProductImage(CartItem cartItem) {
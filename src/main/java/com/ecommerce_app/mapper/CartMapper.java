@@ -26,6 +26,7 @@ public interface CartMapper {
     @Mapping(target = "id", ignore = true)
     @Mapping(target = "createdAt", ignore = true)
     @Mapping(target = "updatedAt", ignore = true)
+    @Mapping(target = "version", ignore = true)
     Cart toCart(CartCreationRequest cartRequest);
 
     @Named("mapUser")
@@ -51,5 +52,6 @@ public interface CartMapper {
     @Mapping(target = "id", ignore = true)
     @Mapping(target = "createdAt", ignore = true)
     @Mapping(target = "updatedAt", ignore = true)
+    @Mapping(target = "version", ignore = true)
     void updateCartFromDto(CartUpdateRequest cartUpdateRequest, @MappingTarget Cart cart);
 }
@@ -35,6 +35,7 @@ public interface CategoryMapper {
     @Mapping(target = "parent", source = "parent")
     @Mapping(target = "subcategories", source = "subcategories")
     @Mapping(target = "productCount", ignore = true)
+    @Mapping(target = "totalProductCount", ignore = true)
     CategoryResponse toResponse(Category entity);
 
     CategoryBasicResponse toBasicResponseDto(Category entity);
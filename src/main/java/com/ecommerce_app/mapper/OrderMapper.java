@@ -26,7 +26,7 @@ public interface OrderMapper {
     @Mapping(target = "user.id", source = "userId")
     @Mapping(target = "billingAddress.id", source = "billingAddressId")
     @Mapping(target = "shippingAddress.id", source = "shippingAddressId")
-    @Mapping(target = "coupon.id", source = "couponId")
+    @Mapping(target = "coupon", ignore = true)
     @Mapping(target = "createdAt", ignore = true)
     @Mapping(target = "updatedAt", ignore = true)
     Order toEntity(OrderCreationRequest request);
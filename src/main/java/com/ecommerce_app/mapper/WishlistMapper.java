@@ -2,7 +2,9 @@ package com.ecommerce_app.mapper;
 
 import com.ecommerce_app.dto.request.WishlistCreationRequest;
 import com.ecommerce_app.dto.request.WishlistUpdateRequest;
+import com.ecommerce_app.dto.response.CategoryResponse;
 import com.ecommerce_app.dto.response.WishlistResponse;
+import com.ecommerce_app.entity.Category;
 import com.ecommerce_app.entity.Wishlist;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
@@ -37,6 +39,16 @@ public interface WishlistMapper {
     @Mapping(source = "user.id", target = "userId")
     WishlistResponse toResponse(Wishlist wishlist);
 
+    /**
+     * Converts a category of a wishlist product; wishlist responses carry no product counts.
+     *
+     * @param category the Category entity
+     * @return the CategoryResponse DTO
+     */
+    @Mapping(target = "productCount", ignore = true)
+    @Mapping(target = "totalProductCount", ignore = true)
+    CategoryResponse toCategoryResponse(Category category);
+
     /**
      * Updates Wishlist entity from WishlistUpdateRequest.
      *
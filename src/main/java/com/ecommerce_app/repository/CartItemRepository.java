@@ -4,9 +4,13 @@ import com.ecommerce_app.entity.Cart;
 import com.ecommerce_app.entity.CartItem;
 import com.ecommerce_app.entity.Product;
 import com.ecommerce_app.entity.ProductVariant;
+import com.ecommerce_app.repository.projection.CartLineRow;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -16,6 +20,16 @@ public interface CartItemRepository extends JpaRepository<CartItem, UUID> {
     List<CartItem> findByCartId(UUID cartId);
     List<CartItem> findByCart(Cart cart);
     Optional<CartItem> findByCartAndProductAndProductVariant(Cart cart, Product product, ProductVariant productVariant);
-    Optional<CartItem> findByCartAndProduct(Cart cart, Product product);
+    Optional<CartItem> findByCartAndProductAndProductVariantIsNull(Cart cart, Product product);
     void deleteByCartId(UUID cartId);
+
+    @Query("SELECT ci.id AS id, ci.product.id AS productId, v.id AS productVariantId, ci.quantity AS quantity, " +
+            "ci.price AS price FROM CartItem ci LEFT JOIN ci.productVariant v WHERE ci.cart.id = :cartId")
+    List<CartLineRow> findLinesByCartId(@Param("cartId") UUID cartId);
+
+    @Query("SELECT ci.quantity FROM CartItem ci WHERE ci.id = :id")
+    Integer findQuantityById(@Param("id") UUID id);
+
+    @Query("SELECT COALESCE(SUM(ci.price * ci.quantity), 0) FROM CartItem ci WHERE ci.cart.id = :cartId")
+    BigDecimal sumLineTotalsByCartId(@Param("cartId") UUID cartId);
 }
\ No newline at end of file
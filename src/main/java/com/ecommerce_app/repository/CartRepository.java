@@ -2,9 +2,16 @@ package com.ecommerce_app.repository;
 
 import com.ecommerce_app.entity.Cart;
 import com.ecommerce_app.entity.User;
+import com.ecommerce_app.repository.projection.CartVersionRow;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -13,4 +20,36 @@ public interface CartRepository extends JpaRepository<Cart, UUID> {
     Optional<Cart> findByUser(User user);
     Optional<Cart> findByUserId(UUID userId);
     boolean existsByUserId(UUID userId);
-}
\ No newline at end of file
+
+    /**
+     * Add the change of one line to the cart total in place, without reading the other lines
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Cart c SET c.totalAmount = COALESCE(c.totalAmount, 0) + :delta, c.updatedAt = :now, c.version = c.version + 1 WHERE c.id = :cartId")
+    int addToTotalAmount(@Param("cartId") UUID cartId, @Param("delta") BigDecimal delta, @Param("now") LocalDateTime now);
+
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Cart c SET c.totalAmount = :total, c.updatedAt = :now, c.version = c.version + 1 WHERE c.id = :cartId")
+    int setTotalAmount(@Param("cartId") UUID cartId, @Param("total") BigDecimal total, @Param("now") LocalDateTime now);
+
+    /**
+     * Find the carts edited since the given time whose total does not match their lines
+     */
+    @Query("SELECT c.id AS id, c.version AS version FROM Cart c " +
+            "WHERE c.updatedAt >= :since AND COALESCE(c.totalAmount, -1) <> " +
+            "(SELECT COALESCE(SUM(ci.price * ci.quantity), 0) FROM CartItem ci WHERE ci.cart = c)")
+    List<CartVersionRow> findDriftedTotalsUpdatedSince(@Param("since") LocalDateTime since);
+
+    /**
+     * Recompute the total of a cart from its lines unless the cart changed since its version was read
+     *
+     * @return 1 if the cart was repaired, 0 if an edit got there first
+     */
+    @Modifying
+    @Query(value = "UPDATE carts SET total_amount = " +
+            "(SELECT COALESCE(SUM(ci.price * ci.quantity), 0) FROM cart_items ci WHERE ci.cart_id = carts.id), " +
+            "version = version + 1 " +
+            "WHERE id = :cartId AND version = :version",
+            nativeQuery = true)
+    int repairTotal(@Param("cartId") UUID cartId, @Param("version") long version);
+}
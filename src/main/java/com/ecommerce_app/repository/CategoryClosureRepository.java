@@ -0,0 +1,72 @@
+package com.ecommerce_app.repository;
+
+import com.ecommerce_app.entity.Category;
+import com.ecommerce_app.entity.CategoryClosure;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface CategoryClosureRepository extends JpaRepository<CategoryClosure, CategoryClosure.Key> {
+
+    /**
+     * @return The ancestors of the category, root first, excluding the category itself
+     */
+    @Query("SELECT c FROM CategoryClosure cc JOIN Category c ON c.id = cc.ancestorId " +
+            "WHERE cc.descendantId = :categoryId AND cc.depth > 0 ORDER BY cc.depth DESC")
+    List<Category> findAncestors(@Param("categoryId") UUID categoryId);
+
+    /**
+     * @return Every category below the category, level by level, excluding the category itself
+     */
+    @Query("SELECT c FROM CategoryClosure cc JOIN Category c ON c.id = cc.descendantId " +
+            "WHERE cc.ancestorId = :categoryId AND cc.depth > 0 ORDER BY cc.depth, c.name")
+    List<Category> findDescendants(@Param("categoryId") UUID categoryId);
+
+    boolean existsByAncestorIdAndDescendantId(UUID ancestorId, UUID descendantId);
+
+    /**
+     * @return The ancestor links of the categories, each category's link to itself included
+     */
+    List<CategoryClosure> findByDescendantIdIn(Collection<UUID> descendantIds);
+
+    /**
+     * Link a new category below every ancestor of its parent (and the parent itself)
+     */
+    @Modifying(flushAutomatically = true)
+    @Query(value = "INSERT INTO category_closures (ancestor_id, descendant_id, depth) " +
+            "SELECT ancestor_id, :categoryId, depth + 1 FROM category_closures WHERE descendant_id = :parentId",
+            nativeQuery = true)
+    int insertAncestorLinks(@Param("categoryId") UUID categoryId, @Param("parentId") UUID parentId);
+
+    /**
+     * Unlink the subtree rooted at the category from everything above it, keeping the links within the subtree
+     */
+    @Modifying(flushAutomatically = true)
+    @Query(value = "DELETE FROM category_closures " +
+            "WHERE descendant_id IN (SELECT descendant_id FROM category_closures WHERE ancestor_id = :categoryId) " +
+            "AND ancestor_id NOT IN (SELECT descendant_id FROM category_closures WHERE ancestor_id = :categoryId)",
+            nativeQuery = true)
+    int detachSubtree(@Param("categoryId") UUID categoryId);
+
+    /**
+     * Link every category of the subtree rooted at the category below the parent and its ancestors
+     */
+    @Modifying(flushAutomatically = true)
+    @Query(value = "INSERT INTO category_closures (ancestor_id, descendant_id, depth) " +
+            "SELECT a.ancestor_id, d.descendant_id, a.depth + d.depth + 1 " +
+            "FROM category_closures a CROSS JOIN category_closures d " +
+            "WHERE a.descendant_id = :parentId AND d.ancestor_id = :categoryId",
+            nativeQuery = true)
+    int attachSubtree(@Param("categoryId") UUID categoryId, @Param("parentId") UUID parentId);
+
+    @Modifying(flushAutomatically = true)
+    @Query("DELETE FROM CategoryClosure cc WHERE cc.descendantId = :categoryId")
+    int deleteByDescendantId(@Param("categoryId") UUID categoryId);
+}
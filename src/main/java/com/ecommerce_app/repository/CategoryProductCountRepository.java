@@ -0,0 +1,53 @@
+package com.ecommerce_app.repository;
+
+import com.ecommerce_app.entity.CategoryProductCount;
+import com.ecommerce_app.repository.projection.CategoryProductCountRow;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+public interface CategoryProductCountRepository extends JpaRepository<CategoryProductCount, UUID> {
+
+    @Query("SELECT c.categoryId AS categoryId, c.directCount AS directCount, c.totalCount AS totalCount " +
+            "FROM CategoryProductCount c WHERE c.categoryId IN :categoryIds")
+    List<CategoryProductCountRow> findByCategoryIdIn(@Param("categoryIds") Collection<UUID> categoryIds);
+
+    /**
+     * Read from the table rather than the persistence context, which native adjustments bypass
+     */
+    @Query("SELECT c.totalCount FROM CategoryProductCount c WHERE c.categoryId = :categoryId")
+    Optional<Long> findTotalCountByCategoryId(@Param("categoryId") UUID categoryId);
+
+    /**
+     * Recount every existing row from {@code product_categories} and the closure table
+     */
+    @Modifying
+    @Query(value = "UPDATE category_product_counts SET " +
+            "direct_count = (SELECT COUNT(*) FROM product_categories pc WHERE pc.category_id = category_product_counts.category_id), " +
+            "total_count = (SELECT COUNT(*) FROM category_closures cc JOIN product_categories pc ON pc.category_id = cc.descendant_id " +
+            "WHERE cc.ancestor_id = category_product_counts.category_id)",
+            nativeQuery = true)
+    int recountAll();
+
+    /**
+     * Count the categories that have no row yet
+     */
+    @Modifying
+    @Query(value = "INSERT INTO category_product_counts (category_id, direct_count, total_count) " +
+            "SELECT c.id, " +
+            "(SELECT COUNT(*) FROM product_categories pc WHERE pc.category_id = c.id), " +
+            "(SELECT COUNT(*) FROM category_closures cc JOIN product_categories pc ON pc.category_id = cc.descendant_id " +
+            "WHERE cc.ancestor_id = c.id) " +
+            "FROM categories c WHERE NOT EXISTS " +
+            "(SELECT 1 FROM category_product_counts cpc WHERE cpc.category_id = c.id)",
+            nativeQuery = true)
+    int insertMissingCounts();
+}
@@ -2,10 +2,16 @@ package com.ecommerce_app.repository;
 
 
 import com.ecommerce_app.entity.Category;
+import com.ecommerce_app.repository.projection.CategoryProductCountRow;
+import com.ecommerce_app.repository.projection.CategoryTreeRow;
+import com.ecommerce_app.repository.projection.NamedRefRow;
+import com.ecommerce_app.repository.projection.VersionRow;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -29,4 +35,41 @@ public interface CategoryRepository extends JpaRepository<Category, UUID> {
 
     @Query("SELECT COUNT(p) FROM Category c JOIN c.products p WHERE c.id = :categoryId")
     int countProductsByCategoryId(UUID categoryId);
+
+    /**
+     * Direct and subtree product link counts of a page of categories in one grouped query.
+     * Categories without any products are not returned.
+     */
+    @Query("SELECT cc.ancestorId AS categoryId, SUM(CASE WHEN cc.depth = 0 THEN 1 ELSE 0 END) AS directCount, " +
+            "COUNT(p) AS totalCount FROM CategoryClosure cc JOIN Category c ON c.id = cc.descendantId JOIN c.products p " +
+            "WHERE cc.ancestorId IN :categoryIds GROUP BY cc.ancestorId")
+    List<CategoryProductCountRow> findProductCountsByCategoryIdIn(@Param("categoryIds") Collection<UUID> categoryIds);
+
+    @Query("SELECT MAX(p.updatedAt) AS updatedAt, COUNT(p) AS count FROM Category c JOIN c.products p WHERE c.id = :categoryId")
+    VersionRow findProductsVersionByCategoryId(UUID categoryId);
+
+    @Query("SELECT c.id FROM Category c WHERE c.slug = :slug ORDER BY c.createdAt")
+    List<UUID> findIdsBySlug(String slug);
+
+    @Query("SELECT c.slug FROM Category c WHERE c.id = :id")
+    Optional<String> findSlugById(@Param("id") UUID id);
+
+    /**
+     * Product links change product rows as well, so this covers every category's product count
+     */
+    @Query("SELECT MAX(p.updatedAt) AS updatedAt, COUNT(p) AS count FROM Category c JOIN c.products p")
+    VersionRow findProductsVersion();
+
+    @Query("SELECT MAX(c.updatedAt) AS updatedAt, COUNT(c) AS count FROM Category c")
+    VersionRow findVersion();
+
+    @Query("SELECT c.id AS id, c.name AS name, c.slug AS slug FROM Category c")
+    List<NamedRefRow> findAllRefs();
+
+    /**
+     * Every category with its parent id, to build the whole tree from one query
+     */
+    @Query("SELECT c.id AS id, p.id AS parentId, c.name AS name, c.slug AS slug, c.imageUrl AS imageUrl " +
+            "FROM Category c LEFT JOIN c.parent p")
+    List<CategoryTreeRow> findAllTreeRows();
 }
\ No newline at end of file
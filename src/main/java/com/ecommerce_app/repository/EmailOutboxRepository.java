@@ -0,0 +1,38 @@
+package com.ecommerce_app.repository;
+
+import com.ecommerce_app.entity.EmailOutbox;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface EmailOutboxRepository extends JpaRepository<EmailOutbox, UUID> {
+
+    /**
+     * Locks up to {@code limit} pending messages that are due for delivery.
+     * Rows locked by another dispatcher are skipped, so several nodes can drain the outbox concurrently.
+     */
+    @Query(value = "SELECT * FROM email_outbox WHERE status = 'PENDING' AND next_attempt_at <= :now " +
+            "ORDER BY next_attempt_at LIMIT :limit FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<EmailOutbox> lockDueBatch(@Param("now") LocalDateTime now, @Param("limit") int limit);
+
+    /**
+     * Deletes at most {@code limit} messages sent before {@code before}, in its own transaction.
+     * Rows locked by a concurrent purge are skipped, so several nodes can run it at the same time.
+     *
+     * @return The number of deleted rows; fewer than {@code limit} means nothing older is left
+     */
+    @Transactional
+    @Modifying
+    @Query(value = "DELETE FROM email_outbox WHERE id IN (" +
+            "SELECT id FROM email_outbox WHERE status = 'SENT' AND sent_at < :before " +
+            "LIMIT :limit FOR UPDATE SKIP LOCKED)", nativeQuery = true)
+    int deleteSentBatch(@Param("before") LocalDateTime before, @Param("limit") int limit);
+}
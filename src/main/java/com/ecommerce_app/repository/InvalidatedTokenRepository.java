@@ -2,7 +2,28 @@ package com.ecommerce_app.repository;
 
 import com.ecommerce_app.entity.InvalidatedToken;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Date;
+import java.util.List;
 
 @Repository
-public interface InvalidatedTokenRepository extends JpaRepository<InvalidatedToken, String> {}
+public interface InvalidatedTokenRepository extends JpaRepository<InvalidatedToken, String> {
+
+    List<InvalidatedToken> findAllByExpiryTimeAfter(Date time);
+
+    /**
+     * Deletes up to {@code limit} expired rows in its own transaction.
+     * Rows already locked by another node are skipped, so concurrent purges never block each other.
+     */
+    @Transactional
+    @Modifying
+    @Query(value = "DELETE FROM invalidated_token WHERE id IN (" +
+            "SELECT id FROM invalidated_token WHERE expiry_time < :now " +
+            "LIMIT :limit FOR UPDATE SKIP LOCKED)", nativeQuery = true)
+    int deleteExpiredBatch(@Param("now") Date now, @Param("limit") int limit);
+}
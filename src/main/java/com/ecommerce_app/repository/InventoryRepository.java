@@ -6,6 +6,8 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -21,4 +23,12 @@ public interface InventoryRepository extends JpaRepository<Inventory, UUID> {
 
     @Query("SELECT COUNT(i) > 0 FROM Inventory i WHERE i.productVariant.id = :productVariantId")
     boolean existsByProductVariantId(@Param("productVariantId") UUID productVariantId);
+
+    @Query("SELECT DISTINCT v.product.id FROM Inventory i JOIN i.productVariant v " +
+            "WHERE i.stockQuantity - COALESCE(i.reservedQuantity, 0) > 0")
+    List<UUID> findProductIdsInStock();
+
+    @Query("SELECT DISTINCT v.product.id FROM Inventory i JOIN i.productVariant v " +
+            "WHERE v.product.id IN :productIds AND i.stockQuantity - COALESCE(i.reservedQuantity, 0) > 0")
+    List<UUID> findProductIdsInStock(@Param("productIds") Collection<UUID> productIds);
 }
@@ -24,6 +24,22 @@ public interface OrderRepository extends JpaRepository<Order, UUID> {
 
     Page<Order> findByStatusOrderByCreatedAtDesc(OrderStatus status, Pageable pageable);
 
+    @Query("SELECT o FROM Order o ORDER BY o.createdAt DESC, o.id DESC")
+    List<Order> findNewestFirst(Pageable limit);
+
+    @Query("SELECT o FROM Order o WHERE (o.createdAt, o.id) < (:createdAt, :id) ORDER BY o.createdAt DESC, o.id DESC")
+    List<Order> findNewestFirstAfter(@Param("createdAt") LocalDateTime createdAt, @Param("id") UUID id, Pageable limit);
+
+    @Query("SELECT o FROM Order o WHERE o.user.id = :userId ORDER BY o.createdAt DESC, o.id DESC")
+    List<Order> findByUserIdNewestFirst(@Param("userId") UUID userId, Pageable limit);
+
+    @Query("SELECT o FROM Order o WHERE o.user.id = :userId AND (o.createdAt, o.id) < (:createdAt, :id) " +
+            "ORDER BY o.createdAt DESC, o.id DESC")
+    List<Order> findByUserIdNewestFirstAfter(@Param("userId") UUID userId,
+                                             @Param("createdAt") LocalDateTime createdAt,
+                                             @Param("id") UUID id,
+                                             Pageable limit);
+
     Optional<Order> findByOrderNumber(String orderNumber);
 
     List<Order> findByUserAndCreatedAtBetween(User user, LocalDateTime start, LocalDateTime end);
@@ -2,8 +2,25 @@ package com.ecommerce_app.repository;
 
 import com.ecommerce_app.entity.PasswordResetToken;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
 import java.util.Optional;
 
 public interface PasswordResetTokenRepository extends JpaRepository<PasswordResetToken, Long> {
     Optional<PasswordResetToken> findByToken(String token);
+
+    /**
+     * Deletes up to {@code limit} expired reset tokens in its own transaction.
+     * Rows already locked by another node are skipped, so concurrent purges never block each other.
+     */
+    @Transactional
+    @Modifying
+    @Query(value = "DELETE FROM password_reset_tokens WHERE id IN (" +
+            "SELECT id FROM password_reset_tokens WHERE expiry_date < :now " +
+            "LIMIT :limit FOR UPDATE SKIP LOCKED)", nativeQuery = true)
+    int deleteExpiredBatch(@Param("now") LocalDateTime now, @Param("limit") int limit);
 }
@@ -1,16 +1,31 @@
 package com.ecommerce_app.repository;
 
 
+import com.ecommerce_app.dto.response.ProductBasicResponse;
 import com.ecommerce_app.entity.Product;
+import com.ecommerce_app.repository.projection.ProductFacetRow;
+import com.ecommerce_app.repository.projection.ProductLinkRow;
+import com.ecommerce_app.repository.projection.VersionRow;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 @Repository
 public interface ProductRepository extends JpaRepository<Product, UUID> {
@@ -23,16 +38,127 @@ public interface ProductRepository extends JpaRepository<Product, UUID> {
 
     boolean existsBySku(String sku);
 
-    Page<Product> findByActiveTrue(Pageable pageable);
+    @Query("SELECT MAX(CASE WHEN i.updatedAt > p.updatedAt THEN i.updatedAt ELSE p.updatedAt END) AS updatedAt, " +
+            "COUNT(i) AS count FROM Product p LEFT JOIN p.variants v LEFT JOIN v.inventory i WHERE p.id = :id")
+    VersionRow findVersionById(@Param("id") UUID id);
 
-    @Query("SELECT p FROM Product p WHERE p.active = true AND :categoryId IN (SELECT c.id FROM p.categories c)")
-    Page<Product> findByCategoryId(@Param("categoryId") UUID categoryId, Pageable pageable);
+    @Query("SELECT p.id FROM Product p WHERE p.slug = :slug ORDER BY p.createdAt")
+    List<UUID> findIdsBySlug(@Param("slug") String slug);
 
-    @Query("SELECT p FROM Product p WHERE p.active = true AND :tagId IN (SELECT t.id FROM p.tags t)")
-    Page<Product> findByTagId(@Param("tagId") UUID tagId, Pageable pageable);
+    @Query("SELECT p.slug FROM Product p WHERE p.id = :id")
+    Optional<String> findSlugById(@Param("id") UUID id);
 
-    @Query("SELECT p FROM Product p WHERE p.active = true AND " +
-            "(LOWER(p.name) LIKE LOWER(CONCAT('%', :keyword, '%')) OR " +
-            "LOWER(p.description) LIKE LOWER(CONCAT('%', :keyword, '%')))")
-    Page<Product> searchByKeyword(@Param("keyword") String keyword, Pageable pageable);
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Product p SET p.updatedAt = :updatedAt WHERE p.id IN :ids")
+    int touchUpdatedAt(@Param("ids") Collection<UUID> ids, @Param("updatedAt") LocalDateTime updatedAt);
+
+    @Query("SELECT p.slug FROM Product p WHERE p.slug IN :slugs")
+    Set<String> findExistingSlugs(@Param("slugs") Collection<String> slugs);
+
+    @Query("SELECT p.sku FROM Product p WHERE p.sku IN :skus")
+    Set<String> findExistingSkus(@Param("skus") Collection<String> skus);
+
+    /**
+     * Select clause for list pages: the basic columns plus the main image URL (or the first image
+     * by sort order when none is marked main), resolved in the same statement
+     */
+    String BASIC_SELECT = "SELECT new com.ecommerce_app.dto.response.ProductBasicResponse(" +
+            "p.id, p.name, p.slug, p.price, p.active, " +
+            "(SELECT i.imageUrl FROM ProductImage i WHERE i.product = p " +
+            "ORDER BY CASE WHEN i.isMain = true THEN 0 ELSE 1 END, i.sortOrder, i.id LIMIT 1), " +
+            "p.createdAt) " +
+            "FROM Product p ";
+
+    String KEYWORD_PREDICATE = "(LOWER(p.name) LIKE LOWER(CONCAT('%', :keyword, '%')) OR " +
+            "LOWER(p.description) LIKE LOWER(CONCAT('%', :keyword, '%')))";
+
+    /**
+     * Ids of products linked to the category or to any category below it, through the closure table
+     */
+    String CATEGORY_TREE_PRODUCT_IDS = "SELECT cp.id FROM Product cp JOIN cp.categories c " +
+            "JOIN CategoryClosure cc ON cc.descendantId = c.id WHERE cc.ancestorId = :categoryId";
+
+    /**
+     * Rows fetched per round trip when streaming the whole catalog
+     */
+    String EXPORT_FETCH_SIZE = "500";
+
+    @Query(value = BASIC_SELECT,
+            countQuery = "SELECT COUNT(p) FROM Product p")
+    Page<ProductBasicResponse> findAllBasic(Pageable pageable);
+
+    @Query(value = BASIC_SELECT + "WHERE p.active = true",
+            countQuery = "SELECT COUNT(p) FROM Product p WHERE p.active = true")
+    Page<ProductBasicResponse> findActiveBasic(Pageable pageable);
+
+    @Query(value = BASIC_SELECT + "WHERE p.active = true AND :categoryId IN (SELECT c.id FROM p.categories c)",
+            countQuery = "SELECT COUNT(p) FROM Product p WHERE p.active = true AND :categoryId IN (SELECT c.id FROM p.categories c)")
+    Page<ProductBasicResponse> findBasicByCategoryId(@Param("categoryId") UUID categoryId, Pageable pageable);
+
+    @Query(value = BASIC_SELECT + "WHERE p.active = true AND p.id IN (" + CATEGORY_TREE_PRODUCT_IDS + ")",
+            countQuery = "SELECT COUNT(p) FROM Product p WHERE p.active = true AND p.id IN (" + CATEGORY_TREE_PRODUCT_IDS + ")")
+    Page<ProductBasicResponse> findBasicByCategoryTree(@Param("categoryId") UUID categoryId, Pageable pageable);
+
+    @Query(value = BASIC_SELECT + "WHERE p.active = true AND :tagId IN (SELECT t.id FROM p.tags t)",
+            countQuery = "SELECT COUNT(p) FROM Product p WHERE p.active = true AND :tagId IN (SELECT t.id FROM p.tags t)")
+    Page<ProductBasicResponse> findBasicByTagId(@Param("tagId") UUID tagId, Pageable pageable);
+
+    @Query(value = BASIC_SELECT + "WHERE p.active = true AND " + KEYWORD_PREDICATE,
+            countQuery = "SELECT COUNT(p) FROM Product p WHERE p.active = true AND " + KEYWORD_PREDICATE)
+    Page<ProductBasicResponse> searchBasicByKeyword(@Param("keyword") String keyword, Pageable pageable);
+
+    @Query(BASIC_SELECT + "WHERE p.id IN :ids")
+    List<ProductBasicResponse> findBasicByIdIn(@Param("ids") Collection<UUID> ids);
+
+    @Query(BASIC_SELECT + "ORDER BY p.createdAt DESC, p.id DESC")
+    List<ProductBasicResponse> findBasicNewestFirst(Pageable limit);
+
+    @Query(BASIC_SELECT + "WHERE (p.createdAt, p.id) < (:createdAt, :id) ORDER BY p.createdAt DESC, p.id DESC")
+    List<ProductBasicResponse> findBasicNewestFirstAfter(@Param("createdAt") LocalDateTime createdAt,
+                                                         @Param("id") UUID id,
+                                                         Pageable limit);
+
+    @EntityGraph(attributePaths = {"categories", "tags"})
+    List<Product> findWithCategoriesAndTagsByIdIn(Collection<UUID> ids);
+
+    @EntityGraph(attributePaths = "images")
+    List<Product> findWithImagesByIdIn(Collection<UUID> ids);
+
+    @Query("SELECT p.id FROM Product p ORDER BY p.id")
+    Slice<UUID> findAllIds(Pageable pageable);
+
+    @Query("SELECT p.id FROM Product p WHERE p.updatedAt >= :since")
+    List<UUID> findIdsUpdatedSince(@Param("since") LocalDateTime since);
+
+    @Query("SELECT p.id AS id, p.price AS price, p.active AS active FROM Product p ORDER BY p.createdAt, p.id")
+    List<ProductFacetRow> findAllFacetRows();
+
+    @Query("SELECT p.id AS productId, c.id AS linkedId FROM Product p JOIN p.categories c")
+    List<ProductLinkRow> findAllCategoryLinks();
+
+    @Query("SELECT p.id AS productId, t.id AS linkedId FROM Product p JOIN p.tags t")
+    List<ProductLinkRow> findAllTagLinks();
+
+    @Query("SELECT p.id AS productId, c.id AS linkedId FROM Product p JOIN p.categories c WHERE p.id IN :productIds")
+    List<ProductLinkRow> findCategoryLinksByProductIdIn(@Param("productIds") Collection<UUID> productIds);
+
+    @Query("SELECT p.id AS productId, t.id AS linkedId FROM Product p JOIN p.tags t WHERE p.id IN :productIds")
+    List<ProductLinkRow> findTagLinksByProductIdIn(@Param("productIds") Collection<UUID> productIds);
+
+    /**
+     * Every product over a forward-only cursor that reads {@link #EXPORT_FETCH_SIZE} rows per round trip.
+     * Must be consumed inside a transaction and closed afterwards.
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = EXPORT_FETCH_SIZE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT p FROM Product p")
+    Stream<Product> streamAll();
+
+    @Query("SELECT p.id FROM Product p JOIN p.categories c WHERE c.id = :categoryId")
+    List<UUID> findIdsByCategoryId(@Param("categoryId") UUID categoryId);
+
+    @Query("SELECT p.id FROM Product p JOIN p.tags t WHERE t.id = :tagId")
+    List<UUID> findIdsByTagId(@Param("tagId") UUID tagId);
 }
@@ -1,13 +1,17 @@
 package com.ecommerce_app.repository;
 
 import com.ecommerce_app.entity.ProductVariant;
+import com.ecommerce_app.repository.projection.VariantMatrixRow;
+import com.ecommerce_app.repository.projection.VersionRow;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 
 @Repository
@@ -19,6 +23,9 @@ public interface ProductVariantRepository extends JpaRepository<ProductVariant,
 
     boolean existsBySku(String sku);
 
+    @Query("SELECT pv.sku FROM ProductVariant pv WHERE pv.sku IN :skus")
+    Set<String> findExistingSkus(@Param("skus") Collection<String> skus);
+
     @Query("SELECT pv FROM ProductVariant pv JOIN pv.attributes attr WHERE " +
             "pv.product.id = :productId AND attr.name = :attrName AND attr.value = :attrValue")
     List<ProductVariant> findByProductIdAndAttribute(
@@ -26,5 +33,21 @@ public interface ProductVariantRepository extends JpaRepository<ProductVariant,
             @Param("attrName") String attributeName,
             @Param("attrValue") String attributeValue);
 
+    @Query("SELECT pv.id AS variantId, attr.name AS attributeName, attr.value AS attributeValue, " +
+            "i.stockQuantity AS stockQuantity, i.reservedQuantity AS reservedQuantity " +
+            "FROM ProductVariant pv LEFT JOIN pv.attributes attr LEFT JOIN pv.inventory i " +
+            "WHERE pv.product.id = :productId ORDER BY pv.createdAt, pv.id")
+    List<VariantMatrixRow> findMatrixRowsByProductId(@Param("productId") UUID productId);
+
     void deleteByProductId(UUID productId);
+
+    @Query("SELECT MAX(CASE WHEN i.updatedAt > p.updatedAt THEN i.updatedAt ELSE p.updatedAt END) AS updatedAt, " +
+            "COUNT(i) AS count FROM ProductVariant pv JOIN pv.product p LEFT JOIN pv.inventory i WHERE pv.id = :variantId")
+    VersionRow findVersionById(@Param("variantId") UUID variantId);
+
+    @Query("SELECT pv FROM ProductVariant pv LEFT JOIN FETCH pv.inventory WHERE pv.product.id IN :productIds")
+    List<ProductVariant> findWithInventoryByProductIdIn(@Param("productIds") Collection<UUID> productIds);
+
+    @Query("SELECT pv FROM ProductVariant pv LEFT JOIN FETCH pv.inventory WHERE pv.id IN :ids")
+    List<ProductVariant> findWithInventoryByIdIn(@Param("ids") Collection<UUID> ids);
 }
\ No newline at end of file
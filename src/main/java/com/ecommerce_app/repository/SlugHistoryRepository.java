@@ -0,0 +1,26 @@
+package com.ecommerce_app.repository;
+
+import com.ecommerce_app.entity.SlugHistory;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+public interface SlugHistoryRepository extends JpaRepository<SlugHistory, UUID> {
+
+    @Query("SELECT h.targetId FROM SlugHistory h WHERE h.type = :type AND h.oldSlug = :oldSlug")
+    Optional<UUID> findTargetId(@Param("type") String type, @Param("oldSlug") String oldSlug);
+
+    @Modifying
+    @Query("DELETE FROM SlugHistory h WHERE h.type = :type AND h.oldSlug = :oldSlug")
+    int deleteByOldSlug(@Param("type") String type, @Param("oldSlug") String oldSlug);
+
+    @Modifying
+    @Query("DELETE FROM SlugHistory h WHERE h.type = :type AND h.targetId = :targetId")
+    int deleteByTargetId(@Param("type") String type, @Param("targetId") UUID targetId);
+}
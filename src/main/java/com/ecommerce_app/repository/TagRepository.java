@@ -1,9 +1,14 @@
 package com.ecommerce_app.repository;
 
 import com.ecommerce_app.entity.Tag;
+import com.ecommerce_app.repository.projection.NamedRefRow;
+import com.ecommerce_app.repository.projection.VersionRow;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -11,4 +16,19 @@ import java.util.UUID;
 public interface TagRepository extends JpaRepository<Tag, UUID> {
     Optional<Tag> findByName(String name);
     Optional<Tag> findBySlug(String slug);
+
+    @Query("SELECT t.id FROM Tag t WHERE t.slug = :slug ORDER BY t.createdAt")
+    List<UUID> findIdsBySlug(@Param("slug") String slug);
+
+    @Query("SELECT t.slug FROM Tag t WHERE t.id = :id")
+    Optional<String> findSlugById(@Param("id") UUID id);
+
+    @Query("SELECT MAX(t.updatedAt) AS updatedAt, COUNT(t) AS count FROM Tag t WHERE t.id = :id")
+    VersionRow findVersionById(@Param("id") UUID id);
+
+    @Query("SELECT MAX(t.updatedAt) AS updatedAt, COUNT(t) AS count FROM Tag t")
+    VersionRow findVersion();
+
+    @Query("SELECT t.id AS id, t.name AS name, t.slug AS slug FROM Tag t")
+    List<NamedRefRow> findAllRefs();
 }
\ No newline at end of file
@@ -0,0 +1,20 @@
+package com.ecommerce_app.repository.projection;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+/**
+ * The columns of an existing cart line needed to merge more of the same product and variant into it
+ */
+public interface CartLineRow {
+
+    UUID getId();
+
+    UUID getProductId();
+
+    UUID getProductVariantId();
+
+    Integer getQuantity();
+
+    BigDecimal getPrice();
+}
@@ -0,0 +1,13 @@
+package com.ecommerce_app.repository.projection;
+
+import java.util.UUID;
+
+/**
+ * The id and optimistic lock version of a cart
+ */
+public interface CartVersionRow {
+
+    UUID getId();
+
+    Long getVersion();
+}
@@ -0,0 +1,16 @@
+package com.ecommerce_app.repository.projection;
+
+import java.util.UUID;
+
+/**
+ * Product link counts of one category: links to the category itself, and links to the category
+ * or any category below it
+ */
+public interface CategoryProductCountRow {
+
+    UUID getCategoryId();
+
+    long getDirectCount();
+
+    long getTotalCount();
+}
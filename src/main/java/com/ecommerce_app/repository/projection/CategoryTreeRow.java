@@ -0,0 +1,19 @@
+package com.ecommerce_app.repository.projection;
+
+import java.util.UUID;
+
+/**
+ * The columns of one category needed to place and render it in the category tree
+ */
+public interface CategoryTreeRow {
+
+    UUID getId();
+
+    UUID getParentId();
+
+    String getName();
+
+    String getSlug();
+
+    String getImageUrl();
+}
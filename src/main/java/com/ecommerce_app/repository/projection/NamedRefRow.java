@@ -0,0 +1,15 @@
+package com.ecommerce_app.repository.projection;
+
+import java.util.UUID;
+
+/**
+ * The columns needed to look up a category or tag by name or slug, without loading the entity
+ */
+public interface NamedRefRow {
+
+    UUID getId();
+
+    String getName();
+
+    String getSlug();
+}
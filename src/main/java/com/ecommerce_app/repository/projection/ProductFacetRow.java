@@ -0,0 +1,16 @@
+package com.ecommerce_app.repository.projection;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+/**
+ * The product columns the facet index needs, without loading the entity
+ */
+public interface ProductFacetRow {
+
+    UUID getId();
+
+    BigDecimal getPrice();
+
+    Boolean getActive();
+}
@@ -0,0 +1,13 @@
+package com.ecommerce_app.repository.projection;
+
+import java.util.UUID;
+
+/**
+ * One row of a product to category or product to tag join table
+ */
+public interface ProductLinkRow {
+
+    UUID getProductId();
+
+    UUID getLinkedId();
+}
@@ -0,0 +1,20 @@
+package com.ecommerce_app.repository.projection;
+
+import java.util.UUID;
+
+/**
+ * One attribute of one variant with the variant's stock, the columns needed to build a product's
+ * variant matrix. Variants without attributes appear once with a null name and value.
+ */
+public interface VariantMatrixRow {
+
+    UUID getVariantId();
+
+    String getAttributeName();
+
+    String getAttributeValue();
+
+    Integer getStockQuantity();
+
+    Integer getReservedQuantity();
+}
@@ -0,0 +1,14 @@
+package com.ecommerce_app.repository.projection;
+
+import java.time.LocalDateTime;
+
+/**
+ * The latest change among a set of rows and how many rows there are, enough to tell whether
+ * a response rendered from them is still current
+ */
+public interface VersionRow {
+
+    LocalDateTime getUpdatedAt();
+
+    Long getCount();
+}
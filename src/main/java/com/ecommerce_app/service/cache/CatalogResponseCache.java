@@ -0,0 +1,350 @@
+package com.ecommerce_app.service.cache;
+
+import com.ecommerce_app.constant.SlugType;
+import com.ecommerce_app.dto.response.ApiResult;
+import com.ecommerce_app.dto.response.ProductResponse;
+import com.ecommerce_app.event.CategoryChangedEvent;
+import com.ecommerce_app.event.ProductChangedEvent;
+import com.ecommerce_app.event.ProductStockChangedEvent;
+import com.ecommerce_app.repository.ProductRepository;
+import com.ecommerce_app.service.cache.CatalogVersionService.CatalogVersion;
+import com.ecommerce_app.service.catalog.CategoryTree;
+import com.ecommerce_app.service.catalog.CategoryTreeService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.context.request.WebRequest;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Cache of finished response bodies for the hottest catalog reads: the category tree and basic
+ * category list, the first page of each category's product listing, and products by slug.
+ * <p>
+ * Entries hold the {@link ApiResult} envelope already serialized to JSON, so a hit skips the
+ * database, mapping, response wrapping and Jackson altogether and the bytes are copied straight
+ * to the response. Entries also keep the ETag and Last-Modified they were built with, so
+ * conditional requests are answered from the cache too.
+ * <p>
+ * Category list entries are dropped after any committed category change and after product
+ * changes that add or remove category links (the tree carries product counts). A product change
+ * drops the product's own entry and the listings of the categories it was or is linked to and of
+ * their ancestors, whose listings include subcategories. Each group has a generation that is
+ * bumped before entries are dropped; a miss only stores what it built if the generation
+ * did not move while it was building, so a response read before a change can never be stored
+ * after that change was evicted. Entries expire after
+ * {@code app.cache.catalog-response.expire-after-write} to bound staleness from other nodes.
+ */
+@Component
+@Slf4j
+public class CatalogResponseCache {
+
+    private static final int LINK_LOOKUP_CHUNK_SIZE = 1000;
+
+    private final ObjectMapper objectMapper;
+    private final CatalogVersionService catalogVersionService;
+    private final SlugRoutingTable slugRoutingTable;
+    private final ProductRepository productRepository;
+    private final CategoryTreeService categoryTreeService;
+    private final Cache<String, CachedResponse> categoryResponses;
+    private final Cache<CategoryProductsKey, CachedResponse> categoryProductResponses;
+    private final Cache<String, CachedResponse> productResponses;
+    private final Map<UUID, String> slugsByProductId = new ConcurrentHashMap<>();
+    private final AtomicLong categoryGeneration = new AtomicLong();
+    private final AtomicLong categoryProductsGeneration = new AtomicLong();
+    private final AtomicLong productGeneration = new AtomicLong();
+
+    public CatalogResponseCache(ObjectMapper objectMapper,
+                                CatalogVersionService catalogVersionService,
+                                SlugRoutingTable slugRoutingTable,
+                                ProductRepository productRepository,
+                                CategoryTreeService categoryTreeService,
+                                MeterRegistry meterRegistry,
+                                @Value("${app.cache.catalog-response.max-bytes}") long maxBytes,
+                                @Value("${app.cache.catalog-response.expire-after-write}") long expireAfterWriteMillis) {
+        this.objectMapper = objectMapper;
+        this.catalogVersionService = catalogVersionService;
+        this.slugRoutingTable = slugRoutingTable;
+        this.productRepository = productRepository;
+        this.categoryTreeService = categoryTreeService;
+        this.categoryResponses = Caffeine.newBuilder()
+                .maximumWeight(maxBytes / 4)
+                .weigher((String key, CachedResponse response) -> response.body().length)
+                .expireAfterWrite(Duration.ofMillis(expireAfterWriteMillis))
+                .recordStats()
+                .build();
+        this.categoryProductResponses = Caffeine.newBuilder()
+                .maximumWeight(maxBytes / 4)
+                .weigher((CategoryProductsKey key, CachedResponse response) -> response.body().length)
+                .expireAfterWrite(Duration.ofMillis(expireAfterWriteMillis))
+                .recordStats()
+                .build();
+        this.productResponses = Caffeine.newBuilder()
+                .maximumWeight(maxBytes / 2)
+                .weigher((String key, CachedResponse response) -> response.body().length)
+                .expireAfterWrite(Duration.ofMillis(expireAfterWriteMillis))
+                // Run inline so the slug index never outlives a replaced entry by more than the replacement
+                .executor(Runnable::run)
+                .removalListener((String slug, CachedResponse response, RemovalCause cause) -> {
+                    if (response != null && cause.wasEvicted()) {
+                        slugsByProductId.remove(response.productId(), slug);
+                    }
+                })
+                .recordStats()
+                .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, categoryResponses, "catalogCategoryResponses");
+        CaffeineCacheMetrics.monitor(meterRegistry, categoryProductResponses, "catalogCategoryProductResponses");
+        CaffeineCacheMetrics.monitor(meterRegistry, productResponses, "catalogProductResponses");
+    }
+
+    /**
+     * Serve a response built from categories alone, such as the category tree
+     *
+     * @param key     Identifies the endpoint and its parameters
+     * @param request The request, for conditional checks
+     * @param loader  Builds the response on a miss
+     */
+    public ResponseEntity<byte[]> getCategoryListResponse(String key, WebRequest request, Supplier<ApiResult<?>> loader) {
+        CachedResponse cached = categoryResponses.getIfPresent(key);
+        if (cached != null) {
+            return toResponseEntity(cached);
+        }
+
+        long generation = categoryGeneration.get();
+        CatalogVersion version = catalogVersionService.getCategoryListVersion();
+        if (version.isNotModified(request)) {
+            return null;
+        }
+        return toResponseEntity(store(categoryResponses, categoryGeneration, generation, key,
+                new CachedResponse(serialize(loader.get()), version, null)));
+    }
+
+    /**
+     * Serve the first page of a category's product listing in the default size and order. These
+     * carry no validators; they change with any product in the category, which is not worth a
+     * query to detect.
+     *
+     * @param categoryId           The category
+     * @param includeSubcategories Whether the listing includes the products of subcategories
+     * @param loader               Builds the response on a miss
+     */
+    public ResponseEntity<byte[]> getCategoryProductsResponse(UUID categoryId, boolean includeSubcategories,
+                                                              Supplier<ApiResult<?>> loader) {
+        CategoryProductsKey key = new CategoryProductsKey(categoryId, includeSubcategories);
+        CachedResponse cached = categoryProductResponses.getIfPresent(key);
+        if (cached != null) {
+            return toResponseEntity(cached);
+        }
+
+        long generation = categoryProductsGeneration.get();
+        return toResponseEntity(store(categoryProductResponses, categoryProductsGeneration, generation, key,
+                new CachedResponse(serialize(loader.get()), null, null)));
+    }
+
+    /**
+     * Serve a product by slug
+     *
+     * @param slug    The product slug
+     * @param request The request, for conditional checks
+     * @param loader  Builds the response on a miss; throws if there is no such product
+     */
+    public ResponseEntity<byte[]> getProductBySlugResponse(String slug, WebRequest request,
+                                                           Supplier<ApiResult<ProductResponse>> loader) {
+        CachedResponse cached = productResponses.getIfPresent(slug);
+        if (cached != null) {
+            return toResponseEntity(cached);
+        }
+
+        long generation = productGeneration.get();
+        CatalogVersion version = catalogVersionService.getProductVersion(slugRoutingTable.resolve(SlugType.PRODUCT, slug));
+        if (version != null && version.isNotModified(request)) {
+            return null;
+        }
+        ApiResult<ProductResponse> result = loader.get();
+        UUID productId = result.getData().getId();
+        // Indexed before storing, so an eviction racing with the store always finds the slug
+        slugsByProductId.put(productId, slug);
+        return toResponseEntity(store(productResponses, productGeneration, generation, slug,
+                new CachedResponse(serialize(result), version, productId)));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCategoryChanged(CategoryChangedEvent event) {
+        evictCategories();
+        categoryProductsGeneration.incrementAndGet();
+        categoryProductResponses.invalidateAll();
+    }
+
+    /**
+     * Product changes made in a transaction are collected and applied once after it commits, so a
+     * transaction that touches many products (renaming a category or tag, an import) looks up the
+     * category links of the products that did not name them in one chunked query and walks the
+     * tree once. Outside a transaction the change is applied at once.
+     */
+    @EventListener
+    public void onProductChanged(ProductChangedEvent event) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            applyProductChanges(List.of(event));
+            return;
+        }
+
+        PendingProductChanges pending = (PendingProductChanges) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            pending = new PendingProductChanges();
+            TransactionSynchronizationManager.bindResource(this, pending);
+            TransactionSynchronizationManager.registerSynchronization(pending);
+        }
+        pending.events.add(event);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductStockChanged(ProductStockChangedEvent event) {
+        evictProduct(event.productId());
+    }
+
+    private void applyProductChanges(Collection<ProductChangedEvent> events) {
+        Set<UUID> categoryIds = new HashSet<>();
+        List<UUID> unlinkedProductIds = new ArrayList<>();
+        boolean categoryLinksChanged = false;
+        for (ProductChangedEvent event : events) {
+            evictProduct(event.productId());
+            categoryLinksChanged |= event.categoryLinksChanged();
+            if (event.categoryIds() != null) {
+                categoryIds.addAll(event.categoryIds());
+            } else {
+                unlinkedProductIds.add(event.productId());
+            }
+        }
+        if (categoryLinksChanged) {
+            evictCategories();
+        }
+        for (int from = 0; from < unlinkedProductIds.size(); from += LINK_LOOKUP_CHUNK_SIZE) {
+            productRepository.findCategoryLinksByProductIdIn(
+                            unlinkedProductIds.subList(from, Math.min(from + LINK_LOOKUP_CHUNK_SIZE, unlinkedProductIds.size())))
+                    .forEach(link -> categoryIds.add(link.getLinkedId()));
+        }
+        evictCategoryProducts(categoryIds);
+    }
+
+    private void evictCategories() {
+        categoryGeneration.incrementAndGet();
+        categoryResponses.invalidateAll();
+    }
+
+    /**
+     * Drop the listings of the categories and of every category above them
+     */
+    private void evictCategoryProducts(Collection<UUID> categoryIds) {
+        if (categoryIds.isEmpty()) {
+            return;
+        }
+        CategoryTree tree = categoryTreeService.getTree();
+        Set<UUID> affected = new HashSet<>(categoryIds);
+        for (UUID categoryId : categoryIds) {
+            tree.getAncestors(categoryId).forEach(ancestor -> affected.add(ancestor.getId()));
+        }
+        categoryProductsGeneration.incrementAndGet();
+        categoryProductResponses.asMap().keySet().removeIf(key -> affected.contains(key.categoryId()));
+    }
+
+    private void evictProduct(UUID productId) {
+        productGeneration.incrementAndGet();
+        String slug = slugsByProductId.remove(productId);
+        if (slug != null) {
+            productResponses.invalidate(slug);
+            log.debug("Evicted product {} from the response cache", productId);
+        }
+    }
+
+    /**
+     * Store the response unless the group's generation moved since {@code generation} was read.
+     * The check runs under the entry's lock, so an eviction either sees the stored entry or the
+     * store sees the new generation.
+     */
+    private static <K> CachedResponse store(Cache<K, CachedResponse> cache, AtomicLong currentGeneration,
+                                            long generation, K key, CachedResponse response) {
+        cache.asMap().compute(key, (k, existing) -> currentGeneration.get() == generation ? response : existing);
+        return response;
+    }
+
+    private byte[] serialize(ApiResult<?> result) {
+        try {
+            return objectMapper.writeValueAsBytes(result);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize catalog response", e);
+        }
+    }
+
+    private static ResponseEntity<byte[]> toResponseEntity(CachedResponse response) {
+        ResponseEntity.BodyBuilder builder = ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON);
+        CatalogVersion version = response.version();
+        if (version != null) {
+            // Spring answers a matching If-None-Match or If-Modified-Since with 304 from these headers
+            builder.eTag(version.etag());
+            if (version.lastModified() >= 0) {
+                builder.lastModified(version.lastModified());
+            }
+        }
+        return builder.body(response.body());
+    }
+
+    /**
+     * @param body      The serialized {@link ApiResult}
+     * @param version   The validators the body was built with, if the endpoint has any
+     * @param productId The product the body renders, for product entries
+     */
+    private record CachedResponse(byte[] body, CatalogVersion version, UUID productId) {
+    }
+
+    private final class PendingProductChanges implements TransactionSynchronization {
+
+        private final List<ProductChangedEvent> events = new ArrayList<>();
+
+        @Override
+        public void suspend() {
+            TransactionSynchronizationManager.unbindResource(CatalogResponseCache.this);
+        }
+
+        @Override
+        public void resume() {
+            TransactionSynchronizationManager.bindResource(CatalogResponseCache.this, this);
+        }
+
+        @Override
+        public void afterCommit() {
+            applyProductChanges(events);
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResourceIfPossible(CatalogResponseCache.this);
+        }
+    }
+
+    private record CategoryProductsKey(UUID categoryId, boolean includeSubcategories) {
+    }
+}
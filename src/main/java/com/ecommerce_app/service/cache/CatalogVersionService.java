@@ -0,0 +1,133 @@
+package com.ecommerce_app.service.cache;
+
+import com.ecommerce_app.constant.SlugType;
+import com.ecommerce_app.repository.CategoryRepository;
+import com.ecommerce_app.repository.ProductRepository;
+import com.ecommerce_app.repository.ProductVariantRepository;
+import com.ecommerce_app.repository.TagRepository;
+import com.ecommerce_app.repository.projection.VersionRow;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.web.context.request.WebRequest;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.UUID;
+
+/**
+ * Validators for conditional GETs on catalog resources.
+ * <p>
+ * Each check reads only the version of a resource (the latest {@code updatedAt} among the rows it
+ * is rendered from, plus row counts so deletions are noticed) and hands a weak ETag and
+ * Last-Modified to {@link WebRequest#checkNotModified(String, long)}. When that returns true the
+ * response is already a 304 and the controller returns without loading or mapping the resource;
+ * otherwise both headers are set on the full response. Missing resources are never reported as
+ * not modified, so they still produce a 404.
+ */
+@Service
+@RequiredArgsConstructor
+public class CatalogVersionService {
+
+    private final ProductRepository productRepository;
+    private final ProductVariantRepository productVariantRepository;
+    private final CategoryRepository categoryRepository;
+    private final TagRepository tagRepository;
+    private final SlugRoutingTable slugRoutingTable;
+
+    /**
+     * Covers the product with its variants and inventory, and also the product's variant list
+     */
+    public boolean isProductNotModified(UUID productId, WebRequest request) {
+        return checkExisting(request, "p", productRepository.findVersionById(productId));
+    }
+
+    /**
+     * @return The validators of the product, or null if there is no such product
+     */
+    public CatalogVersion getProductVersion(UUID productId) {
+        VersionRow version = productRepository.findVersionById(productId);
+        return version.getUpdatedAt() != null ? version("p", version) : null;
+    }
+
+    public boolean isVariantNotModified(UUID variantId, WebRequest request) {
+        return checkExisting(request, "v", productVariantRepository.findVersionById(variantId));
+    }
+
+    /**
+     * A category response names its parent and subcategories, so any category change counts, as
+     * does any change to the category's products since the response carries their count
+     */
+    public boolean isCategoryNotModified(UUID categoryId, WebRequest request) {
+        return check(request, "c", categoryRepository.findVersion(), categoryRepository.findProductsVersionByCategoryId(categoryId));
+    }
+
+    public boolean isCategoryBySlugNotModified(String slug, WebRequest request) {
+        return isCategoryNotModified(slugRoutingTable.resolve(SlugType.CATEGORY, slug), request);
+    }
+
+    /**
+     * Covers category listings such as the tree, including the product count of every category
+     */
+    public boolean isCategoryListNotModified(WebRequest request) {
+        return getCategoryListVersion().isNotModified(request);
+    }
+
+    public CatalogVersion getCategoryListVersion() {
+        return version("cl", categoryRepository.findVersion(), categoryRepository.findProductsVersion());
+    }
+
+    public boolean isTagNotModified(UUID tagId, WebRequest request) {
+        return checkExisting(request, "t", tagRepository.findVersionById(tagId));
+    }
+
+    public boolean isTagBySlugNotModified(String slug, WebRequest request) {
+        return isTagNotModified(slugRoutingTable.resolve(SlugType.TAG, slug), request);
+    }
+
+    public boolean isTagListNotModified(WebRequest request) {
+        return check(request, "tl", tagRepository.findVersion());
+    }
+
+    private static boolean checkExisting(WebRequest request, String kind, VersionRow version) {
+        return version.getUpdatedAt() != null && check(request, kind, version);
+    }
+
+    private static boolean check(WebRequest request, String kind, VersionRow... versions) {
+        return version(kind, versions).isNotModified(request);
+    }
+
+    private static CatalogVersion version(String kind, VersionRow... versions) {
+        LocalDateTime lastUpdatedAt = null;
+        StringBuilder etag = new StringBuilder("W/\"").append(kind);
+        for (VersionRow version : versions) {
+            LocalDateTime updatedAt = version.getUpdatedAt();
+            if (updatedAt != null && (lastUpdatedAt == null || updatedAt.isAfter(lastUpdatedAt))) {
+                lastUpdatedAt = updatedAt;
+            }
+            etag.append('-').append(Long.toHexString(updatedAt != null ? epochMicros(updatedAt) : 0))
+                    .append('-').append(Long.toHexString(version.getCount() != null ? version.getCount() : 0));
+        }
+        long lastModified = lastUpdatedAt != null
+                ? lastUpdatedAt.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli() : -1;
+        return new CatalogVersion(etag.append('"').toString(), lastModified);
+    }
+
+    private static long epochMicros(LocalDateTime timestamp) {
+        var instant = timestamp.atZone(ZoneId.systemDefault()).toInstant();
+        return instant.getEpochSecond() * 1_000_000 + instant.getNano() / 1_000;
+    }
+
+    /**
+     * @param etag         The weak entity tag
+     * @param lastModified The Last-Modified time in epoch millis, or -1 if unknown
+     */
+    public record CatalogVersion(String etag, long lastModified) {
+
+        /**
+         * Compare with the request's validators; see {@link WebRequest#checkNotModified(String, long)}
+         */
+        public boolean isNotModified(WebRequest request) {
+            return request.checkNotModified(etag, lastModified);
+        }
+    }
+}
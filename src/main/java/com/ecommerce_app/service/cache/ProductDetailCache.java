@@ -0,0 +1,107 @@
+package com.ecommerce_app.service.cache;
+
+import com.ecommerce_app.dto.response.ProductResponse;
+import com.ecommerce_app.event.ProductChangedEvent;
+import com.ecommerce_app.event.ProductStockChangedEvent;
+import com.ecommerce_app.service.cache.CatalogVersionService.CatalogVersion;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.context.request.WebRequest;
+
+import java.time.Duration;
+import java.util.UUID;
+import java.util.function.Function;
+
+/**
+ * Bounded cache of fully mapped {@link ProductResponse}s by product id. Slugs are routed to ids by
+ * {@link SlugRoutingTable}.
+ * <p>
+ * Misses are loaded in a read-only transaction, so a hit never borrows a database connection.
+ * Each entry keeps the ETag and Last-Modified it was loaded with, read before the product so they
+ * are never newer than the body, and conditional requests for a cached product are answered from
+ * them.
+ * Entries are evicted after any committed change to the product or to something rendered as
+ * part of it (categories, tags, images, variants, variant attributes, inventory), and expire
+ * after {@code app.cache.product-detail.expire-after-write} to bound staleness from changes made
+ * on other nodes. Hit, miss and eviction counts are published as {@code cache.*} meters.
+ */
+@Component
+@Slf4j
+public class ProductDetailCache {
+
+    private final Cache<UUID, CachedProduct> productsById;
+    private final TransactionTemplate readOnlyTransaction;
+    private final CatalogVersionService catalogVersionService;
+
+    public ProductDetailCache(PlatformTransactionManager transactionManager,
+                              CatalogVersionService catalogVersionService,
+                              MeterRegistry meterRegistry,
+                              @Value("${app.cache.product-detail.max-size}") long maxSize,
+                              @Value("${app.cache.product-detail.expire-after-write}") long expireAfterWriteMillis) {
+        this.productsById = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofMillis(expireAfterWriteMillis))
+                .recordStats()
+                .build();
+
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.catalogVersionService = catalogVersionService;
+
+        CaffeineCacheMetrics.monitor(meterRegistry, productsById, "productDetailById");
+    }
+
+    /**
+     * Get a product by id, loading it on a miss. Concurrent misses for the same id share one load.
+     *
+     * @param id     The product id
+     * @param loader Loads and maps the product; may throw if it does not exist, in which case nothing is cached
+     * @return The cached or freshly loaded product
+     */
+    public ProductResponse getById(UUID id, Function<UUID, ProductResponse> loader) {
+        return productsById.get(id, key -> readOnlyTransaction.execute(status -> {
+            CatalogVersion version = catalogVersionService.getProductVersion(key);
+            return new CachedProduct(loader.apply(key), version);
+        })).response();
+    }
+
+    /**
+     * Check the request's validators against the product. A cached product is checked against the
+     * validators stored with it; only a miss reads the version from the database.
+     *
+     * @return true if the response is already a 304; see {@link CatalogVersionService#isProductNotModified}
+     */
+    public boolean isNotModified(UUID id, WebRequest request) {
+        CachedProduct cached = productsById.getIfPresent(id);
+        if (cached == null) {
+            return catalogVersionService.isProductNotModified(id, request);
+        }
+        return cached.version() != null && cached.version().isNotModified(request);
+    }
+
+    public void evict(UUID productId) {
+        productsById.invalidate(productId);
+        log.debug("Evicted product {} from the detail cache", productId);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        evict(event.productId());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductStockChanged(ProductStockChangedEvent event) {
+        evict(event.productId());
+    }
+
+    private record CachedProduct(ProductResponse response, CatalogVersion version) {
+    }
+}
@@ -0,0 +1,78 @@
+package com.ecommerce_app.service.cache;
+
+import com.ecommerce_app.event.ProductChangedEvent;
+import com.ecommerce_app.repository.ProductRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Keeps {@code products.updated_at} current for changes made through related rows.
+ * <p>
+ * Variants, images, variant attributes, categories and tags are rendered as part of a product
+ * but live in their own tables, so editing them does not touch the product row. Every product
+ * named by a {@link ProductChangedEvent} is collected per transaction and stamped with one bulk
+ * update just before commit, which lets {@code updated_at} serve as the product's version for
+ * conditional requests.
+ */
+@Component
+@RequiredArgsConstructor
+public class ProductUpdatedAtTracker {
+
+    private static final int CHUNK_SIZE = 1000;
+
+    private final ProductRepository productRepository;
+
+    @EventListener
+    public void onProductChanged(ProductChangedEvent event) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+
+        PendingProducts pending = (PendingProducts) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            pending = new PendingProducts();
+            TransactionSynchronizationManager.bindResource(this, pending);
+            TransactionSynchronizationManager.registerSynchronization(pending);
+        }
+        pending.productIds.add(event.productId());
+    }
+
+    private final class PendingProducts implements TransactionSynchronization {
+
+        private final Set<UUID> productIds = new LinkedHashSet<>();
+
+        @Override
+        public void suspend() {
+            TransactionSynchronizationManager.unbindResource(ProductUpdatedAtTracker.this);
+        }
+
+        @Override
+        public void resume() {
+            TransactionSynchronizationManager.bindResource(ProductUpdatedAtTracker.this, this);
+        }
+
+        @Override
+        public void beforeCommit(boolean readOnly) {
+            LocalDateTime now = LocalDateTime.now();
+            List<UUID> ids = new ArrayList<>(productIds);
+            for (int from = 0; from < ids.size(); from += CHUNK_SIZE) {
+                productRepository.touchUpdatedAt(ids.subList(from, Math.min(from + CHUNK_SIZE, ids.size())), now);
+            }
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResourceIfPossible(ProductUpdatedAtTracker.this);
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package com.ecommerce_app.service.cache;
+
+import com.ecommerce_app.entity.SlugHistory;
+import com.ecommerce_app.event.SlugChangedEvent;
+import com.ecommerce_app.repository.SlugHistoryRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Writes every slug change to {@code slug_history} in the transaction that makes it, so renamed
+ * slugs redirect on every node and across restarts. {@link SlugRoutingTable} caches the lookups.
+ * <p>
+ * New slugs write nothing, which keeps imports free of extra statements. An old slug taken again
+ * by another entity keeps its row, but routing checks current slugs before the history.
+ */
+@Component
+@RequiredArgsConstructor
+public class SlugHistoryRecorder {
+
+    private final SlugHistoryRepository slugHistoryRepository;
+
+    @EventListener
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void onSlugChanged(SlugChangedEvent event) {
+        String previous = event.previousSlug();
+        String current = event.slug();
+        if (previous == null || previous.equals(current)) {
+            return;
+        }
+        if (current == null) {
+            slugHistoryRepository.deleteByTargetId(event.type(), event.id());
+            return;
+        }
+        slugHistoryRepository.deleteByOldSlug(event.type(), previous);
+        slugHistoryRepository.save(SlugHistory.builder()
+                .type(event.type())
+                .oldSlug(previous)
+                .targetId(event.id())
+                .build());
+    }
+}
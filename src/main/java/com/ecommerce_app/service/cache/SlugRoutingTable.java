@@ -0,0 +1,183 @@
+package com.ecommerce_app.service.cache;
+
+import com.ecommerce_app.constant.SlugType;
+import com.ecommerce_app.event.SlugChangedEvent;
+import com.ecommerce_app.exception.SlugMovedException;
+import com.ecommerce_app.exception.UnknownSlugException;
+import com.ecommerce_app.repository.CategoryRepository;
+import com.ecommerce_app.repository.ProductRepository;
+import com.ecommerce_app.repository.SlugHistoryRepository;
+import com.ecommerce_app.repository.TagRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Function;
+
+/**
+ * Routes product, category and tag slugs to ids without a query per request.
+ * <p>
+ * Each slug type has three bounded maps: known slugs to ids, renamed slugs to their current slug,
+ * and slugs known not to exist. Renamed slugs are looked up in {@code slug_history}, written by
+ * {@link SlugHistoryRecorder}, and rejected with {@link SlugMovedException}, which is answered
+ * with a permanent redirect. Slugs found nowhere are rejected with a stack-trace-free
+ * {@link UnknownSlugException} and remembered for {@code app.slug-routing.unknown-ttl}, a few
+ * seconds, so a crawler repeating them costs one query per TTL while a slug created on another
+ * node becomes reachable almost at once.
+ * <p>
+ * The maps follow {@link SlugChangedEvent}s from the create, update and delete paths after
+ * commit. Renames and deletes made on other nodes are caught by {@link #checkCurrent}, which the
+ * services call with the slug of the entity the route led to.
+ */
+@Component
+@Slf4j
+public class SlugRoutingTable {
+
+    private final Map<String, Routes> routesByType;
+
+    private final SlugHistoryRepository slugHistoryRepository;
+
+    public SlugRoutingTable(ProductRepository productRepository,
+                            CategoryRepository categoryRepository,
+                            TagRepository tagRepository,
+                            SlugHistoryRepository slugHistoryRepository,
+                            MeterRegistry meterRegistry,
+                            @Value("${app.slug-routing.max-size}") long maxSize,
+                            @Value("${app.slug-routing.redirect-max-size}") long redirectMaxSize,
+                            @Value("${app.slug-routing.unknown-ttl}") long unknownTtlMillis) {
+        this.slugHistoryRepository = slugHistoryRepository;
+        this.routesByType = Map.of(
+                SlugType.PRODUCT, new Routes(productRepository::findIdsBySlug, productRepository::findSlugById,
+                        maxSize, redirectMaxSize, unknownTtlMillis),
+                SlugType.CATEGORY, new Routes(categoryRepository::findIdsBySlug, categoryRepository::findSlugById,
+                        maxSize, redirectMaxSize, unknownTtlMillis),
+                SlugType.TAG, new Routes(tagRepository::findIdsBySlug, tagRepository::findSlugById,
+                        maxSize, redirectMaxSize, unknownTtlMillis));
+
+        routesByType.forEach((type, routes) -> {
+            String name = "slugRoutes" + type.charAt(0) + type.substring(1).toLowerCase();
+            CaffeineCacheMetrics.monitor(meterRegistry, routes.ids, name);
+            CaffeineCacheMetrics.monitor(meterRegistry, routes.unknown, name + "Unknown");
+        });
+    }
+
+    /**
+     * Find the id a slug routes to
+     *
+     * @param type One of {@link SlugType}
+     * @param slug The slug from the request
+     * @return The id of the product, category or tag
+     * @throws UnknownSlugException If nothing has the slug
+     * @throws SlugMovedException   If the slug was renamed
+     */
+    public UUID resolve(String type, String slug) {
+        Routes routes = routesByType.get(type);
+        UUID id = routes.ids.getIfPresent(slug);
+        if (id != null) {
+            return id;
+        }
+        String movedTo = routes.redirects.getIfPresent(slug);
+        if (movedTo != null) {
+            throw new SlugMovedException(movedTo);
+        }
+        if (routes.unknown.getIfPresent(slug) != null) {
+            throw unknown(type, slug);
+        }
+
+        List<UUID> ids = routes.lookup.apply(slug);
+        if (!ids.isEmpty()) {
+            routes.ids.put(slug, ids.get(0));
+            return ids.get(0);
+        }
+        Optional<String> current = slugHistoryRepository.findTargetId(type, slug).flatMap(routes.slugById);
+        if (current.isPresent()) {
+            routes.redirects.put(slug, current.get());
+            throw new SlugMovedException(current.get());
+        }
+        routes.unknown.put(slug, Boolean.TRUE);
+        throw unknown(type, slug);
+    }
+
+    /**
+     * Verify that the entity a slug was routed to still has that slug
+     *
+     * @param type        One of {@link SlugType}
+     * @param slug        The slug from the request
+     * @param currentSlug The slug of the entity the route led to, or null if it no longer exists
+     * @throws UnknownSlugException If the entity no longer exists
+     * @throws SlugMovedException   If the entity was renamed, typically on another node
+     */
+    public void checkCurrent(String type, String slug, String currentSlug) {
+        if (slug.equals(currentSlug)) {
+            return;
+        }
+        Routes routes = routesByType.get(type);
+        routes.ids.invalidate(slug);
+        if (currentSlug == null) {
+            throw unknown(type, slug);
+        }
+        routes.redirects.put(slug, currentSlug);
+        throw new SlugMovedException(currentSlug);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onSlugChanged(SlugChangedEvent event) {
+        Routes routes = routesByType.get(event.type());
+        String previous = event.previousSlug();
+        String current = event.slug();
+
+        if (previous != null && !previous.equals(current)) {
+            routes.ids.invalidate(previous);
+            if (current != null) {
+                routes.redirects.put(previous, current);
+            }
+            // Older slugs of the same entity move along, so redirects never chain
+            routes.redirects.asMap().replaceAll((from, to) -> to.equals(previous) && current != null ? current : to);
+            if (current == null) {
+                routes.redirects.asMap().values().removeIf(previous::equals);
+            }
+        }
+        if (current != null) {
+            routes.ids.put(current, event.id());
+            routes.redirects.invalidate(current);
+            routes.unknown.invalidate(current);
+        }
+        log.debug("Slug route of {} {} changed from {} to {}", event.type(), event.id(), previous, current);
+    }
+
+    private static UnknownSlugException unknown(String type, String slug) {
+        return new UnknownSlugException(type.charAt(0) + type.substring(1).toLowerCase() + " not found with slug: " + slug);
+    }
+
+    private static final class Routes {
+
+        private final Function<String, List<UUID>> lookup;
+        private final Function<UUID, Optional<String>> slugById;
+        private final Cache<String, UUID> ids;
+        private final Cache<String, String> redirects;
+        private final Cache<String, Boolean> unknown;
+
+        private Routes(Function<String, List<UUID>> lookup, Function<UUID, Optional<String>> slugById,
+                       long maxSize, long redirectMaxSize, long unknownTtlMillis) {
+            this.lookup = lookup;
+            this.slugById = slugById;
+            this.ids = Caffeine.newBuilder().maximumSize(maxSize).recordStats().build();
+            this.redirects = Caffeine.newBuilder().maximumSize(redirectMaxSize).build();
+            this.unknown = Caffeine.newBuilder()
+                    .maximumSize(maxSize)
+                    .expireAfterWrite(Duration.ofMillis(unknownTtlMillis))
+                    .recordStats()
+                    .build();
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.ecommerce_app.service.cart;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Writes the lines of an add to cart with plain JDBC batches: one batched insert for new lines and
+ * one batched update for lines that already were in the cart.
+ * <p>
+ * Existing lines are incremented in place, so concurrent adds of the same line never lose a
+ * quantity. Two requests inserting the same new line at once collide on one of the
+ * {@code uk_cart_items_line} unique indexes; the loser fails with a
+ * {@link org.springframework.dao.DuplicateKeyException} and is retried by
+ * {@link CartWriteExecutor}, which then finds the line and increments it.
+ */
+@Component
+@RequiredArgsConstructor
+public class CartItemBatchWriter {
+
+    private static final String INSERT_LINE = "INSERT INTO cart_items " +
+            "(id, created_at, updated_at, cart_id, product_id, product_variant_id, quantity, price, version) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, 0)";
+    private static final String INCREMENT_LINE = "UPDATE cart_items SET quantity = quantity + ?, updated_at = ?, version = version + 1 WHERE id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * @param newLines   Lines to insert
+     * @param increments Quantities to add to existing lines
+     * @param now        The timestamp to write
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void write(List<NewLine> newLines, List<Increment> increments, LocalDateTime now) {
+        if (!newLines.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_LINE, newLines.stream()
+                    .map(line -> new Object[]{line.id(), now, now, line.cartId(), line.productId(),
+                            line.productVariantId(), line.quantity(), line.price()})
+                    .toList());
+        }
+        if (!increments.isEmpty()) {
+            jdbcTemplate.batchUpdate(INCREMENT_LINE, increments.stream()
+                    .map(increment -> new Object[]{increment.quantity(), now, increment.cartItemId()})
+                    .toList());
+        }
+    }
+
+    public record NewLine(UUID id, UUID cartId, UUID productId, UUID productVariantId, int quantity, BigDecimal price) {
+    }
+
+    public record Increment(UUID cartItemId, int quantity) {
+    }
+}
@@ -0,0 +1,92 @@
+package com.ecommerce_app.service.cart;
+
+import com.ecommerce_app.exception.ConcurrentUpdateException;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+/**
+ * Runs cart edits in their own transaction and retries them when they lose a race.
+ * <p>
+ * Carts and cart lines are versioned and lines are unique per product and variant, so concurrent
+ * edits of one cart hold no locks beyond their own statements: an edit that read a line or cart
+ * changed in the meantime fails with an optimistic locking failure, and a second first add of the
+ * same line fails on the unique constraint. Either way the whole edit is run again from a fresh
+ * read, up to {@code app.cart.write.max-attempts} times with a short randomized backoff, before
+ * giving up with a {@link ConcurrentUpdateException}. Retries are counted in {@code cart.write.conflicts}.
+ * <p>
+ * When called inside an existing transaction the edit runs once, as a failure there has already
+ * rolled back the caller's work as well.
+ */
+@Component
+@Slf4j
+public class CartWriteExecutor {
+
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+    private final int maxAttempts;
+    private final long backoffMillis;
+
+    public CartWriteExecutor(PlatformTransactionManager transactionManager,
+                             MeterRegistry meterRegistry,
+                             @Value("${app.cart.write.max-attempts}") int maxAttempts,
+                             @Value("${app.cart.write.backoff}") long backoffMillis) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.meterRegistry = meterRegistry;
+        this.maxAttempts = maxAttempts;
+        this.backoffMillis = backoffMillis;
+    }
+
+    /**
+     * Run a cart edit, retrying it on a conflicting concurrent edit
+     *
+     * @param operation Name of the edit, used to tag the conflict metric
+     * @param edit      The edit; runs in a transaction and must be safe to run again from scratch
+     * @return The result of the first attempt that commits
+     */
+    public <T> T execute(String operation, Supplier<T> edit) {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            return edit.get();
+        }
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return transactionTemplate.execute(status -> edit.get());
+            } catch (ConcurrencyFailureException | DuplicateKeyException e) {
+                meterRegistry.counter("cart.write.conflicts", "operation", operation).increment();
+                if (attempt >= maxAttempts) {
+                    log.warn("Cart {} still conflicting after {} attempts: {}", operation, attempt, e.getMessage());
+                    throw new ConcurrentUpdateException("The cart was changed by another request, please try again");
+                }
+                log.debug("Cart {} conflicted on attempt {}: {}", operation, attempt, e.getMessage());
+                backoff(attempt);
+            }
+        }
+    }
+
+    public void executeWithoutResult(String operation, Runnable edit) {
+        execute(operation, () -> {
+            edit.run();
+            return null;
+        });
+    }
+
+    private void backoff(int attempt) {
+        // Randomized so the requests that just collided do not collide again
+        long millis = ThreadLocalRandom.current().nextLong(backoffMillis * attempt + 1);
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ConcurrentUpdateException("Interrupted while retrying a cart update");
+        }
+    }
+}
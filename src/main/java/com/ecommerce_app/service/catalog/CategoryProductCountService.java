@@ -0,0 +1,164 @@
+package com.ecommerce_app.service.catalog;
+
+import com.ecommerce_app.entity.CategoryClosure;
+import com.ecommerce_app.entity.CategoryProductCount;
+import com.ecommerce_app.repository.CategoryClosureRepository;
+import com.ecommerce_app.repository.CategoryProductCountRepository;
+import com.ecommerce_app.repository.CategoryRepository;
+import com.ecommerce_app.repository.projection.CategoryProductCountRow;
+import com.ecommerce_app.service.catalog.CategoryProductCountWriter.Delta;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Product counts for category listings, for any number of categories in one query.
+ * <p>
+ * With {@code app.category-counts.counter-table} enabled the counts are read from
+ * {@link CategoryProductCount} rows, which every write path keeps current in its own transaction:
+ * product link changes adjust the linked categories and their ancestors, and moving a category
+ * shifts its subtree total from the old ancestors to the new ones. Each change is one batch through
+ * {@link CategoryProductCountWriter}, which orders its row locks to rule out deadlocks. Every link
+ * change also updates the row of each ancestor up to the root, so writes below one top-level
+ * category serialize on its row; the table is off by default for that reason. Recounting after
+ * enabling it, or after writes that bypassed the services, is an explicit {@link #rebuildCounts()}.
+ * Without it, counts come from one grouped aggregate over the links and the closure table.
+ */
+@Service
+@Slf4j
+public class CategoryProductCountService {
+
+    private final CategoryProductCountRepository categoryProductCountRepository;
+    private final CategoryProductCountWriter categoryProductCountWriter;
+    private final CategoryClosureRepository categoryClosureRepository;
+    private final CategoryRepository categoryRepository;
+    private final boolean counterTable;
+
+    public CategoryProductCountService(CategoryProductCountRepository categoryProductCountRepository,
+                                       CategoryProductCountWriter categoryProductCountWriter,
+                                       CategoryClosureRepository categoryClosureRepository,
+                                       CategoryRepository categoryRepository,
+                                       @Value("${app.category-counts.counter-table}") boolean counterTable) {
+        this.categoryProductCountRepository = categoryProductCountRepository;
+        this.categoryProductCountWriter = categoryProductCountWriter;
+        this.categoryClosureRepository = categoryClosureRepository;
+        this.categoryRepository = categoryRepository;
+        this.counterTable = counterTable;
+    }
+
+    /**
+     * Get the product counts of categories
+     *
+     * @param categoryIds The categories to count
+     * @return Counts by category id; categories without products may be missing
+     */
+    @Transactional(readOnly = true)
+    public Map<UUID, CategoryProductCountRow> getCounts(Collection<UUID> categoryIds) {
+        if (categoryIds.isEmpty()) {
+            return Map.of();
+        }
+        List<CategoryProductCountRow> rows = counterTable
+                ? categoryProductCountRepository.findByCategoryIdIn(categoryIds)
+                : categoryRepository.findProductCountsByCategoryIdIn(categoryIds);
+        return rows.stream().collect(Collectors.toMap(CategoryProductCountRow::getCategoryId, Function.identity()));
+    }
+
+    /**
+     * Record changed product links. Either collection may name a category more than once, once per link.
+     *
+     * @param removed The categories that lost a product link
+     * @param added   The categories that gained a product link
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void linksChanged(Collection<UUID> removed, Collection<UUID> added) {
+        if (!counterTable) {
+            return;
+        }
+        Map<UUID, Long> linkDeltas = new HashMap<>();
+        removed.forEach(categoryId -> linkDeltas.merge(categoryId, -1L, Long::sum));
+        added.forEach(categoryId -> linkDeltas.merge(categoryId, 1L, Long::sum));
+        linkDeltas.values().removeIf(delta -> delta == 0);
+        if (linkDeltas.isEmpty()) {
+            return;
+        }
+        // Each linked category counts once directly and once in the total of every category at or above it
+        Map<UUID, Delta> deltas = new HashMap<>();
+        linkDeltas.forEach((categoryId, delta) -> deltas.put(categoryId, new Delta(delta, 0)));
+        for (CategoryClosure closure : categoryClosureRepository.findByDescendantIdIn(linkDeltas.keySet())) {
+            deltas.merge(closure.getAncestorId(), new Delta(0, linkDeltas.get(closure.getDescendantId())), Delta::plus);
+        }
+        categoryProductCountWriter.adjust(deltas);
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void categoryCreated(UUID categoryId) {
+        if (counterTable) {
+            categoryProductCountRepository.save(new CategoryProductCount(categoryId, 0, 0));
+        }
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void categoryRemoved(UUID categoryId) {
+        if (counterTable) {
+            categoryProductCountRepository.deleteById(categoryId);
+        }
+    }
+
+    /**
+     * Move the subtree total of a category from its current ancestors to its new parent and the
+     * parent's ancestors; called before the closure links of the subtree change
+     *
+     * @param categoryId The category being moved
+     * @param parentId   The new parent, or null if the category becomes a root
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void subtreeMoving(UUID categoryId, UUID parentId) {
+        if (!counterTable) {
+            return;
+        }
+        long total = categoryProductCountRepository.findTotalCountByCategoryId(categoryId).orElse(0L);
+        if (total == 0) {
+            return;
+        }
+        // Ancestors kept by the move get both changes, which cancel out
+        Map<UUID, Delta> deltas = new HashMap<>();
+        for (CategoryClosure closure : categoryClosureRepository.findByDescendantIdIn(List.of(categoryId))) {
+            if (closure.getDepth() > 0) {
+                deltas.merge(closure.getAncestorId(), new Delta(0, -total), Delta::plus);
+            }
+        }
+        if (parentId != null) {
+            for (CategoryClosure closure : categoryClosureRepository.findByDescendantIdIn(List.of(parentId))) {
+                deltas.merge(closure.getAncestorId(), new Delta(0, total), Delta::plus);
+            }
+        }
+        categoryProductCountWriter.adjust(deltas);
+    }
+
+    /**
+     * Recount every category from the product links. Rows are locked first, so writers in flight
+     * finish before the recount reads the links and later writers apply their changes on top of it.
+     *
+     * @return The number of categories counted
+     */
+    @Transactional
+    public int rebuildCounts() {
+        if (!counterTable) {
+            return 0;
+        }
+        categoryProductCountWriter.lockAll();
+        int categories = categoryProductCountRepository.recountAll() + categoryProductCountRepository.insertMissingCounts();
+        log.info("Rebuilt product counts of {} categories", categories);
+        return categories;
+    }
+}
@@ -0,0 +1,73 @@
+package com.ecommerce_app.service.catalog;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Applies count changes to {@code category_product_counts} with one JDBC batch per change.
+ * <p>
+ * Every writer touches its rows in ascending category id order, the order the database itself
+ * sorts uuids in, so two transactions adjusting overlapping ancestors queue on the first shared
+ * row instead of deadlocking. The rows of top-level categories are shared by every change below
+ * them, so concurrent writes in one tree still take turns on those rows.
+ */
+@Component
+@RequiredArgsConstructor
+public class CategoryProductCountWriter {
+
+    /**
+     * Ascending unsigned byte order, as databases compare uuids; {@link UUID#compareTo} is signed
+     */
+    static final Comparator<UUID> ID_ORDER = Comparator.comparing(UUID::toString);
+
+    private static final String ADJUST_COUNTS = "UPDATE category_product_counts " +
+            "SET direct_count = direct_count + ?, total_count = total_count + ? WHERE category_id = ?";
+    private static final String LOCK_ALL_COUNTS = "SELECT category_id FROM category_product_counts " +
+            "ORDER BY category_id FOR UPDATE";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * @param deltas Changes by category id; zero changes are skipped
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void adjust(Map<UUID, Delta> deltas) {
+        List<Object[]> batch = deltas.entrySet().stream()
+                .filter(entry -> !entry.getValue().isZero())
+                .sorted(Map.Entry.comparingByKey(ID_ORDER))
+                .map(entry -> new Object[]{entry.getValue().direct(), entry.getValue().total(), entry.getKey()})
+                .toList();
+        if (!batch.isEmpty()) {
+            jdbcTemplate.batchUpdate(ADJUST_COUNTS, batch);
+        }
+    }
+
+    /**
+     * Lock every count row in the order {@link #adjust} uses, waiting for writers in flight to commit
+     *
+     * @return The number of rows locked
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public int lockAll() {
+        return jdbcTemplate.queryForList(LOCK_ALL_COUNTS, UUID.class).size();
+    }
+
+    public record Delta(long direct, long total) {
+
+        public Delta plus(Delta other) {
+            return new Delta(direct + other.direct, total + other.total);
+        }
+
+        boolean isZero() {
+            return direct == 0 && total == 0;
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package com.ecommerce_app.service.catalog;
+
+import com.ecommerce_app.dto.response.CategoryBasicResponse;
+import com.ecommerce_app.dto.response.CategoryTreeResponse;
+import com.ecommerce_app.repository.projection.CategoryTreeRow;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Immutable snapshot of the whole category hierarchy.
+ * <p>
+ * Built from one row per category; children are ordered by name. Ancestor walks and subtree
+ * checks follow parent links in memory, so they cost no queries however deep the tree is. The
+ * version identifies the snapshot; a newer snapshot always has a higher version.
+ */
+public final class CategoryTree {
+
+    private static final Comparator<Node> BY_NAME = Comparator.comparing(Node::name, Comparator.nullsLast(String::compareTo));
+
+    private final long version;
+    private final Map<UUID, Node> nodes;
+    private final Map<UUID, List<Node>> children;
+    private final List<Node> roots;
+
+    private CategoryTree(long version, Map<UUID, Node> nodes, Map<UUID, List<Node>> children, List<Node> roots) {
+        this.version = version;
+        this.nodes = nodes;
+        this.children = children;
+        this.roots = roots;
+    }
+
+    /**
+     * @param rows Every category; a row whose parent is missing is treated as a root
+     */
+    public static CategoryTree build(long version, List<CategoryTreeRow> rows) {
+        Map<UUID, Node> nodes = new HashMap<>(rows.size() * 2);
+        for (CategoryTreeRow row : rows) {
+            nodes.put(row.getId(), new Node(row.getId(), row.getParentId(), row.getName(), row.getSlug(), row.getImageUrl()));
+        }
+
+        Map<UUID, List<Node>> children = new HashMap<>();
+        List<Node> roots = new ArrayList<>();
+        for (Node node : nodes.values()) {
+            if (node.parentId() != null && nodes.containsKey(node.parentId())) {
+                children.computeIfAbsent(node.parentId(), id -> new ArrayList<>()).add(node);
+            } else {
+                roots.add(node);
+            }
+        }
+        children.replaceAll((id, list) -> list.stream().sorted(BY_NAME).toList());
+        return new CategoryTree(version, Map.copyOf(nodes), Map.copyOf(children), roots.stream().sorted(BY_NAME).toList());
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public boolean contains(UUID categoryId) {
+        return nodes.containsKey(categoryId);
+    }
+
+    /**
+     * @return The whole tree, roots first, as fresh response objects
+     */
+    public List<CategoryTreeResponse> toTreeResponses() {
+        return roots.stream().map(this::toTreeResponse).toList();
+    }
+
+    /**
+     * @return The ancestors of the category, root first, excluding the category itself
+     */
+    public List<CategoryBasicResponse> getAncestors(UUID categoryId) {
+        Deque<CategoryBasicResponse> ancestors = new ArrayDeque<>();
+        Node node = nodes.get(categoryId);
+        // Bounded by the tree size, so a cycle left by concurrent writes cannot loop forever
+        for (int steps = 0; node != null && node.parentId() != null && steps < nodes.size(); steps++) {
+            node = nodes.get(node.parentId());
+            if (node != null) {
+                ancestors.addFirst(toBasicResponse(node));
+            }
+        }
+        return List.copyOf(ancestors);
+    }
+
+    /**
+     * @return Every category below the category, level by level and by name within a level
+     */
+    public List<CategoryBasicResponse> getDescendants(UUID categoryId) {
+        List<CategoryBasicResponse> descendants = new ArrayList<>();
+        List<Node> level = children.getOrDefault(categoryId, List.of());
+        while (!level.isEmpty() && descendants.size() < nodes.size()) {
+            List<Node> next = new ArrayList<>();
+            for (Node node : level) {
+                descendants.add(toBasicResponse(node));
+                next.addAll(children.getOrDefault(node.id(), List.of()));
+            }
+            level = next.stream().sorted(BY_NAME).toList();
+        }
+        return descendants;
+    }
+
+    /**
+     * @return True if the category is the ancestor itself or anywhere below it
+     */
+    public boolean isInSubtree(UUID ancestorId, UUID categoryId) {
+        Node node = nodes.get(categoryId);
+        for (int steps = 0; node != null && steps <= nodes.size(); steps++) {
+            if (node.id().equals(ancestorId)) {
+                return true;
+            }
+            node = node.parentId() != null ? nodes.get(node.parentId()) : null;
+        }
+        return false;
+    }
+
+    private CategoryTreeResponse toTreeResponse(Node node) {
+        LinkedHashSet<CategoryTreeResponse> subcategories = new LinkedHashSet<>();
+        children.getOrDefault(node.id(), List.of()).forEach(child -> subcategories.add(toTreeResponse(child)));
+        return CategoryTreeResponse.builder()
+                .id(node.id())
+                .name(node.name())
+                .slug(node.slug())
+                .imageUrl(node.imageUrl())
+                .subcategories(subcategories)
+                .build();
+    }
+
+    private static CategoryBasicResponse toBasicResponse(Node node) {
+        return CategoryBasicResponse.builder()
+                .id(node.id())
+                .name(node.name())
+                .slug(node.slug())
+                .imageUrl(node.imageUrl())
+                .build();
+    }
+
+    private record Node(UUID id, UUID parentId, String name, String slug, String imageUrl) {
+    }
+}
@@ -0,0 +1,113 @@
+package com.ecommerce_app.service.catalog;
+
+import com.ecommerce_app.event.CategoryChangedEvent;
+import com.ecommerce_app.repository.CategoryRepository;
+import com.ecommerce_app.repository.projection.VersionRow;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Holds the current {@link CategoryTree} snapshot.
+ * <p>
+ * The whole category table is loaded with one query and built into an immutable tree, which is
+ * swapped in atomically. Every committed category write ({@link CategoryChangedEvent}) bumps the
+ * wanted version; the next read finds its snapshot older than that and rebuilds once, while other
+ * readers keep using the previous snapshot without waiting. A write committing during a rebuild
+ * bumps the version again, so a snapshot loaded before a change is never taken as current.
+ * <p>
+ * Writes on other nodes publish no event here, so every {@code app.category-tree.refresh-interval}
+ * the category table's version (latest {@code updated_at} and row count) is compared with the one
+ * the snapshot was loaded from, and a difference marks the snapshot stale. The snapshot serves
+ * reads only; write-path checks such as cycle detection query the closure table.
+ */
+@Service
+@Slf4j
+public class CategoryTreeService {
+
+    private final CategoryRepository categoryRepository;
+    private final TransactionTemplate readOnlyTransaction;
+    private final AtomicLong wantedVersion = new AtomicLong(1);
+    private final ReentrantLock rebuildLock = new ReentrantLock();
+    private volatile CategoryTree tree;
+    private volatile SourceVersion loadedFrom;
+
+    public CategoryTreeService(CategoryRepository categoryRepository, PlatformTransactionManager transactionManager) {
+        this.categoryRepository = categoryRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    /**
+     * @return The current snapshot, rebuilt first if a category changed since it was loaded; while
+     *         another reader is rebuilding, the previous snapshot
+     */
+    public CategoryTree getTree() {
+        CategoryTree current = tree;
+        if (current != null && current.getVersion() >= wantedVersion.get()) {
+            return current;
+        }
+        if (current == null) {
+            // Nothing to serve yet, so the first readers wait for the first load
+            rebuildLock.lock();
+        } else if (!rebuildLock.tryLock()) {
+            return current;
+        }
+        try {
+            return rebuild();
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCategoryChanged(CategoryChangedEvent event) {
+        wantedVersion.incrementAndGet();
+    }
+
+    @Scheduled(fixedDelayString = "${app.category-tree.refresh-interval}",
+            initialDelayString = "${app.category-tree.refresh-interval}")
+    public void checkForRemoteChanges() {
+        if (tree == null) {
+            return;
+        }
+        SourceVersion current = readOnlyTransaction.execute(status -> SourceVersion.of(categoryRepository.findVersion()));
+        if (!Objects.equals(current, loadedFrom)) {
+            log.debug("Category table changed to {}; tree snapshot marked stale", current);
+            wantedVersion.incrementAndGet();
+        }
+    }
+
+    private CategoryTree rebuild() {
+        // Another reader may have rebuilt just before this one took the lock
+        long version = wantedVersion.get();
+        CategoryTree current = tree;
+        if (current != null && current.getVersion() >= version) {
+            return current;
+        }
+
+        CategoryTree rebuilt = readOnlyTransaction.execute(status -> {
+            // Read first: a change committed between the two reads is then caught by the next check
+            loadedFrom = SourceVersion.of(categoryRepository.findVersion());
+            return CategoryTree.build(version, categoryRepository.findAllTreeRows());
+        });
+        tree = rebuilt;
+        log.debug("Loaded category tree version {}", version);
+        return rebuilt;
+    }
+
+    private record SourceVersion(LocalDateTime updatedAt, long count) {
+
+        static SourceVersion of(VersionRow row) {
+            return new SourceVersion(row.getUpdatedAt(), row.getCount() != null ? row.getCount() : 0);
+        }
+    }
+}
@@ -0,0 +1,154 @@
+package com.ecommerce_app.service.catalog;
+
+import com.ecommerce_app.dto.response.ProductExportResponse;
+import com.ecommerce_app.entity.Inventory;
+import com.ecommerce_app.entity.Product;
+import com.ecommerce_app.entity.ProductVariant;
+import com.ecommerce_app.repository.ProductRepository;
+import com.ecommerce_app.repository.ProductVariantRepository;
+import com.ecommerce_app.repository.projection.ProductLinkRow;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import jakarta.persistence.EntityManager;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+/**
+ * Streams the whole catalog as NDJSON, one product with its variants and inventory per line.
+ * <p>
+ * Products are read over a forward-only cursor ({@link ProductRepository#streamAll()}) in a
+ * single read-only transaction. Every {@link ProductRepository#EXPORT_FETCH_SIZE} products the
+ * variants, inventory and category and tag links of that batch are loaded with one query each,
+ * the batch is written and flushed, and the persistence context is cleared, so memory use stays
+ * flat however large the catalog is.
+ */
+@Service
+@Slf4j
+public class ProductExportService {
+
+    private static final int BATCH_SIZE = Integer.parseInt(ProductRepository.EXPORT_FETCH_SIZE);
+
+    private final ProductRepository productRepository;
+    private final ProductVariantRepository productVariantRepository;
+    private final EntityManager entityManager;
+    private final ObjectWriter objectWriter;
+    private final TransactionTemplate readOnlyTransaction;
+
+    public ProductExportService(ProductRepository productRepository,
+                                ProductVariantRepository productVariantRepository,
+                                EntityManager entityManager,
+                                ObjectMapper objectMapper,
+                                PlatformTransactionManager transactionManager) {
+        this.productRepository = productRepository;
+        this.productVariantRepository = productVariantRepository;
+        this.entityManager = entityManager;
+        this.objectWriter = objectMapper.writerFor(ProductExportResponse.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    /**
+     * Write every product to the stream
+     *
+     * @param out The response body; not closed
+     * @return The number of products written
+     */
+    public long export(OutputStream out) {
+        Long written = readOnlyTransaction.execute(status -> {
+            try (Stream<Product> products = productRepository.streamAll();
+                 JsonGenerator generator = objectWriter.getFactory().createGenerator(out)) {
+                generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+                // Lines are terminated explicitly; the default separator would indent every line after the first
+                generator.setRootValueSeparator(null);
+
+                long count = 0;
+                List<Product> batch = new ArrayList<>(BATCH_SIZE);
+                for (Product product : (Iterable<Product>) products::iterator) {
+                    batch.add(product);
+                    if (batch.size() == BATCH_SIZE) {
+                        count += writeBatch(batch, generator);
+                    }
+                }
+                if (!batch.isEmpty()) {
+                    count += writeBatch(batch, generator);
+                }
+                return count;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        log.info("Exported {} products", written);
+        return written != null ? written : 0;
+    }
+
+    private int writeBatch(List<Product> batch, JsonGenerator generator) throws IOException {
+        List<UUID> productIds = batch.stream().map(Product::getId).toList();
+
+        Map<UUID, List<ProductExportResponse.Variant>> variants = new HashMap<>();
+        for (ProductVariant variant : productVariantRepository.findWithInventoryByProductIdIn(productIds)) {
+            variants.computeIfAbsent(variant.getProduct().getId(), id -> new ArrayList<>()).add(toVariant(variant));
+        }
+        Map<UUID, List<UUID>> categoryIds = group(productRepository.findCategoryLinksByProductIdIn(productIds));
+        Map<UUID, List<UUID>> tagIds = group(productRepository.findTagLinksByProductIdIn(productIds));
+
+        for (Product product : batch) {
+            objectWriter.writeValue(generator, ProductExportResponse.builder()
+                    .id(product.getId())
+                    .name(product.getName())
+                    .description(product.getDescription())
+                    .price(product.getPrice())
+                    .slug(product.getSlug())
+                    .sku(product.getSku())
+                    .active(product.getActive())
+                    .weight(product.getWeight())
+                    .dimensions(product.getDimensions())
+                    .categoryIds(categoryIds.getOrDefault(product.getId(), List.of()))
+                    .tagIds(tagIds.getOrDefault(product.getId(), List.of()))
+                    .variants(variants.getOrDefault(product.getId(), List.of()))
+                    .createdAt(product.getCreatedAt())
+                    .updatedAt(product.getUpdatedAt())
+                    .build());
+            generator.writeRaw('\n');
+        }
+        generator.flush();
+
+        // Nothing loaded so far is needed again; dropping it keeps the persistence context small
+        int written = batch.size();
+        batch.clear();
+        entityManager.clear();
+        return written;
+    }
+
+    private static ProductExportResponse.Variant toVariant(ProductVariant variant) {
+        Inventory inventory = variant.getInventory();
+        return ProductExportResponse.Variant.builder()
+                .id(variant.getId())
+                .name(variant.getName())
+                .sku(variant.getSku())
+                .priceDifference(variant.getPriceDifference())
+                .stockQuantity(inventory != null ? inventory.getStockQuantity() : null)
+                .reservedQuantity(inventory != null ? inventory.getReservedQuantity() : null)
+                .build();
+    }
+
+    private static Map<UUID, List<UUID>> group(List<ProductLinkRow> links) {
+        Map<UUID, List<UUID>> linkedIds = new HashMap<>();
+        links.forEach(link -> linkedIds.computeIfAbsent(link.getProductId(), id -> new ArrayList<>()).add(link.getLinkedId()));
+        return linkedIds;
+    }
+}
@@ -0,0 +1,47 @@
+package com.ecommerce_app.service.catalog;
+
+import com.ecommerce_app.exception.BadRequestException;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+
+/**
+ * File formats accepted by the bulk product import
+ */
+public enum ProductImportFormat {
+
+    CSV("text/csv", ".csv"),
+    NDJSON("application/x-ndjson", ".ndjson");
+
+    private final MediaType mediaType;
+    private final String extension;
+
+    ProductImportFormat(String mediaType, String extension) {
+        this.mediaType = MediaType.parseMediaType(mediaType);
+        this.extension = extension;
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+
+    /**
+     * @param contentType The Content-Type header of the upload
+     * @return The matching format
+     * @throws BadRequestException If the content type is missing or not supported
+     */
+    public static ProductImportFormat fromContentType(String contentType) {
+        if (contentType != null) {
+            try {
+                MediaType requested = MediaType.parseMediaType(contentType);
+                for (ProductImportFormat format : values()) {
+                    if (format.mediaType.isCompatibleWith(requested)) {
+                        return format;
+                    }
+                }
+            } catch (InvalidMediaTypeException e) {
+                // Reported below like any other unsupported type
+            }
+        }
+        throw new BadRequestException("Unsupported import content type: " + contentType);
+    }
+}
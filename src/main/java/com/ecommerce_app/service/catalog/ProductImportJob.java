@@ -0,0 +1,90 @@
+package com.ecommerce_app.service.catalog;
+
+import com.ecommerce_app.constant.ProductImportStatus;
+import com.ecommerce_app.dto.response.ProductImportResponse;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Progress of one bulk product import. Updated by the import thread and read by status requests.
+ */
+class ProductImportJob {
+
+    private final UUID id = UUID.randomUUID();
+    private final int maxReportedErrors;
+    private final AtomicLong processedRows = new AtomicLong();
+    private final AtomicLong importedRows = new AtomicLong();
+    private final AtomicLong failedRows = new AtomicLong();
+    private final List<ProductImportResponse.RowError> errors = new ArrayList<>();
+
+    private volatile String status = ProductImportStatus.QUEUED;
+    private volatile String message;
+    private volatile LocalDateTime startedAt;
+    private volatile LocalDateTime finishedAt;
+
+    ProductImportJob(int maxReportedErrors) {
+        this.maxReportedErrors = maxReportedErrors;
+    }
+
+    UUID getId() {
+        return id;
+    }
+
+    LocalDateTime getFinishedAt() {
+        return finishedAt;
+    }
+
+    void start() {
+        startedAt = LocalDateTime.now();
+        status = ProductImportStatus.RUNNING;
+    }
+
+    void complete() {
+        finishedAt = LocalDateTime.now();
+        status = ProductImportStatus.COMPLETED;
+    }
+
+    void fail(String reason) {
+        message = reason;
+        finishedAt = LocalDateTime.now();
+        status = ProductImportStatus.FAILED;
+    }
+
+    void rowsImported(int rows) {
+        importedRows.addAndGet(rows);
+        processedRows.addAndGet(rows);
+    }
+
+    void rowFailed(long row, String error) {
+        failedRows.incrementAndGet();
+        processedRows.incrementAndGet();
+        synchronized (errors) {
+            if (errors.size() < maxReportedErrors) {
+                errors.add(new ProductImportResponse.RowError(row, error));
+            }
+        }
+    }
+
+    ProductImportResponse toResponse() {
+        List<ProductImportResponse.RowError> reportedErrors;
+        synchronized (errors) {
+            reportedErrors = List.copyOf(errors);
+        }
+        return ProductImportResponse.builder()
+                .jobId(id)
+                .status(status)
+                .processedRows(processedRows.get())
+                .importedRows(importedRows.get())
+                .failedRows(failedRows.get())
+                .errors(reportedErrors)
+                .errorsTruncated(failedRows.get() > reportedErrors.size())
+                .message(message)
+                .startedAt(startedAt)
+                .finishedAt(finishedAt)
+                .build();
+    }
+}
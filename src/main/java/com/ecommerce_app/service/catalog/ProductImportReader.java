@@ -0,0 +1,198 @@
+package com.ecommerce_app.service.catalog;
+
+import com.ecommerce_app.dto.request.ProductImportRow;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvSchema;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reads a bulk import file one row at a time, so memory use does not depend on the file size.
+ * <p>
+ * NDJSON files hold one {@link ProductImportRow} object per line. CSV files have a header row
+ * with the columns {@code name, description, price, slug, sku, active, weight, dimensions,
+ * categories, tags, variants}; categories and tags are separated by {@code |}, and each
+ * {@code |} separated variant is written as {@code name;sku;priceDifference;stockQuantity}.
+ * A row that cannot be parsed is returned with an error instead of a value, so the import can
+ * report it and carry on.
+ */
+public abstract class ProductImportReader implements Closeable {
+
+    private static final String LIST_SEPARATOR = "\\|";
+    private static final String VARIANT_FIELD_SEPARATOR = ";";
+
+    /**
+     * @return The next row, or null at the end of the file
+     */
+    public abstract Line next();
+
+    public static ProductImportReader open(Path file, ProductImportFormat format) {
+        try {
+            BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8);
+            return format == ProductImportFormat.CSV ? new Csv(reader) : new Ndjson(reader);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not open import file " + file, e);
+        }
+    }
+
+    /**
+     * @param row   The 1-based row number (the line number for NDJSON, the record number for CSV)
+     * @param value The parsed row, or null if it could not be parsed
+     * @param error Why the row could not be parsed
+     */
+    public record Line(long row, ProductImportRow value, String error) {
+    }
+
+    private static final class Ndjson extends ProductImportReader {
+
+        private static final ObjectReader ROW_READER = new ObjectMapper()
+                .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+                .readerFor(ProductImportRow.class);
+
+        private final BufferedReader reader;
+        private long lineNumber;
+
+        private Ndjson(BufferedReader reader) {
+            this.reader = reader;
+        }
+
+        @Override
+        public Line next() {
+            try {
+                String line;
+                do {
+                    line = reader.readLine();
+                    lineNumber++;
+                    if (line == null) {
+                        return null;
+                    }
+                } while (line.isBlank());
+
+                try {
+                    return new Line(lineNumber, ROW_READER.readValue(line), null);
+                } catch (JsonProcessingException e) {
+                    return new Line(lineNumber, null, "Malformed JSON: " + e.getOriginalMessage());
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            reader.close();
+        }
+    }
+
+    private static final class Csv extends ProductImportReader {
+
+        private final MappingIterator<Map<String, String>> records;
+        private long recordNumber;
+
+        private Csv(BufferedReader reader) throws IOException {
+            CsvMapper csvMapper = new CsvMapper();
+            this.records = csvMapper.readerForMapOf(String.class)
+                    .with(CsvSchema.emptySchema().withHeader())
+                    .readValues(reader);
+        }
+
+        @Override
+        public Line next() {
+            try {
+                if (!records.hasNextValue()) {
+                    return null;
+                }
+                Map<String, String> record = records.nextValue();
+                recordNumber++;
+                try {
+                    return new Line(recordNumber, toRow(record), null);
+                } catch (IllegalArgumentException e) {
+                    return new Line(recordNumber, null, e.getMessage());
+                }
+            } catch (IOException e) {
+                // A broken quote or similar leaves no reliable start for the next record
+                throw new UncheckedIOException("Malformed CSV after row " + recordNumber, e);
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            records.close();
+        }
+
+        private static ProductImportRow toRow(Map<String, String> record) {
+            return ProductImportRow.builder()
+                    .name(blankToNull(record.get("name")))
+                    .description(blankToNull(record.get("description")))
+                    .price(decimal(record, "price"))
+                    .slug(blankToNull(record.get("slug")))
+                    .sku(blankToNull(record.get("sku")))
+                    .active(record.get("active") == null || record.get("active").isBlank()
+                            ? null : Boolean.valueOf(record.get("active").trim()))
+                    .weight(decimal(record, "weight"))
+                    .dimensions(blankToNull(record.get("dimensions")))
+                    .categories(list(record.get("categories")))
+                    .tags(list(record.get("tags")))
+                    .variants(list(record.get("variants")).stream().map(Csv::variant).toList())
+                    .build();
+        }
+
+        private static ProductImportRow.Variant variant(String value) {
+            String[] fields = Arrays.copyOf(value.split(VARIANT_FIELD_SEPARATOR, -1), 4);
+            try {
+                return ProductImportRow.Variant.builder()
+                        .name(blankToNull(fields[0]))
+                        .sku(blankToNull(fields[1]))
+                        .priceDifference(fields[2] == null || fields[2].isBlank() ? null : new BigDecimal(fields[2].trim()))
+                        .stockQuantity(fields[3] == null || fields[3].isBlank() ? null : Integer.valueOf(fields[3].trim()))
+                        .build();
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid variant: " + value);
+            }
+        }
+
+        private static BigDecimal decimal(Map<String, String> record, String column) {
+            String value = blankToNull(record.get(column));
+            if (value == null) {
+                return null;
+            }
+            try {
+                return new BigDecimal(value);
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid " + column + ": " + value);
+            }
+        }
+
+        private static List<String> list(String value) {
+            List<String> values = new ArrayList<>();
+            if (value != null) {
+                for (String part : value.split(LIST_SEPARATOR)) {
+                    if (!part.isBlank()) {
+                        values.add(part.trim());
+                    }
+                }
+            }
+            return values;
+        }
+
+        private static String blankToNull(String value) {
+            return value == null || value.isBlank() ? null : value.trim();
+        }
+    }
+}
@@ -0,0 +1,345 @@
+package com.ecommerce_app.service.catalog;
+
+import com.ecommerce_app.constant.SlugType;
+import com.ecommerce_app.dto.request.ProductImportRow;
+import com.ecommerce_app.dto.response.ProductImportResponse;
+import com.ecommerce_app.event.ProductChangedEvent;
+import com.ecommerce_app.event.SlugChangedEvent;
+import com.ecommerce_app.exception.ResourceNotFoundException;
+import com.ecommerce_app.repository.CategoryRepository;
+import com.ecommerce_app.repository.ProductRepository;
+import com.ecommerce_app.repository.ProductVariantRepository;
+import com.ecommerce_app.repository.TagRepository;
+import com.ecommerce_app.repository.projection.NamedRefRow;
+import com.ecommerce_app.util.SlugUtil;
+import jakarta.annotation.PreDestroy;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.stream.Collectors;
+
+/**
+ * Bulk product import from CSV or NDJSON files.
+ * <p>
+ * The upload is spooled to a temporary file and imported in the background by a single worker,
+ * so neither the request nor the import ever holds the whole file in memory. Categories and tags
+ * are resolved once per job. Rows are then read in chunks of {@code chunk-size}: each chunk is
+ * validated, checked for slug and SKU collisions with one query per kind, written with JDBC
+ * batches by {@link ProductImportWriter} and committed on its own, so a bad chunk never undoes
+ * earlier ones. Progress and per-row errors are available from {@link #getStatus(UUID)} while the
+ * job runs and for {@code retention} milliseconds after it finishes.
+ */
+@Service
+@Slf4j
+public class ProductImportService {
+
+    private final ProductRepository productRepository;
+    private final ProductVariantRepository productVariantRepository;
+    private final CategoryRepository categoryRepository;
+    private final TagRepository tagRepository;
+    private final ProductImportWriter productImportWriter;
+    private final CategoryProductCountService categoryProductCountService;
+    private final Validator validator;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final int chunkSize;
+    private final int maxReportedErrors;
+    private final long retentionMillis;
+
+    private final Map<UUID, ProductImportJob> jobs = new ConcurrentHashMap<>();
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "product-import");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public ProductImportService(ProductRepository productRepository,
+                                ProductVariantRepository productVariantRepository,
+                                CategoryRepository categoryRepository,
+                                TagRepository tagRepository,
+                                ProductImportWriter productImportWriter,
+                                CategoryProductCountService categoryProductCountService,
+                                Validator validator,
+                                ApplicationEventPublisher eventPublisher,
+                                PlatformTransactionManager transactionManager,
+                                @Value("${app.catalog.import.chunk-size}") int chunkSize,
+                                @Value("${app.catalog.import.max-reported-errors}") int maxReportedErrors,
+                                @Value("${app.catalog.import.retention}") long retentionMillis) {
+        this.productRepository = productRepository;
+        this.productVariantRepository = productVariantRepository;
+        this.categoryRepository = categoryRepository;
+        this.tagRepository = tagRepository;
+        this.productImportWriter = productImportWriter;
+        this.categoryProductCountService = categoryProductCountService;
+        this.validator = validator;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.chunkSize = chunkSize;
+        this.maxReportedErrors = maxReportedErrors;
+        this.retentionMillis = retentionMillis;
+    }
+
+    /**
+     * Spool an upload to disk and queue it for import
+     *
+     * @param body   The uploaded file
+     * @param format The format of the file
+     * @return The status of the queued job
+     */
+    public ProductImportResponse start(InputStream body, ProductImportFormat format) {
+        pruneFinishedJobs();
+
+        Path file;
+        try {
+            file = Files.createTempFile("product-import-", format.getExtension());
+            Files.copy(body, file, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not store the import file", e);
+        }
+
+        ProductImportJob job = new ProductImportJob(maxReportedErrors);
+        jobs.put(job.getId(), job);
+        try {
+            executor.execute(() -> run(job, file, format));
+        } catch (RejectedExecutionException e) {
+            jobs.remove(job.getId());
+            deleteQuietly(file);
+            throw e;
+        }
+        log.info("Queued product import {} ({})", job.getId(), format);
+        return job.toResponse();
+    }
+
+    /**
+     * @param jobId The id returned when the import was started
+     * @return The progress of the import and the rows that failed so far
+     */
+    public ProductImportResponse getStatus(UUID jobId) {
+        ProductImportJob job = jobs.get(jobId);
+        if (job == null) {
+            throw new ResourceNotFoundException("Product import not found with id: " + jobId);
+        }
+        return job.toResponse();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    void run(ProductImportJob job, Path file, ProductImportFormat format) {
+        job.start();
+        try (ProductImportReader reader = ProductImportReader.open(file, format)) {
+            Map<String, UUID> categories = index(categoryRepository.findAllRefs());
+            Map<String, UUID> tags = index(tagRepository.findAllRefs());
+
+            List<ProductImportReader.Line> chunk = new ArrayList<>(chunkSize);
+            for (ProductImportReader.Line line = reader.next(); line != null; line = reader.next()) {
+                chunk.add(line);
+                if (chunk.size() == chunkSize) {
+                    importChunk(job, chunk, categories, tags);
+                    chunk.clear();
+                }
+            }
+            if (!chunk.isEmpty()) {
+                importChunk(job, chunk, categories, tags);
+            }
+
+            job.complete();
+            ProductImportResponse result = job.toResponse();
+            log.info("Product import {} finished: {} imported, {} failed", job.getId(),
+                    result.getImportedRows(), result.getFailedRows());
+        } catch (Exception e) {
+            job.fail(e.getMessage());
+            log.error("Product import {} failed", job.getId(), e);
+        } finally {
+            deleteQuietly(file);
+        }
+    }
+
+    private void importChunk(ProductImportJob job, List<ProductImportReader.Line> chunk,
+                             Map<String, UUID> categories, Map<String, UUID> tags) {
+        List<ProductImportWriter.NewProduct> accepted = new ArrayList<>(chunk.size());
+        Map<UUID, Long> rowNumbers = new HashMap<>();
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                accepted.addAll(prepare(job, chunk, categories, tags, rowNumbers));
+                if (!accepted.isEmpty()) {
+                    productImportWriter.write(accepted);
+                    categoryProductCountService.linksChanged(List.of(), accepted.stream()
+                            .flatMap(product -> product.categoryIds().stream())
+                            .toList());
+                    // Delivered after commit, so search, facets and slug routes pick up the new products
+                    accepted.forEach(product -> {
+                        eventPublisher.publishEvent(new ProductChangedEvent(product.id(), product.categoryIds(),
+                                !product.categoryIds().isEmpty()));
+                        eventPublisher.publishEvent(new SlugChangedEvent(SlugType.PRODUCT, product.id(), null, product.slug()));
+                    });
+                }
+            });
+            job.rowsImported(accepted.size());
+        } catch (RuntimeException e) {
+            log.warn("Product import {} could not write a chunk: {}", job.getId(), e.getMessage());
+            accepted.forEach(product -> job.rowFailed(rowNumbers.get(product.id()),
+                    "Chunk rolled back: " + e.getMessage()));
+        }
+        log.debug("Product import {} progress: {}", job.getId(), job.toResponse().getProcessedRows());
+    }
+
+    private List<ProductImportWriter.NewProduct> prepare(ProductImportJob job, List<ProductImportReader.Line> chunk,
+                                                         Map<String, UUID> categories, Map<String, UUID> tags,
+                                                         Map<UUID, Long> rowNumbers) {
+        List<ProductImportReader.Line> valid = new ArrayList<>(chunk.size());
+        for (ProductImportReader.Line line : chunk) {
+            String error = line.error() != null ? line.error() : validate(line.value());
+            if (error != null) {
+                job.rowFailed(line.row(), error);
+            } else {
+                valid.add(line);
+            }
+        }
+
+        // One lookup per kind for the whole chunk instead of existsBy queries per row
+        Set<String> slugs = new HashSet<>();
+        Set<String> skus = new HashSet<>();
+        Set<String> variantSkus = new HashSet<>();
+        for (ProductImportReader.Line line : valid) {
+            ProductImportRow row = line.value();
+            slugs.add(row.getSlug() != null ? row.getSlug() : SlugUtil.generateSlug(row.getName()));
+            if (row.getSku() != null) {
+                skus.add(row.getSku());
+            }
+            row.getVariants().stream().map(ProductImportRow.Variant::getSku).filter(Objects::nonNull).forEach(variantSkus::add);
+        }
+        Set<String> takenSlugs = slugs.isEmpty() ? new HashSet<>() : new HashSet<>(productRepository.findExistingSlugs(slugs));
+        Set<String> takenSkus = skus.isEmpty() ? new HashSet<>() : new HashSet<>(productRepository.findExistingSkus(skus));
+        Set<String> takenVariantSkus = variantSkus.isEmpty()
+                ? new HashSet<>() : new HashSet<>(productVariantRepository.findExistingSkus(variantSkus));
+
+        List<ProductImportWriter.NewProduct> products = new ArrayList<>(valid.size());
+        for (ProductImportReader.Line line : valid) {
+            ProductImportRow row = line.value();
+            UUID id = UUID.randomUUID();
+
+            Set<UUID> categoryIds = new HashSet<>();
+            String unknown = resolve(row.getCategories(), categories, categoryIds);
+            if (unknown != null) {
+                job.rowFailed(line.row(), "Category not found: " + unknown);
+                continue;
+            }
+            Set<UUID> tagIds = new HashSet<>();
+            unknown = resolve(row.getTags(), tags, tagIds);
+            if (unknown != null) {
+                job.rowFailed(line.row(), "Tag not found: " + unknown);
+                continue;
+            }
+
+            String slug = row.getSlug();
+            if (slug != null && takenSlugs.contains(slug)) {
+                job.rowFailed(line.row(), "Product with this slug already exists");
+                continue;
+            }
+            if (slug == null) {
+                slug = SlugUtil.generateSlug(row.getName());
+                if (slug.isEmpty() || takenSlugs.contains(slug)) {
+                    // A generated slug must not fail the row, so disambiguate it with the new id
+                    String suffix = id.toString().substring(0, 8);
+                    slug = slug.isEmpty() ? suffix : slug + "-" + suffix;
+                }
+            }
+            if (row.getSku() != null && takenSkus.contains(row.getSku())) {
+                job.rowFailed(line.row(), "Product with this SKU already exists");
+                continue;
+            }
+            List<String> rowVariantSkus = row.getVariants().stream()
+                    .map(ProductImportRow.Variant::getSku).filter(Objects::nonNull).toList();
+            if (rowVariantSkus.stream().anyMatch(takenVariantSkus::contains)
+                    || new HashSet<>(rowVariantSkus).size() != rowVariantSkus.size()) {
+                job.rowFailed(line.row(), "Variant with this SKU already exists");
+                continue;
+            }
+
+            takenSlugs.add(slug);
+            if (row.getSku() != null) {
+                takenSkus.add(row.getSku());
+            }
+            takenVariantSkus.addAll(rowVariantSkus);
+            rowNumbers.put(id, line.row());
+            products.add(new ProductImportWriter.NewProduct(id, row, slug, categoryIds, tagIds));
+        }
+        return products;
+    }
+
+    private String validate(ProductImportRow row) {
+        Set<ConstraintViolation<ProductImportRow>> violations = validator.validate(row);
+        if (violations.isEmpty()) {
+            return null;
+        }
+        return violations.stream()
+                .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                .sorted()
+                .collect(Collectors.joining("; "));
+    }
+
+    /**
+     * @return The first reference that matches nothing, or null if all of them resolved
+     */
+    private static String resolve(List<String> references, Map<String, UUID> known, Set<UUID> resolved) {
+        for (String reference : references) {
+            UUID id = known.get(reference.toLowerCase(Locale.ROOT));
+            if (id == null) {
+                return reference;
+            }
+            resolved.add(id);
+        }
+        return null;
+    }
+
+    private static Map<String, UUID> index(List<NamedRefRow> refs) {
+        Map<String, UUID> byKey = new HashMap<>(refs.size() * 4);
+        // Slugs win over names if a name happens to equal another entry's slug
+        refs.forEach(ref -> {
+            if (ref.getName() != null) {
+                byKey.put(ref.getName().toLowerCase(Locale.ROOT), ref.getId());
+            }
+        });
+        refs.forEach(ref -> {
+            if (ref.getSlug() != null) {
+                byKey.put(ref.getSlug().toLowerCase(Locale.ROOT), ref.getId());
+            }
+        });
+        return byKey;
+    }
+
+    private void pruneFinishedJobs() {
+        LocalDateTime cutoff = LocalDateTime.now().minus(retentionMillis, ChronoUnit.MILLIS);
+        jobs.values().removeIf(job -> job.getFinishedAt() != null && job.getFinishedAt().isBefore(cutoff));
+    }
+
+    private static void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.warn("Could not delete import file {}", file, e);
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package com.ecommerce_app.service.catalog;
+
+import com.ecommerce_app.dto.request.ProductImportRow;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Writes validated import rows with plain JDBC batches: one batched insert per table per chunk
+ * instead of an entity save (and its dirty checking and id round trips) per product.
+ */
+@Component
+@RequiredArgsConstructor
+public class ProductImportWriter {
+
+    private static final String INSERT_PRODUCT = "INSERT INTO products " +
+            "(id, created_at, updated_at, name, description, price, slug, sku, active, weight, dimensions) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String INSERT_PRODUCT_CATEGORY = "INSERT INTO product_categories (product_id, category_id) VALUES (?, ?)";
+    private static final String INSERT_PRODUCT_TAG = "INSERT INTO product_tags (product_id, tag_id) VALUES (?, ?)";
+    private static final String INSERT_VARIANT = "INSERT INTO product_variants " +
+            "(id, created_at, updated_at, sku, name, price_difference, product_id) VALUES (?, ?, ?, ?, ?, ?, ?)";
+    private static final String INSERT_INVENTORY = "INSERT INTO inventories " +
+            "(id, created_at, updated_at, product_variant_id, stock_quantity, reserved_quantity, sku) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Insert products with their category and tag links, variants and variant inventory
+     *
+     * @param products The products to insert, already validated and with unique slugs and SKUs
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void write(List<NewProduct> products) {
+        LocalDateTime now = LocalDateTime.now();
+        List<Object[]> productRows = new ArrayList<>(products.size());
+        List<Object[]> categoryRows = new ArrayList<>();
+        List<Object[]> tagRows = new ArrayList<>();
+        List<Object[]> variantRows = new ArrayList<>();
+        List<Object[]> inventoryRows = new ArrayList<>();
+
+        for (NewProduct product : products) {
+            ProductImportRow row = product.row();
+            productRows.add(new Object[]{product.id(), now, now, row.getName(), row.getDescription(), row.getPrice(),
+                    product.slug(), row.getSku(), row.getActive() == null || row.getActive(), row.getWeight(),
+                    row.getDimensions()});
+            product.categoryIds().forEach(categoryId -> categoryRows.add(new Object[]{product.id(), categoryId}));
+            product.tagIds().forEach(tagId -> tagRows.add(new Object[]{product.id(), tagId}));
+
+            for (ProductImportRow.Variant variant : row.getVariants()) {
+                UUID variantId = UUID.randomUUID();
+                variantRows.add(new Object[]{variantId, now, now, variant.getSku(), variant.getName(),
+                        variant.getPriceDifference(), product.id()});
+                if (variant.getStockQuantity() != null) {
+                    inventoryRows.add(new Object[]{UUID.randomUUID(), now, now, variantId,
+                            variant.getStockQuantity(), 0, variant.getSku()});
+                }
+            }
+        }
+
+        // Parents first, so the batches never violate a foreign key
+        batch(INSERT_PRODUCT, productRows);
+        batch(INSERT_PRODUCT_CATEGORY, categoryRows);
+        batch(INSERT_PRODUCT_TAG, tagRows);
+        batch(INSERT_VARIANT, variantRows);
+        batch(INSERT_INVENTORY, inventoryRows);
+    }
+
+    private void batch(String sql, List<Object[]> rows) {
+        if (!rows.isEmpty()) {
+            jdbcTemplate.batchUpdate(sql, rows);
+        }
+    }
+
+    /**
+     * @param id          The id to insert the product with
+     * @param row         The validated import row
+     * @param slug        The final, unique slug
+     * @param categoryIds The resolved categories
+     * @param tagIds      The resolved tags
+     */
+    public record NewProduct(UUID id, ProductImportRow row, String slug, Set<UUID> categoryIds, Set<UUID> tagIds) {
+    }
+}
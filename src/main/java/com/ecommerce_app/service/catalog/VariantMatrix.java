@@ -0,0 +1,140 @@
+package com.ecommerce_app.service.catalog;
+
+import com.ecommerce_app.dto.response.VariantSelectionResponse;
+import com.ecommerce_app.repository.projection.VariantMatrixRow;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+
+/**
+ * Immutable index of one product's variants by attribute values.
+ * <p>
+ * Variants are numbered, and every attribute value maps to the bit set of variants carrying it,
+ * so narrowing by any number of attributes is a few bit set intersections. A variant is also
+ * indexed by its full attribute map for direct lookup. A variant is in stock when it has no
+ * inventory record or has unreserved stock.
+ */
+public final class VariantMatrix {
+
+    private final UUID productId;
+    private final UUID[] variantIds;
+    private final BitSet allVariants;
+    private final BitSet inStock;
+    private final Map<String, Map<String, BitSet>> variantsByValue;
+    private final Map<Map<String, String>, Integer> variantsByCombination;
+
+    private VariantMatrix(UUID productId, UUID[] variantIds, BitSet inStock,
+                          Map<String, Map<String, BitSet>> variantsByValue,
+                          Map<Map<String, String>, Integer> variantsByCombination) {
+        this.productId = productId;
+        this.variantIds = variantIds;
+        this.allVariants = new BitSet(variantIds.length);
+        this.allVariants.set(0, variantIds.length);
+        this.inStock = inStock;
+        this.variantsByValue = variantsByValue;
+        this.variantsByCombination = variantsByCombination;
+    }
+
+    /**
+     * @param rows The product's attribute rows, grouped by variant
+     */
+    public static VariantMatrix build(UUID productId, List<VariantMatrixRow> rows) {
+        Map<UUID, Integer> indexes = new LinkedHashMap<>();
+        List<Map<String, String>> combinations = new ArrayList<>();
+        BitSet inStock = new BitSet();
+        // Sorted so options are listed in a stable order
+        Map<String, Map<String, BitSet>> variantsByValue = new TreeMap<>();
+
+        for (VariantMatrixRow row : rows) {
+            Integer index = indexes.get(row.getVariantId());
+            if (index == null) {
+                index = indexes.size();
+                indexes.put(row.getVariantId(), index);
+                combinations.add(new HashMap<>());
+                int reserved = row.getReservedQuantity() != null ? row.getReservedQuantity() : 0;
+                if (row.getStockQuantity() == null || row.getStockQuantity() - reserved > 0) {
+                    inStock.set(index);
+                }
+            }
+            if (row.getAttributeName() != null) {
+                combinations.get(index).put(row.getAttributeName(), row.getAttributeValue());
+                variantsByValue.computeIfAbsent(row.getAttributeName(), name -> new TreeMap<>())
+                        .computeIfAbsent(row.getAttributeValue(), value -> new BitSet())
+                        .set(index);
+            }
+        }
+
+        Map<Map<String, String>, Integer> variantsByCombination = new HashMap<>();
+        for (int i = 0; i < combinations.size(); i++) {
+            // Two variants with the same attributes cannot be told apart; the first one wins
+            variantsByCombination.putIfAbsent(Map.copyOf(combinations.get(i)), i);
+        }
+        return new VariantMatrix(productId, indexes.keySet().toArray(UUID[]::new), inStock,
+                variantsByValue, variantsByCombination);
+    }
+
+    public boolean isEmpty() {
+        return variantIds.length == 0;
+    }
+
+    /**
+     * Resolve a selection of attribute values
+     *
+     * @param selection Attribute name to value; may name only some of the attributes
+     * @return The variant matching the whole selection, if any, and the options left for every attribute
+     */
+    public VariantSelectionResponse resolve(Map<String, String> selection) {
+        Integer variant = variantsByCombination.get(selection);
+        BitSet matching = narrow(selection, null);
+        matching.and(inStock);
+
+        List<VariantSelectionResponse.Attribute> attributes = new ArrayList<>(variantsByValue.size());
+        variantsByValue.forEach((name, values) -> {
+            // Options of one attribute are narrowed by the other attributes only, so they can be switched
+            BitSet others = narrow(selection, name);
+            others.and(inStock);
+            List<VariantSelectionResponse.Option> options = new ArrayList<>(values.size());
+            values.forEach((value, variants) -> options.add(VariantSelectionResponse.Option.builder()
+                    .value(value)
+                    .selected(value.equals(selection.get(name)))
+                    .available(variants.intersects(others))
+                    .build()));
+            attributes.add(VariantSelectionResponse.Attribute.builder().name(name).options(options).build());
+        });
+
+        return VariantSelectionResponse.builder()
+                .productId(productId)
+                .selection(new LinkedHashMap<>(selection))
+                .variantId(variant != null ? variantIds[variant] : null)
+                .variantAvailable(variant != null && inStock.get(variant))
+                .selectionAvailable(!matching.isEmpty())
+                .attributes(attributes)
+                .build();
+    }
+
+    /**
+     * @param skip An attribute of the selection to leave out, or null
+     * @return The variants carrying every selected value; a fresh set the caller may modify
+     */
+    private BitSet narrow(Map<String, String> selection, String skip) {
+        BitSet variants = (BitSet) allVariants.clone();
+        for (Map.Entry<String, String> entry : selection.entrySet()) {
+            if (entry.getKey().equals(skip)) {
+                continue;
+            }
+            BitSet withValue = variantsByValue.getOrDefault(entry.getKey(), Map.of()).get(entry.getValue());
+            if (withValue == null) {
+                variants.clear();
+                break;
+            }
+            variants.and(withValue);
+        }
+        return variants;
+    }
+}
@@ -0,0 +1,88 @@
+package com.ecommerce_app.service.catalog;
+
+import com.ecommerce_app.dto.response.VariantSelectionResponse;
+import com.ecommerce_app.event.ProductChangedEvent;
+import com.ecommerce_app.event.ProductStockChangedEvent;
+import com.ecommerce_app.exception.ResourceNotFoundException;
+import com.ecommerce_app.repository.ProductRepository;
+import com.ecommerce_app.repository.ProductVariantRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Resolves variants from attribute selections against a cached {@link VariantMatrix} per product.
+ * <p>
+ * A matrix is built from one query on first use and dropped after any committed change to the
+ * product's variants, their attributes or their stock (variant and variant attribute writes
+ * publish {@link ProductChangedEvent}, inventory writes {@link ProductStockChangedEvent}), so the
+ * next request rebuilds it. Entries also expire to bound staleness from writes on other nodes.
+ */
+@Service
+public class VariantMatrixService {
+
+    private final ProductRepository productRepository;
+    private final ProductVariantRepository productVariantRepository;
+    private final Cache<UUID, VariantMatrix> matrices;
+    private final TransactionTemplate readOnlyTransaction;
+
+    public VariantMatrixService(ProductRepository productRepository,
+                                ProductVariantRepository productVariantRepository,
+                                PlatformTransactionManager transactionManager,
+                                MeterRegistry meterRegistry,
+                                @Value("${app.cache.variant-matrix.max-size}") long maxSize,
+                                @Value("${app.cache.variant-matrix.expire-after-write}") long expireAfterWriteMillis) {
+        this.productRepository = productRepository;
+        this.productVariantRepository = productVariantRepository;
+        this.matrices = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofMillis(expireAfterWriteMillis))
+                .recordStats()
+                .build();
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+
+        CaffeineCacheMetrics.monitor(meterRegistry, matrices, "variantMatrix");
+    }
+
+    /**
+     * Resolve a selection of attribute values to a variant
+     *
+     * @param productId The product
+     * @param selection Attribute name to value; may name only some of the attributes
+     * @return The matching variant, if the selection names one, and the options still available
+     */
+    public VariantSelectionResponse resolve(UUID productId, Map<String, String> selection) {
+        return matrices.get(productId, this::load).resolve(selection);
+    }
+
+    private VariantMatrix load(UUID productId) {
+        return readOnlyTransaction.execute(status -> {
+            VariantMatrix matrix = VariantMatrix.build(productId, productVariantRepository.findMatrixRowsByProductId(productId));
+            if (matrix.isEmpty() && !productRepository.existsById(productId)) {
+                throw new ResourceNotFoundException("Product not found with id: " + productId);
+            }
+            return matrix;
+        });
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        matrices.invalidate(event.productId());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductStockChanged(ProductStockChangedEvent event) {
+        matrices.invalidate(event.productId());
+    }
+}
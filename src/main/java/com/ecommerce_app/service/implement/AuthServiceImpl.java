@@ -23,23 +23,23 @@ import com.ecommerce_app.repository.PasswordResetTokenRepository;
 import com.ecommerce_app.repository.RoleRepository;
 import com.ecommerce_app.repository.UserRepository;
 import com.ecommerce_app.service.interfaces.AuthService;
+import com.ecommerce_app.service.mail.EmailOutboxService;
+import com.ecommerce_app.service.security.JwtTokenVerifier;
+import com.ecommerce_app.service.security.PasswordHashingService;
+import com.ecommerce_app.service.security.RevokedTokenIndex;
+import com.ecommerce_app.service.security.RoleScopeCache;
 import com.nimbusds.jose.*;
 import com.nimbusds.jose.crypto.MACSigner;
-import com.nimbusds.jose.crypto.MACVerifier;
 import com.nimbusds.jwt.JWTClaimsSet;
 import com.nimbusds.jwt.SignedJWT;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.mail.SimpleMailMessage;
-import org.springframework.mail.javamail.JavaMailSender;
-import org.springframework.scheduling.annotation.Async;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.oauth2.jwt.*;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
-import org.springframework.util.CollectionUtils;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.text.ParseException;
 import java.time.Instant;
@@ -47,7 +47,6 @@ import java.time.LocalDateTime;
 import java.time.temporal.ChronoUnit;
 import java.util.Date;
 import java.util.HashSet;
-import java.util.StringJoiner;
 import java.util.UUID;
 import java.util.stream.Collectors;
 
@@ -60,22 +59,28 @@ public class AuthServiceImpl implements AuthService {
     private final RoleRepository roleRepository;
     private final UserMapper userMapper;
     private final PasswordResetTokenRepository passwordResetTokenRepository;
-    private final PasswordEncoder passwordEncoder;
-    private final JavaMailSender mailSender;
+    private final PasswordHashingService passwordHashingService;
+    private final EmailOutboxService emailOutboxService;
     private final InvalidatedTokenRepository invalidatedTokenRepository;
+    private final RevokedTokenIndex revokedTokenIndex;
+    private final JwtTokenVerifier jwtTokenVerifier;
+    private final RoleScopeCache roleScopeCache;
+    private final PlatformTransactionManager transactionManager;
 
     @Value("${app.jwt.secret}")
     private String jwtSecret;
 
+    @Value("${app.jwt.valid-duration}")
+    private long validDuration;
+
     @Override
-    @Transactional
     public TokenResponse login(LoginRequest loginRequest) {
-        PasswordEncoder password = new BCryptPasswordEncoder(10);
         User user = userRepository
                 .findByUsername(loginRequest.getUsername())
                 .orElseThrow(() -> new AppException(ErrorCode.USER_NOT_EXISTED));
 
-        boolean authenticated = password.matches(loginRequest.getPassword(), user.getPassword());
+        // Not transactional: the check waits for the hashing pool and must not hold a connection meanwhile
+        boolean authenticated = passwordHashingService.matches(loginRequest.getPassword(), user.getPassword());
         if (!authenticated) throw new AppException(ErrorCode.UNAUTHENTICATED);
 
         TokenInfo accessToken = generateJwtToken( user);
@@ -93,8 +98,13 @@ public class AuthServiceImpl implements AuthService {
     }
 
     @Override
-    @Transactional
     public UserResponse signup(SignupRequest signupRequest) {
+        // Hashed before the transaction opens, so waiting for the hashing pool never holds a connection
+        String encodedPassword = passwordHashingService.encode(signupRequest.getPassword());
+        return new TransactionTemplate(transactionManager).execute(status -> createCustomer(signupRequest, encodedPassword));
+    }
+
+    private UserResponse createCustomer(SignupRequest signupRequest, String encodedPassword) {
         if (userRepository.existsByUsername(signupRequest.getUsername())) {
             throw new AppException(ErrorCode.USER_NOT_EXISTED);
         }
@@ -108,7 +118,7 @@ public class AuthServiceImpl implements AuthService {
         User user = User.builder()
                 .username(signupRequest.getUsername())
                 .email(signupRequest.getEmail())
-                .password(passwordEncoder.encode(signupRequest.getPassword()))
+                .password(encodedPassword)
                 .fullName(signupRequest.getFullName())
                 .roles(roles)
                 .active(true)
@@ -133,19 +143,22 @@ public class AuthServiceImpl implements AuthService {
 
         passwordResetTokenRepository.save(resetToken);
 
-        // Send email with reset link
+        // Queue the reset link; the outbox dispatcher delivers it after this transaction commits
         String resetUrl = "http://localhost:8080/api/auth/reset-password?token=" + token;
-        SimpleMailMessage mailMessage = new SimpleMailMessage();
-        mailMessage.setTo(user.getEmail());
-        mailMessage.setSubject("Password Reset Request");
-        mailMessage.setText("To reset your password, click the link below:\n" + resetUrl + "\n\nThis link is valid for 24 hours.");
-        mailSender.send(mailMessage);
+        emailOutboxService.enqueue(user.getEmail(), "Password Reset Request",
+                "To reset your password, click the link below:\n" + resetUrl + "\n\nThis link is valid for 24 hours.");
     }
 
     @Override
-    @Transactional
     public void resetPassword(ResetPasswordRequest resetPasswordRequest) {
-        PasswordResetToken resetToken = passwordResetTokenRepository.findByToken(resetPasswordRequest.getToken())
+        // Hashed before the transaction opens, as in signup
+        String encodedPassword = passwordHashingService.encode(resetPasswordRequest.getPassword());
+        new TransactionTemplate(transactionManager).executeWithoutResult(status ->
+                applyPasswordReset(resetPasswordRequest.getToken(), encodedPassword));
+    }
+
+    private void applyPasswordReset(String token, String encodedPassword) {
+        PasswordResetToken resetToken = passwordResetTokenRepository.findByToken(token)
                 .orElseThrow(() -> new RuntimeException("Invalid or expired reset token"));
 
         if (resetToken.isUsed() || resetToken.getExpiryDate().isBefore(LocalDateTime.now())) {
@@ -153,7 +166,7 @@ public class AuthServiceImpl implements AuthService {
         }
 
         User user = resetToken.getUser();
-        user.setPassword(passwordEncoder.encode(resetPasswordRequest.getPassword()));
+        user.setPassword(encodedPassword);
         userRepository.save(user);
 
         resetToken.setUsed(true);
@@ -172,6 +185,7 @@ public class AuthServiceImpl implements AuthService {
                 InvalidatedToken.builder().id(jit).expiryTime(expiryTime).build();
 
         invalidatedTokenRepository.save(invalidatedToken);
+        revokedTokenIndex.revoke(jit, expiryTime);
 
         var email = signedJWT.getJWTClaimsSet().getSubject();
 
@@ -195,6 +209,7 @@ public class AuthServiceImpl implements AuthService {
                 .expiryTime(expiryTime)
                 .build();
         invalidatedTokenRepository.save(invalidated);
+        revokedTokenIndex.revoke(jit, expiryTime);
     }
 
     private TokenInfo generateJwtToken(User user) {
@@ -202,7 +217,7 @@ public class AuthServiceImpl implements AuthService {
 
         Date issueTime = new Date();
         Date expiryTime = new Date(Instant.ofEpochMilli(issueTime.getTime())
-                .plus(1, ChronoUnit.HOURS)
+                .plus(validDuration, ChronoUnit.SECONDS)
                 .toEpochMilli());
 
         JWTClaimsSet jwtClaimsSet = new JWTClaimsSet.Builder()
@@ -226,48 +241,17 @@ public class AuthServiceImpl implements AuthService {
         }
     }
 
-    @Async
-    public void sendResetEmail(User user, String resetUrl) {
-        SimpleMailMessage mailMessage = new SimpleMailMessage();
-        mailMessage.setTo(user.getEmail());
-        mailMessage.setSubject("Password Reset Request");
-        mailMessage.setText("To reset your password, click the link below:\n" + resetUrl + "\n\nThis link is valid for 24 hours.");
-        mailSender.send(mailMessage);
-    }
-
     private String buildScope(User user) {
-        StringJoiner stringJoiner = new StringJoiner(" ");
-
-        if (!CollectionUtils.isEmpty(user.getRoles()))
-            user.getRoles().forEach(role -> {
-                stringJoiner.add("ROLE_" + role.getName());
-                if (!CollectionUtils.isEmpty(role.getPermissions()))
-                    role.getPermissions().forEach(permission -> stringJoiner.add(permission.getName()));
-            });
-
-        return stringJoiner.toString();
+        return roleScopeCache.scopeFor(user.getRoles());
     }
 
     private record TokenInfo(String token, Date expiryDate) {}
 
     public SignedJWT verifyToken(String token) throws JOSEException, ParseException {
-        JWSVerifier verifier = new MACVerifier(jwtSecret.getBytes());
-
-        SignedJWT signedJWT = SignedJWT.parse(token);
-
-        Date expiryTime = signedJWT.getJWTClaimsSet().getExpirationTime();
-
-        var verified = signedJWT.verify(verifier);
-
-        if (!(verified && expiryTime.after(new Date()))) throw new AppException(ErrorCode.UNAUTHENTICATED);
-
-        if (invalidatedTokenRepository.existsById(signedJWT.getJWTClaimsSet().getJWTID()))
-            throw new AppException(ErrorCode.UNAUTHENTICATED);
-
-        return signedJWT;
+        return jwtTokenVerifier.verify(token);
     }
 
     public boolean isTokenInvalidated(String token) {
-        return invalidatedTokenRepository.existsById(token);
+        return revokedTokenIndex.isRevoked(token);
     }
 }
\ No newline at end of file
@@ -7,22 +7,34 @@ import com.ecommerce_app.entity.Cart;
 import com.ecommerce_app.entity.CartItem;
 import com.ecommerce_app.entity.Product;
 import com.ecommerce_app.entity.ProductVariant;
+import com.ecommerce_app.exception.BadRequestException;
 import com.ecommerce_app.exception.ResourceNotFoundException;
 import com.ecommerce_app.mapper.CartItemMapper;
 import com.ecommerce_app.repository.CartItemRepository;
 import com.ecommerce_app.repository.CartRepository;
 import com.ecommerce_app.repository.ProductRepository;
 import com.ecommerce_app.repository.ProductVariantRepository;
+import com.ecommerce_app.repository.projection.CartLineRow;
+import com.ecommerce_app.service.cart.CartItemBatchWriter;
+import com.ecommerce_app.service.cart.CartWriteExecutor;
 import com.ecommerce_app.service.interfaces.CartItemService;
 import com.ecommerce_app.service.interfaces.CartService;
+import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -34,11 +46,16 @@ public class CartItemServiceImpl implements CartItemService {
     private final ProductRepository productRepository;
     private final ProductVariantRepository productVariantRepository;
     private final CartItemMapper cartItemMapper;
-    private final CartService cartService;
+    private final CartItemBatchWriter cartItemBatchWriter;
+    private final CartWriteExecutor cartWriteExecutor;
+    private final EntityManager entityManager;
 
     @Override
-    @Transactional
     public CartItemResponse addItemToCart(UUID cartId, CartItemCreationRequest cartItemRequest) {
+        return cartWriteExecutor.execute("add", () -> doAddItemToCart(cartId, cartItemRequest));
+    }
+
+    private CartItemResponse doAddItemToCart(UUID cartId, CartItemCreationRequest cartItemRequest) {
         Cart cart = cartRepository.findById(cartId)
                 .orElseThrow(() -> new ResourceNotFoundException("Cart not found with id: " + cartId));
 
@@ -56,64 +73,151 @@ public class CartItemServiceImpl implements CartItemService {
         if (productVariant != null) {
             existingCartItem = cartItemRepository.findByCartAndProductAndProductVariant(cart, product, productVariant);
         } else {
-            existingCartItem = cartItemRepository.findByCartAndProduct(cart, product);
+            // Only the line without a variant; variant lines of the same product are separate lines
+            existingCartItem = cartItemRepository.findByCartAndProductAndProductVariantIsNull(cart, product);
         }
 
+        LocalDateTime now = LocalDateTime.now();
         CartItem cartItem;
         if (existingCartItem.isPresent()) {
-            // Update quantity if item already exists
+            // Add to the stored quantity rather than writing back the one read, so concurrent adds all count
             cartItem = existingCartItem.get();
-            cartItem.setQuantity(cartItem.getQuantity() + cartItemRequest.getQuantity());
+            cartItemBatchWriter.write(List.of(),
+                    List.of(new CartItemBatchWriter.Increment(cartItem.getId(), cartItemRequest.getQuantity())), now);
+            // Written around the entity, so detach it before reading back the quantity for the response
+            entityManager.detach(cartItem);
+            cartItem.setQuantity(cartItemRepository.findQuantityById(cartItem.getId()));
         } else {
-            // Create new cart item
-            cartItem = cartItemMapper.toCartItem(cartItemRequest);
+            // Create new cart item; a concurrent first add of the same line fails on the unique constraint and is retried
+            UUID cartItemId = UUID.randomUUID();
+            cartItemBatchWriter.write(List.of(new CartItemBatchWriter.NewLine(cartItemId, cartId, product.getId(),
+                    cartItemRequest.getProductVariantId(), cartItemRequest.getQuantity(),
+                    linePrice(product, productVariant))), List.of(), now);
+            cartItem = cartItemRepository.findById(cartItemId).orElseThrow();
+        }
+
+        adjustCartTotal(cartId, cartItem.getPrice(), cartItemRequest.getQuantity());
+
+        return cartItemMapper.toCartItemResponse(cartItem);
+    }
+
+    @Override
+    public List<CartItemResponse> addItemsToCart(UUID cartId, List<CartItemCreationRequest> cartItemRequests) {
+        return cartWriteExecutor.execute("add-batch", () -> doAddItemsToCart(cartId, cartItemRequests));
+    }
+
+    private List<CartItemResponse> doAddItemsToCart(UUID cartId, List<CartItemCreationRequest> cartItemRequests) {
+        Cart cart = cartRepository.findById(cartId)
+                .orElseThrow(() -> new ResourceNotFoundException("Cart not found with id: " + cartId));
+
+        // Repeated product and variant pairs end up as one line
+        Map<LineKey, Integer> quantities = new LinkedHashMap<>();
+        cartItemRequests.forEach(request -> quantities.merge(
+                new LineKey(request.getProductId(), request.getProductVariantId()), request.getQuantity(), Integer::sum));
+
+        Map<UUID, Product> products = productRepository.findWithImagesByIdIn(
+                        quantities.keySet().stream().map(LineKey::productId).collect(Collectors.toSet())).stream()
+                .collect(Collectors.toMap(Product::getId, Function.identity()));
+        Set<UUID> variantIds = quantities.keySet().stream()
+                .map(LineKey::productVariantId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        Map<UUID, ProductVariant> variants = variantIds.isEmpty() ? Map.of()
+                : productVariantRepository.findAllById(variantIds).stream()
+                .collect(Collectors.toMap(ProductVariant::getId, Function.identity()));
+        Map<LineKey, CartLineRow> existingLines = cartItemRepository.findLinesByCartId(cartId).stream()
+                .collect(Collectors.toMap(line -> new LineKey(line.getProductId(), line.getProductVariantId()),
+                        Function.identity(), (first, duplicate) -> first));
+
+        LocalDateTime now = LocalDateTime.now();
+        List<CartItemBatchWriter.NewLine> newLines = new ArrayList<>();
+        List<CartItemBatchWriter.Increment> increments = new ArrayList<>();
+        List<CartItem> cartItems = new ArrayList<>(quantities.size());
+        BigDecimal totalDelta = BigDecimal.ZERO;
+
+        for (Map.Entry<LineKey, Integer> entry : quantities.entrySet()) {
+            LineKey key = entry.getKey();
+            int quantity = entry.getValue();
+            Product product = products.get(key.productId());
+            if (product == null) {
+                throw new ResourceNotFoundException("Product not found with id: " + key.productId());
+            }
+            ProductVariant productVariant = null;
+            if (key.productVariantId() != null) {
+                productVariant = variants.get(key.productVariantId());
+                if (productVariant == null) {
+                    throw new ResourceNotFoundException("Product variant not found with id: " + key.productVariantId());
+                }
+                if (!productVariant.getProduct().getId().equals(product.getId())) {
+                    throw new BadRequestException("Product variant " + key.productVariantId()
+                            + " does not belong to product " + product.getId());
+                }
+            }
+
+            // Built in memory for the response only; the rows are written by the batch writer
+            CartItem cartItem = new CartItem();
             cartItem.setCart(cart);
             cartItem.setProduct(product);
             cartItem.setProductVariant(productVariant);
 
-            // Calculate price based on product and variant
-            BigDecimal price = product.getPrice();
-            if (productVariant != null && productVariant.getPriceDifference() != null) {
-                price = price.add(productVariant.getPriceDifference());
+            CartLineRow existingLine = existingLines.get(key);
+            if (existingLine != null) {
+                cartItem.setId(existingLine.getId());
+                cartItem.setQuantity(existingLine.getQuantity() + quantity);
+                cartItem.setPrice(existingLine.getPrice());
+                increments.add(new CartItemBatchWriter.Increment(existingLine.getId(), quantity));
+            } else {
+                cartItem.setId(UUID.randomUUID());
+                cartItem.setQuantity(quantity);
+                cartItem.setPrice(linePrice(product, productVariant));
+                newLines.add(new CartItemBatchWriter.NewLine(cartItem.getId(), cartId, product.getId(),
+                        key.productVariantId(), quantity, cartItem.getPrice()));
             }
-            cartItem.setPrice(price);
+            cartItem.setUpdatedAt(now);
+            cartItems.add(cartItem);
+            totalDelta = totalDelta.add(cartItem.getPrice().multiply(BigDecimal.valueOf(quantity)));
         }
 
-        CartItem savedCartItem = cartItemRepository.save(cartItem);
+        cartItemBatchWriter.write(newLines, increments, now);
+        cartRepository.addToTotalAmount(cartId, totalDelta, now);
 
-        // Recalculate cart total
-        cartService.calculateCartTotal(cartId);
-
-        return cartItemMapper.toCartItemResponse(savedCartItem);
+        return cartItems.stream()
+                .map(cartItemMapper::toCartItemResponse)
+                .collect(Collectors.toList());
     }
 
     @Override
-    @Transactional
     public CartItemResponse updateCartItem(UUID cartItemId, CartItemUpdateRequest updateRequest) {
+        return cartWriteExecutor.execute("update", () -> doUpdateCartItem(cartItemId, updateRequest));
+    }
+
+    private CartItemResponse doUpdateCartItem(UUID cartItemId, CartItemUpdateRequest updateRequest) {
+        // The version check on save rejects the update if the line changed since it was read here
         CartItem cartItem = cartItemRepository.findById(cartItemId)
                 .orElseThrow(() -> new ResourceNotFoundException("Cart item not found with id: " + cartItemId));
 
+        int previousQuantity = cartItem.getQuantity();
         cartItemMapper.updateCartItemFromDto(updateRequest, cartItem);
 
         CartItem updatedCartItem = cartItemRepository.save(cartItem);
-
-        // Recalculate cart total
-        cartService.calculateCartTotal(updatedCartItem.getCart().getId());
+        adjustCartTotal(updatedCartItem.getCart().getId(), updatedCartItem.getPrice(),
+                updatedCartItem.getQuantity() - previousQuantity);
 
         return cartItemMapper.toCartItemResponse(updatedCartItem);
     }
 
     @Override
-    @Transactional
     public void removeCartItem(UUID cartItemId) {
+        cartWriteExecutor.executeWithoutResult("remove", () -> doRemoveCartItem(cartItemId));
+    }
+
+    private void doRemoveCartItem(UUID cartItemId) {
         CartItem cartItem = cartItemRepository.findById(cartItemId)
                 .orElseThrow(() -> new ResourceNotFoundException("Cart item not found with id: " + cartItemId));
 
         UUID cartId = cartItem.getCart().getId();
         cartItemRepository.delete(cartItem);
-
-        // Recalculate cart total
-        cartService.calculateCartTotal(cartId);
+        adjustCartTotal(cartId, cartItem.getPrice(), -cartItem.getQuantity());
     }
 
     @Override
@@ -136,8 +240,11 @@ public class CartItemServiceImpl implements CartItemService {
     }
 
     @Override
-    @Transactional
     public void clearCart(UUID cartId) {
+        cartWriteExecutor.executeWithoutResult("clear", () -> doClearCart(cartId));
+    }
+
+    private void doClearCart(UUID cartId) {
         if (!cartRepository.existsById(cartId)) {
             throw new ResourceNotFoundException("Cart not found with id: " + cartId);
         }
@@ -145,6 +252,27 @@ public class CartItemServiceImpl implements CartItemService {
         cartItemRepository.deleteByCartId(cartId);
 
         // Reset cart total to zero
-        cartService.calculateCartTotal(cartId);
+        cartRepository.setTotalAmount(cartId, BigDecimal.ZERO, LocalDateTime.now());
+    }
+
+    private static BigDecimal linePrice(Product product, ProductVariant productVariant) {
+        BigDecimal price = product.getPrice();
+        if (productVariant != null && productVariant.getPriceDifference() != null) {
+            price = price.add(productVariant.getPriceDifference());
+        }
+        return price;
+    }
+
+    /**
+     * Apply the change of one line to the cart total in a single statement. The other lines are
+     * never read; {@link CartService#calculateCartTotal} recomputes from scratch if a total drifts.
+     */
+    private void adjustCartTotal(UUID cartId, BigDecimal price, int quantityDelta) {
+        if (quantityDelta != 0) {
+            cartRepository.addToTotalAmount(cartId, price.multiply(BigDecimal.valueOf(quantityDelta)), LocalDateTime.now());
+        }
+    }
+
+    private record LineKey(UUID productId, UUID productVariantId) {
     }
 }
@@ -4,7 +4,6 @@ import com.ecommerce_app.dto.request.CartCreationRequest;
 import com.ecommerce_app.dto.request.CartUpdateRequest;
 import com.ecommerce_app.dto.response.CartResponse;
 import com.ecommerce_app.entity.Cart;
-import com.ecommerce_app.entity.CartItem;
 import com.ecommerce_app.entity.Coupon;
 import com.ecommerce_app.entity.User;
 import com.ecommerce_app.exception.ResourceNotFoundException;
@@ -13,17 +12,19 @@ import com.ecommerce_app.repository.CartItemRepository;
 import com.ecommerce_app.repository.CartRepository;
 import com.ecommerce_app.repository.CouponRepository;
 import com.ecommerce_app.repository.UserRepository;
+import com.ecommerce_app.service.cart.CartWriteExecutor;
 import com.ecommerce_app.service.interfaces.CartService;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
-import java.util.List;
 import java.util.UUID;
 
 @Service
 @RequiredArgsConstructor
+@Slf4j
 public class CartServiceImpl implements CartService {
 
     private final CartRepository cartRepository;
@@ -31,6 +32,7 @@ public class CartServiceImpl implements CartService {
     private final UserRepository userRepository;
     private final CouponRepository couponRepository;
     private final CartMapper cartMapper;
+    private final CartWriteExecutor cartWriteExecutor;
 
     @Override
     @Transactional
@@ -67,8 +69,11 @@ public class CartServiceImpl implements CartService {
     }
 
     @Override
-    @Transactional
     public CartResponse updateCart(UUID cartId, CartUpdateRequest cartUpdateRequest) {
+        return cartWriteExecutor.execute("update", () -> doUpdateCart(cartId, cartUpdateRequest));
+    }
+
+    private CartResponse doUpdateCart(UUID cartId, CartUpdateRequest cartUpdateRequest) {
         Cart cart = cartRepository.findById(cartId)
                 .orElseThrow(() -> new ResourceNotFoundException("Cart not found with id: " + cartId));
 
@@ -88,8 +93,11 @@ public class CartServiceImpl implements CartService {
     }
 
     @Override
-    @Transactional
     public void deleteCart(UUID cartId) {
+        cartWriteExecutor.executeWithoutResult("delete", () -> doDeleteCart(cartId));
+    }
+
+    private void doDeleteCart(UUID cartId) {
         if (!cartRepository.existsById(cartId)) {
             throw new ResourceNotFoundException("Cart not found with id: " + cartId);
         }
@@ -98,8 +106,11 @@ public class CartServiceImpl implements CartService {
     }
 
     @Override
-    @Transactional
     public CartResponse applyCoupon(UUID cartId, UUID couponId) {
+        return cartWriteExecutor.execute("apply-coupon", () -> doApplyCoupon(cartId, couponId));
+    }
+
+    private CartResponse doApplyCoupon(UUID cartId, UUID couponId) {
         Cart cart = cartRepository.findById(cartId)
                 .orElseThrow(() -> new ResourceNotFoundException("Cart not found with id: " + cartId));
 
@@ -110,12 +121,15 @@ public class CartServiceImpl implements CartService {
         Cart updatedCart = cartRepository.save(cart);
 
         // Recalculate total
-        return calculateCartTotal(cartId);
+        return doCalculateCartTotal(cartId);
     }
 
     @Override
-    @Transactional
     public CartResponse removeCoupon(UUID cartId) {
+        return cartWriteExecutor.execute("remove-coupon", () -> doRemoveCoupon(cartId));
+    }
+
+    private CartResponse doRemoveCoupon(UUID cartId) {
         Cart cart = cartRepository.findById(cartId)
                 .orElseThrow(() -> new ResourceNotFoundException("Cart not found with id: " + cartId));
 
@@ -123,21 +137,22 @@ public class CartServiceImpl implements CartService {
         Cart updatedCart = cartRepository.save(cart);
 
         // Recalculate total
-        return calculateCartTotal(cartId);
+        return doCalculateCartTotal(cartId);
     }
 
     @Override
-    @Transactional
     public CartResponse calculateCartTotal(UUID cartId) {
+        return cartWriteExecutor.execute("recalculate", () -> doCalculateCartTotal(cartId));
+    }
+
+    private CartResponse doCalculateCartTotal(UUID cartId) {
         Cart cart = cartRepository.findById(cartId)
                 .orElseThrow(() -> new ResourceNotFoundException("Cart not found with id: " + cartId));
 
-        List<CartItem> cartItems = cartItemRepository.findByCart(cart);
-
-        BigDecimal total = BigDecimal.ZERO;
-        for (CartItem item : cartItems) {
-            BigDecimal itemTotal = item.getPrice().multiply(new BigDecimal(item.getQuantity()));
-            total = total.add(itemTotal);
+        // Item edits maintain the total incrementally; a full recompute also repairs any drift
+        BigDecimal total = cartItemRepository.sumLineTotalsByCartId(cartId);
+        if (cart.getTotalAmount() == null || cart.getTotalAmount().compareTo(total) != 0) {
+            log.warn("Cart {} total drifted from {} to {}; repaired", cartId, cart.getTotalAmount(), total);
         }
 
         // Apply coupon discount if any
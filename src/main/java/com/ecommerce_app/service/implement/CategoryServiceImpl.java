@@ -1,26 +1,42 @@
 package com.ecommerce_app.service.implement;
 
+import com.ecommerce_app.constant.SlugType;
 import com.ecommerce_app.dto.request.CategoryCreationRequest;
 import com.ecommerce_app.dto.request.CategoryUpdateRequest;
 import com.ecommerce_app.dto.response.CategoryBasicResponse;
 import com.ecommerce_app.dto.response.CategoryResponse;
 import com.ecommerce_app.dto.response.CategoryTreeResponse;
 import com.ecommerce_app.entity.Category;
+import com.ecommerce_app.entity.CategoryClosure;
+import com.ecommerce_app.event.CategoryChangedEvent;
+import com.ecommerce_app.event.ProductChangedEvent;
+import com.ecommerce_app.event.SlugChangedEvent;
 import com.ecommerce_app.exception.ResourceAlreadyExistsException;
 import com.ecommerce_app.exception.ResourceNotFoundException;
 import com.ecommerce_app.mapper.CategoryMapper;
+import com.ecommerce_app.repository.CategoryClosureRepository;
 import com.ecommerce_app.repository.CategoryRepository;
+import com.ecommerce_app.repository.ProductRepository;
+import com.ecommerce_app.repository.projection.CategoryProductCountRow;
+import com.ecommerce_app.service.cache.SlugRoutingTable;
+import com.ecommerce_app.service.catalog.CategoryProductCountService;
+import com.ecommerce_app.service.catalog.CategoryTree;
+import com.ecommerce_app.service.catalog.CategoryTreeService;
 import com.ecommerce_app.service.interfaces.CategoryService;
 import com.ecommerce_app.util.SlugUtil;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.UUID;
 import java.util.stream.Collectors;
 
@@ -31,7 +47,13 @@ import java.util.stream.Collectors;
 public class CategoryServiceImpl implements CategoryService {
 
     private final CategoryRepository categoryRepository;
+    private final CategoryClosureRepository categoryClosureRepository;
     private final CategoryMapper categoryMapper;
+    private final ProductRepository productRepository;
+    private final SlugRoutingTable slugRoutingTable;
+    private final CategoryProductCountService categoryProductCountService;
+    private final CategoryTreeService categoryTreeService;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
     public CategoryResponse createCategory(CategoryCreationRequest request) {
@@ -66,7 +88,14 @@ public class CategoryServiceImpl implements CategoryService {
         category.setUpdatedAt(now);
 
         Category savedCategory = categoryRepository.save(category);
+        categoryClosureRepository.save(new CategoryClosure(savedCategory.getId(), savedCategory.getId(), 0));
+        if (savedCategory.getParent() != null) {
+            categoryClosureRepository.insertAncestorLinks(savedCategory.getId(), savedCategory.getParent().getId());
+        }
+        categoryProductCountService.categoryCreated(savedCategory.getId());
         log.info("Category created successfully with ID: {}", savedCategory.getId());
+        eventPublisher.publishEvent(new CategoryChangedEvent(savedCategory.getId()));
+        eventPublisher.publishEvent(new SlugChangedEvent(SlugType.CATEGORY, savedCategory.getId(), null, savedCategory.getSlug()));
 
         CategoryResponse response = categoryMapper.toResponse(savedCategory);
         response.setProductCount(0); // New category has no products
@@ -79,6 +108,8 @@ public class CategoryServiceImpl implements CategoryService {
         log.info("Updating category with ID: {}", id);
 
         Category category = findCategoryById(id);
+        UUID previousParentId = category.getParent() != null ? category.getParent().getId() : null;
+        String previousSlug = category.getSlug();
 
         // Check name uniqueness if changed
         if (request.getName() != null && !request.getName().equals(category.getName()) &&
@@ -123,24 +154,28 @@ public class CategoryServiceImpl implements CategoryService {
         category.setUpdatedAt(LocalDateTime.now());
 
         Category updatedCategory = categoryRepository.save(category);
+        UUID parentId = updatedCategory.getParent() != null ? updatedCategory.getParent().getId() : null;
+        if (!Objects.equals(previousParentId, parentId)) {
+            relinkSubtree(id, parentId);
+        }
         log.info("Category updated successfully with ID: {}", updatedCategory.getId());
+        eventPublisher.publishEvent(new CategoryChangedEvent(id));
+        if (!updatedCategory.getSlug().equals(previousSlug)) {
+            eventPublisher.publishEvent(new SlugChangedEvent(SlugType.CATEGORY, id, previousSlug, updatedCategory.getSlug()));
+        }
 
-        CategoryResponse response = categoryMapper.toResponse(updatedCategory);
-        response.setProductCount(categoryRepository.countProductsByCategoryId(id));
+        // Products render their category name and slug
+        productRepository.findIdsByCategoryId(id)
+                .forEach(productId -> eventPublisher.publishEvent(new ProductChangedEvent(productId)));
 
-        return response;
+        return toResponse(updatedCategory);
     }
 
     @Override
     @Transactional(readOnly = true)
     public CategoryResponse getCategoryById(UUID id) {
         log.info("Fetching category with ID: {}", id);
-        Category category = findCategoryById(id);
-
-        CategoryResponse response = categoryMapper.toResponse(category);
-        response.setProductCount(categoryRepository.countProductsByCategoryId(id));
-
-        return response;
+        return toResponse(findCategoryById(id));
     }
 
     @Override
@@ -148,13 +183,11 @@ public class CategoryServiceImpl implements CategoryService {
     public CategoryResponse getCategoryBySlug(String slug) {
         log.info("Fetching category with slug: {}", slug);
 
-        Category category = categoryRepository.findBySlug(slug)
-                .orElseThrow(() -> new ResourceNotFoundException("Category"));
+        UUID id = slugRoutingTable.resolve(SlugType.CATEGORY, slug);
+        Category category = categoryRepository.findById(id).orElse(null);
+        slugRoutingTable.checkCurrent(SlugType.CATEGORY, slug, category != null ? category.getSlug() : null);
 
-        CategoryResponse response = categoryMapper.toResponse(category);
-        response.setProductCount(categoryRepository.countProductsByCategoryId(category.getId()));
-
-        return response;
+        return toResponse(category);
     }
 
     @Override
@@ -162,12 +195,11 @@ public class CategoryServiceImpl implements CategoryService {
     public Page<CategoryResponse> getAllCategories(Pageable pageable) {
         log.info("Fetching all categories with pagination");
 
-        return categoryRepository.findAll(pageable)
-                .map(category -> {
-                    CategoryResponse response = categoryMapper.toResponse(category);
-                    response.setProductCount(categoryRepository.countProductsByCategoryId(category.getId()));
-                    return response;
-                });
+        Page<Category> categories = categoryRepository.findAll(pageable);
+        Map<UUID, CategoryProductCountRow> counts = categoryProductCountService.getCounts(
+                categories.map(Category::getId).getContent());
+
+        return categories.map(category -> toResponse(category, counts.get(category.getId())));
     }
 
     @Override
@@ -181,16 +213,11 @@ public class CategoryServiceImpl implements CategoryService {
     }
 
     @Override
-    @Transactional(readOnly = true)
+    @Transactional(propagation = Propagation.SUPPORTS)
     public List<CategoryTreeResponse> getCategoryTree() {
         log.info("Fetching category tree");
 
-        // Get all root categories (categories without parent)
-        List<Category> rootCategories = categoryRepository.findAllRootCategories();
-
-        return rootCategories.stream()
-                .map(categoryMapper::toTreeResponseDto)
-                .collect(Collectors.toList());
+        return categoryTreeService.getTree().toTreeResponses();
     }
 
     @Override
@@ -202,16 +229,26 @@ public class CategoryServiceImpl implements CategoryService {
         findCategoryById(parentId);
 
         List<Category> subcategories = categoryRepository.findAllByParentId(parentId);
+        Map<UUID, CategoryProductCountRow> counts = categoryProductCountService.getCounts(
+                subcategories.stream().map(Category::getId).toList());
 
         return subcategories.stream()
-                .map(category -> {
-                    CategoryResponse response = categoryMapper.toResponse(category);
-                    response.setProductCount(categoryRepository.countProductsByCategoryId(category.getId()));
-                    return response;
-                })
+                .map(category -> toResponse(category, counts.get(category.getId())))
                 .collect(Collectors.toList());
     }
 
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public List<CategoryBasicResponse> getAncestors(UUID id) {
+        return findInTree(id).getAncestors(id);
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public List<CategoryBasicResponse> getDescendants(UUID id) {
+        return findInTree(id).getDescendants(id);
+    }
+
     @Override
     public void deleteCategory(UUID id) {
         log.info("Deleting category with ID: {}", id);
@@ -231,8 +268,13 @@ public class CategoryServiceImpl implements CategoryService {
             throw new IllegalStateException("Cannot delete category as it has associated products");
         }
 
+        // A category without subcategories only appears in the closure as a descendant
+        categoryClosureRepository.deleteByDescendantId(id);
+        categoryProductCountService.categoryRemoved(id);
         categoryRepository.delete(category);
         log.info("Category deleted successfully with ID: {}", id);
+        eventPublisher.publishEvent(new CategoryChangedEvent(id));
+        eventPublisher.publishEvent(new SlugChangedEvent(SlugType.CATEGORY, id, category.getSlug(), null));
     }
 
     @Override
@@ -261,13 +303,12 @@ public class CategoryServiceImpl implements CategoryService {
 
         category.setUpdatedAt(LocalDateTime.now());
         Category updatedCategory = categoryRepository.save(category);
+        relinkSubtree(categoryId, newParentId);
 
         log.info("Category moved successfully with ID: {}", updatedCategory.getId());
+        eventPublisher.publishEvent(new CategoryChangedEvent(categoryId));
 
-        CategoryResponse response = categoryMapper.toResponse(updatedCategory);
-        response.setProductCount(categoryRepository.countProductsByCategoryId(categoryId));
-
-        return response;
+        return toResponse(updatedCategory);
     }
 
     // Helper methods
@@ -277,24 +318,45 @@ public class CategoryServiceImpl implements CategoryService {
                 .orElseThrow(() -> new ResourceNotFoundException( "Category id"));
     }
 
-    private boolean isCircularReference(UUID categoryId, UUID potentialParentId) {
-        // If the potential parent is the category itself, it's circular
-        if (categoryId.equals(potentialParentId)) {
-            return true;
+    private CategoryTree findInTree(UUID id) {
+        CategoryTree tree = categoryTreeService.getTree();
+        if (!tree.contains(id)) {
+            throw new ResourceNotFoundException("Category id");
         }
+        return tree;
+    }
 
-        // Get the potential parent
-        Category potentialParent = findCategoryById(potentialParentId);
+    private CategoryResponse toResponse(Category category) {
+        return toResponse(category, categoryProductCountService.getCounts(List.of(category.getId())).get(category.getId()));
+    }
 
-        // Traverse up the hierarchy to check if we encounter the category
-        Category current = potentialParent.getParent();
-        while (current != null) {
-            if (current.getId().equals(categoryId)) {
-                return true;
-            }
-            current = current.getParent();
+    private CategoryResponse toResponse(Category category, CategoryProductCountRow counts) {
+        CategoryResponse response = categoryMapper.toResponse(category);
+        if (counts != null) {
+            response.setProductCount(Math.toIntExact(counts.getDirectCount()));
+            response.setTotalProductCount(Math.toIntExact(counts.getTotalCount()));
         }
+        return response;
+    }
 
-        return false;
+    private boolean isCircularReference(UUID categoryId, UUID potentialParentId) {
+        // Circular if the potential parent is the category itself or anywhere below it. Checked
+        // against the closure table, not the tree snapshot, which may miss a move made on another node
+        return categoryId.equals(potentialParentId)
+                || categoryClosureRepository.existsByAncestorIdAndDescendantId(categoryId, potentialParentId);
+    }
+
+    /**
+     * Move the closure links of the subtree rooted at the category below its new parent
+     *
+     * @param categoryId The category whose parent changed
+     * @param parentId   The new parent, or null if the category became a root
+     */
+    private void relinkSubtree(UUID categoryId, UUID parentId) {
+        categoryProductCountService.subtreeMoving(categoryId, parentId);
+        categoryClosureRepository.detachSubtree(categoryId);
+        if (parentId != null) {
+            categoryClosureRepository.attachSubtree(categoryId, parentId);
+        }
     }
 }
\ No newline at end of file
@@ -5,12 +5,14 @@ import com.ecommerce_app.dto.request.InventoryUpdateRequest;
 import com.ecommerce_app.dto.response.InventoryResponse;
 import com.ecommerce_app.entity.Inventory;
 import com.ecommerce_app.entity.ProductVariant;
+import com.ecommerce_app.event.ProductStockChangedEvent;
 import com.ecommerce_app.exception.ResourceNotFoundException;
 import com.ecommerce_app.mapper.InventoryMapper;
 import com.ecommerce_app.repository.InventoryRepository;
 import com.ecommerce_app.repository.ProductVariantRepository;
 import com.ecommerce_app.service.interfaces.InventoryService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
@@ -27,6 +29,7 @@ public class InventoryServiceImpl implements InventoryService {
     private final InventoryRepository inventoryRepository;
     private final ProductVariantRepository productVariantRepository;
     private final InventoryMapper inventoryMapper;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
     @Transactional
@@ -45,6 +48,7 @@ public class InventoryServiceImpl implements InventoryService {
 
         // Save the inventory
         Inventory savedInventory = inventoryRepository.save(inventory);
+        publishStockChanged(savedInventory);
 
         // Return the response
         return inventoryMapper.toResponse(savedInventory);
@@ -106,6 +110,7 @@ public class InventoryServiceImpl implements InventoryService {
 
         // Save the updated inventory
         Inventory updatedInventory = inventoryRepository.save(inventory);
+        publishStockChanged(updatedInventory);
 
         return inventoryMapper.toResponse(updatedInventory);
     }
@@ -113,11 +118,11 @@ public class InventoryServiceImpl implements InventoryService {
     @Override
     @Transactional
     public void deleteInventory(UUID id) {
-        if (!inventoryRepository.existsById(id)) {
-            throw new ResourceNotFoundException("Inventory id" + id);
-        }
+        Inventory inventory = inventoryRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Inventory id" + id));
 
-        inventoryRepository.deleteById(id);
+        inventoryRepository.delete(inventory);
+        publishStockChanged(inventory);
     }
 
     @Override
@@ -133,6 +138,7 @@ public class InventoryServiceImpl implements InventoryService {
 
         inventory.setStockQuantity(stockQuantity);
         Inventory updatedInventory = inventoryRepository.save(inventory);
+        publishStockChanged(updatedInventory);
 
         return inventoryMapper.toResponse(updatedInventory);
     }
@@ -154,6 +160,7 @@ public class InventoryServiceImpl implements InventoryService {
         // Update reserved quantity
         inventory.setReservedQuantity(inventory.getReservedQuantity() + quantity);
         Inventory updatedInventory = inventoryRepository.save(inventory);
+        publishStockChanged(updatedInventory);
 
         return inventoryMapper.toResponse(updatedInventory);
     }
@@ -172,6 +179,7 @@ public class InventoryServiceImpl implements InventoryService {
         // Update reserved quantity
         inventory.setReservedQuantity(inventory.getReservedQuantity() - quantity);
         Inventory updatedInventory = inventoryRepository.save(inventory);
+        publishStockChanged(updatedInventory);
 
         return inventoryMapper.toResponse(updatedInventory);
     }
@@ -191,7 +199,12 @@ public class InventoryServiceImpl implements InventoryService {
         inventory.setReservedQuantity(inventory.getReservedQuantity() - quantity);
         inventory.setStockQuantity(inventory.getStockQuantity() - quantity);
         Inventory updatedInventory = inventoryRepository.save(inventory);
+        publishStockChanged(updatedInventory);
 
         return inventoryMapper.toResponse(updatedInventory);
     }
-}
\ No newline at end of file
+
+    private void publishStockChanged(Inventory inventory) {
+        eventPublisher.publishEvent(new ProductStockChangedEvent(inventory.getProductVariant().getProduct().getId()));
+    }
+}
@@ -6,6 +6,7 @@ import com.ecommerce_app.dto.response.InventoryTransactionResponse;
 import com.ecommerce_app.entity.Inventory;
 import com.ecommerce_app.entity.InventoryTransaction;
 import com.ecommerce_app.entity.User;
+import com.ecommerce_app.event.ProductStockChangedEvent;
 import com.ecommerce_app.exception.ResourceNotFoundException;
 import com.ecommerce_app.mapper.InventoryTransactionMapper;
 import com.ecommerce_app.repository.InventoryRepository;
@@ -13,6 +14,7 @@ import com.ecommerce_app.repository.InventoryTransactionRepository;
 import com.ecommerce_app.repository.UserRepository;
 import com.ecommerce_app.service.interfaces.InventoryTransactionService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
@@ -31,6 +33,7 @@ public class InventoryTransactionServiceImpl implements InventoryTransactionServ
     private final InventoryRepository inventoryRepository;
     private final UserRepository userRepository;
     private final InventoryTransactionMapper transactionMapper;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
     @Transactional
@@ -184,5 +187,6 @@ public class InventoryTransactionServiceImpl implements InventoryTransactionServ
 
         // Save the updated inventory
         inventoryRepository.save(inventory);
+        eventPublisher.publishEvent(new ProductStockChangedEvent(inventory.getProductVariant().getProduct().getId()));
     }
 }
\ No newline at end of file
@@ -5,23 +5,20 @@ import com.ecommerce_app.dto.request.OrderItemUpdateRequest;
 import com.ecommerce_app.dto.response.OrderItemResponse;
 import com.ecommerce_app.entity.Order;
 import com.ecommerce_app.entity.OrderItem;
-import com.ecommerce_app.entity.Product;
 import com.ecommerce_app.entity.ProductVariant;
 import com.ecommerce_app.exception.EntityNotFoundException;
 import com.ecommerce_app.exception.InvalidOperationException;
 import com.ecommerce_app.mapper.OrderItemMapper;
 import com.ecommerce_app.repository.OrderItemRepository;
 import com.ecommerce_app.repository.OrderRepository;
-import com.ecommerce_app.repository.ProductRepository;
 import com.ecommerce_app.repository.ProductVariantRepository;
 import com.ecommerce_app.service.interfaces.OrderItemService;
+import com.ecommerce_app.service.order.OrderItemBatchCreator;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.math.BigDecimal;
-import java.util.ArrayList;
 import java.util.List;
 import java.util.UUID;
 import java.util.stream.Collectors;
@@ -33,9 +30,9 @@ public class OrderItemServiceImpl implements OrderItemService {
 
     private final OrderItemRepository orderItemRepository;
     private final OrderRepository orderRepository;
-    private final ProductRepository productRepository;
     private final ProductVariantRepository productVariantRepository;
     private final OrderItemMapper orderItemMapper;
+    private final OrderItemBatchCreator orderItemBatchCreator;
 
     @Override
     @Transactional
@@ -51,35 +48,8 @@ public class OrderItemServiceImpl implements OrderItemService {
             throw new InvalidOperationException("Cannot add items to an order with status: " + order.getStatus().getName());
         }
 
-        // Validate product existence
-        Product product = productRepository.findById(request.getProductId())
-                .orElseThrow(() -> new EntityNotFoundException("Product not found with ID: " + request.getProductId()));
-
-        // Validate product variant if provided
-        ProductVariant productVariant = null;
-        if (request.getProductVariantId() != null) {
-            productVariant = productVariantRepository.findById(request.getProductVariantId())
-                    .orElseThrow(() -> new EntityNotFoundException("Product variant not found with ID: " + request.getProductVariantId()));
-
-            // Check if variant belongs to the product
-            if (!productVariant.getProduct().getId().equals(product.getId())) {
-                throw new InvalidOperationException("Product variant does not belong to the specified product");
-            }
-        }
-
-        // Map request to entity
-        OrderItem orderItem = orderItemMapper.toEntity(request);
-        orderItem.setOrder(order);
-        orderItem.setProduct(product);
-        orderItem.setProductVariant(productVariant);
-
-        // Set prices
-        BigDecimal unitPrice = determineUnitPrice(product, productVariant);
-        orderItem.setUnitPrice(unitPrice);
-        orderItem.setTotalPrice(unitPrice.multiply(BigDecimal.valueOf(request.getQuantity())));
-
-        // Save order item
-        orderItem = orderItemRepository.save(orderItem);
+        // Same path as a multi-line order, with a one-element list
+        OrderItem orderItem = orderItemBatchCreator.createOrderItems(order, List.of(request)).get(0);
 
         log.info("Order item created successfully for order: {}", order.getOrderNumber());
         return orderItemMapper.toResponse(orderItem);
@@ -90,12 +60,18 @@ public class OrderItemServiceImpl implements OrderItemService {
     public List<OrderItemResponse> createOrderItems(UUID orderId, List<OrderItemCreationRequest> requests) {
         log.info("Creating multiple order items for order ID: {}", orderId);
 
-        List<OrderItemResponse> responses = new ArrayList<>();
-        for (OrderItemCreationRequest request : requests) {
-            responses.add(createOrderItem(orderId, request));
+        // Validate order existence
+        Order order = orderRepository.findById(orderId)
+                .orElseThrow(() -> new EntityNotFoundException("Order not found with ID: " + orderId));
+
+        // Check if order can be modified
+        if (isOrderStatusFinal(order.getStatus().getName())) {
+            throw new InvalidOperationException("Cannot add items to an order with status: " + order.getStatus().getName());
         }
 
-        return responses;
+        return orderItemBatchCreator.createOrderItems(order, requests).stream()
+                .map(orderItemMapper::toResponse)
+                .collect(Collectors.toList());
     }
 
     @Override
@@ -157,9 +133,7 @@ public class OrderItemServiceImpl implements OrderItemService {
         }
 
         // Recalculate prices
-        BigDecimal unitPrice = determineUnitPrice(orderItem.getProduct(), orderItem.getProductVariant());
-        orderItem.setUnitPrice(unitPrice);
-        orderItem.setTotalPrice(unitPrice.multiply(BigDecimal.valueOf(request.getQuantity())));
+        orderItem.applyPricing();
 
         // Save updated order item
         orderItem = orderItemRepository.save(orderItem);
@@ -202,16 +176,6 @@ public class OrderItemServiceImpl implements OrderItemService {
 
     // Helper methods
 
-    private BigDecimal determineUnitPrice(Product product, ProductVariant variant) {
-        // If variant exists and has a price, use it
-        if (variant != null && variant.getProduct().getPrice() != null) {
-            return variant.getProduct().getPrice();
-        }
-
-        // Otherwise use product price
-        return product.getPrice();
-    }
-
     private boolean isOrderStatusFinal(String statusName) {
         return "Completed".equals(statusName) || "Cancelled".equals(statusName);
     }
@@ -1,10 +1,11 @@
 package com.ecommerce_app.service.implement;
 
+import com.ecommerce_app.constant.CheckoutStage;
 import com.ecommerce_app.dto.request.OrderCreationRequest;
-import com.ecommerce_app.dto.request.OrderItemCreationRequest;
 import com.ecommerce_app.dto.request.OrderUpdateRequest;
 import com.ecommerce_app.dto.request.PaymentCreationRequest;
 import com.ecommerce_app.dto.request.ShippingCreationRequest;
+import com.ecommerce_app.dto.response.CursorPageResponse;
 import com.ecommerce_app.dto.response.OrderResponse;
 import com.ecommerce_app.entity.*;
 import com.ecommerce_app.exception.EntityNotFoundException;
@@ -12,9 +13,13 @@ import com.ecommerce_app.exception.InvalidOperationException;
 import com.ecommerce_app.mapper.OrderMapper;
 import com.ecommerce_app.repository.*;
 import com.ecommerce_app.service.interfaces.*;
+import com.ecommerce_app.service.order.CheckoutMetrics;
+import com.ecommerce_app.service.order.OrderItemBatchCreator;
+import com.ecommerce_app.util.KeysetCursor;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -32,6 +37,8 @@ public class OrderServiceImpl implements OrderService {
 
     private final OrderRepository orderRepository;
     private final OrderItemService orderItemService;
+    private final OrderItemBatchCreator orderItemBatchCreator;
+    private final CheckoutMetrics checkoutMetrics;
     private final UserRepository userRepository;
     private final AddressRepository addressRepository;
     private final OrderStatusRepository orderStatusRepository;
@@ -44,6 +51,9 @@ public class OrderServiceImpl implements OrderService {
     @Transactional
     public OrderResponse createOrder(OrderCreationRequest request) {
         log.info("Creating new order for user with ID: {}", request.getUserId());
+        CheckoutMetrics.Checkout checkout = checkoutMetrics.start();
+        // Recorded once the transaction commits or rolls back, so a failed commit is not a success
+        checkout.finishOnCompletion();
 
         // Validate user existence
         User user = userRepository.findById(request.getUserId())
@@ -73,6 +83,7 @@ public class OrderServiceImpl implements OrderService {
         order.setBillingAddress(billingAddress);
         order.setShippingAddress(shippingAddress);
         order.setStatus(defaultStatus);
+        checkout.lap(CheckoutStage.LOOKUP);
 
         // Handle coupon if provided
         if (request.getCouponId() != null) {
@@ -86,40 +97,44 @@ public class OrderServiceImpl implements OrderService {
             // Increment coupon usage
             coupon.setUsedCount(coupon.getUsedCount() + 1);
             couponRepository.save(coupon);
+            checkout.lap(CheckoutStage.COUPON);
         }
 
-        // Save the order to get the ID
-        order = orderRepository.save(order);
-
-        // Initialize amounts
+        // Initialize amounts; Hibernate inserts the order with the values it has when saved
         order.setTotalAmount(BigDecimal.ZERO);
         order.setShippingAmount(BigDecimal.ZERO);
         order.setTaxAmount(BigDecimal.ZERO);
         order.setDiscountAmount(BigDecimal.ZERO);
 
-        // Create order items
-        for (OrderItemCreationRequest itemRequest : request.getOrderItems()) {
-            orderItemService.createOrderItem(order.getId(), itemRequest);
-        }
+        // Save the order to get the ID
+        order = orderRepository.save(order);
+        checkout.lap(CheckoutStage.ORDER);
 
-        // Reload the order with items to calculate totals
-        order = orderRepository.findById(order.getId())
-                .orElseThrow(() -> new EntityNotFoundException("Order not found after creation"));
+        // Create order items; the new order is still open, so the lines are added without further checks
+        orderItemBatchCreator.createOrderItems(order, request.getOrderItems());
+        checkout.lap(CheckoutStage.ITEMS);
 
-        // Calculate order totals
+        // Calculate order totals from the lines just added
         calculateOrderTotals(order);
+        checkout.lap(CheckoutStage.TOTALS);
 
         // Create payment
         createPaymentForOrder(order, request.getPaymentMethod(), request.getPaymentDetails());
+        checkout.lap(CheckoutStage.PAYMENT);
 
         // Create shipping
         createShippingForOrder(order, request.getShippingMethod());
+        checkout.lap(CheckoutStage.SHIPPING);
 
-        // Save updated order
-        order = orderRepository.save(order);
+        // Save updated order; flushed here so the inserts are measured as a stage instead of hiding in the commit
+        order = orderRepository.saveAndFlush(order);
+        checkout.lap(CheckoutStage.FLUSH);
+
+        OrderResponse response = orderMapper.toResponse(order);
+        checkout.lap(CheckoutStage.RESPONSE);
 
         log.info("Order created successfully with order number: {}", order.getOrderNumber());
-        return orderMapper.toResponse(order);
+        return response;
     }
 
     @Override
@@ -227,6 +242,54 @@ public class OrderServiceImpl implements OrderService {
                 .map(orderMapper::toResponse);
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPageResponse<OrderResponse> getAllOrders(String after, int size) {
+        log.info("Fetching all orders after cursor");
+        int pageSize = KeysetCursor.clampPageSize(size);
+        Pageable limit = PageRequest.ofSize(pageSize + 1);
+        List<Order> orders;
+        if (after == null || after.isBlank()) {
+            orders = orderRepository.findNewestFirst(limit);
+        } else {
+            KeysetCursor cursor = KeysetCursor.decode(after);
+            orders = orderRepository.findNewestFirstAfter(cursor.createdAt(), cursor.id(), limit);
+        }
+        return toCursorPage(orders, pageSize);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPageResponse<OrderResponse> getOrdersByUser(UUID userId, String after, int size) {
+        log.info("Fetching orders after cursor for user with ID: {}", userId);
+        if (!userRepository.existsById(userId)) {
+            throw new EntityNotFoundException("User not found with ID: " + userId);
+        }
+
+        int pageSize = KeysetCursor.clampPageSize(size);
+        Pageable limit = PageRequest.ofSize(pageSize + 1);
+        List<Order> orders;
+        if (after == null || after.isBlank()) {
+            orders = orderRepository.findByUserIdNewestFirst(userId, limit);
+        } else {
+            KeysetCursor cursor = KeysetCursor.decode(after);
+            orders = orderRepository.findByUserIdNewestFirstAfter(userId, cursor.createdAt(), cursor.id(), limit);
+        }
+        return toCursorPage(orders, pageSize);
+    }
+
+    private CursorPageResponse<OrderResponse> toCursorPage(List<Order> orders, int pageSize) {
+        // The cursor is taken from the entity, the response does not expose createdAt
+        CursorPageResponse<Order> page = CursorPageResponse.of(orders, pageSize,
+                order -> new KeysetCursor(order.getCreatedAt(), order.getId()).encode());
+        return CursorPageResponse.<OrderResponse>builder()
+                .content(page.getContent().stream().map(orderMapper::toResponse).toList())
+                .size(page.getSize())
+                .hasNext(page.isHasNext())
+                .nextCursor(page.getNextCursor())
+                .build();
+    }
+
     @Override
     public Page<OrderResponse> getOrdersByStatus(UUID statusId, Pageable pageable) {
         log.info("Fetching orders with status ID: {}", statusId);
@@ -4,6 +4,7 @@ import com.ecommerce_app.dto.request.PermissionCreationRequestDto;
 import com.ecommerce_app.dto.request.PermissionUpdateRequestDto;
 import com.ecommerce_app.dto.response.PermissionResponse;
 import com.ecommerce_app.entity.Permission;
+import com.ecommerce_app.event.RoleScopesChangedEvent;
 import com.ecommerce_app.exception.ResourceAlreadyExistsException;
 import com.ecommerce_app.exception.ResourceNotFoundException;
 import com.ecommerce_app.mapper.PermissionMapper;
@@ -11,6 +12,7 @@ import com.ecommerce_app.repository.PermissionRepository;
 import com.ecommerce_app.service.interfaces.PermissionService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -26,6 +28,7 @@ public class PermissionServiceImpl implements PermissionService {
 
     private final PermissionRepository permissionRepository;
     private final PermissionMapper permissionMapper;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
     @Transactional
@@ -90,6 +93,7 @@ public class PermissionServiceImpl implements PermissionService {
         // Save updated permission
         Permission updatedPermission = permissionRepository.save(permission);
         log.info("Updated permission with id: {}", updatedPermission.getId());
+        eventPublisher.publishEvent(new RoleScopesChangedEvent());
 
         return permissionMapper.toResponseDto(updatedPermission);
     }
@@ -103,6 +107,7 @@ public class PermissionServiceImpl implements PermissionService {
 
         permissionRepository.deleteById(id);
         log.info("Deleted permission with id: {}", id);
+        eventPublisher.publishEvent(new RoleScopesChangedEvent());
     }
 
     @Override
@@ -6,6 +6,7 @@ import com.ecommerce_app.dto.response.ProductImageResponse;
 import com.ecommerce_app.entity.Product;
 import com.ecommerce_app.entity.ProductImage;
 import com.ecommerce_app.entity.ProductVariant;
+import com.ecommerce_app.event.ProductChangedEvent;
 import com.ecommerce_app.exception.ResourceNotFoundException;
 import com.ecommerce_app.mapper.ProductImageMapper;
 import com.ecommerce_app.repository.ProductImageRepository;
@@ -13,6 +14,7 @@ import com.ecommerce_app.repository.ProductRepository;
 import com.ecommerce_app.repository.ProductVariantRepository;
 import com.ecommerce_app.service.interfaces.ProductImageService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -29,6 +31,7 @@ public class  ProductImageServiceImpl implements ProductImageService {
     private final ProductRepository productRepository;
     private final ProductVariantRepository variantRepository;
     private final ProductImageMapper imageMapper;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
     @Transactional
@@ -66,6 +69,7 @@ public class  ProductImageServiceImpl implements ProductImageService {
 
         // Save image
         image = imageRepository.save(image);
+        eventPublisher.publishEvent(new ProductChangedEvent(productId));
 
         return imageMapper.toDto(image);
     }
@@ -87,6 +91,7 @@ public class  ProductImageServiceImpl implements ProductImageService {
 
         // Save updated image
         image = imageRepository.save(image);
+        eventPublisher.publishEvent(new ProductChangedEvent(image.getProduct().getId()));
 
         return imageMapper.toDto(image);
     }
@@ -141,10 +146,10 @@ public class  ProductImageServiceImpl implements ProductImageService {
     @Override
     @Transactional
     public void deleteProductImage(UUID id) {
-        if (!imageRepository.existsById(id)) {
-            throw new ResourceNotFoundException("Product image not found with id: " + id);
-        }
-        imageRepository.deleteById(id);
+        ProductImage image = imageRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Product image not found with id: " + id));
+        imageRepository.delete(image);
+        eventPublisher.publishEvent(new ProductChangedEvent(image.getProduct().getId()));
     }
 
     @Override
@@ -160,6 +165,7 @@ public class  ProductImageServiceImpl implements ProductImageService {
         image.setIsMain(true);
         image.setUpdatedAt(LocalDateTime.now());
         image = imageRepository.save(image);
+        eventPublisher.publishEvent(new ProductChangedEvent(image.getProduct().getId()));
 
         return imageMapper.toDto(image);
     }
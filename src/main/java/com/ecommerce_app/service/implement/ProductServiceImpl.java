@@ -1,24 +1,45 @@
 package com.ecommerce_app.service.implement;
 
+import com.ecommerce_app.constant.SlugType;
 import com.ecommerce_app.dto.request.ProductCreationRequest;
 import com.ecommerce_app.dto.request.ProductUpdateRequest;
+import com.ecommerce_app.dto.response.CursorPageResponse;
 import com.ecommerce_app.dto.response.ProductBasicResponse;
+import com.ecommerce_app.dto.response.ProductFacetResponse;
 import com.ecommerce_app.dto.response.ProductResponse;
 import com.ecommerce_app.entity.*;
+import com.ecommerce_app.event.ProductChangedEvent;
+import com.ecommerce_app.event.SlugChangedEvent;
 import com.ecommerce_app.exception.ResourceNotFoundException;
 import com.ecommerce_app.mapper.ProductMapper;
 import com.ecommerce_app.repository.*;
+import com.ecommerce_app.repository.projection.ProductLinkRow;
+import com.ecommerce_app.service.cache.ProductDetailCache;
+import com.ecommerce_app.service.cache.SlugRoutingTable;
+import com.ecommerce_app.service.catalog.CategoryProductCountService;
 import com.ecommerce_app.service.interfaces.ProductService;
+import com.ecommerce_app.service.search.ProductFacetIndex;
+import com.ecommerce_app.service.search.ProductFacetQuery;
+import com.ecommerce_app.service.search.ProductSearchIndex;
+import com.ecommerce_app.service.search.ProductSearchService;
+import com.ecommerce_app.util.KeysetCursor;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
 import java.util.UUID;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -29,6 +50,12 @@ public class ProductServiceImpl implements ProductService {
     private final CategoryRepository categoryRepository;
     private final TagRepository tagRepository;
     private final ProductMapper productMapper;
+    private final ProductSearchService productSearchService;
+    private final ProductFacetIndex productFacetIndex;
+    private final ProductDetailCache productDetailCache;
+    private final SlugRoutingTable slugRoutingTable;
+    private final CategoryProductCountService categoryProductCountService;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
     @Transactional
@@ -67,6 +94,10 @@ public class ProductServiceImpl implements ProductService {
 
         // Save product
         product = productRepository.save(product);
+        Set<UUID> categoryIds = categoryIds(categories);
+        categoryProductCountService.linksChanged(List.of(), categoryIds);
+        eventPublisher.publishEvent(new ProductChangedEvent(product.getId(), categoryIds, !categoryIds.isEmpty()));
+        eventPublisher.publishEvent(new SlugChangedEvent(SlugType.PRODUCT, product.getId(), null, product.getSlug()));
 
         // Process variants and images (these would be handled by their respective services)
         // This would be implemented in a real application with proper services
@@ -93,9 +124,18 @@ public class ProductServiceImpl implements ProductService {
         }
 
         // Update categories if provided
+        Set<UUID> previousCategoryIds = categoryIds(product.getCategories());
+        Set<UUID> affectedCategoryIds = new HashSet<>(previousCategoryIds);
+        boolean categoryLinksChanged = false;
         if (request.getCategoryIds() != null && !request.getCategoryIds().isEmpty()) {
             Set<Category> categories = fetchCategories(request.getCategoryIds());
+            Set<UUID> categoryIds = categoryIds(categories);
+            categoryProductCountService.linksChanged(
+                    previousCategoryIds.stream().filter(categoryId -> !categoryIds.contains(categoryId)).toList(),
+                    categoryIds.stream().filter(categoryId -> !previousCategoryIds.contains(categoryId)).toList());
             product.setCategories(categories);
+            affectedCategoryIds.addAll(categoryIds);
+            categoryLinksChanged = !categoryIds.equals(previousCategoryIds);
         }
 
         // Update tags if provided
@@ -105,73 +145,139 @@ public class ProductServiceImpl implements ProductService {
         }
 
         // Update fields from DTO
+        String previousSlug = product.getSlug();
         productMapper.updateEntityFromDto(request, product);
         product.setUpdatedAt(LocalDateTime.now());
 
         // Save updated product
         product = productRepository.save(product);
+        eventPublisher.publishEvent(new ProductChangedEvent(product.getId(), affectedCategoryIds, categoryLinksChanged));
+        if (!product.getSlug().equals(previousSlug)) {
+            eventPublisher.publishEvent(new SlugChangedEvent(SlugType.PRODUCT, product.getId(), previousSlug, product.getSlug()));
+        }
 
         return productMapper.toResponse(product);
     }
 
     @Override
-    @Transactional(readOnly = true)
     public ProductResponse getProductById(UUID id) {
-        Product product = productRepository.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException("Product not found with id: " + id));
-        return productMapper.toResponse(product);
+        // Misses are loaded in a read-only transaction by the cache
+        return productDetailCache.getById(id, productId -> {
+            Product product = productRepository.findById(productId)
+                    .orElseThrow(() -> new ResourceNotFoundException("Product not found with id: " + productId));
+            return productMapper.toResponse(product);
+        });
     }
 
     @Override
-    @Transactional(readOnly = true)
     public ProductResponse getProductBySlug(String slug) {
-        Product product = productRepository.findBySlug(slug)
-                .orElseThrow(() -> new ResourceNotFoundException("Product not found with slug: " + slug));
-        return productMapper.toResponse(product);
+        UUID id = slugRoutingTable.resolve(SlugType.PRODUCT, slug);
+        ProductResponse product;
+        try {
+            product = getProductById(id);
+        } catch (ResourceNotFoundException e) {
+            // Deleted on another node; the route is stale
+            slugRoutingTable.checkCurrent(SlugType.PRODUCT, slug, null);
+            throw e;
+        }
+        slugRoutingTable.checkCurrent(SlugType.PRODUCT, slug, product.getSlug());
+        return product;
     }
 
     @Override
     @Transactional(readOnly = true)
     public Page<ProductBasicResponse> getAllProducts(Pageable pageable) {
-        return productRepository.findAll(pageable)
-                .map(productMapper::toBasicDto);
+        return productRepository.findAllBasic(pageable);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPageResponse<ProductBasicResponse> getAllProducts(String after, int size) {
+        int pageSize = KeysetCursor.clampPageSize(size);
+        // One extra row tells whether another page exists without a count query
+        Pageable limit = PageRequest.ofSize(pageSize + 1);
+        List<ProductBasicResponse> rows;
+        if (after == null || after.isBlank()) {
+            rows = productRepository.findBasicNewestFirst(limit);
+        } else {
+            KeysetCursor cursor = KeysetCursor.decode(after);
+            rows = productRepository.findBasicNewestFirstAfter(cursor.createdAt(), cursor.id(), limit);
+        }
+        return CursorPageResponse.of(rows, pageSize,
+                product -> new KeysetCursor(product.getCreatedAt(), product.getId()).encode());
     }
 
     @Override
     @Transactional(readOnly = true)
     public Page<ProductBasicResponse> getActiveProducts(Pageable pageable) {
-        return productRepository.findByActiveTrue(pageable)
-                .map(productMapper::toBasicDto);
+        return productRepository.findActiveBasic(pageable);
     }
 
     @Override
     @Transactional(readOnly = true)
     public Page<ProductBasicResponse> getProductsByCategory(UUID categoryId, Pageable pageable) {
-        return productRepository.findByCategoryId(categoryId, pageable)
-                .map(productMapper::toBasicDto);
+        return productRepository.findBasicByCategoryId(categoryId, pageable);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Page<ProductBasicResponse> getProductsByCategoryTree(UUID categoryId, Pageable pageable) {
+        return productRepository.findBasicByCategoryTree(categoryId, pageable);
     }
 
     @Override
     @Transactional(readOnly = true)
     public Page<ProductBasicResponse> getProductsByTag(UUID tagId, Pageable pageable) {
-        return productRepository.findByTagId(tagId, pageable)
-                .map(productMapper::toBasicDto);
+        return productRepository.findBasicByTagId(tagId, pageable);
     }
 
     @Override
     @Transactional(readOnly = true)
     public Page<ProductBasicResponse> searchProducts(String keyword, Pageable pageable) {
-        return productRepository.searchByKeyword(keyword, pageable)
-                .map(productMapper::toBasicDto);
+        if (!productSearchService.isReady()) {
+            // Index is still being built, fall back to the LIKE query
+            return productRepository.searchBasicByKeyword(keyword, pageable);
+        }
+
+        ProductSearchIndex.SearchResult result = productSearchService.search(keyword, pageable);
+        return toBasicPage(result.ids(), pageable, result.totalHits());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public ProductFacetResponse getProductsByFacets(ProductFacetQuery query, Pageable pageable) {
+        ProductFacetIndex.FacetResult result = productFacetIndex.query(query, pageable);
+
+        List<ProductFacetResponse.PriceBandCount> priceBands = productFacetIndex.priceBands().stream()
+                .map(band -> ProductFacetResponse.PriceBandCount.builder()
+                        .index(band.index())
+                        .minPrice(band.minPrice())
+                        .maxPrice(band.maxPrice())
+                        .count(result.priceBandCounts()[band.index()])
+                        .build())
+                .toList();
+
+        return ProductFacetResponse.builder()
+                .products(toBasicPage(result.ids(), pageable, result.totalHits()))
+                .categoryCounts(result.categoryCounts())
+                .tagCounts(result.tagCounts())
+                .priceBands(priceBands)
+                .inStockCount(result.inStockCount())
+                .build();
     }
 
     @Override
     @Transactional
     public void deleteProduct(UUID id) {
-        if (!productRepository.existsById(id)) {
-            throw new ResourceNotFoundException("Product not found with id: " + id);
-        }
+        String slug = productRepository.findSlugById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Product not found with id: " + id));
+        Set<UUID> categoryIds = productRepository.findCategoryLinksByProductIdIn(List.of(id)).stream()
+                .map(ProductLinkRow::getLinkedId)
+                .collect(Collectors.toSet());
+        categoryProductCountService.linksChanged(categoryIds, List.of());
         productRepository.deleteById(id);
+        eventPublisher.publishEvent(new ProductChangedEvent(id, categoryIds, !categoryIds.isEmpty()));
+        eventPublisher.publishEvent(new SlugChangedEvent(SlugType.PRODUCT, id, slug, null));
     }
 
     @Override
@@ -182,9 +288,28 @@ public class ProductServiceImpl implements ProductService {
         product.setActive(!product.getActive());
         product.setUpdatedAt(LocalDateTime.now());
         productRepository.save(product);
+        eventPublisher.publishEvent(new ProductChangedEvent(id));
         return product.getActive();
     }
 
+    private Page<ProductBasicResponse> toBasicPage(List<UUID> ids, Pageable pageable, long total) {
+        Map<UUID, ProductBasicResponse> productsById = productRepository.findBasicByIdIn(ids)
+                .stream()
+                .collect(Collectors.toMap(ProductBasicResponse::getId, Function.identity()));
+
+        // Keep the order from the index; ids deleted since the last refresh are skipped
+        List<ProductBasicResponse> content = ids.stream()
+                .map(productsById::get)
+                .filter(Objects::nonNull)
+                .toList();
+
+        return new PageImpl<>(content, pageable, total);
+    }
+
+    private static Set<UUID> categoryIds(Set<Category> categories) {
+        return categories.stream().map(Category::getId).collect(Collectors.toSet());
+    }
+
     private String generateSlug(String name) {
         // Simple slug generation - in a real app this would be more sophisticated
         return name.toLowerCase()
@@ -5,12 +5,14 @@ import com.ecommerce_app.dto.request.ProductVariantUpdateRequest;
 import com.ecommerce_app.dto.response.ProductVariantResponse;
 import com.ecommerce_app.entity.Product;
 import com.ecommerce_app.entity.ProductVariant;
+import com.ecommerce_app.event.ProductChangedEvent;
 import com.ecommerce_app.exception.ResourceNotFoundException;
 import com.ecommerce_app.mapper.ProductVariantMapper;
 import com.ecommerce_app.repository.ProductRepository;
 import com.ecommerce_app.repository.ProductVariantRepository;
 import com.ecommerce_app.service.interfaces.ProductVariantService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -26,6 +28,7 @@ public class ProductVariantServiceImpl implements ProductVariantService {
     private final ProductVariantRepository variantRepository;
     private final ProductRepository productRepository;
     private final ProductVariantMapper variantMapper;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
     @Transactional
@@ -45,6 +48,7 @@ public class ProductVariantServiceImpl implements ProductVariantService {
 
         // Save variant
         variant = variantRepository.save(variant);
+        eventPublisher.publishEvent(new ProductChangedEvent(productId));
 
         return variantMapper.toDto(variant);
     }
@@ -67,6 +71,7 @@ public class ProductVariantServiceImpl implements ProductVariantService {
 
         // Save updated variant
         variant = variantRepository.save(variant);
+        eventPublisher.publishEvent(new ProductChangedEvent(variant.getProduct().getId()));
 
         return variantMapper.toDto(variant);
     }
@@ -95,10 +100,10 @@ public class ProductVariantServiceImpl implements ProductVariantService {
     @Override
     @Transactional
     public void deleteProductVariant(UUID id) {
-        if (!variantRepository.existsById(id)) {
-            throw new ResourceNotFoundException("Product variant not found with id: " + id);
-        }
-        variantRepository.deleteById(id);
+        ProductVariant variant = variantRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Product variant not found with id: " + id));
+        variantRepository.delete(variant);
+        eventPublisher.publishEvent(new ProductChangedEvent(variant.getProduct().getId()));
     }
 
     @Override
@@ -7,6 +7,7 @@ import com.ecommerce_app.dto.response.BasicRoleResponse;
 import com.ecommerce_app.dto.response.RoleResponse;
 import com.ecommerce_app.entity.Permission;
 import com.ecommerce_app.entity.Role;
+import com.ecommerce_app.event.RoleScopesChangedEvent;
 import com.ecommerce_app.exception.ResourceAlreadyExistsException;
 import com.ecommerce_app.exception.ResourceNotFoundException;
 import com.ecommerce_app.mapper.RoleMapper;
@@ -15,6 +16,7 @@ import com.ecommerce_app.repository.RoleRepository;
 import com.ecommerce_app.service.interfaces.RoleService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
@@ -35,6 +37,7 @@ public class RoleServiceImpl implements RoleService {
     private final RoleRepository roleRepository;
     private final PermissionRepository permissionRepository;
     private final RoleMapper roleMapper;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
     public RoleResponse createRole(RoleCreationRequest request) {
@@ -53,6 +56,7 @@ public class RoleServiceImpl implements RoleService {
 
         Role savedRole = roleRepository.save(role);
         log.info("Role created successfully with ID: {}", savedRole.getId());
+        eventPublisher.publishEvent(new RoleScopesChangedEvent());
 
         return roleMapper.toResponseDto(savedRole);
     }
@@ -77,6 +81,7 @@ public class RoleServiceImpl implements RoleService {
 
         Role updatedRole = roleRepository.save(role);
         log.info("Role updated successfully with ID: {}", updatedRole.getId());
+        eventPublisher.publishEvent(new RoleScopesChangedEvent());
 
         return roleMapper.toResponseDto(updatedRole);
     }
@@ -127,6 +132,7 @@ public class RoleServiceImpl implements RoleService {
 
         roleRepository.delete(role);
         log.info("Role deleted successfully with ID: {}", id);
+        eventPublisher.publishEvent(new RoleScopesChangedEvent());
     }
 
     @Override
@@ -140,6 +146,7 @@ public class RoleServiceImpl implements RoleService {
         Role updatedRole = roleRepository.save(role);
 
         log.info("Added {} permissions to role with ID: {}", permissionIds.size(), roleId);
+        eventPublisher.publishEvent(new RoleScopesChangedEvent());
         return roleMapper.toResponseDto(updatedRole);
     }
 
@@ -155,6 +162,7 @@ public class RoleServiceImpl implements RoleService {
 
         Role updatedRole = roleRepository.save(role);
         log.info("Removed {} permissions from role with ID: {}", permissionIds.size(), roleId);
+        eventPublisher.publishEvent(new RoleScopesChangedEvent());
 
         return roleMapper.toResponseDto(updatedRole);
     }
@@ -1,16 +1,24 @@
 package com.ecommerce_app.service.implement;
 
+import com.ecommerce_app.constant.SlugType;
 import com.ecommerce_app.dto.request.TagCreationRequest;
 import com.ecommerce_app.dto.request.TagUpdateRequest;
 import com.ecommerce_app.dto.response.TagResponse;
 import com.ecommerce_app.entity.Tag;
+import com.ecommerce_app.event.ProductChangedEvent;
+import com.ecommerce_app.event.SlugChangedEvent;
 import com.ecommerce_app.exception.EntityNotFoundException;
 import com.ecommerce_app.mapper.TagMapper;
+import com.ecommerce_app.repository.ProductRepository;
 import com.ecommerce_app.repository.TagRepository;
+import com.ecommerce_app.service.cache.SlugRoutingTable;
 import com.ecommerce_app.service.interfaces.TagService;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
+import java.util.Objects;
 import java.util.UUID;
 import java.util.stream.Collectors;
 
@@ -19,10 +27,18 @@ public class TagServiceImpl implements TagService {
 
     private final TagRepository tagRepository;
     private final TagMapper tagMapper;
+    private final ProductRepository productRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final SlugRoutingTable slugRoutingTable;
 
-    public TagServiceImpl(TagRepository tagRepository, TagMapper tagMapper) {
+    public TagServiceImpl(TagRepository tagRepository, TagMapper tagMapper,
+                          ProductRepository productRepository, ApplicationEventPublisher eventPublisher,
+                          SlugRoutingTable slugRoutingTable) {
         this.tagRepository = tagRepository;
         this.tagMapper = tagMapper;
+        this.productRepository = productRepository;
+        this.eventPublisher = eventPublisher;
+        this.slugRoutingTable = slugRoutingTable;
     }
 
     @Override
@@ -32,6 +48,7 @@ public class TagServiceImpl implements TagService {
         }
         Tag tag = tagMapper.toEntity(request);
         tag = tagRepository.save(tag);
+        eventPublisher.publishEvent(new SlugChangedEvent(SlugType.TAG, tag.getId(), null, tag.getSlug()));
         return tagMapper.toResponse(tag);
     }
 
@@ -42,6 +59,14 @@ public class TagServiceImpl implements TagService {
         return tagMapper.toResponse(tag);
     }
 
+    @Override
+    public TagResponse getTagBySlug(String slug) {
+        UUID id = slugRoutingTable.resolve(SlugType.TAG, slug);
+        Tag tag = tagRepository.findById(id).orElse(null);
+        slugRoutingTable.checkCurrent(SlugType.TAG, slug, tag != null ? tag.getSlug() : null);
+        return tagMapper.toResponse(tag);
+    }
+
     @Override
     public List<TagResponse> getAllTags() {
         return tagRepository.findAll().stream()
@@ -50,19 +75,33 @@ public class TagServiceImpl implements TagService {
     }
 
     @Override
+    @Transactional
     public TagResponse updateTag(UUID id, TagUpdateRequest request) {
         Tag tag = tagRepository.findById(id)
                 .orElseThrow(() -> new EntityNotFoundException("Tag not found with id: " + id));
+        String previousSlug = tag.getSlug();
         tagMapper.updateEntity(tag, request);
         tag = tagRepository.save(tag);
+        publishProductsChanged(id);
+        if (!Objects.equals(previousSlug, tag.getSlug())) {
+            eventPublisher.publishEvent(new SlugChangedEvent(SlugType.TAG, id, previousSlug, tag.getSlug()));
+        }
         return tagMapper.toResponse(tag);
     }
 
     @Override
+    @Transactional
     public void deleteTag(UUID id) {
-        if (!tagRepository.existsById(id)) {
-            throw new EntityNotFoundException("Tag not found with id: " + id);
-        }
-        tagRepository.deleteById(id);
+        Tag tag = tagRepository.findById(id)
+                .orElseThrow(() -> new EntityNotFoundException("Tag not found with id: " + id));
+        publishProductsChanged(id);
+        tagRepository.delete(tag);
+        eventPublisher.publishEvent(new SlugChangedEvent(SlugType.TAG, id, tag.getSlug(), null));
+    }
+
+    private void publishProductsChanged(UUID tagId) {
+        // Products render their tag names
+        productRepository.findIdsByTagId(tagId)
+                .forEach(productId -> eventPublisher.publishEvent(new ProductChangedEvent(productId)));
     }
 }
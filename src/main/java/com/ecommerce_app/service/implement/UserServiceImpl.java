@@ -12,15 +12,17 @@ import com.ecommerce_app.mapper.UserMapper;
 import com.ecommerce_app.repository.RoleRepository;
 import com.ecommerce_app.repository.UserRepository;
 import com.ecommerce_app.service.interfaces.UserService;
+import com.ecommerce_app.service.security.PasswordHashingService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.util.HashSet;
 import java.util.List;
@@ -35,11 +37,17 @@ public class UserServiceImpl implements UserService {
     private final UserRepository userRepository;
     private final RoleRepository roleRepository;
     private final UserMapper userMapper;
-    private final PasswordEncoder passwordEncoder;
+    private final PasswordHashingService passwordHashingService;
+    private final PlatformTransactionManager transactionManager;
 
     @Override
-    @Transactional
     public UserResponse createUser(UserCreationRequest userCreationDto) {
+        // Hashed before the transaction opens, so waiting for the hashing pool never holds a connection
+        String encodedPassword = passwordHashingService.encode(userCreationDto.getPassword());
+        return new TransactionTemplate(transactionManager).execute(status -> doCreateUser(userCreationDto, encodedPassword));
+    }
+
+    private UserResponse doCreateUser(UserCreationRequest userCreationDto, String encodedPassword) {
         // Check if username already exists
         if (userRepository.existsByUsername(userCreationDto.getUsername())) {
             throw new ResourceAlreadyExistsException("User with username " + userCreationDto.getUsername() + " already exists");
@@ -54,7 +62,7 @@ public class UserServiceImpl implements UserService {
         User user = userMapper.toEntity(userCreationDto);
 
         // Encode password
-        user.setPassword(passwordEncoder.encode(userCreationDto.getPassword()));
+        user.setPassword(encodedPassword);
 
         // Set roles if provided
         if (userCreationDto.getRoleIds() != null && !userCreationDto.getRoleIds().isEmpty()) {
@@ -128,8 +136,14 @@ public class UserServiceImpl implements UserService {
     }
 
     @Override
-    @Transactional
     public UserResponse updateUser(UUID id, UserUpdateRequest userUpdateDto) {
+        // Hashed before the transaction opens, as in createUser
+        String encodedPassword = userUpdateDto.getPassword() != null
+                ? passwordHashingService.encode(userUpdateDto.getPassword()) : null;
+        return new TransactionTemplate(transactionManager).execute(status -> doUpdateUser(id, userUpdateDto, encodedPassword));
+    }
+
+    private UserResponse doUpdateUser(UUID id, UserUpdateRequest userUpdateDto, String encodedPassword) {
         User user = userRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("User with id " + id + " not found"));
 
@@ -151,8 +165,8 @@ public class UserServiceImpl implements UserService {
         userMapper.updateEntityFromDto(userUpdateDto, user);
 
         // Encode password if it's being updated
-        if (userUpdateDto.getPassword() != null) {
-            user.setPassword(passwordEncoder.encode(userUpdateDto.getPassword()));
+        if (encodedPassword != null) {
+            user.setPassword(encodedPassword);
         }
 
         // Update roles if provided
@@ -5,12 +5,14 @@ import com.ecommerce_app.dto.request.VariantAttributeUpdateRequest;
 import com.ecommerce_app.dto.response.VariantAttributeResponse;
 import com.ecommerce_app.entity.ProductVariant;
 import com.ecommerce_app.entity.VariantAttribute;
+import com.ecommerce_app.event.ProductChangedEvent;
 import com.ecommerce_app.mapper.VariantAttributeMapper;
 import com.ecommerce_app.repository.ProductVariantRepository;
 import com.ecommerce_app.repository.VariantAttributeRepository;
 import com.ecommerce_app.service.interfaces.VariantAttributeService;
 import jakarta.persistence.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
 import java.util.UUID;
@@ -22,6 +24,7 @@ public class VariantAttributeServiceImpl implements VariantAttributeService {
     private final VariantAttributeRepository repository;
     private final ProductVariantRepository variantRepository;
     private final VariantAttributeMapper mapper;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
     public VariantAttributeResponse create(VariantAttributeCreationRequest request) {
@@ -30,6 +33,7 @@ public class VariantAttributeServiceImpl implements VariantAttributeService {
 
         VariantAttribute entity = mapper.toEntity(request, variant);
         entity = repository.save(entity);
+        eventPublisher.publishEvent(new ProductChangedEvent(variant.getProduct().getId()));
         return mapper.toResponse(entity);
     }
 
@@ -47,14 +51,15 @@ public class VariantAttributeServiceImpl implements VariantAttributeService {
 
         mapper.updateEntityFromRequest(request, entity);
         entity = repository.save(entity);
+        eventPublisher.publishEvent(new ProductChangedEvent(entity.getVariant().getProduct().getId()));
         return mapper.toResponse(entity);
     }
 
     @Override
     public void delete(UUID id) {
-        if (!repository.existsById(id)) {
-            throw new EntityNotFoundException("VariantAttribute not found with id: " + id);
-        }
-        repository.deleteById(id);
+        VariantAttribute entity = repository.findById(id)
+                .orElseThrow(() -> new EntityNotFoundException("VariantAttribute not found with id: " + id));
+        repository.delete(entity);
+        eventPublisher.publishEvent(new ProductChangedEvent(entity.getVariant().getProduct().getId()));
     }
 }
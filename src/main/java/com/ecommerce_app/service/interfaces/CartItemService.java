@@ -21,6 +21,16 @@ public interface CartItemService {
      */
     CartItemResponse addItemToCart(UUID cartId, CartItemCreationRequest cartItemRequest);
 
+    /**
+     * Adds several items to a shopping cart in one transaction, merging them into existing lines
+     * for the same product and variant.
+     *
+     * @param cartId The unique identifier of the cart
+     * @param cartItemRequests The items to add
+     * @return The added or increased cart lines as CartItemResponse objects, one per product and variant
+     */
+    List<CartItemResponse> addItemsToCart(UUID cartId, List<CartItemCreationRequest> cartItemRequests);
+
     /**
      * Updates an existing cart item (e.g., change quantity).
      *
@@ -80,6 +80,22 @@ public interface CategoryService {
      */
     List<CategoryResponse> getSubcategories(UUID parentId);
 
+    /**
+     * Retrieves the ancestors of a category, for breadcrumbs.
+     *
+     * @param id The unique identifier of the category
+     * @return The ancestors from the root down to the direct parent, excluding the category itself
+     */
+    List<CategoryBasicResponse> getAncestors(UUID id);
+
+    /**
+     * Retrieves every category below a category, at any depth.
+     *
+     * @param id The unique identifier of the category
+     * @return The descendants level by level, excluding the category itself
+     */
+    List<CategoryBasicResponse> getDescendants(UUID id);
+
     /**
      * Deletes a category by its unique identifier.
      *
@@ -3,6 +3,7 @@ package com.ecommerce_app.service.interfaces;
 
 import com.ecommerce_app.dto.request.OrderCreationRequest;
 import com.ecommerce_app.dto.request.OrderUpdateRequest;
+import com.ecommerce_app.dto.response.CursorPageResponse;
 import com.ecommerce_app.dto.response.OrderResponse;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
@@ -70,6 +71,25 @@ public interface OrderService {
      */
     Page<OrderResponse> getOrdersByUser(UUID userId, Pageable pageable);
 
+    /**
+     * Get all orders newest first, one keyset page at a time
+     *
+     * @param after The cursor returned with the previous page, or null for the first page
+     * @param size Page size
+     * @return Page of order responses and the cursor of the next page
+     */
+    CursorPageResponse<OrderResponse> getAllOrders(String after, int size);
+
+    /**
+     * Get orders for a specific user newest first, one keyset page at a time
+     *
+     * @param userId The user ID
+     * @param after The cursor returned with the previous page, or null for the first page
+     * @param size Page size
+     * @return Page of order responses and the cursor of the next page
+     */
+    CursorPageResponse<OrderResponse> getOrdersByUser(UUID userId, String after, int size);
+
     /**
      * Get orders by status with pagination
      *
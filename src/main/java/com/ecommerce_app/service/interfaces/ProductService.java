@@ -9,8 +9,11 @@ package com.ecommerce_app.service.interfaces;
 
 import com.ecommerce_app.dto.request.ProductCreationRequest;
 import com.ecommerce_app.dto.request.ProductUpdateRequest;
+import com.ecommerce_app.dto.response.CursorPageResponse;
 import com.ecommerce_app.dto.response.ProductBasicResponse;
+import com.ecommerce_app.dto.response.ProductFacetResponse;
 import com.ecommerce_app.dto.response.ProductResponse;
+import com.ecommerce_app.service.search.ProductFacetQuery;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
@@ -58,6 +61,16 @@ public interface ProductService {
      */
     Page<ProductBasicResponse> getAllProducts(Pageable pageable);
 
+    /**
+     * Retrieves all products newest first, one keyset page at a time. Unlike offset pages, later
+     * pages are not shifted by products created in the meantime and no total count is computed.
+     *
+     * @param after The cursor returned with the previous page, or null for the first page
+     * @param size  The page size
+     * @return A page of {@link ProductBasicResponse} objects and the cursor of the next page
+     */
+    CursorPageResponse<ProductBasicResponse> getAllProducts(String after, int size);
+
     /**
      * Retrieves only active products with pagination support.
      *
@@ -75,6 +88,15 @@ public interface ProductService {
      */
     Page<ProductBasicResponse> getProductsByCategory(UUID categoryId, Pageable pageable);
 
+    /**
+     * Retrieves products belonging to a category or to any of its subcategories, at any depth.
+     *
+     * @param categoryId The UUID of the category at the top of the subtree
+     * @param pageable The pagination information
+     * @return A page of {@link ProductBasicResponse} objects, each product listed once
+     */
+    Page<ProductBasicResponse> getProductsByCategoryTree(UUID categoryId, Pageable pageable);
+
     /**
      * Retrieves products associated with a specific tag with pagination support.
      *
@@ -93,6 +115,16 @@ public interface ProductService {
      */
     Page<ProductBasicResponse> searchProducts(String keyword, Pageable pageable);
 
+    /**
+     * Filters products by any combination of category, tag, price band, active flag and
+     * stock status, and counts the products behind every other facet value.
+     *
+     * @param query The selected facet values
+     * @param pageable The pagination information; sorting by createdAt or price is supported
+     * @return {@link ProductFacetResponse} with the page of matching products and the facet counts
+     */
+    ProductFacetResponse getProductsByFacets(ProductFacetQuery query, Pageable pageable);
+
     /**
      * Deletes a product from the system.
      *
@@ -31,6 +31,14 @@ public interface TagService {
      */
     TagResponse getTagById(UUID id);
 
+    /**
+     * Retrieves a tag by its slug.
+     *
+     * @param slug The slug of the tag to retrieve
+     * @return {@link TagResponse} containing the requested tag details
+     */
+    TagResponse getTagBySlug(String slug);
+
     /**
      * Retrieves all tags available in the system.
      *
@@ -0,0 +1,227 @@
+package com.ecommerce_app.service.mail;
+
+import com.ecommerce_app.constant.EmailOutboxStatus;
+import com.ecommerce_app.entity.EmailOutbox;
+import com.ecommerce_app.repository.EmailOutboxRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.mail.MessagingException;
+import jakarta.mail.internet.MimeMessage;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.MimeMessageHelper;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Transactional outbox for outgoing email.
+ * <p>
+ * {@link #enqueue} stores the message in {@code email_outbox} as part of the caller's
+ * transaction, so no SMTP round trip happens while a request holds a database connection.
+ * A scheduled dispatcher then drains due messages in batches: each batch is claimed with
+ * {@code FOR UPDATE SKIP LOCKED} and a lease, sent over a single SMTP connection,
+ * and marked sent or rescheduled with exponential backoff until {@code max-attempts}
+ * is reached. The lease is {@code batch-size} times {@code send-timeout}, so it outlasts the
+ * slowest send of a whole batch and no other dispatcher claims a message that is still being sent.
+ * Sent messages are removed by {@link com.ecommerce_app.service.maintenance.SentEmailCleanupTask}.
+ */
+@Service
+@Slf4j
+public class EmailOutboxService {
+
+    private static final int MAX_ERROR_LENGTH = 1000;
+
+    private final EmailOutboxRepository emailOutboxRepository;
+    private final JavaMailSender mailSender;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final int maxAttempts;
+    private final long initialBackoffMillis;
+    private final long maxBackoffMillis;
+    private final long leaseMillis;
+
+    private final Counter sentCounter;
+    private final Counter retryCounter;
+    private final Counter failedCounter;
+
+    public EmailOutboxService(EmailOutboxRepository emailOutboxRepository,
+                              JavaMailSender mailSender,
+                              PlatformTransactionManager transactionManager,
+                              MeterRegistry meterRegistry,
+                              @Value("${app.mail.outbox.batch-size}") int batchSize,
+                              @Value("${app.mail.outbox.max-attempts}") int maxAttempts,
+                              @Value("${app.mail.outbox.initial-backoff}") long initialBackoffMillis,
+                              @Value("${app.mail.outbox.max-backoff}") long maxBackoffMillis,
+                              @Value("${app.mail.outbox.send-timeout}") long sendTimeoutMillis) {
+        this.emailOutboxRepository = emailOutboxRepository;
+        this.mailSender = mailSender;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+        this.maxAttempts = maxAttempts;
+        this.initialBackoffMillis = initialBackoffMillis;
+        this.maxBackoffMillis = maxBackoffMillis;
+        this.leaseMillis = batchSize * sendTimeoutMillis;
+
+        this.sentCounter = Counter.builder("mail.outbox.messages").tag("result", "sent").register(meterRegistry);
+        this.retryCounter = Counter.builder("mail.outbox.messages").tag("result", "retry").register(meterRegistry);
+        this.failedCounter = Counter.builder("mail.outbox.messages").tag("result", "failed").register(meterRegistry);
+    }
+
+    /**
+     * Queue a plain text email for delivery. Must be called inside the transaction that
+     * produces the email, so the message is stored if and only if that transaction commits.
+     *
+     * @param recipient The recipient address
+     * @param subject   The subject line
+     * @param body      The plain text body
+     * @return The stored outbox entry
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public EmailOutbox enqueue(String recipient, String subject, String body) {
+        return emailOutboxRepository.save(EmailOutbox.builder()
+                .recipient(recipient)
+                .subject(subject)
+                .body(body)
+                .nextAttemptAt(LocalDateTime.now())
+                .build());
+    }
+
+    @Scheduled(fixedDelayString = "${app.mail.outbox.poll-interval}")
+    public void dispatchPending() {
+        int dispatched;
+        do {
+            dispatched = dispatchBatch();
+        } while (dispatched == batchSize);
+    }
+
+    /**
+     * Claim, send and record the outcome of one batch of due messages
+     *
+     * @return The number of messages claimed
+     */
+    public int dispatchBatch() {
+        List<EmailOutbox> batch = transactionTemplate.execute(status -> claimBatch());
+        if (batch == null || batch.isEmpty()) {
+            return 0;
+        }
+
+        // Every claimed message carries the end of the lease as its next attempt time
+        LocalDateTime leaseUntil = batch.get(0).getNextAttemptAt();
+        Map<EmailOutbox, Exception> failures = send(batch);
+
+        transactionTemplate.executeWithoutResult(status -> {
+            LocalDateTime now = LocalDateTime.now();
+            if (now.isAfter(leaseUntil)) {
+                log.warn("Sending a batch of {} emails outlived its {} ms lease; app.mail.outbox.send-timeout is too low "
+                        + "and another dispatcher may have sent some of them again", batch.size(), leaseMillis);
+            }
+            for (EmailOutbox message : batch) {
+                Exception failure = failures.get(message);
+                if (failure == null) {
+                    message.setStatus(EmailOutboxStatus.SENT);
+                    message.setSentAt(now);
+                    message.setLastError(null);
+                    sentCounter.increment();
+                } else if (message.getAttempts() >= maxAttempts) {
+                    message.setStatus(EmailOutboxStatus.FAILED);
+                    message.setLastError(truncate(failure.getMessage()));
+                    failedCounter.increment();
+                    log.error("Giving up on email {} to {} after {} attempts", message.getId(),
+                            message.getRecipient(), message.getAttempts(), failure);
+                } else {
+                    message.setNextAttemptAt(now.plus(backoff(message.getAttempts()), ChronoUnit.MILLIS));
+                    message.setLastError(truncate(failure.getMessage()));
+                    retryCounter.increment();
+                    log.warn("Email {} to {} failed on attempt {}, retrying: {}", message.getId(),
+                            message.getRecipient(), message.getAttempts(), failure.getMessage());
+                }
+            }
+            emailOutboxRepository.saveAll(batch);
+        });
+
+        return batch.size();
+    }
+
+    private List<EmailOutbox> claimBatch() {
+        LocalDateTime now = LocalDateTime.now();
+        List<EmailOutbox> batch = emailOutboxRepository.lockDueBatch(now, batchSize);
+
+        // Lease the rows: if this node dies mid-send they become due again once the lease expires
+        LocalDateTime leaseUntil = now.plus(leaseMillis, ChronoUnit.MILLIS);
+        batch.forEach(message -> {
+            message.setAttempts(message.getAttempts() + 1);
+            message.setNextAttemptAt(leaseUntil);
+        });
+        return emailOutboxRepository.saveAll(batch);
+    }
+
+    private Map<EmailOutbox, Exception> send(List<EmailOutbox> batch) {
+        Map<EmailOutbox, Exception> failures = new IdentityHashMap<>();
+        Map<MimeMessage, EmailOutbox> byMimeMessage = new IdentityHashMap<>();
+        List<MimeMessage> mimeMessages = new ArrayList<>(batch.size());
+
+        for (EmailOutbox message : batch) {
+            try {
+                MimeMessage mimeMessage = mailSender.createMimeMessage();
+                MimeMessageHelper helper = new MimeMessageHelper(mimeMessage, StandardCharsets.UTF_8.name());
+                helper.setTo(message.getRecipient());
+                helper.setSubject(message.getSubject());
+                helper.setText(message.getBody());
+                byMimeMessage.put(mimeMessage, message);
+                mimeMessages.add(mimeMessage);
+            } catch (MessagingException e) {
+                failures.put(message, e);
+            }
+        }
+
+        if (mimeMessages.isEmpty()) {
+            return failures;
+        }
+
+        try {
+            // One call sends the whole batch over a single SMTP connection
+            mailSender.send(mimeMessages.toArray(new MimeMessage[0]));
+        } catch (MailSendException e) {
+            e.getFailedMessages().forEach((failedMessage, exception) -> {
+                EmailOutbox message = byMimeMessage.get(failedMessage);
+                if (message != null) {
+                    failures.put(message, exception);
+                }
+            });
+            if (e.getFailedMessages().isEmpty()) {
+                byMimeMessage.values().forEach(message -> failures.put(message, e));
+            }
+        } catch (MailException e) {
+            byMimeMessage.values().forEach(message -> failures.put(message, e));
+        }
+
+        return failures;
+    }
+
+    private long backoff(int attempts) {
+        long delay = initialBackoffMillis << Math.min(attempts - 1, 20);
+        return Math.min(delay, maxBackoffMillis);
+    }
+
+    private static String truncate(String error) {
+        if (error == null || error.length() <= MAX_ERROR_LENGTH) {
+            return error;
+        }
+        return error.substring(0, MAX_ERROR_LENGTH);
+    }
+}
@@ -0,0 +1,57 @@
+package com.ecommerce_app.service.maintenance;
+
+import com.ecommerce_app.repository.CartRepository;
+import com.ecommerce_app.repository.projection.CartVersionRow;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+/**
+ * Periodically verifies the totals of recently edited carts against their lines.
+ * <p>
+ * Cart edits apply only the change of the edited line to {@code carts.total_amount}, so a total
+ * can only drift through writes that bypass the cart services. Every edit also touches the cart's
+ * {@code updated_at}, so checking the carts edited within {@code app.cart.total-reconciliation.window}
+ * covers every cart that could have drifted since the previous run, in one indexed query. Each
+ * drifted cart is then recomputed only if its version is still the one that was read, so a cart
+ * edited in between keeps the total its edit wrote and is checked again on the next run. Repaired
+ * carts are counted in the {@code cart.total.repaired} metric.
+ */
+@Component
+@Slf4j
+public class CartTotalReconciliationTask {
+
+    private final CartRepository cartRepository;
+    private final long windowMillis;
+    private final Counter repairedCarts;
+
+    public CartTotalReconciliationTask(CartRepository cartRepository,
+                                       MeterRegistry meterRegistry,
+                                       @Value("${app.cart.total-reconciliation.window}") long windowMillis) {
+        this.cartRepository = cartRepository;
+        this.windowMillis = windowMillis;
+        this.repairedCarts = Counter.builder("cart.total.repaired")
+                .description("Carts whose incrementally maintained total did not match their lines")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${app.cart.total-reconciliation.interval}")
+    @Transactional
+    public void reconcileRecentCarts() {
+        int repaired = 0;
+        for (CartVersionRow cart : cartRepository.findDriftedTotalsUpdatedSince(
+                LocalDateTime.now().minusNanos(windowMillis * 1_000_000))) {
+            repaired += cartRepository.repairTotal(cart.getId(), cart.getVersion());
+        }
+        if (repaired > 0) {
+            repairedCarts.increment(repaired);
+            log.warn("Repaired the totals of {} carts", repaired);
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package com.ecommerce_app.service.maintenance;
+
+import com.ecommerce_app.repository.InvalidatedTokenRepository;
+import com.ecommerce_app.repository.PasswordResetTokenRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.Date;
+import java.util.function.IntUnaryOperator;
+
+/**
+ * Periodically removes expired rows from {@code invalidated_token} and
+ * {@code password_reset_tokens}.
+ * <p>
+ * Rows are deleted in chunks, each chunk in its own short transaction, with a pause
+ * between chunks so the purge never holds locks for long. The delete statements use
+ * {@code FOR UPDATE SKIP LOCKED}, so several nodes can run the task at the same time.
+ * Each run publishes the number of deleted rows and its duration as metrics.
+ */
+@Component
+@Slf4j
+public class ExpiredTokenCleanupTask {
+
+    private final InvalidatedTokenRepository invalidatedTokenRepository;
+    private final PasswordResetTokenRepository passwordResetTokenRepository;
+    private final int chunkSize;
+    private final long pauseMillis;
+
+    private final Counter invalidatedTokensDeleted;
+    private final Counter resetTokensDeleted;
+    private final Timer runTimer;
+
+    public ExpiredTokenCleanupTask(InvalidatedTokenRepository invalidatedTokenRepository,
+                                   PasswordResetTokenRepository passwordResetTokenRepository,
+                                   MeterRegistry meterRegistry,
+                                   @Value("${app.cleanup.expired-tokens.chunk-size}") int chunkSize,
+                                   @Value("${app.cleanup.expired-tokens.pause-between-chunks}") long pauseMillis) {
+        this.invalidatedTokenRepository = invalidatedTokenRepository;
+        this.passwordResetTokenRepository = passwordResetTokenRepository;
+        this.chunkSize = chunkSize;
+        this.pauseMillis = pauseMillis;
+
+        this.invalidatedTokensDeleted = Counter.builder("token.cleanup.deleted")
+                .description("Expired rows removed by the token cleanup task")
+                .tag("table", "invalidated_token")
+                .register(meterRegistry);
+        this.resetTokensDeleted = Counter.builder("token.cleanup.deleted")
+                .description("Expired rows removed by the token cleanup task")
+                .tag("table", "password_reset_tokens")
+                .register(meterRegistry);
+        this.runTimer = Timer.builder("token.cleanup.duration")
+                .description("Duration of a token cleanup run")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(cron = "${app.cleanup.expired-tokens.cron}")
+    public void purgeExpiredTokens() {
+        Timer.Sample sample = Timer.start();
+
+        int invalidated = purge(limit -> invalidatedTokenRepository.deleteExpiredBatch(new Date(), limit));
+        invalidatedTokensDeleted.increment(invalidated);
+
+        int reset = purge(limit -> passwordResetTokenRepository.deleteExpiredBatch(LocalDateTime.now(), limit));
+        resetTokensDeleted.increment(reset);
+
+        long elapsedNanos = sample.stop(runTimer);
+        log.info("Token cleanup removed {} invalidated tokens and {} password reset tokens in {} ms",
+                invalidated, reset, elapsedNanos / 1_000_000);
+    }
+
+    private int purge(IntUnaryOperator deleteBatch) {
+        int total = 0;
+        while (true) {
+            int deleted = deleteBatch.applyAsInt(chunkSize);
+            total += deleted;
+
+            if (deleted < chunkSize) {
+                return total;
+            }
+
+            try {
+                Thread.sleep(pauseMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return total;
+            }
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.ecommerce_app.service.maintenance;
+
+import com.ecommerce_app.repository.EmailOutboxRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Periodically removes messages from {@code email_outbox} that were sent more than
+ * {@code app.cleanup.sent-emails.sent-retention} ago. Failed and pending messages are kept.
+ * <p>
+ * Like {@link ExpiredTokenCleanupTask}, rows are deleted in chunks of short transactions with a
+ * pause between chunks, using {@code FOR UPDATE SKIP LOCKED} so several nodes can run the task at
+ * the same time.
+ */
+@Component
+@Slf4j
+public class SentEmailCleanupTask {
+
+    private final EmailOutboxRepository emailOutboxRepository;
+    private final long retentionMillis;
+    private final int chunkSize;
+    private final long pauseMillis;
+
+    private final Counter deleted;
+
+    public SentEmailCleanupTask(EmailOutboxRepository emailOutboxRepository,
+                                MeterRegistry meterRegistry,
+                                @Value("${app.cleanup.sent-emails.sent-retention}") long retentionMillis,
+                                @Value("${app.cleanup.sent-emails.chunk-size}") int chunkSize,
+                                @Value("${app.cleanup.sent-emails.pause-between-chunks}") long pauseMillis) {
+        this.emailOutboxRepository = emailOutboxRepository;
+        this.retentionMillis = retentionMillis;
+        this.chunkSize = chunkSize;
+        this.pauseMillis = pauseMillis;
+
+        this.deleted = Counter.builder("mail.outbox.cleanup.deleted")
+                .description("Sent outbox messages removed by the cleanup task")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(cron = "${app.cleanup.sent-emails.cron}")
+    public void purgeSentEmails() {
+        LocalDateTime before = LocalDateTime.now().minus(retentionMillis, ChronoUnit.MILLIS);
+
+        int total = 0;
+        while (true) {
+            int count = emailOutboxRepository.deleteSentBatch(before, chunkSize);
+            total += count;
+            deleted.increment(count);
+
+            if (count < chunkSize) {
+                break;
+            }
+
+            try {
+                Thread.sleep(pauseMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+
+        log.info("Sent email cleanup removed {} messages sent before {}", total, before);
+    }
+}
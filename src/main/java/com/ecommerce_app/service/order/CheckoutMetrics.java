@@ -0,0 +1,138 @@
+package com.ecommerce_app.service.order;
+
+import com.ecommerce_app.constant.CheckoutOutcome;
+import com.ecommerce_app.constant.CheckoutStage;
+import com.ecommerce_app.util.SqlStatementCounter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Records where the time and the SQL statements of a checkout go.
+ * <p>
+ * {@link #start()} returns a stopwatch for one checkout. Each {@link Checkout#lap(String)} measures
+ * the time and the number of statements since the previous lap, and {@link Checkout#finish(String)}
+ * records every lap under its stage in {@code checkout.stage.duration} and
+ * {@code checkout.stage.statements} and the whole checkout in {@code checkout.duration} and
+ * {@code checkout.statements}, all tagged with the outcome. A transactional checkout calls
+ * {@link Checkout#finishOnCompletion()} instead, so the commit is measured as a stage of its own and
+ * only a committed checkout counts as a success. All four publish percentile histograms, so latency
+ * and statement percentiles per stage can be aggregated across nodes.
+ * <p>
+ * Stages and outcomes are fixed sets, so each meter is registered once and then reused.
+ */
+@Component
+@RequiredArgsConstructor
+public class CheckoutMetrics {
+
+    public static final String STAGE_DURATION = "checkout.stage.duration";
+    public static final String STAGE_STATEMENTS = "checkout.stage.statements";
+    public static final String DURATION = "checkout.duration";
+    public static final String STATEMENTS = "checkout.statements";
+
+    private final MeterRegistry meterRegistry;
+    private final SqlStatementCounter sqlStatementCounter;
+
+    private final Map<MeterKey, Timer> timers = new ConcurrentHashMap<>();
+    private final Map<MeterKey, DistributionSummary> summaries = new ConcurrentHashMap<>();
+
+    /**
+     * Start timing a checkout on the calling thread
+     */
+    public Checkout start() {
+        return new Checkout(System.nanoTime(), sqlStatementCounter.count());
+    }
+
+    private void record(String timerName, String summaryName, String stage, String outcome, long nanos, long statements) {
+        timers.computeIfAbsent(new MeterKey(timerName, stage, outcome), key -> {
+            Timer.Builder timer = Timer.builder(key.name()).publishPercentileHistogram().tag("outcome", key.outcome());
+            if (key.stage() != null) {
+                timer.tag("stage", key.stage());
+            }
+            return timer.register(meterRegistry);
+        }).record(nanos, TimeUnit.NANOSECONDS);
+
+        summaries.computeIfAbsent(new MeterKey(summaryName, stage, outcome), key -> {
+            DistributionSummary.Builder summary = DistributionSummary.builder(key.name()).publishPercentileHistogram()
+                    .tag("outcome", key.outcome());
+            if (key.stage() != null) {
+                summary.tag("stage", key.stage());
+            }
+            return summary.register(meterRegistry);
+        }).record(statements);
+    }
+
+    private record MeterKey(String name, String stage, String outcome) {
+    }
+
+    private record Lap(String stage, long nanos, long statements) {
+    }
+
+    public final class Checkout {
+
+        private final long startNanos;
+        private final long startStatements;
+        private final List<Lap> laps = new ArrayList<>();
+        private long lapNanos;
+        private long lapStatements;
+
+        private Checkout(long startNanos, long startStatements) {
+            this.startNanos = startNanos;
+            this.startStatements = startStatements;
+            this.lapNanos = startNanos;
+            this.lapStatements = startStatements;
+        }
+
+        /**
+         * Measure everything since the previous lap, or since the start, as the given stage
+         *
+         * @param stage One of {@link com.ecommerce_app.constant.CheckoutStage}
+         */
+        public void lap(String stage) {
+            long now = System.nanoTime();
+            long statements = sqlStatementCounter.count();
+            laps.add(new Lap(stage, now - lapNanos, statements - lapStatements));
+            lapNanos = now;
+            lapStatements = statements;
+        }
+
+        /**
+         * Record the laps taken so far and the whole checkout
+         *
+         * @param outcome One of {@link com.ecommerce_app.constant.CheckoutOutcome}
+         */
+        public void finish(String outcome) {
+            long totalNanos = System.nanoTime() - startNanos;
+            long totalStatements = sqlStatementCounter.count() - startStatements;
+            laps.forEach(lap -> record(STAGE_DURATION, STAGE_STATEMENTS, lap.stage(), outcome, lap.nanos(), lap.statements()));
+            record(DURATION, STATEMENTS, null, outcome, totalNanos, totalStatements);
+        }
+
+        /**
+         * Finish when the current transaction completes. Everything after the last lap, including
+         * the commit or rollback, is measured as {@link CheckoutStage#COMMIT}, and the outcome is a
+         * success only if the transaction committed.
+         *
+         * @throws IllegalStateException if transaction synchronization is not active
+         */
+        public void finishOnCompletion() {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    lap(CheckoutStage.COMMIT);
+                    finish(status == STATUS_COMMITTED ? CheckoutOutcome.SUCCESS : CheckoutOutcome.FAILURE);
+                }
+            });
+        }
+    }
+}
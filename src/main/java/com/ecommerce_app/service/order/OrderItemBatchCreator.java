@@ -0,0 +1,97 @@
+package com.ecommerce_app.service.order;
+
+import com.ecommerce_app.dto.request.OrderItemCreationRequest;
+import com.ecommerce_app.entity.Order;
+import com.ecommerce_app.entity.OrderItem;
+import com.ecommerce_app.entity.Product;
+import com.ecommerce_app.entity.ProductVariant;
+import com.ecommerce_app.exception.EntityNotFoundException;
+import com.ecommerce_app.exception.InvalidOperationException;
+import com.ecommerce_app.mapper.OrderItemMapper;
+import com.ecommerce_app.repository.OrderItemRepository;
+import com.ecommerce_app.repository.ProductRepository;
+import com.ecommerce_app.repository.ProductVariantRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Creates all lines of an order at once: products and variants are loaded with one query each,
+ * the lines are built in memory and added to the order, and Hibernate writes them as one JDBC
+ * batch ({@code hibernate.jdbc.batch_size}) on flush. The statement count is the same for one line
+ * as for a hundred.
+ */
+@Component
+@RequiredArgsConstructor
+public class OrderItemBatchCreator {
+
+    private final OrderItemRepository orderItemRepository;
+    private final ProductRepository productRepository;
+    private final ProductVariantRepository productVariantRepository;
+    private final OrderItemMapper orderItemMapper;
+
+    /**
+     * @param order    The order to add the lines to; its status has already been checked
+     * @param requests The lines to create
+     * @return The created lines, in the order of the requests, also added to {@link Order#getOrderItems()}
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public List<OrderItem> createOrderItems(Order order, Collection<OrderItemCreationRequest> requests) {
+        Set<UUID> productIds = requests.stream()
+                .map(OrderItemCreationRequest::getProductId)
+                .collect(Collectors.toSet());
+        Set<UUID> variantIds = requests.stream()
+                .map(OrderItemCreationRequest::getProductVariantId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+
+        // Products first, so the variants' products are already in the persistence context
+        Map<UUID, Product> products = productRepository.findAllById(productIds).stream()
+                .collect(Collectors.toMap(Product::getId, Function.identity()));
+        Map<UUID, ProductVariant> variants = variantIds.isEmpty() ? Map.of()
+                : productVariantRepository.findWithInventoryByIdIn(variantIds).stream()
+                .collect(Collectors.toMap(ProductVariant::getId, Function.identity()));
+
+        List<OrderItem> orderItems = new ArrayList<>(requests.size());
+        for (OrderItemCreationRequest request : requests) {
+            Product product = products.get(request.getProductId());
+            if (product == null) {
+                throw new EntityNotFoundException("Product not found with ID: " + request.getProductId());
+            }
+
+            ProductVariant productVariant = null;
+            if (request.getProductVariantId() != null) {
+                productVariant = variants.get(request.getProductVariantId());
+                if (productVariant == null) {
+                    throw new EntityNotFoundException("Product variant not found with ID: " + request.getProductVariantId());
+                }
+
+                // Check if variant belongs to the product
+                if (!productVariant.getProduct().getId().equals(product.getId())) {
+                    throw new InvalidOperationException("Product variant does not belong to the specified product");
+                }
+            }
+
+            OrderItem orderItem = orderItemMapper.toEntity(request);
+            orderItem.setOrder(order);
+            orderItem.setProduct(product);
+            orderItem.setProductVariant(productVariant);
+            orderItem.applyPricing();
+            orderItems.add(orderItem);
+        }
+
+        order.getOrderItems().addAll(orderItems);
+        return orderItemRepository.saveAll(orderItems);
+    }
+}
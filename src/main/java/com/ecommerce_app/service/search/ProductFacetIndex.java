@@ -0,0 +1,419 @@
+package com.ecommerce_app.service.search;
+
+import com.ecommerce_app.entity.Category;
+import com.ecommerce_app.entity.Product;
+import com.ecommerce_app.entity.Tag;
+import com.ecommerce_app.event.ProductChangedEvent;
+import com.ecommerce_app.event.ProductStockChangedEvent;
+import com.ecommerce_app.repository.InventoryRepository;
+import com.ecommerce_app.repository.ProductRepository;
+import com.ecommerce_app.repository.projection.ProductFacetRow;
+import com.ecommerce_app.repository.projection.ProductLinkRow;
+import lombok.extern.slf4j.Slf4j;
+import org.roaringbitmap.IntIterator;
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.math.BigDecimal;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Collectors;
+
+/**
+ * In-memory facet index over products, backed by compressed (Roaring) bitmaps of product ordinals.
+ * <p>
+ * Every product gets a dense ordinal in creation order, and every facet value (category, tag,
+ * price band, active, in stock) keeps the bitmap of ordinals that carry it. A listing is the
+ * intersection of the selected bitmaps, and facet counts are intersection cardinalities, so
+ * neither needs a join over {@code product_categories} or {@code product_tags}.
+ * <p>
+ * Committed product and inventory changes are queued by product id and applied once per
+ * {@code app.facets.refresh-interval}; a periodic full rebuild picks up changes made on other
+ * nodes and compacts ordinals of deleted products.
+ */
+@Component
+@Slf4j
+public class ProductFacetIndex {
+
+    private final ProductRepository productRepository;
+    private final InventoryRepository inventoryRepository;
+    private final BigDecimal[] priceBandBounds;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Set<UUID> pendingProductIds = ConcurrentHashMap.newKeySet();
+
+    // Guarded by lock
+    private Bitmaps bitmaps;
+
+    public ProductFacetIndex(ProductRepository productRepository,
+                             InventoryRepository inventoryRepository,
+                             @Value("${app.facets.price-bands}") BigDecimal[] priceBandBounds) {
+        this.productRepository = productRepository;
+        this.inventoryRepository = inventoryRepository;
+        this.priceBandBounds = priceBandBounds.clone();
+        Arrays.sort(this.priceBandBounds);
+        this.bitmaps = new Bitmaps(this.priceBandBounds.length + 1);
+    }
+
+    /**
+     * @return The price bands in index order; the last band has no upper bound
+     */
+    public List<PriceBand> priceBands() {
+        List<PriceBand> bands = new ArrayList<>(priceBandBounds.length + 1);
+        for (int band = 0; band <= priceBandBounds.length; band++) {
+            bands.add(new PriceBand(band,
+                    band == 0 ? BigDecimal.ZERO : priceBandBounds[band - 1],
+                    band == priceBandBounds.length ? null : priceBandBounds[band]));
+        }
+        return bands;
+    }
+
+    /**
+     * Filter products by facets and count the remaining choices.
+     * <p>
+     * Counts for a facet are computed with every other facet applied but not the facet itself,
+     * so a client can show how many products each alternative value would return.
+     *
+     * @param query    The selected facet values
+     * @param pageable The page to return, sorted by createdAt (default, newest first) or price
+     * @return The product ids on the requested page, the total match count and the facet counts
+     */
+    public FacetResult query(ProductFacetQuery query, Pageable pageable) {
+        lock.readLock().lock();
+        try {
+            Bitmaps current = bitmaps;
+
+            RoaringBitmap categoryFilter = union(current.byCategory, query.categoryIds());
+            RoaringBitmap tagFilter = union(current.byTag, query.tagIds());
+            RoaringBitmap priceFilter = unionBands(current.byPriceBand, query.priceBands());
+            RoaringBitmap activeFilter = flagFilter(current.live, current.active, query.active());
+            RoaringBitmap stockFilter = flagFilter(current.live, current.inStock, query.inStock());
+
+            RoaringBitmap matches = intersect(current.live, categoryFilter, tagFilter, priceFilter, activeFilter, stockFilter);
+
+            Map<UUID, Integer> categoryCounts = counts(current.byCategory,
+                    intersect(current.live, tagFilter, priceFilter, activeFilter, stockFilter));
+            Map<UUID, Integer> tagCounts = counts(current.byTag,
+                    intersect(current.live, categoryFilter, priceFilter, activeFilter, stockFilter));
+
+            RoaringBitmap withoutPrice = intersect(current.live, categoryFilter, tagFilter, activeFilter, stockFilter);
+            int[] priceBandCounts = new int[current.byPriceBand.length];
+            for (int band = 0; band < priceBandCounts.length; band++) {
+                priceBandCounts[band] = RoaringBitmap.andCardinality(withoutPrice, current.byPriceBand[band]);
+            }
+
+            int inStockCount = RoaringBitmap.andCardinality(
+                    intersect(current.live, categoryFilter, tagFilter, priceFilter, activeFilter), current.inStock);
+
+            return new FacetResult(page(current, matches, pageable), matches.getCardinality(),
+                    categoryCounts, tagCounts, priceBandCounts, inStockCount);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        pendingProductIds.add(event.productId());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductStockChanged(ProductStockChangedEvent event) {
+        pendingProductIds.add(event.productId());
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        rebuild();
+    }
+
+    @Scheduled(fixedDelayString = "${app.facets.refresh-interval}")
+    public synchronized void applyPendingChanges() {
+        if (pendingProductIds.isEmpty()) {
+            return;
+        }
+
+        List<UUID> productIds = new ArrayList<>(pendingProductIds);
+        pendingProductIds.removeAll(productIds);
+
+        Map<UUID, Product> products = productRepository.findWithCategoriesAndTagsByIdIn(productIds)
+                .stream()
+                .collect(Collectors.toMap(Product::getId, product -> product));
+        Set<UUID> inStock = new HashSet<>(inventoryRepository.findProductIdsInStock(productIds));
+
+        lock.writeLock().lock();
+        try {
+            for (UUID productId : productIds) {
+                Product product = products.get(productId);
+                if (product == null) {
+                    bitmaps.remove(productId);
+                } else {
+                    bitmaps.put(new ProductFacets(productId, product.getPrice(), Boolean.TRUE.equals(product.getActive()),
+                                    product.getCategories().stream().map(Category::getId).collect(Collectors.toSet()),
+                                    product.getTags().stream().map(Tag::getId).collect(Collectors.toSet())),
+                            priceBand(product.getPrice()), inStock.contains(productId));
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.debug("Applied {} product changes to the facet index", productIds.size());
+    }
+
+    /**
+     * Rebuild all bitmaps from the database and swap them in at once
+     */
+    @Scheduled(fixedDelayString = "${app.facets.rebuild-interval}", initialDelayString = "${app.facets.rebuild-interval}")
+    public synchronized void rebuild() {
+        long start = System.currentTimeMillis();
+
+        Map<UUID, Set<UUID>> categoriesByProduct = groupLinks(productRepository.findAllCategoryLinks());
+        Map<UUID, Set<UUID>> tagsByProduct = groupLinks(productRepository.findAllTagLinks());
+        Set<UUID> inStock = new HashSet<>(inventoryRepository.findProductIdsInStock());
+
+        // Rows come back in creation order, so ordinal order is creation order
+        Bitmaps rebuilt = new Bitmaps(priceBandBounds.length + 1);
+        for (ProductFacetRow row : productRepository.findAllFacetRows()) {
+            rebuilt.put(new ProductFacets(row.getId(), row.getPrice(), Boolean.TRUE.equals(row.getActive()),
+                            categoriesByProduct.getOrDefault(row.getId(), Set.of()),
+                            tagsByProduct.getOrDefault(row.getId(), Set.of())),
+                    priceBand(row.getPrice()), inStock.contains(row.getId()));
+        }
+        rebuilt.runOptimize();
+
+        lock.writeLock().lock();
+        try {
+            bitmaps = rebuilt;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Product facet index rebuilt with {} products in {} ms",
+                rebuilt.live.getCardinality(), System.currentTimeMillis() - start);
+    }
+
+    private int priceBand(BigDecimal price) {
+        if (price == null) {
+            return 0;
+        }
+        int band = 0;
+        while (band < priceBandBounds.length && price.compareTo(priceBandBounds[band]) >= 0) {
+            band++;
+        }
+        return band;
+    }
+
+    private static List<UUID> page(Bitmaps current, RoaringBitmap matches, Pageable pageable) {
+        long offset = pageable.getOffset();
+        int size = pageable.getPageSize();
+        Sort.Order priceOrder = pageable.getSort().getOrderFor("price");
+
+        if (priceOrder != null) {
+            Comparator<Integer> byPrice = Comparator.comparing(ordinal -> current.facetsByOrdinal.get(ordinal).price(),
+                    Comparator.nullsFirst(Comparator.naturalOrder()));
+            if (priceOrder.isDescending()) {
+                byPrice = byPrice.reversed();
+            }
+            return Arrays.stream(matches.toArray())
+                    .boxed()
+                    .sorted(byPrice.thenComparing(Comparator.naturalOrder()))
+                    .skip(offset)
+                    .limit(size)
+                    .map(ordinal -> current.facetsByOrdinal.get(ordinal).id())
+                    .toList();
+        }
+
+        Sort.Order createdAtOrder = pageable.getSort().getOrderFor("createdAt");
+        IntIterator iterator = createdAtOrder != null && createdAtOrder.isAscending()
+                ? matches.getIntIterator()
+                : matches.getReverseIntIterator();
+
+        List<UUID> ids = new ArrayList<>(size);
+        for (long skipped = 0; skipped < offset && iterator.hasNext(); skipped++) {
+            iterator.next();
+        }
+        while (ids.size() < size && iterator.hasNext()) {
+            ids.add(current.facetsByOrdinal.get(iterator.next()).id());
+        }
+        return ids;
+    }
+
+    private static RoaringBitmap union(Map<UUID, RoaringBitmap> bitmapsByValue, Set<UUID> values) {
+        if (values.isEmpty()) {
+            return null;
+        }
+        RoaringBitmap union = new RoaringBitmap();
+        values.forEach(value -> {
+            RoaringBitmap bitmap = bitmapsByValue.get(value);
+            if (bitmap != null) {
+                union.or(bitmap);
+            }
+        });
+        return union;
+    }
+
+    private static RoaringBitmap unionBands(RoaringBitmap[] byPriceBand, Set<Integer> bands) {
+        if (bands.isEmpty()) {
+            return null;
+        }
+        RoaringBitmap union = new RoaringBitmap();
+        bands.stream()
+                .filter(band -> band >= 0 && band < byPriceBand.length)
+                .forEach(band -> union.or(byPriceBand[band]));
+        return union;
+    }
+
+    private static RoaringBitmap flagFilter(RoaringBitmap live, RoaringBitmap flagged, Boolean wanted) {
+        if (wanted == null) {
+            return null;
+        }
+        return wanted ? flagged : RoaringBitmap.andNot(live, flagged);
+    }
+
+    private static RoaringBitmap intersect(RoaringBitmap live, RoaringBitmap... filters) {
+        RoaringBitmap result = live.clone();
+        for (RoaringBitmap filter : filters) {
+            if (filter != null) {
+                result.and(filter);
+            }
+        }
+        return result;
+    }
+
+    private static Map<UUID, Integer> counts(Map<UUID, RoaringBitmap> bitmapsByValue, RoaringBitmap base) {
+        Map<UUID, Integer> counts = new HashMap<>();
+        bitmapsByValue.forEach((value, bitmap) -> {
+            int count = RoaringBitmap.andCardinality(base, bitmap);
+            if (count > 0) {
+                counts.put(value, count);
+            }
+        });
+        return counts;
+    }
+
+    private static Map<UUID, Set<UUID>> groupLinks(List<ProductLinkRow> links) {
+        Map<UUID, Set<UUID>> linked = new HashMap<>();
+        links.forEach(link -> linked.computeIfAbsent(link.getProductId(), id -> new HashSet<>()).add(link.getLinkedId()));
+        return linked;
+    }
+
+    /**
+     * @param index    The band index used in {@link ProductFacetQuery#priceBands()}
+     * @param minPrice Inclusive lower bound
+     * @param maxPrice Exclusive upper bound, {@code null} for the last band
+     */
+    public record PriceBand(int index, BigDecimal minPrice, BigDecimal maxPrice) {
+    }
+
+    /**
+     * @param ids             The ids of the products on the requested page, in order
+     * @param totalHits       The total number of matching products
+     * @param categoryCounts  Matching products per category
+     * @param tagCounts       Matching products per tag
+     * @param priceBandCounts Matching products per price band
+     * @param inStockCount    Matching products with available stock
+     */
+    public record FacetResult(List<UUID> ids,
+                              long totalHits,
+                              Map<UUID, Integer> categoryCounts,
+                              Map<UUID, Integer> tagCounts,
+                              int[] priceBandCounts,
+                              int inStockCount) {
+    }
+
+    private record ProductFacets(UUID id, BigDecimal price, boolean active, Set<UUID> categoryIds, Set<UUID> tagIds) {
+    }
+
+    /**
+     * One generation of the index. Ordinals of deleted products stay unused until the next rebuild.
+     */
+    private static final class Bitmaps {
+
+        private final Map<UUID, Integer> ordinalById = new HashMap<>();
+        private final List<ProductFacets> facetsByOrdinal = new ArrayList<>();
+        private final Map<UUID, RoaringBitmap> byCategory = new HashMap<>();
+        private final Map<UUID, RoaringBitmap> byTag = new HashMap<>();
+        private final RoaringBitmap[] byPriceBand;
+        private final RoaringBitmap live = new RoaringBitmap();
+        private final RoaringBitmap active = new RoaringBitmap();
+        private final RoaringBitmap inStock = new RoaringBitmap();
+
+        private Bitmaps(int priceBandCount) {
+            byPriceBand = new RoaringBitmap[priceBandCount];
+            for (int band = 0; band < priceBandCount; band++) {
+                byPriceBand[band] = new RoaringBitmap();
+            }
+        }
+
+        private void put(ProductFacets facets, int priceBand, boolean inStock) {
+            Integer ordinal = ordinalById.get(facets.id());
+            if (ordinal == null) {
+                ordinal = facetsByOrdinal.size();
+                ordinalById.put(facets.id(), ordinal);
+                facetsByOrdinal.add(facets);
+            } else {
+                clear(ordinal, facetsByOrdinal.get(ordinal));
+                facetsByOrdinal.set(ordinal, facets);
+            }
+
+            int ord = ordinal;
+            live.add(ord);
+            if (facets.active()) {
+                active.add(ord);
+            }
+            if (inStock) {
+                this.inStock.add(ord);
+            }
+            byPriceBand[priceBand].add(ord);
+            facets.categoryIds().forEach(id -> byCategory.computeIfAbsent(id, key -> new RoaringBitmap()).add(ord));
+            facets.tagIds().forEach(id -> byTag.computeIfAbsent(id, key -> new RoaringBitmap()).add(ord));
+        }
+
+        private void remove(UUID productId) {
+            Integer ordinal = ordinalById.remove(productId);
+            if (ordinal != null) {
+                clear(ordinal, facetsByOrdinal.get(ordinal));
+            }
+        }
+
+        private void clear(int ordinal, ProductFacets facets) {
+            live.remove(ordinal);
+            active.remove(ordinal);
+            inStock.remove(ordinal);
+            for (RoaringBitmap band : byPriceBand) {
+                band.remove(ordinal);
+            }
+            facets.categoryIds().forEach(id -> removeFrom(byCategory, id, ordinal));
+            facets.tagIds().forEach(id -> removeFrom(byTag, id, ordinal));
+        }
+
+        private static void removeFrom(Map<UUID, RoaringBitmap> bitmapsByValue, UUID value, int ordinal) {
+            RoaringBitmap bitmap = bitmapsByValue.get(value);
+            if (bitmap != null) {
+                bitmap.remove(ordinal);
+                if (bitmap.isEmpty()) {
+                    bitmapsByValue.remove(value);
+                }
+            }
+        }
+
+        private void runOptimize() {
+            live.runOptimize();
+            active.runOptimize();
+            inStock.runOptimize();
+            for (RoaringBitmap band : byPriceBand) {
+                band.runOptimize();
+            }
+            byCategory.values().forEach(RoaringBitmap::runOptimize);
+            byTag.values().forEach(RoaringBitmap::runOptimize);
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package com.ecommerce_app.service.search;
+
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Facet selection for a product listing. Values within one facet are OR-ed, facets are AND-ed;
+ * an empty set or {@code null} flag leaves that facet unfiltered.
+ *
+ * @param categoryIds Products in any of these categories
+ * @param tagIds      Products with any of these tags
+ * @param priceBands  Products in any of these price bands (indexes into {@code app.facets.price-bands})
+ * @param active      Only active ({@code true}) or inactive ({@code false}) products
+ * @param inStock     Only products with ({@code true}) or without ({@code false}) available stock
+ */
+public record ProductFacetQuery(Set<UUID> categoryIds,
+                                Set<UUID> tagIds,
+                                Set<Integer> priceBands,
+                                Boolean active,
+                                Boolean inStock) {
+
+    public ProductFacetQuery {
+        categoryIds = categoryIds == null ? Set.of() : Set.copyOf(categoryIds);
+        tagIds = tagIds == null ? Set.of() : Set.copyOf(tagIds);
+        priceBands = priceBands == null ? Set.of() : Set.copyOf(priceBands);
+    }
+}
@@ -0,0 +1,330 @@
+package com.ecommerce_app.service.search;
+
+import com.ecommerce_app.entity.Category;
+import com.ecommerce_app.entity.Product;
+import com.ecommerce_app.entity.Tag;
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.TokenStream;
+import org.apache.lucene.analysis.standard.StandardAnalyzer;
+import org.apache.lucene.analysis.tokenattributes.CharTermAttribute;
+import org.apache.lucene.document.*;
+import org.apache.lucene.index.BinaryDocValues;
+import org.apache.lucene.index.DocValues;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.LeafReaderContext;
+import org.apache.lucene.index.ReaderUtil;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.*;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.FSDirectory;
+import org.apache.lucene.util.BytesRef;
+import org.springframework.data.domain.Pageable;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.UUID;
+
+/**
+ * Lucene inverted index over product name, description, SKU, tag names and category names.
+ * <p>
+ * Searches are ranked by relevance (name matches weigh most, then tags and categories, then
+ * description), match every keyword term either exactly or as a prefix of a name, tag or
+ * category word, and only return active products. Writes go to a single {@link IndexWriter} and become visible after
+ * {@link #refresh()}; {@link #commit()} makes them durable on disk and {@link #rollback()} discards them.
+ */
+public class ProductSearchIndex implements Closeable {
+
+    static final String ID = "id";
+    static final String NAME = "name";
+    static final String DESCRIPTION = "description";
+    static final String SKU = "sku";
+    static final String TAGS = "tags";
+    static final String CATEGORIES = "categories";
+    static final String ACTIVE = "active";
+    static final String NAME_SORT = "name_sort";
+    static final String PRICE = "price";
+    static final String CREATED_AT = "createdAt";
+
+    private final Directory directory;
+    private final Analyzer analyzer;
+    private volatile IndexWriter writer;
+    private volatile SearcherManager searcherManager;
+
+    public ProductSearchIndex(Directory directory) {
+        this.directory = directory;
+        this.analyzer = new StandardAnalyzer();
+        try {
+            openWriter();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not open product search index", e);
+        }
+    }
+
+    private void openWriter() throws IOException {
+        writer = new IndexWriter(directory, new IndexWriterConfig(analyzer)
+                .setOpenMode(IndexWriterConfig.OpenMode.CREATE_OR_APPEND));
+        searcherManager = new SearcherManager(writer, null);
+    }
+
+    public static ProductSearchIndex open(Path path) {
+        try {
+            return new ProductSearchIndex(FSDirectory.open(path));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not open product search index at " + path, e);
+        }
+    }
+
+    /**
+     * Add or replace the document for a product. Categories and tags must be initialized.
+     *
+     * @param product The product to index
+     */
+    public void index(Product product) {
+        try {
+            writer.updateDocument(new Term(ID, product.getId().toString()), toDocument(product));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public void delete(UUID productId) {
+        try {
+            writer.deleteDocuments(new Term(ID, productId.toString()));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public void deleteAll() {
+        try {
+            writer.deleteAll();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Make all writes so far visible to searches
+     */
+    public void refresh() {
+        try {
+            searcherManager.maybeRefreshBlocking();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Flush all writes so far to disk
+     */
+    public void commit() {
+        try {
+            writer.commit();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Discard all writes since the last commit and reopen the index at that commit. Searches keep
+     * their current view until the reopened index replaces it.
+     */
+    public synchronized void rollback() {
+        SearcherManager previousSearcherManager = searcherManager;
+        try {
+            // Closes the writer; readers opened from it stay usable
+            writer.rollback();
+            openWriter();
+            previousSearcherManager.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not roll back product search index", e);
+        }
+    }
+
+    /**
+     * @return The number of products visible to searches
+     */
+    public int size() {
+        try {
+            SearcherManager manager = searcherManager;
+            IndexSearcher searcher = manager.acquire();
+            try {
+                return searcher.getIndexReader().numDocs();
+            } finally {
+                manager.release(searcher);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Search active products
+     *
+     * @param keyword  The user supplied search text
+     * @param pageable The page to return; sorting by name, price or createdAt is supported,
+     *                 otherwise results are ordered by relevance
+     * @return The ids of the matching products on the requested page, in order, and the total hit count
+     */
+    public SearchResult search(String keyword, Pageable pageable) {
+        Query query = buildQuery(keyword);
+        int offset = (int) Math.min(pageable.getOffset(), Integer.MAX_VALUE - pageable.getPageSize());
+        int limit = offset + pageable.getPageSize();
+
+        try {
+            SearcherManager manager = searcherManager;
+            IndexSearcher searcher = manager.acquire();
+            try {
+                Sort sort = toLuceneSort(pageable);
+                // Plain relevance ranking lets Lucene skip blocks that cannot reach the top hits
+                TopDocs topDocs = sort == Sort.RELEVANCE
+                        ? searcher.search(query, Math.max(1, limit))
+                        : searcher.search(query, Math.max(1, limit), sort);
+                List<LeafReaderContext> leaves = searcher.getIndexReader().leaves();
+
+                // Ids come from doc values rather than stored fields, which would decompress a block per hit
+                List<UUID> ids = new ArrayList<>(pageable.getPageSize());
+                for (int i = offset; i < topDocs.scoreDocs.length; i++) {
+                    int doc = topDocs.scoreDocs[i].doc;
+                    LeafReaderContext leaf = leaves.get(ReaderUtil.subIndex(doc, leaves));
+                    BinaryDocValues idValues = DocValues.getBinary(leaf.reader(), ID);
+                    if (idValues.advanceExact(doc - leaf.docBase)) {
+                        ids.add(UUID.fromString(idValues.binaryValue().utf8ToString()));
+                    }
+                }
+
+                // Lucene stops counting exactly once it has enough hits to rank the page
+                long totalHits = topDocs.totalHits.relation == TotalHits.Relation.EQUAL_TO
+                        ? topDocs.totalHits.value
+                        : searcher.count(query);
+                return new SearchResult(ids, totalHits);
+            } finally {
+                manager.release(searcher);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    Query buildQuery(String keyword) {
+        List<String> terms = analyze(keyword);
+        if (terms.isEmpty()) {
+            return new MatchNoDocsQuery();
+        }
+
+        // Every term has to match somewhere; prefixes only expand over the short name, tag and category fields
+        BooleanQuery.Builder allTerms = new BooleanQuery.Builder();
+        for (String term : terms) {
+            allTerms.add(new BooleanQuery.Builder()
+                    .add(new BoostQuery(new TermQuery(new Term(NAME, term)), 4f), BooleanClause.Occur.SHOULD)
+                    .add(new BoostQuery(new PrefixQuery(new Term(NAME, term)), 2f), BooleanClause.Occur.SHOULD)
+                    .add(new BoostQuery(new TermQuery(new Term(TAGS, term)), 2f), BooleanClause.Occur.SHOULD)
+                    .add(new BoostQuery(new TermQuery(new Term(CATEGORIES, term)), 2f), BooleanClause.Occur.SHOULD)
+                    .add(new BoostQuery(new PrefixQuery(new Term(TAGS, term)), 1f), BooleanClause.Occur.SHOULD)
+                    .add(new BoostQuery(new PrefixQuery(new Term(CATEGORIES, term)), 1f), BooleanClause.Occur.SHOULD)
+                    .add(new TermQuery(new Term(DESCRIPTION, term)), BooleanClause.Occur.SHOULD)
+                    .build(), BooleanClause.Occur.MUST);
+        }
+
+        // A keyword that is (the start of) a SKU matches on its own
+        String sku = keyword.trim().toLowerCase(Locale.ROOT);
+        Query skuQuery = new BooleanQuery.Builder()
+                .add(new BoostQuery(new TermQuery(new Term(SKU, sku)), 8f), BooleanClause.Occur.SHOULD)
+                .add(new BoostQuery(new PrefixQuery(new Term(SKU, sku)), 4f), BooleanClause.Occur.SHOULD)
+                .build();
+
+        return new BooleanQuery.Builder()
+                .add(allTerms.build(), BooleanClause.Occur.SHOULD)
+                .add(skuQuery, BooleanClause.Occur.SHOULD)
+                .setMinimumNumberShouldMatch(1)
+                .add(new TermQuery(new Term(ACTIVE, "true")), BooleanClause.Occur.FILTER)
+                .build();
+    }
+
+    private List<String> analyze(String text) {
+        List<String> terms = new ArrayList<>();
+        try (TokenStream tokenStream = analyzer.tokenStream(NAME, text)) {
+            CharTermAttribute termAttribute = tokenStream.addAttribute(CharTermAttribute.class);
+            tokenStream.reset();
+            while (tokenStream.incrementToken()) {
+                terms.add(termAttribute.toString());
+            }
+            tokenStream.end();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return terms;
+    }
+
+    private static Sort toLuceneSort(Pageable pageable) {
+        List<SortField> sortFields = new ArrayList<>();
+        pageable.getSort().forEach(order -> {
+            boolean reverse = order.isDescending();
+            switch (order.getProperty()) {
+                case "name" -> sortFields.add(new SortField(NAME_SORT, SortField.Type.STRING, reverse));
+                case "price" -> sortFields.add(new SortField(PRICE, SortField.Type.DOUBLE, reverse));
+                case "createdAt" -> sortFields.add(new SortField(CREATED_AT, SortField.Type.LONG, reverse));
+                default -> sortFields.add(SortField.FIELD_SCORE);
+            }
+        });
+
+        if (sortFields.isEmpty()) {
+            return Sort.RELEVANCE;
+        }
+        sortFields.add(SortField.FIELD_SCORE);
+        return new Sort(sortFields.toArray(new SortField[0]));
+    }
+
+    private static Document toDocument(Product product) {
+        Document document = new Document();
+        document.add(new StringField(ID, product.getId().toString(), Field.Store.NO));
+        document.add(new BinaryDocValuesField(ID, new BytesRef(product.getId().toString())));
+        document.add(new TextField(NAME, nullToEmpty(product.getName()), Field.Store.NO));
+        document.add(new TextField(DESCRIPTION, nullToEmpty(product.getDescription()), Field.Store.NO));
+        if (product.getSku() != null && !product.getSku().isEmpty()) {
+            document.add(new StringField(SKU, product.getSku().toLowerCase(Locale.ROOT), Field.Store.NO));
+        }
+        for (Tag tag : product.getTags()) {
+            document.add(new TextField(TAGS, nullToEmpty(tag.getName()), Field.Store.NO));
+        }
+        for (Category category : product.getCategories()) {
+            document.add(new TextField(CATEGORIES, nullToEmpty(category.getName()), Field.Store.NO));
+        }
+        document.add(new StringField(ACTIVE, String.valueOf(Boolean.TRUE.equals(product.getActive())), Field.Store.NO));
+
+        document.add(new SortedDocValuesField(NAME_SORT,
+                new BytesRef(nullToEmpty(product.getName()).toLowerCase(Locale.ROOT))));
+        BigDecimal price = product.getPrice() != null ? product.getPrice() : BigDecimal.ZERO;
+        document.add(new DoubleDocValuesField(PRICE, price.doubleValue()));
+        long createdAt = product.getCreatedAt() != null ? product.getCreatedAt().toInstant(ZoneOffset.UTC).toEpochMilli() : 0L;
+        document.add(new NumericDocValuesField(CREATED_AT, createdAt));
+
+        return document;
+    }
+
+    private static String nullToEmpty(String value) {
+        return value == null ? "" : value;
+    }
+
+    @Override
+    public void close() throws IOException {
+        searcherManager.close();
+        writer.close();
+        directory.close();
+    }
+
+    /**
+     * @param ids       The ids of the products on the requested page, best match first
+     * @param totalHits The total number of matching products
+     */
+    public record SearchResult(List<UUID> ids, long totalHits) {
+    }
+}
@@ -0,0 +1,181 @@
+package com.ecommerce_app.service.search;
+
+import com.ecommerce_app.entity.Product;
+import com.ecommerce_app.event.ProductChangedEvent;
+import com.ecommerce_app.repository.ProductRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps the {@link ProductSearchIndex} in step with the {@code products} table and serves keyword searches.
+ * <p>
+ * Committed product changes are queued by id and applied in one batch per refresh interval, so
+ * a burst of edits costs one index refresh. Until the first full build has finished
+ * {@link #isReady()} is false and callers should fall back to the database query.
+ * <p>
+ * Events only cover changes made on this node, so every {@code app.search.reconcile-interval}
+ * the products updated within {@code app.search.reconcile-window} are reindexed as well, and the
+ * index is rebuilt if it holds more products than the table, which means products were deleted
+ * elsewhere.
+ */
+@Service
+@Slf4j
+public class ProductSearchService {
+
+    private static final int REBUILD_BATCH_SIZE = 500;
+
+    private final ProductSearchIndex productSearchIndex;
+    private final ProductRepository productRepository;
+    private final long reconcileWindowMillis;
+
+    private final Set<UUID> pendingProductIds = ConcurrentHashMap.newKeySet();
+    private volatile boolean ready;
+
+    public ProductSearchService(ProductSearchIndex productSearchIndex,
+                                ProductRepository productRepository,
+                                @Value("${app.search.reconcile-window}") long reconcileWindowMillis) {
+        this.productSearchIndex = productSearchIndex;
+        this.productRepository = productRepository;
+        this.reconcileWindowMillis = reconcileWindowMillis;
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Search active products by keyword
+     *
+     * @param keyword  The search text
+     * @param pageable The requested page; an unsorted page is ordered by relevance
+     * @return The ids of the products on the page, best match first, and the total hit count
+     */
+    public ProductSearchIndex.SearchResult search(String keyword, Pageable pageable) {
+        return productSearchIndex.search(keyword, pageable);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        pendingProductIds.add(event.productId());
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        long productCount = productRepository.count();
+        if (productSearchIndex.size() == productCount) {
+            log.info("Product search index is up to date with {} products", productCount);
+            ready = true;
+            return;
+        }
+
+        Thread rebuildThread = new Thread(() -> {
+            try {
+                rebuild();
+            } catch (RuntimeException e) {
+                log.error("Product search index rebuild failed", e);
+            }
+        }, "product-search-rebuild");
+        rebuildThread.setDaemon(true);
+        rebuildThread.start();
+    }
+
+    @Scheduled(fixedDelayString = "${app.search.refresh-interval}")
+    public synchronized void applyPendingChanges() {
+        if (pendingProductIds.isEmpty()) {
+            return;
+        }
+
+        List<UUID> productIds = new ArrayList<>(pendingProductIds);
+        pendingProductIds.removeAll(productIds);
+
+        Map<UUID, Product> products = new HashMap<>();
+        productRepository.findWithCategoriesAndTagsByIdIn(productIds)
+                .forEach(product -> products.put(product.getId(), product));
+
+        for (UUID productId : productIds) {
+            Product product = products.get(productId);
+            if (product != null) {
+                productSearchIndex.index(product);
+            } else {
+                productSearchIndex.delete(productId);
+            }
+        }
+        productSearchIndex.commit();
+        productSearchIndex.refresh();
+        log.debug("Applied {} product changes to the search index", productIds.size());
+    }
+
+    @Scheduled(fixedDelayString = "${app.search.reconcile-interval}", initialDelayString = "${app.search.reconcile-interval}")
+    public synchronized void reconcile() {
+        if (!ready) {
+            return;
+        }
+
+        List<UUID> updated = productRepository.findIdsUpdatedSince(
+                LocalDateTime.now().minusNanos(reconcileWindowMillis * 1_000_000));
+        pendingProductIds.addAll(updated);
+        applyPendingChanges();
+
+        // Products created from here on only raise the count, so a surplus means missed deletes
+        long productCount = productRepository.count();
+        int indexed = productSearchIndex.size();
+        if (indexed > productCount) {
+            log.warn("Product search index holds {} products but the table {}, rebuilding", indexed, productCount);
+            rebuild();
+        }
+    }
+
+    /**
+     * Rebuild the index from scratch. Searches keep seeing the previous index until the rebuild
+     * commits; a failed rebuild is rolled back and leaves the previous index in place.
+     *
+     * @return The number of products indexed
+     */
+    public synchronized int rebuild() {
+        long start = System.currentTimeMillis();
+        productSearchIndex.deleteAll();
+
+        int indexed = 0;
+        try {
+            Pageable pageable = PageRequest.of(0, REBUILD_BATCH_SIZE);
+            Slice<UUID> productIds;
+            do {
+                productIds = productRepository.findAllIds(pageable);
+                if (productIds.hasContent()) {
+                    for (Product product : productRepository.findWithCategoriesAndTagsByIdIn(productIds.getContent())) {
+                        productSearchIndex.index(product);
+                        indexed++;
+                    }
+                }
+                pageable = productIds.nextPageable();
+            } while (productIds.hasNext());
+        } catch (RuntimeException e) {
+            productSearchIndex.rollback();
+            throw e;
+        }
+
+        productSearchIndex.commit();
+        productSearchIndex.refresh();
+        ready = true;
+
+        log.info("Product search index rebuilt with {} products in {} ms", indexed, System.currentTimeMillis() - start);
+        return indexed;
+    }
+}
@@ -0,0 +1,164 @@
+package com.ecommerce_app.service.security;
+
+import com.ecommerce_app.exception.AppException;
+import com.ecommerce_app.exception.ErrorCode;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JWSVerifier;
+import com.nimbusds.jose.crypto.MACVerifier;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.oauth2.jwt.BadJwtException;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.text.ParseException;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Date;
+
+/**
+ * Single place where access tokens are parsed, signature-checked, expiry-checked and
+ * revocation-checked.
+ * <p>
+ * The HMAC verifier is built once from the configured secret. Tokens that pass
+ * verification are kept in a small bounded cache keyed by the SHA-256 of the token, so
+ * repeated requests with the same bearer token skip parsing and signature verification
+ * until the token expires. Revocation is still checked on every cache hit.
+ */
+@Component
+public class JwtTokenVerifier {
+
+    private static final ThreadLocal<MessageDigest> SHA_256 = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    });
+
+    private final JWSVerifier verifier;
+    private final RevokedTokenIndex revokedTokenIndex;
+    private final Cache<String, Jwt> verifiedTokens;
+
+    public JwtTokenVerifier(RevokedTokenIndex revokedTokenIndex,
+                            @Value("${app.jwt.secret}") String jwtSecret,
+                            @Value("${app.jwt.verified-cache.max-size}") long maxCacheSize) throws JOSEException {
+        this.verifier = new MACVerifier(jwtSecret.getBytes());
+        this.revokedTokenIndex = revokedTokenIndex;
+        this.verifiedTokens = Caffeine.newBuilder()
+                .maximumSize(maxCacheSize)
+                .expireAfter(new Expiry<String, Jwt>() {
+                    @Override
+                    public long expireAfterCreate(String key, Jwt jwt, long currentTime) {
+                        long remainingMillis = jwt.getExpiresAt().toEpochMilli() - System.currentTimeMillis();
+                        return Math.max(0, remainingMillis) * 1_000_000L;
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String key, Jwt jwt, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+
+                    @Override
+                    public long expireAfterRead(String key, Jwt jwt, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .build();
+    }
+
+    /**
+     * Decode an access token for request authentication, using the verified-token cache.
+     *
+     * @param token The compact serialized JWT
+     * @return The verified {@link Jwt}
+     * @throws BadJwtException if the token is malformed, forged, expired or revoked
+     */
+    public Jwt decode(String token) {
+        String cacheKey = hash(token);
+
+        Jwt jwt = verifiedTokens.getIfPresent(cacheKey);
+        if (jwt == null) {
+            SignedJWT signedJWT;
+            try {
+                signedJWT = parseAndVerify(token);
+            } catch (ParseException | JOSEException e) {
+                throw new BadJwtException("Invalid token", e);
+            }
+            jwt = toJwt(token, signedJWT);
+            verifiedTokens.put(cacheKey, jwt);
+        } else if (!jwt.getExpiresAt().isAfter(Instant.now())) {
+            verifiedTokens.invalidate(cacheKey);
+            throw new BadJwtException("Token has expired");
+        }
+
+        if (revokedTokenIndex.isRevoked(jwt.getId())) {
+            throw new BadJwtException("Token has been revoked");
+        }
+
+        return jwt;
+    }
+
+    /**
+     * Verify a token presented to the auth endpoints (refresh, logout).
+     *
+     * @param token The compact serialized JWT
+     * @return The verified {@link SignedJWT}
+     * @throws AppException with {@link ErrorCode#UNAUTHENTICATED} if the token is forged, expired or revoked
+     */
+    public SignedJWT verify(String token) throws ParseException, JOSEException {
+        SignedJWT signedJWT;
+        try {
+            signedJWT = parseAndVerify(token);
+        } catch (BadJwtException e) {
+            throw new AppException(ErrorCode.UNAUTHENTICATED);
+        }
+
+        if (revokedTokenIndex.isRevoked(signedJWT.getJWTClaimsSet().getJWTID())) {
+            throw new AppException(ErrorCode.UNAUTHENTICATED);
+        }
+
+        return signedJWT;
+    }
+
+    private SignedJWT parseAndVerify(String token) throws ParseException, JOSEException {
+        SignedJWT signedJWT = SignedJWT.parse(token);
+        Date expiryTime = signedJWT.getJWTClaimsSet().getExpirationTime();
+
+        if (!signedJWT.verify(verifier)) {
+            throw new BadJwtException("Invalid token signature");
+        }
+        if (expiryTime == null || !expiryTime.after(new Date())) {
+            throw new BadJwtException("Token has expired");
+        }
+
+        return signedJWT;
+    }
+
+    private Jwt toJwt(String token, SignedJWT signedJWT) {
+        try {
+            JWTClaimsSet claims = signedJWT.getJWTClaimsSet();
+            return new Jwt(token,
+                    claims.getIssueTime() != null ? claims.getIssueTime().toInstant() : null,
+                    claims.getExpirationTime().toInstant(),
+                    signedJWT.getHeader().toJSONObject(),
+                    claims.getClaims()
+            );
+        } catch (ParseException e) {
+            throw new BadJwtException("Invalid token", e);
+        }
+    }
+
+    private static String hash(String token) {
+        MessageDigest digest = SHA_256.get();
+        digest.reset();
+        return Base64.getEncoder().encodeToString(digest.digest(token.getBytes(StandardCharsets.US_ASCII)));
+    }
+}
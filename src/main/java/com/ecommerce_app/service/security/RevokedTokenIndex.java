@@ -0,0 +1,137 @@
+package com.ecommerce_app.service.security;
+
+import com.ecommerce_app.entity.InvalidatedToken;
+import com.ecommerce_app.repository.InvalidatedTokenRepository;
+import com.ecommerce_app.util.BloomFilter;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory index of revoked JWT IDs kept in front of {@link InvalidatedTokenRepository}.
+ * <p>
+ * Lookups hit a Bloom filter first and only consult the exact set when the filter
+ * reports a possible match, so the common case (token not revoked) never touches the
+ * database. Entries are dropped once their {@code expiryTime} has passed, because an
+ * expired token is rejected anyway. The index is periodically reloaded from the
+ * database so that revocations written by other nodes are picked up.
+ */
+@Component
+@Slf4j
+public class RevokedTokenIndex {
+
+    private final InvalidatedTokenRepository invalidatedTokenRepository;
+    private final long expectedInsertions;
+    private final double falsePositiveRate;
+
+    private final Object writeLock = new Object();
+    private volatile Snapshot snapshot;
+    private volatile boolean loaded;
+
+    public RevokedTokenIndex(InvalidatedTokenRepository invalidatedTokenRepository,
+                             @Value("${app.jwt.valid-duration}") long validDurationSeconds,
+                             @Value("${app.jwt.revocation.expected-per-minute}") long expectedPerMinute,
+                             @Value("${app.jwt.revocation.false-positive-rate}") double falsePositiveRate) {
+        this.invalidatedTokenRepository = invalidatedTokenRepository;
+        // A revoked token only needs to be remembered until it expires, so the live set is
+        // bounded by the number of revocations that can happen within one token lifetime.
+        this.expectedInsertions = Math.max(1, expectedPerMinute * Math.max(1, validDurationSeconds / 60));
+        this.falsePositiveRate = falsePositiveRate;
+        this.snapshot = new Snapshot(BloomFilter.create(expectedInsertions, falsePositiveRate), new ConcurrentHashMap<>());
+    }
+
+    @PostConstruct
+    public void load() {
+        try {
+            refresh();
+            loaded = true;
+        } catch (RuntimeException ex) {
+            log.warn("Could not load revoked tokens, falling back to database lookups until the next refresh", ex);
+        }
+    }
+
+    /**
+     * Check whether a token ID has been revoked
+     *
+     * @param jti The JWT ID to check
+     * @return true if the token has been revoked and has not yet expired
+     */
+    public boolean isRevoked(String jti) {
+        if (jti == null) {
+            return false;
+        }
+        if (!loaded) {
+            return invalidatedTokenRepository.existsById(jti);
+        }
+
+        Snapshot current = snapshot;
+        if (!current.filter.mightContain(jti)) {
+            return false;
+        }
+
+        Date expiryTime = current.entries.get(jti);
+        return expiryTime != null && expiryTime.after(new Date());
+    }
+
+    /**
+     * Record a revocation that has just been written to the database
+     *
+     * @param jti        The JWT ID being revoked
+     * @param expiryTime The expiry time of the revoked token
+     */
+    public void revoke(String jti, Date expiryTime) {
+        if (jti == null || expiryTime == null || !expiryTime.after(new Date())) {
+            return;
+        }
+        synchronized (writeLock) {
+            snapshot.add(jti, expiryTime);
+        }
+    }
+
+    /**
+     * Rebuild the index from the database, dropping expired entries.
+     * Rebuilding also resets the Bloom filter so aged-out keys stop producing false positives.
+     */
+    @Scheduled(fixedDelayString = "${app.jwt.revocation.refresh-interval}",
+            initialDelayString = "${app.jwt.revocation.refresh-interval}")
+    public void refresh() {
+        Date now = new Date();
+        List<InvalidatedToken> liveTokens = invalidatedTokenRepository.findAllByExpiryTimeAfter(now);
+
+        Snapshot next = new Snapshot(
+                BloomFilter.create(Math.max(expectedInsertions, liveTokens.size()), falsePositiveRate),
+                new ConcurrentHashMap<>(Math.max(16, liveTokens.size() * 2)));
+        liveTokens.forEach(token -> next.add(token.getId(), token.getExpiryTime()));
+
+        synchronized (writeLock) {
+            // Keep revocations recorded locally while the database snapshot was being read
+            snapshot.entries.forEach((jti, expiryTime) -> {
+                if (expiryTime.after(now)) {
+                    next.add(jti, expiryTime);
+                }
+            });
+            snapshot = next;
+            loaded = true;
+        }
+
+        log.debug("Revoked token index refreshed with {} live entries", next.entries.size());
+    }
+
+    public int size() {
+        return snapshot.entries.size();
+    }
+
+    private record Snapshot(BloomFilter filter, Map<String, Date> entries) {
+        void add(String jti, Date expiryTime) {
+            entries.put(jti, expiryTime);
+            filter.put(jti);
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package com.ecommerce_app.service.security;
+
+import com.ecommerce_app.entity.Role;
+import com.ecommerce_app.event.RoleScopesChangedEvent;
+import com.ecommerce_app.repository.RoleRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.util.CollectionUtils;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.StringJoiner;
+import java.util.UUID;
+
+/**
+ * Precomputed scope string for every role ({@code ROLE_<name>} followed by its permission names).
+ * <p>
+ * The map is built from a single fetch-join query and replaced as a whole after any committed
+ * role or permission change, so issuing or refreshing a token never has to load
+ * {@code Role.permissions}. A periodic reload picks up changes made on other nodes.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class RoleScopeCache {
+
+    private final RoleRepository roleRepository;
+
+    private volatile Map<UUID, String> scopesByRole = Map.of();
+
+    /**
+     * Build the scope claim for a set of roles
+     *
+     * @param roles The roles assigned to the user
+     * @return The space separated scope string
+     */
+    public String scopeFor(Collection<Role> roles) {
+        StringJoiner stringJoiner = new StringJoiner(" ");
+        if (CollectionUtils.isEmpty(roles)) {
+            return stringJoiner.toString();
+        }
+
+        Map<UUID, String> snapshot = scopesByRole;
+        roles.forEach(role -> {
+            String scope = snapshot.get(role.getId());
+            // A role created on another node may not be in the snapshot yet; loaded with its
+            // permissions, since callers may be outside a transaction
+            stringJoiner.add(scope != null ? scope : roleRepository.findWithPermissionsById(role.getId())
+                    .map(RoleScopeCache::buildScope)
+                    .orElse("ROLE_" + role.getName()));
+        });
+
+        return stringJoiner.toString();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        reload();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onRoleScopesChanged(RoleScopesChangedEvent event) {
+        reload();
+    }
+
+    @Scheduled(fixedDelayString = "${app.security.role-scope-cache.refresh-interval}",
+            initialDelayString = "${app.security.role-scope-cache.refresh-interval}")
+    public synchronized void reload() {
+        List<Role> roles = roleRepository.findAllWithPermissions();
+
+        Map<UUID, String> scopes = new HashMap<>(roles.size() * 2);
+        roles.forEach(role -> scopes.put(role.getId(), buildScope(role)));
+
+        scopesByRole = Map.copyOf(scopes);
+        log.debug("Role scope cache reloaded with {} roles", scopes.size());
+    }
+
+    private static String buildScope(Role role) {
+        StringJoiner stringJoiner = new StringJoiner(" ");
+        stringJoiner.add("ROLE_" + role.getName());
+        if (!CollectionUtils.isEmpty(role.getPermissions()))
+            role.getPermissions().forEach(permission -> stringJoiner.add(permission.getName()));
+        return stringJoiner.toString();
+    }
+}
@@ -0,0 +1,56 @@
+package com.ecommerce_app.util;
+
+import com.ecommerce_app.exception.BadRequestException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Position in a listing ordered by {@code (createdAt DESC, id DESC)}, exchanged with clients as an
+ * opaque URL-safe token. The next page is everything strictly after this position, so rows inserted
+ * meanwhile never shift or repeat entries on later pages.
+ *
+ * @param createdAt The creation time of the last row on the previous page
+ * @param id        The id of the last row on the previous page, breaking ties on createdAt
+ */
+public record KeysetCursor(LocalDateTime createdAt, UUID id) {
+
+    public static final int MAX_PAGE_SIZE = 100;
+
+    private static final char SEPARATOR = '|';
+
+    public String encode() {
+        String raw = createdAt.toString() + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @param size The requested page size
+     * @return The size limited to {@code 1..MAX_PAGE_SIZE}
+     */
+    public static int clampPageSize(int size) {
+        return Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+    }
+
+    /**
+     * @param token A token previously returned by {@link #encode()}
+     * @return The decoded cursor
+     * @throws BadRequestException If the token is malformed
+     */
+    public static KeysetCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = raw.indexOf(SEPARATOR);
+            if (separator < 0) {
+                throw new BadRequestException("Invalid cursor");
+            }
+            return new KeysetCursor(LocalDateTime.parse(raw.substring(0, separator)),
+                    UUID.fromString(raw.substring(separator + 1)));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new BadRequestException("Invalid cursor");
+        }
+    }
+}
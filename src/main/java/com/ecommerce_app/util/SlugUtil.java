@@ -29,12 +29,12 @@ public class SlugUtil {
         // Normalize the string (converts accented characters like é to e)
         result = Normalizer.normalize(result, Normalizer.Form.NFD);
 
+        // Replace whitespace with hyphens (before the next step, which would drop it)
+        result = WHITESPACE.matcher(result).replaceAll("-");
+
         // Remove all non-Latin characters
         result = NONLATIN.matcher(result).replaceAll("");
 
-        // Replace whitespace with hyphens
-        result = WHITESPACE.matcher(result).replaceAll("-");
-
         // Replace multiple consecutive hyphens with a single hyphen
         result = MULTIPLE_HYPHENS.matcher(result).replaceAll("-");
 
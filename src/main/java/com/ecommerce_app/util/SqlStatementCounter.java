@@ -0,0 +1,31 @@
+package com.ecommerce_app.util;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.springframework.stereotype.Component;
+
+/**
+ * Counts the SQL statements Hibernate prepares on each thread.
+ * <p>
+ * Registered as the Hibernate statement inspector, so it sees every statement Hibernate sends:
+ * queries, lazy loads and flushed writes, with a JDBC batch counting once. Statements issued with
+ * {@code JdbcTemplate} bypass Hibernate and are not counted. Callers take {@link #count()} before
+ * and after a piece of work and subtract.
+ */
+@Component
+public class SqlStatementCounter implements StatementInspector {
+
+    private final ThreadLocal<long[]> statements = ThreadLocal.withInitial(() -> new long[1]);
+
+    @Override
+    public String inspect(String sql) {
+        statements.get()[0]++;
+        return sql;
+    }
+
+    /**
+     * @return The number of statements prepared so far on the calling thread
+     */
+    public long count() {
+        return statements.get()[0];
+    }
+}
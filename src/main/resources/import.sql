@@ -0,0 +1,5 @@
+-- Run by Hibernate after it creates the schema (spring.jpa.hibernate.ddl-auto=create)
+-- One line per product and variant in a cart; a product without variants counts as one line too. Plain unique
+-- constraints treat NULL variants as distinct, so each case gets its own partial unique index
+CREATE UNIQUE INDEX uk_cart_items_line ON cart_items (cart_id, product_id, product_variant_id) WHERE product_variant_id IS NOT NULL;
+CREATE UNIQUE INDEX uk_cart_items_line_no_variant ON cart_items (cart_id, product_id) WHERE product_variant_id IS NULL;
@@ -0,0 +1,140 @@
+package com.ecommerce_app.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the latency of one cart edit (changing the quantity of one line) as carts grow,
+ * comparing the full recalculation cart edits used to run (load the cart, load every line, sum
+ * in Java, write the cart back) with the single delta statement {@code CartRepository.addToTotalAmount}
+ * runs now. Uses the {@code carts} and {@code cart_items} columns involved on an in-memory H2
+ * database, so the numbers exclude network round trips, which only widen the gap.
+ * <p>
+ * Run with {@code mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.ecommerce_app.benchmark.CartTotalBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+@Fork(1)
+public class CartTotalBenchmark {
+
+    @Param({"1", "10", "100", "500"})
+    int cartLines;
+
+    private Connection connection;
+    private PreparedStatement updateLine;
+    private PreparedStatement selectCart;
+    private PreparedStatement selectLines;
+    private PreparedStatement setTotal;
+    private PreparedStatement addToTotal;
+    private UUID cartId;
+    private UUID[] lineIds;
+    private BigDecimal[] linePrices;
+    private final Random random = new Random(42);
+
+    @Setup
+    public void setUp() throws SQLException {
+        connection = DriverManager.getConnection("jdbc:h2:mem:cart-total-" + cartLines + ";DB_CLOSE_DELAY=-1");
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE carts (id UUID PRIMARY KEY, total_amount NUMERIC(10, 2), updated_at TIMESTAMP)");
+            statement.execute("CREATE TABLE cart_items (id UUID PRIMARY KEY, cart_id UUID NOT NULL, " +
+                    "quantity INT NOT NULL, price NUMERIC(10, 2), updated_at TIMESTAMP)");
+            statement.execute("CREATE INDEX idx_cart_items_cart ON cart_items (cart_id)");
+        }
+
+        cartId = UUID.randomUUID();
+        lineIds = new UUID[cartLines];
+        linePrices = new BigDecimal[cartLines];
+        try (PreparedStatement insertCart = connection.prepareStatement("INSERT INTO carts VALUES (?, 0, CURRENT_TIMESTAMP)");
+             PreparedStatement insertLine = connection.prepareStatement(
+                     "INSERT INTO cart_items VALUES (?, ?, 1, ?, CURRENT_TIMESTAMP)")) {
+            insertCart.setObject(1, cartId);
+            insertCart.executeUpdate();
+            for (int i = 0; i < cartLines; i++) {
+                lineIds[i] = UUID.randomUUID();
+                linePrices[i] = BigDecimal.valueOf(100 + random.nextInt(10_000), 2);
+                insertLine.setObject(1, lineIds[i]);
+                insertLine.setObject(2, cartId);
+                insertLine.setBigDecimal(3, linePrices[i]);
+                insertLine.addBatch();
+            }
+            insertLine.executeBatch();
+        }
+
+        updateLine = connection.prepareStatement("UPDATE cart_items SET quantity = quantity + ?, updated_at = CURRENT_TIMESTAMP WHERE id = ?");
+        selectCart = connection.prepareStatement("SELECT id, total_amount, updated_at FROM carts WHERE id = ?");
+        selectLines = connection.prepareStatement("SELECT id, cart_id, quantity, price, updated_at FROM cart_items WHERE cart_id = ?");
+        setTotal = connection.prepareStatement("UPDATE carts SET total_amount = ?, updated_at = CURRENT_TIMESTAMP WHERE id = ?");
+        addToTotal = connection.prepareStatement(
+                "UPDATE carts SET total_amount = COALESCE(total_amount, 0) + ?, updated_at = CURRENT_TIMESTAMP WHERE id = ?");
+    }
+
+    @TearDown
+    public void tearDown() throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("DROP ALL OBJECTS");
+        }
+        connection.close();
+    }
+
+    @Benchmark
+    public BigDecimal fullRecalculation() throws SQLException {
+        int line = editLine();
+
+        selectCart.setObject(1, cartId);
+        try (ResultSet cart = selectCart.executeQuery()) {
+            cart.next();
+        }
+        BigDecimal total = BigDecimal.ZERO;
+        selectLines.setObject(1, cartId);
+        try (ResultSet lines = selectLines.executeQuery()) {
+            while (lines.next()) {
+                total = total.add(lines.getBigDecimal(4).multiply(BigDecimal.valueOf(lines.getInt(3))));
+            }
+        }
+        setTotal.setBigDecimal(1, total);
+        setTotal.setObject(2, cartId);
+        setTotal.executeUpdate();
+        return linePrices[line];
+    }
+
+    @Benchmark
+    public BigDecimal incrementalDelta() throws SQLException {
+        int line = editLine();
+
+        addToTotal.setBigDecimal(1, linePrices[line]);
+        addToTotal.setObject(2, cartId);
+        addToTotal.executeUpdate();
+        return linePrices[line];
+    }
+
+    private int editLine() throws SQLException {
+        int line = random.nextInt(cartLines);
+        updateLine.setInt(1, 1);
+        updateLine.setObject(2, lineIds[line]);
+        updateLine.executeUpdate();
+        return line;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(CartTotalBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
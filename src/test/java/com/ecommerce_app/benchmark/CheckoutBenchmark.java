@@ -0,0 +1,216 @@
+package com.ecommerce_app.benchmark;
+
+import com.ecommerce_app.Application;
+import com.ecommerce_app.constant.CheckoutStage;
+import com.ecommerce_app.dto.request.OrderCreationRequest;
+import com.ecommerce_app.dto.request.OrderItemCreationRequest;
+import com.ecommerce_app.entity.Address;
+import com.ecommerce_app.entity.OrderStatus;
+import com.ecommerce_app.entity.Product;
+import com.ecommerce_app.entity.ProductVariant;
+import com.ecommerce_app.entity.User;
+import com.ecommerce_app.repository.AddressRepository;
+import com.ecommerce_app.repository.OrderStatusRepository;
+import com.ecommerce_app.repository.ProductRepository;
+import com.ecommerce_app.repository.ProductVariantRepository;
+import com.ecommerce_app.repository.UserRepository;
+import com.ecommerce_app.service.interfaces.OrderService;
+import com.ecommerce_app.service.order.CheckoutMetrics;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Drives {@link OrderService#createOrder} with concurrent checkouts and reports throughput and the
+ * p50/p99 latency and SQL statement count of every stage recorded by {@link CheckoutMetrics}.
+ * <p>
+ * Not a JMH benchmark: the stage percentiles come from the application's own meters, so the whole
+ * application is started (on a random port) against the datasource in
+ * {@code application.properties}, whose schema it recreates like the application does. Any
+ * property can be overridden with {@code --name=value} arguments. Configure with system properties:
+ * {@code checkout.threads} (default 8), {@code checkout.lines} per order (default 10),
+ * {@code checkout.orders} measured (default 2000) and {@code checkout.warmup} (default 200).
+ * <p>
+ * Run with {@code mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.ecommerce_app.benchmark.CheckoutBenchmark -Dcheckout.threads=16 -Dcheckout.lines=30}.
+ */
+public class CheckoutBenchmark {
+
+    private static final List<String> STAGES = List.of(CheckoutStage.LOOKUP, CheckoutStage.COUPON,
+            CheckoutStage.ORDER, CheckoutStage.ITEMS, CheckoutStage.TOTALS, CheckoutStage.PAYMENT,
+            CheckoutStage.SHIPPING, CheckoutStage.FLUSH, CheckoutStage.RESPONSE);
+
+    public static void main(String[] args) throws Exception {
+        int threads = Integer.getInteger("checkout.threads", 8);
+        int lines = Integer.getInteger("checkout.lines", 10);
+        int orders = Integer.getInteger("checkout.orders", 2000);
+        int warmup = Integer.getInteger("checkout.warmup", 200);
+
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(Application.class)
+                .properties(
+                        "server.port=0",
+                        "spring.jpa.show-sql=false",
+                        "logging.level.root=WARN",
+                        "logging.level.com.ecommerce_app=WARN",
+                        "management.metrics.distribution.percentiles.checkout=0.5,0.99",
+                        "management.metrics.distribution.expiry.checkout=1h")
+                .run(args)) {
+            List<OrderCreationRequest> customers = seedCustomers(context, threads);
+            List<OrderItemCreationRequest> catalog = seedCatalog(context, Math.max(lines * 4, 100));
+            OrderService orderService = context.getBean(OrderService.class);
+            MeterRegistry meterRegistry = context.getBean(MeterRegistry.class);
+
+            ExecutorService executor = Executors.newFixedThreadPool(threads);
+            try {
+                run(executor, orderService, customers, catalog, lines, warmup);
+                meterRegistry.getMeters().stream()
+                        .filter(meter -> meter.getId().getName().startsWith("checkout."))
+                        .forEach(meterRegistry::remove);
+
+                long start = System.nanoTime();
+                run(executor, orderService, customers, catalog, lines, orders);
+                double seconds = (System.nanoTime() - start) / 1e9;
+
+                System.out.printf("%n%d orders of %d lines on %d threads in %.1f s: %.1f orders/s%n%n",
+                        orders, lines, threads, seconds, orders / seconds);
+                report(meterRegistry);
+            } finally {
+                executor.shutdownNow();
+            }
+        }
+    }
+
+    private static void run(ExecutorService executor, OrderService orderService, List<OrderCreationRequest> customers,
+                            List<OrderItemCreationRequest> catalog, int lines, int orders) throws Exception {
+        AtomicInteger sequence = new AtomicInteger();
+        List<Future<?>> futures = new ArrayList<>(orders);
+        for (int i = 0; i < orders; i++) {
+            futures.add(executor.submit(() -> {
+                int n = sequence.getAndIncrement();
+                OrderCreationRequest customer = customers.get(n % customers.size());
+                Set<OrderItemCreationRequest> items = new HashSet<>();
+                for (int line = 0; line < lines; line++) {
+                    items.add(catalog.get((n + line) % catalog.size()));
+                }
+                return orderService.createOrder(OrderCreationRequest.builder()
+                        .userId(customer.getUserId())
+                        .billingAddressId(customer.getBillingAddressId())
+                        .shippingAddressId(customer.getShippingAddressId())
+                        .shippingMethod("STANDARD")
+                        .paymentMethod("CARD")
+                        .orderItems(items)
+                        .build());
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+    }
+
+    private static void report(MeterRegistry meterRegistry) {
+        System.out.printf("%-10s %8s %10s %10s %10s %8s %8s%n",
+                "stage", "count", "mean ms", "p50 ms", "p99 ms", "sql p50", "sql p99");
+        for (String stage : STAGES) {
+            Timer timer = meterRegistry.find(CheckoutMetrics.STAGE_DURATION).tag("stage", stage).timer();
+            DistributionSummary statements = meterRegistry.find(CheckoutMetrics.STAGE_STATEMENTS).tag("stage", stage).summary();
+            if (timer != null && statements != null) {
+                print(stage, timer, statements);
+            }
+        }
+        Timer total = meterRegistry.find(CheckoutMetrics.DURATION).timer();
+        DistributionSummary totalStatements = meterRegistry.find(CheckoutMetrics.STATEMENTS).summary();
+        if (total != null && totalStatements != null) {
+            print("total", total, totalStatements);
+        }
+    }
+
+    private static void print(String stage, Timer timer, DistributionSummary statements) {
+        ValueAtPercentile[] latency = timer.takeSnapshot().percentileValues();
+        ValueAtPercentile[] count = statements.takeSnapshot().percentileValues();
+        System.out.printf("%-10s %8d %10.3f %10.3f %10.3f %8.0f %8.0f%n", stage, timer.count(),
+                timer.mean(TimeUnit.MILLISECONDS), latency[0].value(TimeUnit.MILLISECONDS),
+                latency[1].value(TimeUnit.MILLISECONDS), count[0].value(), count[1].value());
+    }
+
+    /**
+     * One user with one address per thread, and the status new orders start in
+     */
+    private static List<OrderCreationRequest> seedCustomers(ConfigurableApplicationContext context, int count) {
+        OrderStatusRepository orderStatusRepository = context.getBean(OrderStatusRepository.class);
+        if (orderStatusRepository.findByName("Pending").isEmpty()) {
+            OrderStatus pending = new OrderStatus();
+            pending.setName("Pending");
+            orderStatusRepository.save(pending);
+        }
+
+        UserRepository userRepository = context.getBean(UserRepository.class);
+        AddressRepository addressRepository = context.getBean(AddressRepository.class);
+        List<OrderCreationRequest> customers = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            String name = "checkout-" + UUID.randomUUID();
+            User user = userRepository.save(User.builder()
+                    .username(name)
+                    .password("unused")
+                    .email(name + "@example.com")
+                    .active(true)
+                    .build());
+            Address address = new Address();
+            address.setUser(user);
+            address.setAddressLine1("1 Benchmark Street");
+            address.setCity("Hanoi");
+            address.setCountry("VN");
+            address = addressRepository.save(address);
+            customers.add(OrderCreationRequest.builder()
+                    .userId(user.getId())
+                    .billingAddressId(address.getId())
+                    .shippingAddressId(address.getId())
+                    .build());
+        }
+        return customers;
+    }
+
+    /**
+     * Products to order, every other one ordered through a variant
+     */
+    private static List<OrderItemCreationRequest> seedCatalog(ConfigurableApplicationContext context, int count) {
+        ProductRepository productRepository = context.getBean(ProductRepository.class);
+        ProductVariantRepository productVariantRepository = context.getBean(ProductVariantRepository.class);
+        List<OrderItemCreationRequest> catalog = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Product product = productRepository.save(Product.builder()
+                    .name("Checkout product " + i)
+                    .slug("checkout-product-" + UUID.randomUUID())
+                    .price(BigDecimal.valueOf(10 + i % 50))
+                    .active(true)
+                    .build());
+            UUID variantId = null;
+            if (i % 2 == 0) {
+                ProductVariant variant = new ProductVariant();
+                variant.setName("Default");
+                variant.setProduct(product);
+                variantId = productVariantRepository.save(variant).getId();
+            }
+            catalog.add(OrderItemCreationRequest.builder()
+                    .productId(product.getId())
+                    .productVariantId(variantId)
+                    .quantity(1 + i % 3)
+                    .build());
+        }
+        return catalog;
+    }
+}
@@ -0,0 +1,77 @@
+package com.ecommerce_app.benchmark;
+
+import com.ecommerce_app.service.security.PasswordHashingService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares BCrypt hashing on the calling thread with hashing through the bounded
+ * {@link PasswordHashingService} pool.
+ * <p>
+ * Run with {@code mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.ecommerce_app.benchmark.PasswordHashingBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 10)
+@Fork(1)
+@Threads(8)
+public class PasswordHashingBenchmark {
+
+    private static final String PASSWORD = "Correct-Horse-Battery-Staple-42";
+
+    @Param({"10"})
+    int strength;
+
+    private PasswordEncoder encoder;
+    private PasswordHashingService hashingService;
+    private String encoded;
+
+    @Setup
+    public void setUp() {
+        encoder = new BCryptPasswordEncoder(strength);
+        encoded = encoder.encode(PASSWORD);
+        hashingService = new PasswordHashingService(encoder, new SimpleMeterRegistry(),
+                Runtime.getRuntime().availableProcessors(), 1024, 60_000);
+    }
+
+    @TearDown
+    public void tearDown() {
+        hashingService.shutdown();
+    }
+
+    @Benchmark
+    public String encodeOnCallerThread() {
+        return encoder.encode(PASSWORD);
+    }
+
+    @Benchmark
+    public String encodeOnHashingPool() {
+        return hashingService.encode(PASSWORD);
+    }
+
+    @Benchmark
+    public boolean matchesOnCallerThread() {
+        return encoder.matches(PASSWORD, encoded);
+    }
+
+    @Benchmark
+    public boolean matchesOnHashingPool() {
+        return hashingService.matches(PASSWORD, encoded);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(PasswordHashingBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,142 @@
+package com.ecommerce_app.benchmark;
+
+import com.ecommerce_app.entity.Category;
+import com.ecommerce_app.entity.Product;
+import com.ecommerce_app.entity.Tag;
+import com.ecommerce_app.service.search.ProductSearchIndex;
+import org.apache.lucene.util.IOUtils;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares {@link ProductSearchIndex} with the {@code searchBasicByKeyword} predicate
+ * ({@code LOWER(name) LIKE '%kw%' OR LOWER(description) LIKE '%kw%'}, ordered by createdAt)
+ * on a generated catalog. The predicate is evaluated as an in-memory scan, which is a lower
+ * bound for the sequential scan the database performs.
+ * <p>
+ * Run with {@code mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.ecommerce_app.benchmark.ProductSearchBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+@Fork(1)
+public class ProductSearchBenchmark {
+
+    private static final String[] ADJECTIVES = {"classic", "wireless", "organic", "vintage", "compact",
+            "premium", "portable", "ergonomic", "waterproof", "smart"};
+    private static final String[] NOUNS = {"headphones", "backpack", "keyboard", "jacket", "lamp",
+            "bottle", "speaker", "sneakers", "watch", "blender"};
+
+    // Each named word is one of this many, so a keyword selects a realistic slice of the catalog
+    private static final int VOCABULARY_SIZE = 100;
+    private static final int FILLER_WORDS = 5000;
+    private static final int CATEGORY_COUNT = 50;
+
+    @Param({"10000", "100000"})
+    int catalogSize;
+
+    @Param({"wireless", "wire", "vintage lamp"})
+    String keyword;
+
+    private List<Product> catalog;
+    private Path indexDir;
+    private ProductSearchIndex index;
+    private final Pageable pageable = PageRequest.of(0, 20);
+
+    @Setup
+    public void setUp() throws IOException {
+        Random random = new Random(42);
+        List<Category> categories = new ArrayList<>();
+        for (int i = 0; i < CATEGORY_COUNT; i++) {
+            Category category = new Category();
+            category.setName("category" + i);
+            categories.add(category);
+        }
+        List<Tag> tags = new ArrayList<>();
+        for (int i = 0; i < VOCABULARY_SIZE; i++) {
+            Tag tag = new Tag();
+            tag.setName(word(ADJECTIVES, "tag", i));
+            tags.add(tag);
+        }
+
+        catalog = new ArrayList<>(catalogSize);
+        // Same on-disk (memory mapped) directory the application uses
+        indexDir = Files.createTempDirectory("product-search-benchmark");
+        index = ProductSearchIndex.open(indexDir);
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 0; i < catalogSize; i++) {
+            String adjective = word(ADJECTIVES, "style", random.nextInt(VOCABULARY_SIZE));
+            String noun = word(NOUNS, "item", random.nextInt(VOCABULARY_SIZE));
+            StringBuilder description = new StringBuilder("A ").append(adjective).append(' ').append(noun);
+            for (int w = 0; w < 12; w++) {
+                description.append(' ').append("filler").append(random.nextInt(FILLER_WORDS));
+            }
+
+            Product product = Product.builder()
+                    .name(adjective + " " + noun + " " + i)
+                    .description(description.toString())
+                    .sku("SKU-" + i)
+                    .price(BigDecimal.valueOf(random.nextInt(100_000), 2))
+                    .categories(Set.of(categories.get(random.nextInt(categories.size()))))
+                    .tags(Set.of(tags.get(random.nextInt(tags.size()))))
+                    .build();
+            product.setId(UUID.randomUUID());
+            product.setCreatedAt(now.minusMinutes(i));
+            catalog.add(product);
+            index.index(product);
+        }
+        index.commit();
+        index.refresh();
+    }
+
+    private static String word(String[] named, String prefix, int i) {
+        return i < named.length ? named[i] : prefix + i;
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        index.close();
+        IOUtils.rm(indexDir);
+    }
+
+    @Benchmark
+    public ProductSearchIndex.SearchResult invertedIndex() {
+        return index.search(keyword, pageable);
+    }
+
+    @Benchmark
+    public List<UUID> likeScan() {
+        String pattern = keyword.toLowerCase(Locale.ROOT);
+        List<Product> matches = new ArrayList<>();
+        for (Product product : catalog) {
+            if (product.getActive()
+                    && (product.getName().toLowerCase(Locale.ROOT).contains(pattern)
+                    || product.getDescription().toLowerCase(Locale.ROOT).contains(pattern))) {
+                matches.add(product);
+            }
+        }
+        matches.sort(Comparator.comparing(Product::getCreatedAt).reversed());
+        return matches.stream().limit(pageable.getPageSize()).map(Product::getId).toList();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(ProductSearchBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,129 @@
+package com.ecommerce_app.controller;
+
+import com.ecommerce_app.dto.request.TagUpdateRequest;
+import com.ecommerce_app.dto.response.TagResponse;
+import com.ecommerce_app.repository.CategoryRepository;
+import com.ecommerce_app.repository.ProductRepository;
+import com.ecommerce_app.repository.ProductVariantRepository;
+import com.ecommerce_app.repository.TagRepository;
+import com.ecommerce_app.repository.projection.VersionRow;
+import com.ecommerce_app.service.cache.CatalogVersionService;
+import com.ecommerce_app.service.cache.SlugRoutingTable;
+import com.ecommerce_app.service.interfaces.TagService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.jpa.mapping.JpaMetamodelMappingContext;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(TagController.class)
+@AutoConfigureMockMvc(addFilters = false)
+@Import(CatalogVersionService.class)
+@MockBean(JpaMetamodelMappingContext.class)
+class TagControllerTest {
+
+    private final UUID tagId = UUID.randomUUID();
+    private final AtomicReference<LocalDateTime> updatedAt = new AtomicReference<>(LocalDateTime.of(2026, 1, 1, 12, 0));
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private TagService tagService;
+
+    @MockBean
+    private TagRepository tagRepository;
+
+    @MockBean
+    private ProductRepository productRepository;
+
+    @MockBean
+    private ProductVariantRepository productVariantRepository;
+
+    @MockBean
+    private CategoryRepository categoryRepository;
+
+    @MockBean
+    private SlugRoutingTable slugRoutingTable;
+
+    @BeforeEach
+    void setUp() {
+        VersionRow version = new VersionRow() {
+            @Override
+            public LocalDateTime getUpdatedAt() {
+                return updatedAt.get();
+            }
+
+            @Override
+            public Long getCount() {
+                return 1L;
+            }
+        };
+        when(tagRepository.findVersionById(tagId)).thenReturn(version);
+        when(tagService.getTagById(tagId)).thenAnswer(invocation -> new TagResponse(tagId, "Sale", "sale"));
+        // The write path stamps updated_at, which is what moves the version
+        when(tagService.updateTag(eq(tagId), any())).thenAnswer(invocation -> {
+            updatedAt.set(updatedAt.get().plusSeconds(5));
+            return new TagResponse(tagId, "Clearance", "clearance");
+        });
+    }
+
+    @Test
+    void matchingIfNoneMatchReturnsNotModifiedWithoutBody() throws Exception {
+        String etag = mockMvc.perform(get("/tags/{id}", tagId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.slug").value("sale"))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertThat(etag).startsWith("W/\"t-");
+
+        mockMvc.perform(get("/tags/{id}", tagId).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, etag))
+                .andExpect(content().string(""));
+
+        // The 304 is answered from the version alone
+        verify(tagService, times(1)).getTagById(tagId);
+    }
+
+    @Test
+    void writeChangesTheETagAndServesTheFullResponse() throws Exception {
+        String etag = mockMvc.perform(get("/tags/{id}", tagId))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(put("/tags/{id}", tagId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"Clearance\",\"slug\":\"clearance\"}"))
+                .andExpect(status().isOk());
+        verify(tagService).updateTag(eq(tagId), any(TagUpdateRequest.class));
+
+        String newEtag = mockMvc.perform(get("/tags/{id}", tagId).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.id").value(tagId.toString()))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertThat(newEtag).isNotNull().isNotEqualTo(etag);
+    }
+}
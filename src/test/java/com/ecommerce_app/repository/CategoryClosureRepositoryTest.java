@@ -0,0 +1,174 @@
+package com.ecommerce_app.repository;
+
+import com.ecommerce_app.dto.response.ProductBasicResponse;
+import com.ecommerce_app.entity.Category;
+import com.ecommerce_app.entity.CategoryClosure;
+import com.ecommerce_app.entity.Product;
+import com.ecommerce_app.repository.projection.CategoryProductCountRow;
+import com.ecommerce_app.service.catalog.CategoryProductCountService;
+import com.ecommerce_app.service.catalog.CategoryProductCountWriter;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.TestPropertySource;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@TestPropertySource(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.show-sql=false",
+        "app.category-counts.counter-table=true"
+})
+@Import({CategoryProductCountService.class, CategoryProductCountWriter.class})
+class CategoryClosureRepositoryTest {
+
+    private static final int DEPTH = 12;
+
+    @Autowired
+    private CategoryClosureRepository categoryClosureRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private CategoryProductCountRepository categoryProductCountRepository;
+
+    @Autowired
+    private CategoryProductCountService categoryProductCountService;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Test
+    void deepChainIsResolvedAndFollowsAMove() {
+        List<Category> chain = new ArrayList<>();
+        for (int level = 0; level < DEPTH; level++) {
+            chain.add(create("Level " + level, level == 0 ? null : chain.get(level - 1)));
+        }
+        Category leaf = chain.get(DEPTH - 1);
+        Category otherRoot = create("Other", null);
+
+        assertThat(categoryClosureRepository.findAncestors(leaf.getId()))
+                .extracting(Category::getId)
+                .containsExactlyElementsOf(chain.subList(0, DEPTH - 1).stream().map(Category::getId).toList());
+        assertThat(categoryClosureRepository.findDescendants(chain.get(0).getId())).hasSize(DEPTH - 1);
+
+        // Move the lower half below the other root
+        Category middle = chain.get(DEPTH / 2);
+        categoryClosureRepository.detachSubtree(middle.getId());
+        categoryClosureRepository.attachSubtree(middle.getId(), otherRoot.getId());
+
+        assertThat(categoryClosureRepository.findAncestors(leaf.getId()))
+                .extracting(Category::getId)
+                .startsWith(otherRoot.getId(), middle.getId())
+                .hasSize(DEPTH - DEPTH / 2);
+        assertThat(categoryClosureRepository.findDescendants(chain.get(0).getId())).hasSize(DEPTH / 2 - 1);
+        assertThat(categoryClosureRepository.existsByAncestorIdAndDescendantId(middle.getId(), leaf.getId())).isTrue();
+        assertThat(categoryClosureRepository.existsByAncestorIdAndDescendantId(chain.get(0).getId(), leaf.getId())).isFalse();
+    }
+
+    @Test
+    void categoryTreeListingIncludesDescendantsOnce() {
+        Category root = create("Electronics", null);
+        Category phones = create("Phones", root);
+        Category android = create("Android", phones);
+        Category garden = create("Garden", null);
+
+        product("Tablet", Set.of(root));
+        product("Pixel", Set.of(android, phones));
+        product("Hose", Set.of(garden));
+        entityManager.flush();
+        entityManager.clear();
+
+        List<String> names = productRepository.findBasicByCategoryTree(root.getId(), PageRequest.of(0, 10))
+                .map(ProductBasicResponse::getName).getContent();
+        assertThat(names).containsExactlyInAnyOrder("Tablet", "Pixel");
+        assertThat(productRepository.findBasicByCategoryTree(root.getId(), PageRequest.of(0, 10)).getTotalElements())
+                .isEqualTo(2);
+        assertThat(productRepository.findBasicByCategoryTree(android.getId(), PageRequest.of(0, 10)).getContent())
+                .extracting(ProductBasicResponse::getName).containsExactly("Pixel");
+    }
+
+    @Test
+    void productCountsCoverSubtreesInOneQueryAndMatchTheCounterTable() {
+        Category root = create("Electronics", null);
+        Category phones = create("Phones", root);
+        Category android = create("Android", phones);
+        Category garden = create("Garden", null);
+
+        product("Tablet", Set.of(root));
+        product("Pixel", Set.of(android, phones));
+        entityManager.flush();
+        entityManager.clear();
+
+        List<UUID> ids = List.of(root.getId(), phones.getId(), android.getId(), garden.getId());
+        Map<UUID, List<Long>> expected = Map.of(
+                root.getId(), List.of(1L, 3L),
+                phones.getId(), List.of(1L, 2L),
+                android.getId(), List.of(1L, 1L));
+        assertThat(counts(categoryRepository.findProductCountsByCategoryIdIn(ids))).isEqualTo(expected);
+
+        assertThat(categoryProductCountService.rebuildCounts()).isEqualTo(4);
+        Map<UUID, List<Long>> counted = counts(categoryProductCountRepository.findByCategoryIdIn(ids));
+        assertThat(counted).containsAllEntriesOf(expected).containsEntry(garden.getId(), List.of(0L, 0L));
+
+        // A new link below Phones reaches every ancestor
+        categoryProductCountService.linksChanged(List.of(), List.of(android.getId()));
+        assertThat(counts(categoryProductCountRepository.findByCategoryIdIn(ids)))
+                .containsEntry(root.getId(), List.of(1L, 4L))
+                .containsEntry(phones.getId(), List.of(1L, 3L))
+                .containsEntry(android.getId(), List.of(2L, 2L));
+
+        // Moving Android below Garden takes its total off Electronics and Phones
+        categoryProductCountService.subtreeMoving(android.getId(), garden.getId());
+        assertThat(counts(categoryProductCountRepository.findByCategoryIdIn(ids)))
+                .containsEntry(root.getId(), List.of(1L, 2L))
+                .containsEntry(phones.getId(), List.of(1L, 1L))
+                .containsEntry(garden.getId(), List.of(0L, 2L))
+                .containsEntry(android.getId(), List.of(2L, 2L));
+    }
+
+    private static Map<UUID, List<Long>> counts(List<CategoryProductCountRow> rows) {
+        return rows.stream().collect(Collectors.toMap(CategoryProductCountRow::getCategoryId,
+                row -> List.of(row.getDirectCount(), row.getTotalCount())));
+    }
+
+    private Category create(String name, Category parent) {
+        Category category = new Category();
+        category.setName(name);
+        category.setSlug(name.toLowerCase().replace(' ', '-') + "-" + UUID.randomUUID());
+        category.setParent(parent);
+        entityManager.persist(category);
+        categoryClosureRepository.save(new CategoryClosure(category.getId(), category.getId(), 0));
+        if (parent != null) {
+            categoryClosureRepository.insertAncestorLinks(category.getId(), parent.getId());
+        }
+        return category;
+    }
+
+    private void product(String name, Set<Category> categories) {
+        entityManager.persist(Product.builder()
+                .name(name)
+                .slug(name.toLowerCase() + "-" + UUID.randomUUID())
+                .price(BigDecimal.TEN)
+                .active(true)
+                .categories(new HashSet<>(categories))
+                .build());
+    }
+}
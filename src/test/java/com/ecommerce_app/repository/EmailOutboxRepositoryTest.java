@@ -0,0 +1,98 @@
+package com.ecommerce_app.repository;
+
+import com.ecommerce_app.constant.EmailOutboxStatus;
+import com.ecommerce_app.entity.EmailOutbox;
+import com.ecommerce_app.service.maintenance.SentEmailCleanupTask;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@Import({SentEmailCleanupTask.class, SimpleMeterRegistry.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@TestPropertySource(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.show-sql=false",
+        "app.cleanup.sent-emails.cron=-",
+        "app.cleanup.sent-emails.sent-retention=86400000",
+        "app.cleanup.sent-emails.chunk-size=10",
+        "app.cleanup.sent-emails.pause-between-chunks=0"
+})
+class EmailOutboxRepositoryTest {
+
+    private static final int OLD_SENT = 35;
+
+    @Autowired
+    private EmailOutboxRepository emailOutboxRepository;
+
+    @Autowired
+    private SentEmailCleanupTask sentEmailCleanupTask;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM email_outbox");
+    }
+
+    @Test
+    void purgeDeletesOldSentMessagesAcrossChunksAndKeepsTheRest() {
+        LocalDateTime now = LocalDateTime.now();
+        List<EmailOutbox> messages = new ArrayList<>();
+        for (int i = 0; i < OLD_SENT; i++) {
+            messages.add(message("old-sent", EmailOutboxStatus.SENT, now.minusDays(2).minusMinutes(i)));
+        }
+        messages.add(message("recent-sent", EmailOutboxStatus.SENT, now.minusHours(1)));
+        messages.add(message("pending", EmailOutboxStatus.PENDING, null));
+        messages.add(message("failed", EmailOutboxStatus.FAILED, null));
+        emailOutboxRepository.saveAll(messages);
+
+        sentEmailCleanupTask.purgeSentEmails();
+
+        assertThat(emailOutboxRepository.findAll())
+                .extracting(EmailOutbox::getSubject)
+                .containsExactlyInAnyOrder("recent-sent", "pending", "failed");
+        assertThat(meterRegistry.get("mail.outbox.cleanup.deleted").counter().count()).isEqualTo(OLD_SENT);
+    }
+
+    @Test
+    void deleteSentBatchStopsAtTheLimit() {
+        List<EmailOutbox> messages = new ArrayList<>();
+        for (int i = 0; i < OLD_SENT; i++) {
+            messages.add(message("old-sent", EmailOutboxStatus.SENT, LocalDateTime.now().minusDays(2)));
+        }
+        emailOutboxRepository.saveAll(messages);
+
+        assertThat(emailOutboxRepository.deleteSentBatch(LocalDateTime.now().minusDays(1), 10)).isEqualTo(10);
+        assertThat(emailOutboxRepository.count()).isEqualTo(OLD_SENT - 10);
+    }
+
+    private static EmailOutbox message(String subject, String status, LocalDateTime sentAt) {
+        return EmailOutbox.builder()
+                .recipient("shopper@example.com")
+                .subject(subject)
+                .body("body")
+                .status(status)
+                .nextAttemptAt(LocalDateTime.now())
+                .sentAt(sentAt)
+                .build();
+    }
+}
@@ -0,0 +1,89 @@
+package com.ecommerce_app.repository;
+
+import com.ecommerce_app.entity.InvalidatedToken;
+import com.ecommerce_app.service.maintenance.ExpiredTokenCleanupTask;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@Import({ExpiredTokenCleanupTask.class, SimpleMeterRegistry.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@TestPropertySource(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.show-sql=false",
+        "app.cleanup.expired-tokens.cron=-",
+        "app.cleanup.expired-tokens.chunk-size=10",
+        "app.cleanup.expired-tokens.pause-between-chunks=0"
+})
+class InvalidatedTokenRepositoryTest {
+
+    private static final int EXPIRED = 35;
+    private static final int LIVE = 7;
+
+    @Autowired
+    private InvalidatedTokenRepository invalidatedTokenRepository;
+
+    @Autowired
+    private ExpiredTokenCleanupTask expiredTokenCleanupTask;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM invalidated_token");
+    }
+
+    @Test
+    void purgeDeletesEveryExpiredRowAcrossChunksAndKeepsLiveRows() {
+        long now = System.currentTimeMillis();
+        List<InvalidatedToken> tokens = new ArrayList<>();
+        for (int i = 0; i < EXPIRED; i++) {
+            tokens.add(new InvalidatedToken("expired-" + i, new Date(now - 60_000 - i)));
+        }
+        for (int i = 0; i < LIVE; i++) {
+            tokens.add(new InvalidatedToken("live-" + i, new Date(now + 3_600_000)));
+        }
+        invalidatedTokenRepository.saveAll(tokens);
+
+        expiredTokenCleanupTask.purgeExpiredTokens();
+
+        assertThat(invalidatedTokenRepository.findAll())
+                .extracting(InvalidatedToken::getId)
+                .hasSize(LIVE)
+                .allMatch(id -> id.startsWith("live-"));
+        assertThat(meterRegistry.get("token.cleanup.deleted").tag("table", "invalidated_token").counter().count())
+                .isEqualTo(EXPIRED);
+    }
+
+    @Test
+    void deleteExpiredBatchStopsAtTheLimit() {
+        long now = System.currentTimeMillis();
+        List<InvalidatedToken> tokens = new ArrayList<>();
+        for (int i = 0; i < EXPIRED; i++) {
+            tokens.add(new InvalidatedToken("expired-" + i, new Date(now - 60_000)));
+        }
+        invalidatedTokenRepository.saveAll(tokens);
+
+        assertThat(invalidatedTokenRepository.deleteExpiredBatch(new Date(), 10)).isEqualTo(10);
+        assertThat(invalidatedTokenRepository.count()).isEqualTo(EXPIRED - 10);
+    }
+}
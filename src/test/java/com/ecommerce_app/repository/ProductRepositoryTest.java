@@ -0,0 +1,145 @@
+package com.ecommerce_app.repository;
+
+import com.ecommerce_app.dto.response.ProductBasicResponse;
+import com.ecommerce_app.entity.Product;
+import com.ecommerce_app.entity.ProductImage;
+import com.ecommerce_app.repository.projection.VersionRow;
+import com.ecommerce_app.util.KeysetCursor;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.context.TestPropertySource;
+
+import java.math.BigDecimal;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@TestPropertySource(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "spring.jpa.show-sql=false"
+})
+class ProductRepositoryTest {
+
+    private static final int PRODUCTS = 30;
+    private static final int IMAGES_PER_PRODUCT = 3;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        for (int i = 0; i < PRODUCTS; i++) {
+            Product product = Product.builder()
+                    .name("Product " + i)
+                    .slug("product-" + i)
+                    .price(BigDecimal.TEN)
+                    .active(true)
+                    .build();
+            entityManager.persist(product);
+
+            for (int j = 0; j < IMAGES_PER_PRODUCT; j++) {
+                ProductImage image = new ProductImage();
+                image.setProduct(product);
+                image.setImageUrl("https://cdn.example.com/" + i + "/" + j + ".jpg");
+                image.setSortOrder(j);
+                // The second image is the main one, the others only differ by sort order
+                image.setIsMain(j == 1);
+                entityManager.persist(image);
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void listingPageRunsConstantNumberOfStatements() {
+        Page<ProductBasicResponse> firstPage = productRepository.findActiveBasic(
+                PageRequest.of(0, 10, Sort.by(Sort.Direction.DESC, "createdAt")));
+        long statementsForSmallPage = statistics.getPrepareStatementCount();
+
+        statistics.clear();
+        Page<ProductBasicResponse> largePage = productRepository.findActiveBasic(
+                PageRequest.of(0, 25, Sort.by(Sort.Direction.DESC, "createdAt")));
+
+        // One select for the page and one count, however many products (and images) are on it
+        assertThat(statementsForSmallPage).isEqualTo(2);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+        assertThat(statistics.getEntityLoadCount()).isZero();
+        assertThat(firstPage.getTotalElements()).isEqualTo(PRODUCTS);
+        assertThat(largePage.getContent()).hasSize(25);
+    }
+
+    @Test
+    void listingPrefersMainImageThenFirstBySortOrder() {
+        ProductBasicResponse product = productRepository.findAllBasic(PageRequest.of(0, 1, Sort.by("name")))
+                .getContent().get(0);
+        assertThat(product.getName()).isEqualTo("Product 0");
+        assertThat(product.getMainImageUrl()).isEqualTo("https://cdn.example.com/0/1.jpg");
+
+        entityManager.createQuery("UPDATE ProductImage i SET i.isMain = false").executeUpdate();
+        entityManager.clear();
+
+        product = productRepository.findAllBasic(PageRequest.of(0, 1, Sort.by("name"))).getContent().get(0);
+        assertThat(product.getMainImageUrl()).isEqualTo("https://cdn.example.com/0/0.jpg");
+    }
+
+    @Test
+    void keysetPagesVisitEveryProductOnceWhileNewOnesAreInserted() {
+        int pageSize = 7;
+        Set<UUID> seen = new LinkedHashSet<>();
+        List<ProductBasicResponse> page = productRepository.findBasicNewestFirst(PageRequest.ofSize(pageSize));
+        boolean inserted = false;
+
+        while (!page.isEmpty()) {
+            page.forEach(product -> assertThat(seen.add(product.getId())).isTrue());
+            if (!inserted) {
+                // Lands before the cursor, so it must not push already seen rows onto later pages
+                entityManager.persist(Product.builder().name("Late").slug("late").price(BigDecimal.ONE).active(true).build());
+                entityManager.flush();
+                inserted = true;
+            }
+            ProductBasicResponse last = page.get(page.size() - 1);
+            KeysetCursor cursor = KeysetCursor.decode(new KeysetCursor(last.getCreatedAt(), last.getId()).encode());
+            page = productRepository.findBasicNewestFirstAfter(cursor.createdAt(), cursor.id(), PageRequest.ofSize(pageSize));
+        }
+
+        assertThat(seen).hasSize(PRODUCTS);
+    }
+
+    @Test
+    void versionMovesWhenProductIsTouched() {
+        UUID id = productRepository.findBasicNewestFirst(PageRequest.ofSize(1)).get(0).getId();
+        VersionRow before = productRepository.findVersionById(id);
+        assertThat(before.getUpdatedAt()).isNotNull();
+
+        productRepository.touchUpdatedAt(List.of(id), before.getUpdatedAt().plusSeconds(1));
+
+        assertThat(productRepository.findVersionById(id).getUpdatedAt()).isAfter(before.getUpdatedAt());
+        assertThat(productRepository.findVersionById(UUID.randomUUID()).getUpdatedAt()).isNull();
+    }
+}
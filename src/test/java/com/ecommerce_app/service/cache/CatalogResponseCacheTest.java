@@ -0,0 +1,168 @@
+package com.ecommerce_app.service.cache;
+
+import com.ecommerce_app.constant.SlugType;
+import com.ecommerce_app.dto.response.ApiResult;
+import com.ecommerce_app.dto.response.ProductResponse;
+import com.ecommerce_app.event.ProductChangedEvent;
+import com.ecommerce_app.repository.ProductRepository;
+import com.ecommerce_app.repository.projection.CategoryTreeRow;
+import com.ecommerce_app.repository.projection.ProductLinkRow;
+import com.ecommerce_app.service.cache.CatalogVersionService.CatalogVersion;
+import com.ecommerce_app.service.catalog.CategoryTree;
+import com.ecommerce_app.service.catalog.CategoryTreeService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class CatalogResponseCacheTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final UUID productId = UUID.randomUUID();
+    private final UUID electronics = UUID.randomUUID();
+    private final UUID phones = UUID.randomUUID();
+    private final UUID garden = UUID.randomUUID();
+    private final ProductRepository productRepository = mock(ProductRepository.class);
+    private CategoryTreeService categoryTreeService;
+    private CatalogResponseCache cache;
+
+    @BeforeEach
+    void setUp() {
+        CatalogVersionService catalogVersionService = mock(CatalogVersionService.class);
+        when(catalogVersionService.getProductVersion(productId)).thenReturn(new CatalogVersion("W/\"p-1-1\"", 1000));
+        SlugRoutingTable slugRoutingTable = mock(SlugRoutingTable.class);
+        when(slugRoutingTable.resolve(SlugType.PRODUCT, "boots")).thenReturn(productId);
+        CategoryTree tree = CategoryTree.build(1, List.of(row(electronics, null), row(phones, electronics), row(garden, null)));
+        categoryTreeService = mock(CategoryTreeService.class);
+        when(categoryTreeService.getTree()).thenReturn(tree);
+        cache = new CatalogResponseCache(objectMapper, catalogVersionService, slugRoutingTable, productRepository,
+                categoryTreeService, new SimpleMeterRegistry(), 1 << 20, 60_000);
+    }
+
+    @Test
+    void hitsServeTheEnvelopedBytesWithoutLoadingUntilTheProductChanges() throws Exception {
+        AtomicInteger loads = new AtomicInteger();
+
+        ResponseEntity<byte[]> first = cache.getProductBySlugResponse("boots", request(), () -> load(productId, loads));
+        ResponseEntity<byte[]> second = cache.getProductBySlugResponse("boots", request(), () -> load(productId, loads));
+
+        assertThat(loads).hasValue(1);
+        assertThat(second.getBody()).isSameAs(first.getBody());
+        assertThat(second.getHeaders().getETag()).isEqualTo("W/\"p-1-1\"");
+        assertThat(objectMapper.readTree(second.getBody()).at("/data/slug").asText()).isEqualTo("boots");
+        assertThat(objectMapper.readTree(second.getBody()).at("/success").asBoolean()).isTrue();
+
+        cache.onProductChanged(new ProductChangedEvent(productId));
+        cache.getProductBySlugResponse("boots", request(), () -> load(productId, loads));
+        assertThat(loads).hasValue(2);
+    }
+
+    @Test
+    void responseBuiltAcrossAChangeIsNotStored() {
+        AtomicInteger loads = new AtomicInteger();
+
+        cache.getProductBySlugResponse("boots", request(), () -> {
+            // The change commits while the stale response is being built
+            cache.onProductChanged(new ProductChangedEvent(productId));
+            return load(productId, loads);
+        });
+        cache.getProductBySlugResponse("boots", request(), () -> load(productId, loads));
+
+        assertThat(loads).hasValue(2);
+    }
+
+    @Test
+    void productChangesEvictOnlyTheListingsOfItsCategoriesAndTheirAncestors() {
+        AtomicInteger loads = new AtomicInteger();
+        for (UUID categoryId : List.of(electronics, phones, garden)) {
+            cache.getCategoryProductsResponse(categoryId, true, () -> listing(loads));
+        }
+        assertThat(loads).hasValue(3);
+
+        cache.onProductChanged(new ProductChangedEvent(productId, Set.of(phones), false));
+        for (UUID categoryId : List.of(electronics, phones, garden)) {
+            cache.getCategoryProductsResponse(categoryId, true, () -> listing(loads));
+        }
+        // Phones and Electronics above it were reloaded, Garden was served from the cache
+        assertThat(loads).hasValue(5);
+    }
+
+    @Test
+    void changesInOneTransactionLookUpCategoryLinksOnceAfterCommit() {
+        AtomicInteger loads = new AtomicInteger();
+        for (UUID categoryId : List.of(electronics, phones, garden)) {
+            cache.getCategoryProductsResponse(categoryId, true, () -> listing(loads));
+        }
+        List<UUID> renamedProducts = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            renamedProducts.add(UUID.randomUUID());
+        }
+        ProductLinkRow link = mock(ProductLinkRow.class);
+        when(link.getLinkedId()).thenReturn(phones);
+        when(productRepository.findCategoryLinksByProductIdIn(renamedProducts)).thenReturn(List.of(link));
+
+        // A tag rename publishes one event per product, none of which name their categories
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            renamedProducts.forEach(id -> cache.onProductChanged(new ProductChangedEvent(id)));
+            verifyNoInteractions(productRepository);
+
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        verify(productRepository, times(1)).findCategoryLinksByProductIdIn(anyCollection());
+        verify(categoryTreeService, times(1)).getTree();
+        for (UUID categoryId : List.of(electronics, phones, garden)) {
+            cache.getCategoryProductsResponse(categoryId, true, () -> listing(loads));
+        }
+        assertThat(loads).hasValue(5);
+    }
+
+    private static ApiResult<?> listing(AtomicInteger loads) {
+        loads.incrementAndGet();
+        return ApiResult.success("Products by category retrieved successfully", List.of());
+    }
+
+    private static CategoryTreeRow row(UUID id, UUID parentId) {
+        CategoryTreeRow row = mock(CategoryTreeRow.class);
+        when(row.getId()).thenReturn(id);
+        when(row.getParentId()).thenReturn(parentId);
+        when(row.getName()).thenReturn(id.toString());
+        return row;
+    }
+
+    private static ApiResult<ProductResponse> load(UUID productId, AtomicInteger loads) {
+        loads.incrementAndGet();
+        ProductResponse product = new ProductResponse();
+        product.setId(productId);
+        product.setSlug("boots");
+        return ApiResult.success("Product retrieved successfully", product);
+    }
+
+    private static ServletWebRequest request() {
+        return new ServletWebRequest(new MockHttpServletRequest("GET", "/products/slug/boots"));
+    }
+}
@@ -0,0 +1,167 @@
+package com.ecommerce_app.service.cache;
+
+import com.ecommerce_app.dto.response.ProductResponse;
+import com.ecommerce_app.event.ProductChangedEvent;
+import com.ecommerce_app.event.ProductStockChangedEvent;
+import com.ecommerce_app.service.cache.CatalogVersionService.CatalogVersion;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListenerFactory;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ProductDetailCacheTest {
+
+    private static final String ETAG = "W/\"p-1-1\"";
+
+    private final CatalogVersionService catalogVersionService = mock(CatalogVersionService.class);
+    private final ProductDetailCache cache = new ProductDetailCache(mock(PlatformTransactionManager.class),
+            catalogVersionService, new SimpleMeterRegistry(), 100, 600_000);
+
+    private final UUID productId = UUID.randomUUID();
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @Test
+    void hitIsServedWithoutCallingTheLoader() {
+        ProductResponse first = cache.getById(productId, this::load);
+
+        assertThat(cache.getById(productId, this::load)).isSameAs(first);
+        assertThat(loads).hasValue(1);
+        verify(catalogVersionService).getProductVersion(productId);
+    }
+
+    @Test
+    void failedLoadIsNotCached() {
+        assertThatThrownBy(() -> cache.getById(productId, id -> {
+            throw new IllegalStateException("not found");
+        })).isInstanceOf(IllegalStateException.class);
+
+        cache.getById(productId, this::load);
+        assertThat(loads).hasValue(1);
+    }
+
+    static Stream<Arguments> productEvents() {
+        return Stream.of(
+                Arguments.of("product update", (Function<UUID, Object>) id ->
+                        new ProductChangedEvent(id, Set.of(UUID.randomUUID()), true)),
+                Arguments.of("variant, image or attribute change", (Function<UUID, Object>) ProductChangedEvent::new),
+                Arguments.of("tag or category rename", (Function<UUID, Object>) ProductChangedEvent::new),
+                Arguments.of("stock change", (Function<UUID, Object>) ProductStockChangedEvent::new));
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("productEvents")
+    void publishedEventEvictsTheProductOnceCommitted(String change, Function<UUID, Object> event) {
+        cache.getById(productId, this::load);
+        UUID otherProductId = UUID.randomUUID();
+        cache.getById(otherProductId, this::load);
+
+        publishInTransaction(event.apply(productId), TransactionSynchronization.STATUS_COMMITTED, () -> {
+            // Readers keep the committed product until the change commits
+            cache.getById(productId, this::load);
+            assertThat(loads).hasValue(2);
+        });
+
+        cache.getById(productId, this::load);
+        cache.getById(otherProductId, this::load);
+        assertThat(loads).hasValue(3);
+    }
+
+    @Test
+    void rolledBackChangeKeepsTheProduct() {
+        cache.getById(productId, this::load);
+
+        publishInTransaction(new ProductChangedEvent(productId), TransactionSynchronization.STATUS_ROLLED_BACK, () -> { });
+
+        cache.getById(productId, this::load);
+        assertThat(loads).hasValue(1);
+    }
+
+    @Test
+    void conditionalRequestForACachedProductIsAnsweredWithoutAQuery() {
+        when(catalogVersionService.getProductVersion(productId)).thenReturn(new CatalogVersion(ETAG, 1_000));
+        cache.getById(productId, this::load);
+
+        ServletWebRequest request = conditionalRequest(ETAG);
+        assertThat(cache.isNotModified(productId, request)).isTrue();
+        assertThat(request.getResponse().getStatus()).isEqualTo(304);
+
+        ServletWebRequest stale = conditionalRequest("W/\"p-0-1\"");
+        assertThat(cache.isNotModified(productId, stale)).isFalse();
+        assertThat(stale.getResponse().getHeader(HttpHeaders.ETAG)).isEqualTo(ETAG);
+
+        verify(catalogVersionService, never()).isProductNotModified(any(), any());
+    }
+
+    @Test
+    void conditionalRequestForAnUncachedProductReadsTheVersion() {
+        ServletWebRequest request = conditionalRequest(ETAG);
+        when(catalogVersionService.isProductNotModified(productId, request)).thenReturn(true);
+
+        assertThat(cache.isNotModified(productId, request)).isTrue();
+        verify(catalogVersionService).isProductNotModified(productId, request);
+    }
+
+    /**
+     * Publish the event through the listener annotations, inside a transaction that completes with the given status.
+     */
+    private void publishInTransaction(Object event, int completionStatus, Runnable beforeCompletion) {
+        try (AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext()) {
+            context.registerBean(TransactionalEventListenerFactory.class);
+            context.registerBean(ProductDetailCache.class, () -> cache);
+            context.refresh();
+
+            TransactionSynchronizationManager.initSynchronization();
+            TransactionSynchronizationManager.setActualTransactionActive(true);
+            try {
+                context.publishEvent(event);
+                beforeCompletion.run();
+
+                if (completionStatus == TransactionSynchronization.STATUS_COMMITTED) {
+                    TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+                }
+                TransactionSynchronizationManager.getSynchronizations()
+                        .forEach(sync -> sync.afterCompletion(completionStatus));
+            } finally {
+                TransactionSynchronizationManager.setActualTransactionActive(false);
+                TransactionSynchronizationManager.clearSynchronization();
+            }
+        }
+    }
+
+    private ProductResponse load(UUID id) {
+        loads.incrementAndGet();
+        ProductResponse response = new ProductResponse();
+        response.setId(id);
+        return response;
+    }
+
+    private static ServletWebRequest conditionalRequest(String etag) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/products/1");
+        request.addHeader(HttpHeaders.IF_NONE_MATCH, etag);
+        return new ServletWebRequest(request, new MockHttpServletResponse());
+    }
+}
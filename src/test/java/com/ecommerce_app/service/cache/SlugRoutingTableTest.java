@@ -0,0 +1,82 @@
+package com.ecommerce_app.service.cache;
+
+import com.ecommerce_app.constant.SlugType;
+import com.ecommerce_app.event.SlugChangedEvent;
+import com.ecommerce_app.exception.SlugMovedException;
+import com.ecommerce_app.exception.UnknownSlugException;
+import com.ecommerce_app.repository.CategoryRepository;
+import com.ecommerce_app.repository.ProductRepository;
+import com.ecommerce_app.repository.SlugHistoryRepository;
+import com.ecommerce_app.repository.TagRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class SlugRoutingTableTest {
+
+    private ProductRepository productRepository;
+    private SlugHistoryRepository slugHistoryRepository;
+    private SlugRoutingTable table;
+
+    @BeforeEach
+    void setUp() {
+        productRepository = mock(ProductRepository.class);
+        slugHistoryRepository = mock(SlugHistoryRepository.class);
+        table = new SlugRoutingTable(productRepository, mock(CategoryRepository.class), mock(TagRepository.class),
+                slugHistoryRepository, new SimpleMeterRegistry(), 100, 100, 60_000);
+    }
+
+    @Test
+    void unknownSlugsAreRememberedUntilSomethingTakesThem() {
+        when(productRepository.findIdsBySlug("nope")).thenReturn(List.of());
+
+        assertThatThrownBy(() -> table.resolve(SlugType.PRODUCT, "nope")).isInstanceOf(UnknownSlugException.class);
+        assertThatThrownBy(() -> table.resolve(SlugType.PRODUCT, "nope")).isInstanceOf(UnknownSlugException.class);
+        verify(productRepository, times(1)).findIdsBySlug("nope");
+
+        UUID id = UUID.randomUUID();
+        table.onSlugChanged(new SlugChangedEvent(SlugType.PRODUCT, id, null, "nope"));
+        assertThat(table.resolve(SlugType.PRODUCT, "nope")).isEqualTo(id);
+    }
+
+    @Test
+    void renamedSlugsRedirectToTheLatestSlug() {
+        UUID id = UUID.randomUUID();
+        table.onSlugChanged(new SlugChangedEvent(SlugType.PRODUCT, id, null, "boots"));
+        table.onSlugChanged(new SlugChangedEvent(SlugType.PRODUCT, id, "boots", "hiking-boots"));
+        table.onSlugChanged(new SlugChangedEvent(SlugType.PRODUCT, id, "hiking-boots", "trail-boots"));
+
+        assertThatThrownBy(() -> table.resolve(SlugType.PRODUCT, "boots"))
+                .isInstanceOfSatisfying(SlugMovedException.class, e -> assertThat(e.getSlug()).isEqualTo("trail-boots"));
+        assertThat(table.resolve(SlugType.PRODUCT, "trail-boots")).isEqualTo(id);
+
+        table.onSlugChanged(new SlugChangedEvent(SlugType.PRODUCT, id, "trail-boots", null));
+        when(productRepository.findIdsBySlug("boots")).thenReturn(List.of());
+        assertThatThrownBy(() -> table.resolve(SlugType.PRODUCT, "boots")).isInstanceOf(UnknownSlugException.class);
+    }
+
+    @Test
+    void slugsRenamedOnAnotherNodeRedirectThroughTheHistoryTable() {
+        UUID id = UUID.randomUUID();
+        when(productRepository.findIdsBySlug("boots")).thenReturn(List.of());
+        when(slugHistoryRepository.findTargetId(SlugType.PRODUCT, "boots")).thenReturn(Optional.of(id));
+        when(productRepository.findSlugById(id)).thenReturn(Optional.of("trail-boots"));
+
+        for (int i = 0; i < 2; i++) {
+            assertThatThrownBy(() -> table.resolve(SlugType.PRODUCT, "boots"))
+                    .isInstanceOfSatisfying(SlugMovedException.class, e -> assertThat(e.getSlug()).isEqualTo("trail-boots"));
+        }
+        verify(slugHistoryRepository, times(1)).findTargetId(SlugType.PRODUCT, "boots");
+    }
+}
@@ -0,0 +1,80 @@
+package com.ecommerce_app.service.catalog;
+
+import com.ecommerce_app.event.CategoryChangedEvent;
+import com.ecommerce_app.repository.CategoryRepository;
+import com.ecommerce_app.repository.projection.VersionRow;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class CategoryTreeServiceTest {
+
+    private final CategoryRepository categoryRepository = mock(CategoryRepository.class);
+    private final CategoryTreeService service =
+            new CategoryTreeService(categoryRepository, mock(PlatformTransactionManager.class));
+
+    @Test
+    void changesMadeOnAnotherNodeMarkTheSnapshotStale() {
+        LocalDateTime loadedAt = LocalDateTime.of(2026, 1, 1, 12, 0);
+        VersionRow loaded = version(loadedAt, 5);
+        when(categoryRepository.findVersion()).thenReturn(loaded);
+        when(categoryRepository.findAllTreeRows()).thenReturn(List.of());
+
+        CategoryTree first = service.getTree();
+        service.checkForRemoteChanges();
+        assertThat(service.getTree()).isSameAs(first);
+
+        // A category moved elsewhere: same count, later updated_at
+        VersionRow moved = version(loadedAt.plusSeconds(1), 5);
+        when(categoryRepository.findVersion()).thenReturn(moved);
+        service.checkForRemoteChanges();
+
+        assertThat(service.getTree()).isNotSameAs(first);
+        verify(categoryRepository, times(2)).findAllTreeRows();
+    }
+
+    @Test
+    void readersKeepThePreviousSnapshotWhileARebuildIsInFlight() throws Exception {
+        VersionRow loaded = version(LocalDateTime.of(2026, 1, 1, 12, 0), 5);
+        when(categoryRepository.findVersion()).thenReturn(loaded);
+        CountDownLatch rebuilding = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(categoryRepository.findAllTreeRows()).thenReturn(List.of()).thenAnswer(invocation -> {
+            rebuilding.countDown();
+            assertThat(release.await(5, TimeUnit.SECONDS)).isTrue();
+            return List.of();
+        });
+
+        CategoryTree first = service.getTree();
+        service.onCategoryChanged(new CategoryChangedEvent(UUID.randomUUID()));
+        CompletableFuture<CategoryTree> rebuilt = CompletableFuture.supplyAsync(service::getTree);
+        assertThat(rebuilding.await(5, TimeUnit.SECONDS)).isTrue();
+
+        // Served at once from the stale snapshot instead of waiting for the reload
+        assertThat(service.getTree()).isSameAs(first);
+
+        release.countDown();
+        assertThat(rebuilt.get(5, TimeUnit.SECONDS)).isNotSameAs(first);
+        assertThat(service.getTree()).isSameAs(rebuilt.get());
+        verify(categoryRepository, times(2)).findAllTreeRows();
+    }
+
+    private static VersionRow version(LocalDateTime updatedAt, long count) {
+        VersionRow row = mock(VersionRow.class);
+        when(row.getUpdatedAt()).thenReturn(updatedAt);
+        when(row.getCount()).thenReturn(count);
+        return row;
+    }
+}
@@ -0,0 +1,82 @@
+package com.ecommerce_app.service.catalog;
+
+import com.ecommerce_app.dto.response.CategoryBasicResponse;
+import com.ecommerce_app.dto.response.CategoryTreeResponse;
+import com.ecommerce_app.repository.projection.CategoryTreeRow;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CategoryTreeTest {
+
+    private final UUID electronics = UUID.randomUUID();
+    private final UUID phones = UUID.randomUUID();
+    private final UUID android = UUID.randomUUID();
+    private final UUID laptops = UUID.randomUUID();
+    private final UUID garden = UUID.randomUUID();
+
+    private final CategoryTree tree = CategoryTree.build(1, List.of(
+            new Row(android, phones, "Android"),
+            new Row(garden, null, "Garden"),
+            new Row(phones, electronics, "Phones"),
+            new Row(electronics, null, "Electronics"),
+            new Row(laptops, electronics, "Laptops")));
+
+    @Test
+    void treeIsNestedAndOrderedByName() {
+        List<CategoryTreeResponse> roots = tree.toTreeResponses();
+
+        assertThat(roots).extracting(CategoryTreeResponse::getName).containsExactly("Electronics", "Garden");
+        assertThat(roots.get(0).getSubcategories()).extracting(CategoryTreeResponse::getName)
+                .containsExactly("Laptops", "Phones");
+        assertThat(roots.get(0).getSubcategories().stream().filter(c -> c.getId().equals(phones)).findFirst().orElseThrow()
+                .getSubcategories()).extracting(CategoryTreeResponse::getId).containsExactly(android);
+    }
+
+    @Test
+    void ancestorsAndDescendantsComeFromTheSnapshot() {
+        assertThat(tree.getAncestors(android)).extracting(CategoryBasicResponse::getId).containsExactly(electronics, phones);
+        assertThat(tree.getAncestors(garden)).isEmpty();
+        assertThat(tree.getDescendants(electronics)).extracting(CategoryBasicResponse::getName)
+                .containsExactly("Laptops", "Phones", "Android");
+    }
+
+    @Test
+    void subtreeChecksCatchCycles() {
+        assertThat(tree.isInSubtree(electronics, android)).isTrue();
+        assertThat(tree.isInSubtree(phones, phones)).isTrue();
+        assertThat(tree.isInSubtree(android, electronics)).isFalse();
+        assertThat(tree.isInSubtree(garden, laptops)).isFalse();
+    }
+
+    private record Row(UUID id, UUID parentId, String name) implements CategoryTreeRow {
+
+        @Override
+        public UUID getId() {
+            return id;
+        }
+
+        @Override
+        public UUID getParentId() {
+            return parentId;
+        }
+
+        @Override
+        public String getName() {
+            return name;
+        }
+
+        @Override
+        public String getSlug() {
+            return name.toLowerCase();
+        }
+
+        @Override
+        public String getImageUrl() {
+            return null;
+        }
+    }
+}
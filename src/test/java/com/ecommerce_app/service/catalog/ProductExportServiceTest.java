@@ -0,0 +1,113 @@
+package com.ecommerce_app.service.catalog;
+
+import com.ecommerce_app.entity.Inventory;
+import com.ecommerce_app.entity.Product;
+import com.ecommerce_app.entity.ProductVariant;
+import com.ecommerce_app.repository.ProductRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.json.AutoConfigureJson;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@AutoConfigureJson
+@Import(ProductExportService.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@TestPropertySource(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "spring.jpa.show-sql=false"
+})
+class ProductExportServiceTest {
+
+    private static final int PRODUCTS = 1200;
+
+    @Autowired
+    private ProductExportService productExportService;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void tearDown() {
+        for (String table : new String[]{"inventories", "product_variants", "products"}) {
+            jdbcTemplate.update("DELETE FROM " + table);
+        }
+    }
+
+    @Test
+    void exportWritesOneLinePerProductWithVariantsAndInventory() throws Exception {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            for (int i = 0; i < PRODUCTS; i++) {
+                Product product = Product.builder().name("Product " + i).slug("product-" + i)
+                        .price(BigDecimal.TEN).active(true).build();
+                entityManager.persist(product);
+
+                ProductVariant variant = new ProductVariant();
+                variant.setName("Default");
+                variant.setSku("SKU-" + i);
+                variant.setProduct(product);
+                entityManager.persist(variant);
+
+                Inventory inventory = new Inventory();
+                inventory.setProductVariant(variant);
+                inventory.setStockQuantity(i);
+                entityManager.persist(inventory);
+            }
+        });
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        long written = productExportService.export(out);
+
+        List<JsonNode> lines = new ArrayList<>();
+        for (String line : out.toString(StandardCharsets.UTF_8).split("\n")) {
+            lines.add(objectMapper.readTree(line));
+        }
+        assertThat(written).isEqualTo(PRODUCTS);
+        assertThat(lines).hasSize(PRODUCTS);
+        assertThat(lines).allSatisfy(line -> {
+            int index = Integer.parseInt(line.get("slug").asText().substring("product-".length()));
+            assertThat(line.get("variants")).hasSize(1);
+            assertThat(line.at("/variants/0/sku").asText()).isEqualTo("SKU-" + index);
+            assertThat(line.at("/variants/0/stockQuantity").asInt()).isEqualTo(index);
+        });
+        // One product cursor plus three lookups per batch of 500, independent of the variants per product
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1 + 3 * 3);
+    }
+}
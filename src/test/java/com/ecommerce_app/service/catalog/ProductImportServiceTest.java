@@ -0,0 +1,149 @@
+package com.ecommerce_app.service.catalog;
+
+import com.ecommerce_app.constant.ProductImportStatus;
+import com.ecommerce_app.dto.response.ProductImportResponse;
+import com.ecommerce_app.entity.Category;
+import com.ecommerce_app.entity.Product;
+import com.ecommerce_app.entity.Tag;
+import com.ecommerce_app.repository.CategoryRepository;
+import com.ecommerce_app.repository.ProductRepository;
+import com.ecommerce_app.repository.ProductVariantRepository;
+import com.ecommerce_app.repository.TagRepository;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+@DataJpaTest
+@Import(ProductImportWriter.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@TestPropertySource(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.show-sql=false"
+})
+class ProductImportServiceTest {
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ProductVariantRepository productVariantRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private TagRepository tagRepository;
+
+    @Autowired
+    private ProductImportWriter productImportWriter;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private ProductImportService importService;
+
+    @BeforeEach
+    void setUp() {
+        Category category = new Category();
+        category.setName("Running Shoes");
+        category.setSlug("running-shoes");
+        categoryRepository.save(category);
+
+        Tag tag = new Tag();
+        tag.setName("Sale");
+        tag.setSlug("sale");
+        tagRepository.save(tag);
+
+        // Chunks of two rows, so the file below spans several commits
+        importService = new ProductImportService(productRepository, productVariantRepository, categoryRepository,
+                tagRepository, productImportWriter, mock(CategoryProductCountService.class), Validation.buildDefaultValidatorFactory().getValidator(),
+                mock(ApplicationEventPublisher.class), transactionManager, 2, 100, 60_000);
+    }
+
+    @AfterEach
+    void tearDown() {
+        for (String table : new String[]{"inventories", "product_variants", "product_categories", "product_tags",
+                "products", "categories", "tags"}) {
+            jdbcTemplate.update("DELETE FROM " + table);
+        }
+    }
+
+    @Test
+    void ndjsonImportWritesValidRowsAndReportsTheRest() throws IOException {
+        ProductImportResponse result = runImport(ProductImportFormat.NDJSON, """
+                {"name":"Trail Runner","price":89.90,"sku":"TR-1","categories":["running-shoes"],"tags":["Sale"],"variants":[{"name":"42","sku":"TR-1-42","stockQuantity":5},{"name":"43","sku":"TR-1-43"}]}
+                {"name":"Missing Price"}
+                {"name":"Broken",
+                {"name":"Road Runner","price":99,"slug":"trail-runner"}
+
+                {"name":"Road Runner","price":99,"categories":["hiking"]}
+                {"name":"Trail Runner","price":79.50}
+                """);
+
+        assertThat(result.getStatus()).isEqualTo(ProductImportStatus.COMPLETED);
+        assertThat(result.getImportedRows()).isEqualTo(2);
+        assertThat(result.getFailedRows()).isEqualTo(4);
+        assertThat(result.getErrors()).extracting(ProductImportResponse.RowError::getRow).containsExactlyInAnyOrder(2L, 3L, 4L, 6L);
+        assertThat(result.getErrors()).extracting(ProductImportResponse.RowError::getMessage).anyMatch(m -> m.contains("Price is required"));
+
+        assertThat(productRepository.count()).isEqualTo(2);
+        assertThat(productRepository.findBySlug("trail-runner")).hasValueSatisfying(product -> {
+            assertThat(product.getSku()).isEqualTo("TR-1");
+            assertThat(product.getActive()).isTrue();
+        });
+        // The second product with the same name gets a disambiguated slug instead of failing
+        assertThat(productRepository.findAll()).extracting(Product::getSlug)
+                .anyMatch(slug -> slug.matches("trail-runner-[0-9a-f]{8}"));
+        assertThat(productVariantRepository.count()).isEqualTo(2);
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM product_categories", Integer.class)).isEqualTo(1);
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM product_tags", Integer.class)).isEqualTo(1);
+        assertThat(jdbcTemplate.queryForObject("SELECT stock_quantity FROM inventories", Integer.class)).isEqualTo(5);
+    }
+
+    @Test
+    void csvImportReadsListsAndVariants() throws IOException {
+        ProductImportResponse result = runImport(ProductImportFormat.CSV, """
+                name,price,sku,categories,tags,variants
+                "Runner, Blue",49.99,RB-1,running-shoes,sale|SALE,S;RB-1-S;0;3|M;RB-1-M;2.50;
+                Runner Red,abc,RR-1,,,
+                """);
+
+        assertThat(result.getStatus()).isEqualTo(ProductImportStatus.COMPLETED);
+        assertThat(result.getImportedRows()).isEqualTo(1);
+        assertThat(result.getErrors()).singleElement().satisfies(error -> {
+            assertThat(error.getRow()).isEqualTo(2L);
+            assertThat(error.getMessage()).isEqualTo("Invalid price: abc");
+        });
+        assertThat(productRepository.findBySlug("runner-blue")).isPresent();
+        assertThat(productVariantRepository.findBySku("RB-1-M")).hasValueSatisfying(variant ->
+                assertThat(variant.getPriceDifference()).isEqualByComparingTo("2.50"));
+    }
+
+    private ProductImportResponse runImport(ProductImportFormat format, String content) throws IOException {
+        Path file = Files.createTempFile("product-import-test-", format.getExtension());
+        Files.writeString(file, content);
+        ProductImportJob job = new ProductImportJob(100);
+        importService.run(job, file, format);
+        return job.toResponse();
+    }
+}
@@ -0,0 +1,106 @@
+package com.ecommerce_app.service.catalog;
+
+import com.ecommerce_app.dto.response.VariantSelectionResponse;
+import com.ecommerce_app.repository.projection.VariantMatrixRow;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class VariantMatrixTest {
+
+    private final UUID smallRed = UUID.randomUUID();
+    private final UUID smallBlue = UUID.randomUUID();
+    private final UUID largeRed = UUID.randomUUID();
+    private final UUID largeBlue = UUID.randomUUID();
+
+    private final VariantMatrix matrix = VariantMatrix.build(UUID.randomUUID(), rows());
+
+    @Test
+    void fullSelectionResolvesToTheVariant() {
+        VariantSelectionResponse response = matrix.resolve(Map.of("size", "S", "color", "blue"));
+
+        assertThat(response.getVariantId()).isEqualTo(smallBlue);
+        assertThat(response.isVariantAvailable()).isTrue();
+
+        response = matrix.resolve(Map.of("size", "L", "color", "blue"));
+        assertThat(response.getVariantId()).isEqualTo(largeBlue);
+        assertThat(response.isVariantAvailable()).isFalse();
+        assertThat(response.isSelectionAvailable()).isFalse();
+    }
+
+    @Test
+    void partialSelectionListsOptionsThatStillLeaveStock() {
+        VariantSelectionResponse response = matrix.resolve(Map.of("size", "L"));
+
+        assertThat(response.getVariantId()).isNull();
+        assertThat(response.isSelectionAvailable()).isTrue();
+        assertThat(options(response, "color")).containsExactlyInAnyOrder("red=true", "blue=false");
+        // Sizes are narrowed by the other attributes only, so switching size stays possible
+        assertThat(options(response, "size")).containsExactlyInAnyOrder("L=true", "S=true");
+    }
+
+    @Test
+    void unknownValuesMatchNothing() {
+        VariantSelectionResponse response = matrix.resolve(Map.of("size", "XXL"));
+
+        assertThat(response.getVariantId()).isNull();
+        assertThat(response.isSelectionAvailable()).isFalse();
+        assertThat(options(response, "color")).containsExactlyInAnyOrder("red=false", "blue=false");
+    }
+
+    private static List<String> options(VariantSelectionResponse response, String attribute) {
+        return response.getAttributes().stream()
+                .filter(a -> a.getName().equals(attribute))
+                .flatMap(a -> a.getOptions().stream())
+                .map(o -> o.getValue() + "=" + o.isAvailable())
+                .toList();
+    }
+
+    private List<VariantMatrixRow> rows() {
+        List<VariantMatrixRow> rows = new ArrayList<>();
+        variant(rows, smallRed, "S", "red", 3);
+        variant(rows, smallBlue, "S", "blue", null);
+        variant(rows, largeRed, "L", "red", 1);
+        variant(rows, largeBlue, "L", "blue", 0);
+        return rows;
+    }
+
+    private static void variant(List<VariantMatrixRow> rows, UUID id, String size, String color, Integer stock) {
+        rows.add(new Row(id, "size", size, stock, 0));
+        rows.add(new Row(id, "color", color, stock, 0));
+    }
+
+    private record Row(UUID variantId, String attributeName, String attributeValue,
+                       Integer stockQuantity, Integer reservedQuantity) implements VariantMatrixRow {
+
+        @Override
+        public UUID getVariantId() {
+            return variantId;
+        }
+
+        @Override
+        public String getAttributeName() {
+            return attributeName;
+        }
+
+        @Override
+        public String getAttributeValue() {
+            return attributeValue;
+        }
+
+        @Override
+        public Integer getStockQuantity() {
+            return stockQuantity;
+        }
+
+        @Override
+        public Integer getReservedQuantity() {
+            return reservedQuantity;
+        }
+    }
+}
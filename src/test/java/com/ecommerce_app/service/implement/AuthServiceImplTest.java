@@ -0,0 +1,138 @@
+package com.ecommerce_app.service.implement;
+
+import com.ecommerce_app.dto.auth.LoginRequest;
+import com.ecommerce_app.dto.auth.SignupRequest;
+import com.ecommerce_app.dto.auth.TokenResponse;
+import com.ecommerce_app.entity.User;
+import com.ecommerce_app.exception.TooManyRequestsException;
+import com.ecommerce_app.mapper.UserMapper;
+import com.ecommerce_app.repository.UserRepository;
+import com.ecommerce_app.service.interfaces.AuthService;
+import com.ecommerce_app.service.mail.EmailOutboxService;
+import com.ecommerce_app.service.security.JwtTokenVerifier;
+import com.ecommerce_app.service.security.PasswordHashingService;
+import com.ecommerce_app.service.security.RevokedTokenIndex;
+import com.ecommerce_app.service.security.RoleScopeCache;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.when;
+
+@DataJpaTest
+@Import(AuthServiceImpl.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@TestPropertySource(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.show-sql=false"
+})
+class AuthServiceImplTest {
+
+    @Autowired
+    private AuthService authService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @MockBean
+    private PasswordHashingService passwordHashingService;
+
+    @MockBean
+    private UserMapper userMapper;
+
+    @MockBean
+    private EmailOutboxService emailOutboxService;
+
+    @MockBean
+    private RevokedTokenIndex revokedTokenIndex;
+
+    @MockBean
+    private JwtTokenVerifier jwtTokenVerifier;
+
+    @MockBean
+    private RoleScopeCache roleScopeCache;
+
+    @BeforeEach
+    void setUp() {
+        userRepository.save(User.builder()
+                .username("shopper")
+                .password("hash")
+                .email("shopper@example.com")
+                .active(true)
+                .build());
+        when(roleScopeCache.scopeFor(any())).thenReturn("");
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM users");
+    }
+
+    @Test
+    void passwordIsVerifiedOutsideAnyTransaction() {
+        AtomicBoolean inTransaction = new AtomicBoolean(true);
+        when(passwordHashingService.matches(anyString(), anyString())).thenAnswer(invocation -> {
+            inTransaction.set(TransactionSynchronizationManager.isActualTransactionActive());
+            return true;
+        });
+
+        TokenResponse response = authService.login(new LoginRequest("shopper", "secret"));
+
+        assertThat(response.getToken()).isNotBlank();
+        assertThat(inTransaction).isFalse();
+    }
+
+    @Test
+    void overloadedHashingFailsTheLoginWithoutAToken() {
+        when(passwordHashingService.matches(anyString(), anyString()))
+                .thenThrow(new TooManyRequestsException("Server is busy, please try again later"));
+
+        assertThatThrownBy(() -> authService.login(new LoginRequest("shopper", "secret")))
+                .isInstanceOf(TooManyRequestsException.class);
+        // The failure left no transaction or connection behind
+        assertThat(TransactionSynchronizationManager.isActualTransactionActive()).isFalse();
+
+        doReturn(true).when(passwordHashingService).matches(anyString(), anyString());
+        assertThat(authService.login(new LoginRequest("shopper", "secret")).getToken()).isNotBlank();
+    }
+
+    @Test
+    void signupHashesThePasswordBeforeOpeningATransaction() {
+        AtomicBoolean inTransaction = new AtomicBoolean(true);
+        when(passwordHashingService.encode(anyString())).thenAnswer(invocation -> {
+            inTransaction.set(TransactionSynchronizationManager.isActualTransactionActive());
+            return "encoded";
+        });
+
+        SignupRequest request = new SignupRequest();
+        request.setUsername("newcomer");
+        request.setEmail("newcomer@example.com");
+        request.setPassword("secret");
+        request.setFullName("New Comer");
+        authService.signup(request);
+
+        assertThat(inTransaction).isFalse();
+        assertThat(userRepository.findByUsername("newcomer")).get()
+                .extracting(User::getPassword)
+                .isEqualTo("encoded");
+    }
+}
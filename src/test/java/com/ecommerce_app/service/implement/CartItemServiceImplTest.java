@@ -0,0 +1,225 @@
+package com.ecommerce_app.service.implement;
+
+import com.ecommerce_app.dto.request.CartItemCreationRequest;
+import com.ecommerce_app.dto.response.CartItemResponse;
+import com.ecommerce_app.entity.Cart;
+import com.ecommerce_app.entity.Product;
+import com.ecommerce_app.entity.ProductVariant;
+import com.ecommerce_app.entity.User;
+import com.ecommerce_app.mapper.CartItemMapperImpl;
+import com.ecommerce_app.repository.CartItemRepository;
+import com.ecommerce_app.repository.CartRepository;
+import com.ecommerce_app.repository.ProductRepository;
+import com.ecommerce_app.repository.ProductVariantRepository;
+import com.ecommerce_app.repository.UserRepository;
+import com.ecommerce_app.service.cart.CartItemBatchWriter;
+import com.ecommerce_app.service.cart.CartWriteExecutor;
+import com.ecommerce_app.service.interfaces.CartItemService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.ArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+
+@DataJpaTest
+@Import({CartItemServiceImpl.class, CartItemBatchWriter.class, CartWriteExecutor.class, CartItemMapperImpl.class,
+        SimpleMeterRegistry.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@TestPropertySource(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.show-sql=false"
+})
+@Sql("/h2-cart-line-indexes.sql")
+class CartItemServiceImplTest {
+
+    @Autowired
+    private CartItemService cartItemService;
+
+    @Autowired
+    private CartRepository cartRepository;
+
+    @Autowired
+    private CartItemRepository cartItemRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ProductVariantRepository productVariantRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private UUID cartId;
+    private Product boots;
+    private ProductVariant largeBoots;
+    private ProductVariant smallBoots;
+    private Product socks;
+
+    @BeforeEach
+    void setUp() {
+        User user = userRepository.save(User.builder()
+                .username("shopper")
+                .password("secret")
+                .email("shopper@example.com")
+                .active(true)
+                .build());
+        Cart cart = new Cart();
+        cart.setUser(user);
+        cart.setTotalAmount(BigDecimal.ZERO);
+        cartId = cartRepository.save(cart).getId();
+
+        boots = productRepository.save(product("Boots", "50.00"));
+        socks = productRepository.save(product("Socks", "5.00"));
+        ProductVariant variant = new ProductVariant();
+        variant.setName("Large");
+        variant.setPriceDifference(new BigDecimal("10.00"));
+        variant.setProduct(boots);
+        largeBoots = productVariantRepository.save(variant);
+        ProductVariant small = new ProductVariant();
+        small.setName("Small");
+        small.setPriceDifference(BigDecimal.ZERO);
+        small.setProduct(boots);
+        smallBoots = productVariantRepository.save(small);
+    }
+
+    @AfterEach
+    void tearDown() {
+        for (String table : new String[]{"cart_items", "carts", "product_variants", "products", "users"}) {
+            jdbcTemplate.update("DELETE FROM " + table);
+        }
+    }
+
+    @Test
+    void batchMergesLinesAndMaintainsTheTotal() {
+        cartItemService.addItemToCart(cartId, item(socks, null, 1));
+
+        List<CartItemResponse> added = cartItemService.addItemsToCart(cartId, List.of(
+                item(boots, largeBoots, 1),
+                item(socks, null, 2),
+                item(boots, largeBoots, 1)));
+
+        assertThat(added).extracting(CartItemResponse::getProductId, CartItemResponse::getQuantity)
+                .containsExactly(
+                        tuple(boots.getId(), 2),
+                        tuple(socks.getId(), 3));
+        assertThat(cartItemRepository.findByCartId(cartId)).hasSize(2);
+        // 2 x 60.00 + 3 x 5.00, maintained incrementally and equal to a full recompute
+        assertThat(cartRepository.findById(cartId).orElseThrow().getTotalAmount()).isEqualByComparingTo("135.00");
+        assertThat(cartItemRepository.sumLineTotalsByCartId(cartId)).isEqualByComparingTo("135.00");
+    }
+
+    @Test
+    void addWithoutVariantNeverMatchesAVariantLine() {
+        cartItemService.addItemToCart(cartId, item(boots, largeBoots, 1));
+        cartItemService.addItemToCart(cartId, item(boots, smallBoots, 1));
+
+        CartItemResponse plain = cartItemService.addItemToCart(cartId, item(boots, null, 1));
+        cartItemService.addItemToCart(cartId, item(boots, null, 2));
+
+        assertThat(plain.getPrice()).isEqualByComparingTo("50.00");
+        assertThat(cartItemRepository.findByCartId(cartId))
+                .extracting(line -> line.getProductVariant() != null ? line.getProductVariant().getId() : null,
+                        line -> line.getQuantity())
+                .containsExactlyInAnyOrder(
+                        tuple(largeBoots.getId(), 1),
+                        tuple(smallBoots.getId(), 1),
+                        tuple(null, 3));
+        // 60.00 + 50.00 + 3 x 50.00
+        assertThat(cartRepository.findById(cartId).orElseThrow().getTotalAmount()).isEqualByComparingTo("260.00");
+    }
+
+    @Test
+    void lineIndexRejectsASecondLineWithoutVariant() {
+        cartItemService.addItemToCart(cartId, item(socks, null, 1));
+
+        assertThatThrownBy(() -> jdbcTemplate.update("INSERT INTO cart_items " +
+                        "(id, cart_id, product_id, quantity, price, version) VALUES (?, ?, ?, 1, 5.00, 0)",
+                UUID.randomUUID(), cartId, socks.getId()))
+                .isInstanceOf(DuplicateKeyException.class);
+    }
+
+    @Test
+    void concurrentFirstAddsOfTheSameLinesLoseNothing() throws Exception {
+        // The cart starts empty, so the threads race to insert each line and the unique index settles who wins
+        int threads = 16;
+        int addsPerThread = 10;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        try {
+            for (int t = 0; t < threads; t++) {
+                int thread = t;
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < addsPerThread; i++) {
+                        switch ((thread + i) % 4) {
+                            case 0 -> cartItemService.addItemsToCart(cartId,
+                                    List.of(item(boots, largeBoots, 1), item(socks, null, 1)));
+                            case 1 -> cartItemService.addItemToCart(cartId, item(boots, largeBoots, 1));
+                            case 2 -> cartItemService.addItemToCart(cartId, item(boots, null, 1));
+                            default -> cartItemService.addItemToCart(cartId, item(socks, null, 1));
+                        }
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        // Each of the four kinds of add runs 40 times; batches add one large boot and one sock each
+        assertThat(cartItemRepository.findByCartId(cartId))
+                .extracting(line -> line.getProduct().getId(),
+                        line -> line.getProductVariant() != null ? line.getProductVariant().getId() : null,
+                        line -> line.getQuantity())
+                .containsExactlyInAnyOrder(
+                        tuple(boots.getId(), largeBoots.getId(), 80),
+                        tuple(boots.getId(), null, 40),
+                        tuple(socks.getId(), null, 80));
+        // 80 x 60.00 + 40 x 50.00 + 80 x 5.00
+        assertThat(cartRepository.findById(cartId).orElseThrow().getTotalAmount()).isEqualByComparingTo("7200.00");
+        assertThat(cartItemRepository.sumLineTotalsByCartId(cartId)).isEqualByComparingTo("7200.00");
+    }
+
+    private static CartItemCreationRequest item(Product product, ProductVariant variant, int quantity) {
+        return new CartItemCreationRequest(product.getId(), variant != null ? variant.getId() : null, quantity);
+    }
+
+    private static Product product(String name, String price) {
+        return Product.builder()
+                .name(name)
+                .slug(name.toLowerCase() + "-" + UUID.randomUUID())
+                .price(new BigDecimal(price))
+                .active(true)
+                .build();
+    }
+}
@@ -0,0 +1,125 @@
+package com.ecommerce_app.service.mail;
+
+import com.ecommerce_app.constant.EmailOutboxStatus;
+import com.ecommerce_app.entity.EmailOutbox;
+import com.ecommerce_app.repository.EmailOutboxRepository;
+import com.icegreen.greenmail.junit5.GreenMailExtension;
+import com.icegreen.greenmail.util.ServerSetupTest;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.mail.internet.MimeMessage;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.net.ServerSocket;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class EmailOutboxServiceTest {
+
+    private static final int BATCH_SIZE = 50;
+    private static final long SEND_TIMEOUT = 2_000;
+
+    @RegisterExtension
+    static GreenMailExtension greenMail = new GreenMailExtension(ServerSetupTest.SMTP);
+
+    private EmailOutboxRepository repository;
+
+    @BeforeEach
+    void setUp() {
+        repository = mock(EmailOutboxRepository.class);
+        when(repository.saveAll(any())).thenAnswer(invocation -> invocation.getArgument(0));
+    }
+
+    @Test
+    void dispatchBatchDeliversDueMessagesAndMarksThemSent() throws Exception {
+        List<EmailOutbox> due = List.of(message("a@example.com"), message("b@example.com"));
+        when(repository.lockDueBatch(any(), anyInt())).thenReturn(due);
+
+        int dispatched = service(greenMail.getSmtp().getPort(), 3).dispatchBatch();
+
+        assertThat(dispatched).isEqualTo(2);
+        MimeMessage[] received = greenMail.getReceivedMessages();
+        assertThat(received).hasSize(2);
+        assertThat(received[0].getSubject()).isEqualTo("Password Reset Request");
+        assertThat(due).allSatisfy(message -> {
+            assertThat(message.getStatus()).isEqualTo(EmailOutboxStatus.SENT);
+            assertThat(message.getAttempts()).isEqualTo(1);
+            assertThat(message.getSentAt()).isNotNull();
+        });
+    }
+
+    @Test
+    void dispatchBatchReschedulesThenFailsWhenSmtpIsUnreachable() throws Exception {
+        EmailOutbox pending = message("c@example.com");
+        when(repository.lockDueBatch(any(), anyInt())).thenReturn(List.of(pending));
+        EmailOutboxService service = service(unusedPort(), 2);
+
+        service.dispatchBatch();
+
+        assertThat(pending.getStatus()).isEqualTo(EmailOutboxStatus.PENDING);
+        assertThat(pending.getAttempts()).isEqualTo(1);
+        assertThat(pending.getLastError()).isNotBlank();
+        assertThat(pending.getNextAttemptAt()).isAfter(LocalDateTime.now());
+
+        service.dispatchBatch();
+
+        assertThat(pending.getStatus()).isEqualTo(EmailOutboxStatus.FAILED);
+        assertThat(pending.getAttempts()).isEqualTo(2);
+    }
+
+    @Test
+    void claimedBatchIsLeasedLongEnoughToSendEveryMessage() {
+        EmailOutbox pending = message("d@example.com");
+        when(repository.lockDueBatch(any(), anyInt())).thenReturn(List.of(pending));
+        List<LocalDateTime> leasedUntil = new ArrayList<>();
+        when(repository.saveAll(any())).thenAnswer(invocation -> {
+            leasedUntil.add(pending.getNextAttemptAt());
+            return invocation.getArgument(0);
+        });
+
+        LocalDateTime before = LocalDateTime.now();
+        service(greenMail.getSmtp().getPort(), 3).dispatchBatch();
+
+        // The first save is the claim; the lease covers a full batch of the slowest sends
+        assertThat(leasedUntil.get(0)).isAfterOrEqualTo(before.plus(BATCH_SIZE * SEND_TIMEOUT, ChronoUnit.MILLIS));
+        assertThat(pending.getStatus()).isEqualTo(EmailOutboxStatus.SENT);
+    }
+
+    private EmailOutboxService service(int smtpPort, int maxAttempts) {
+        JavaMailSenderImpl mailSender = new JavaMailSenderImpl();
+        mailSender.setHost("localhost");
+        mailSender.setPort(smtpPort);
+
+        return new EmailOutboxService(repository, mailSender, mock(PlatformTransactionManager.class),
+                new SimpleMeterRegistry(), BATCH_SIZE, maxAttempts, 1_000, 60_000, SEND_TIMEOUT);
+    }
+
+    private static EmailOutbox message(String recipient) {
+        EmailOutbox message = EmailOutbox.builder()
+                .recipient(recipient)
+                .subject("Password Reset Request")
+                .body("To reset your password, click the link below")
+                .nextAttemptAt(LocalDateTime.now())
+                .build();
+        message.setId(UUID.randomUUID());
+        return message;
+    }
+
+    private static int unusedPort() throws Exception {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package com.ecommerce_app.service.maintenance;
+
+import com.ecommerce_app.entity.Cart;
+import com.ecommerce_app.entity.User;
+import com.ecommerce_app.repository.CartRepository;
+import com.ecommerce_app.repository.UserRepository;
+import com.ecommerce_app.repository.projection.CartVersionRow;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@Import({CartTotalReconciliationTask.class, SimpleMeterRegistry.class})
+@TestPropertySource(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.show-sql=false"
+})
+class CartTotalReconciliationTaskTest {
+
+    @Autowired
+    private CartTotalReconciliationTask task;
+
+    @Autowired
+    private CartRepository cartRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private UUID cartId;
+
+    @BeforeEach
+    void setUp() {
+        User user = userRepository.save(User.builder()
+                .username("shopper")
+                .password("secret")
+                .email("shopper@example.com")
+                .active(true)
+                .build());
+        Cart cart = new Cart();
+        cart.setUser(user);
+        cart.setTotalAmount(BigDecimal.ZERO);
+        cartId = cartRepository.saveAndFlush(cart).getId();
+        // A write that bypassed the cart services left the total out of step with the (empty) cart
+        jdbcTemplate.update("UPDATE carts SET total_amount = 42.00 WHERE id = ?", cartId);
+    }
+
+    @Test
+    void driftedTotalsAreRecomputed() {
+        task.reconcileRecentCarts();
+
+        assertThat(jdbcTemplate.queryForObject("SELECT total_amount FROM carts WHERE id = ?", BigDecimal.class, cartId))
+                .isEqualByComparingTo("0.00");
+    }
+
+    @Test
+    void cartsEditedAfterTheCheckAreLeftToTheirEdit() {
+        List<CartVersionRow> drifted = cartRepository.findDriftedTotalsUpdatedSince(LocalDateTime.now().minusMinutes(5));
+        assertThat(drifted).extracting(CartVersionRow::getId).containsExactly(cartId);
+
+        cartRepository.addToTotalAmount(cartId, new BigDecimal("1.00"), LocalDateTime.now());
+
+        assertThat(cartRepository.repairTotal(cartId, drifted.get(0).getVersion())).isZero();
+        assertThat(jdbcTemplate.queryForObject("SELECT total_amount FROM carts WHERE id = ?", BigDecimal.class, cartId))
+                .isEqualByComparingTo("43.00");
+    }
+}
@@ -0,0 +1,130 @@
+package com.ecommerce_app.service.order;
+
+import com.ecommerce_app.constant.CheckoutOutcome;
+import com.ecommerce_app.constant.CheckoutStage;
+import com.ecommerce_app.util.SqlStatementCounter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CheckoutMetricsTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final SqlStatementCounter statementCounter = new SqlStatementCounter();
+    private final CheckoutMetrics checkoutMetrics = new CheckoutMetrics(meterRegistry, statementCounter);
+
+    @Test
+    void lapsAttributeStatementsToTheStageThatIssuedThem() {
+        statementCounter.inspect("select before the checkout");
+        CheckoutMetrics.Checkout checkout = checkoutMetrics.start();
+        statementCounter.inspect("select user");
+        statementCounter.inspect("select address");
+        checkout.lap(CheckoutStage.LOOKUP);
+        checkout.lap(CheckoutStage.TOTALS);
+        statementCounter.inspect("insert order");
+        checkout.lap(CheckoutStage.FLUSH);
+        checkout.finish(CheckoutOutcome.SUCCESS);
+
+        assertThat(meterRegistry.get(CheckoutMetrics.STAGE_STATEMENTS).tag("stage", CheckoutStage.LOOKUP).summary().totalAmount())
+                .isEqualTo(2);
+        assertThat(meterRegistry.get(CheckoutMetrics.STAGE_STATEMENTS).tag("stage", CheckoutStage.TOTALS).summary().totalAmount())
+                .isZero();
+        assertThat(meterRegistry.get(CheckoutMetrics.STAGE_STATEMENTS).tag("stage", CheckoutStage.FLUSH).summary().totalAmount())
+                .isEqualTo(1);
+        assertThat(meterRegistry.get(CheckoutMetrics.STATEMENTS).summary().totalAmount()).isEqualTo(3);
+        assertThat(meterRegistry.get(CheckoutMetrics.STAGE_DURATION).tag("stage", CheckoutStage.LOOKUP).timer().count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    void failedCheckoutIsRecordedWithItsOutcome() {
+        CheckoutMetrics.Checkout checkout = checkoutMetrics.start();
+        statementCounter.inspect("select user");
+        checkout.lap(CheckoutStage.LOOKUP);
+        statementCounter.inspect("select coupon");
+        // The coupon check throws before its lap
+        checkout.finish(CheckoutOutcome.FAILURE);
+
+        assertThat(meterRegistry.get(CheckoutMetrics.STAGE_DURATION)
+                .tags("stage", CheckoutStage.LOOKUP, "outcome", CheckoutOutcome.FAILURE).timer().count())
+                .isEqualTo(1);
+        assertThat(meterRegistry.find(CheckoutMetrics.STAGE_DURATION).tag("stage", CheckoutStage.COUPON).timer())
+                .isNull();
+        assertThat(meterRegistry.get(CheckoutMetrics.STATEMENTS).tag("outcome", CheckoutOutcome.FAILURE).summary().totalAmount())
+                .isEqualTo(2);
+        assertThat(meterRegistry.find(CheckoutMetrics.DURATION).tag("outcome", CheckoutOutcome.SUCCESS).timer())
+                .isNull();
+    }
+
+    @Test
+    void repeatedCheckoutsReuseTheirMeters() {
+        for (int i = 0; i < 3; i++) {
+            CheckoutMetrics.Checkout checkout = checkoutMetrics.start();
+            checkout.lap(CheckoutStage.LOOKUP);
+            checkout.finish(i == 2 ? CheckoutOutcome.FAILURE : CheckoutOutcome.SUCCESS);
+        }
+
+        // One timer and one summary per stage and outcome, plus the same for the whole checkout
+        assertThat(meterRegistry.getMeters()).hasSize(8);
+        assertThat(meterRegistry.get(CheckoutMetrics.DURATION).tag("outcome", CheckoutOutcome.SUCCESS).timer().count())
+                .isEqualTo(2);
+    }
+
+    @Test
+    void transactionalCheckoutIsRecordedOnlyOnceItCommits() {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            CheckoutMetrics.Checkout checkout = checkoutMetrics.start();
+            checkout.finishOnCompletion();
+            checkout.lap(CheckoutStage.RESPONSE);
+            assertThat(meterRegistry.find(CheckoutMetrics.DURATION).timer()).isNull();
+
+            statementCounter.inspect("insert payment");
+            complete(TransactionSynchronization.STATUS_COMMITTED);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertThat(meterRegistry.get(CheckoutMetrics.DURATION).tag("outcome", CheckoutOutcome.SUCCESS).timer().count())
+                .isEqualTo(1);
+        assertThat(meterRegistry.get(CheckoutMetrics.STAGE_STATEMENTS)
+                .tags("stage", CheckoutStage.COMMIT, "outcome", CheckoutOutcome.SUCCESS).summary().totalAmount())
+                .isEqualTo(1);
+    }
+
+    @Test
+    void checkoutWhoseCommitFailsIsRecordedAsAFailure() {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            CheckoutMetrics.Checkout checkout = checkoutMetrics.start();
+            checkout.finishOnCompletion();
+            checkout.lap(CheckoutStage.RESPONSE);
+
+            // The method returned normally, but the commit was rolled back
+            complete(TransactionSynchronization.STATUS_ROLLED_BACK);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertThat(meterRegistry.find(CheckoutMetrics.DURATION).tag("outcome", CheckoutOutcome.SUCCESS).timer())
+                .isNull();
+        assertThat(meterRegistry.get(CheckoutMetrics.STAGE_DURATION)
+                .tags("stage", CheckoutStage.COMMIT, "outcome", CheckoutOutcome.FAILURE).timer().count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    void finishOnCompletionNeedsATransaction() {
+        CheckoutMetrics.Checkout checkout = checkoutMetrics.start();
+
+        assertThatThrownBy(checkout::finishOnCompletion).isInstanceOf(IllegalStateException.class);
+    }
+
+    private static void complete(int status) {
+        TransactionSynchronizationManager.getSynchronizations().forEach(sync -> sync.afterCompletion(status));
+    }
+}
@@ -0,0 +1,191 @@
+package com.ecommerce_app.service.order;
+
+import com.ecommerce_app.dto.request.OrderItemCreationRequest;
+import com.ecommerce_app.entity.Order;
+import com.ecommerce_app.entity.OrderItem;
+import com.ecommerce_app.entity.OrderStatus;
+import com.ecommerce_app.entity.Product;
+import com.ecommerce_app.entity.ProductVariant;
+import com.ecommerce_app.entity.User;
+import com.ecommerce_app.mapper.OrderItemMapperImpl;
+import com.ecommerce_app.repository.OrderItemRepository;
+import com.ecommerce_app.repository.OrderRepository;
+import com.ecommerce_app.repository.OrderStatusRepository;
+import com.ecommerce_app.repository.ProductRepository;
+import com.ecommerce_app.repository.ProductVariantRepository;
+import com.ecommerce_app.repository.UserRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@Import({OrderItemBatchCreator.class, OrderItemMapperImpl.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@TestPropertySource(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "spring.jpa.show-sql=false"
+})
+class OrderItemBatchCreatorTest {
+
+    @Autowired
+    private OrderItemBatchCreator orderItemBatchCreator;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private OrderItemRepository orderItemRepository;
+
+    @Autowired
+    private OrderStatusRepository orderStatusRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ProductVariantRepository productVariantRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private User user;
+    private OrderStatus pending;
+
+    @BeforeEach
+    void setUp() {
+        user = userRepository.save(User.builder()
+                .username("buyer")
+                .password("secret")
+                .email("buyer@example.com")
+                .active(true)
+                .build());
+        OrderStatus status = new OrderStatus();
+        status.setName("Pending");
+        pending = orderStatusRepository.save(status);
+    }
+
+    @AfterEach
+    void tearDown() {
+        for (String table : new String[]{"order_items", "orders", "order_statuses", "product_variants", "products", "users"}) {
+            jdbcTemplate.update("DELETE FROM " + table);
+        }
+    }
+
+    @Test
+    void statementCountDoesNotGrowWithTheNumberOfLines() {
+        long smallOrder = statementsToCreate(lines(3));
+        long largeOrder = statementsToCreate(lines(30));
+
+        assertThat(smallOrder).isPositive();
+        assertThat(largeOrder).isEqualTo(smallOrder);
+        assertThat(orderItemRepository.count()).isEqualTo(33);
+    }
+
+    @Test
+    void variantLinesAddThePriceDifferenceToTheProductPrice() {
+        Product product = productRepository.save(Product.builder()
+                .name("Boots")
+                .slug("boots-" + UUID.randomUUID())
+                .price(BigDecimal.TEN)
+                .active(true)
+                .build());
+        ProductVariant large = new ProductVariant();
+        large.setName("Large");
+        large.setProduct(product);
+        large.setPriceDifference(new BigDecimal("2.50"));
+        UUID largeId = productVariantRepository.save(large).getId();
+        UUID orderId = newOrder();
+
+        List<OrderItem> orderItems = new TransactionTemplate(transactionManager).execute(status ->
+                orderItemBatchCreator.createOrderItems(orderRepository.findById(orderId).orElseThrow(), List.of(
+                        OrderItemCreationRequest.builder().productId(product.getId()).productVariantId(largeId).quantity(3).build(),
+                        OrderItemCreationRequest.builder().productId(product.getId()).quantity(2).build())));
+
+        assertThat(orderItems).extracting(OrderItem::getUnitPrice)
+                .usingComparatorForType(BigDecimal::compareTo, BigDecimal.class)
+                .containsExactly(new BigDecimal("12.50"), BigDecimal.TEN);
+        assertThat(orderItems).extracting(OrderItem::getTotalPrice)
+                .usingComparatorForType(BigDecimal::compareTo, BigDecimal.class)
+                .containsExactly(new BigDecimal("37.50"), new BigDecimal("20"));
+    }
+
+    private long statementsToCreate(List<OrderItemCreationRequest> requests) {
+        UUID orderId = newOrder();
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        BigDecimal itemsTotal = new TransactionTemplate(transactionManager).execute(status -> {
+            Order order = orderRepository.findById(orderId).orElseThrow();
+            return orderItemBatchCreator.createOrderItems(order, requests).stream()
+                    .map(OrderItem::getTotalPrice)
+                    .reduce(BigDecimal.ZERO, BigDecimal::add);
+        });
+
+        // Every line is one unit at 10.00
+        assertThat(itemsTotal).isEqualByComparingTo(BigDecimal.TEN.multiply(BigDecimal.valueOf(requests.size())));
+        return statistics.getPrepareStatementCount();
+    }
+
+    private UUID newOrder() {
+        Order order = new Order();
+        order.setOrderNumber("ORD-" + UUID.randomUUID());
+        order.setUser(user);
+        order.setStatus(pending);
+        order.setTotalAmount(BigDecimal.ZERO);
+        return orderRepository.save(order).getId();
+    }
+
+    private List<OrderItemCreationRequest> lines(int count) {
+        List<OrderItemCreationRequest> requests = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Product product = productRepository.save(Product.builder()
+                    .name("Product " + i)
+                    .slug("product-" + UUID.randomUUID())
+                    .price(BigDecimal.TEN)
+                    .active(true)
+                    .build());
+            UUID variantId = null;
+            if (i % 2 == 0) {
+                ProductVariant variant = new ProductVariant();
+                variant.setName("Variant " + i);
+                variant.setProduct(product);
+                variantId = productVariantRepository.save(variant).getId();
+            }
+            requests.add(OrderItemCreationRequest.builder()
+                    .productId(product.getId())
+                    .productVariantId(variantId)
+                    .quantity(1)
+                    .build());
+        }
+        return requests;
+    }
+}
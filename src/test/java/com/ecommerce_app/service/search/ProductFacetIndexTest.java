@@ -0,0 +1,194 @@
+package com.ecommerce_app.service.search;
+
+import com.ecommerce_app.entity.Category;
+import com.ecommerce_app.entity.Product;
+import com.ecommerce_app.entity.Tag;
+import com.ecommerce_app.event.ProductChangedEvent;
+import com.ecommerce_app.repository.InventoryRepository;
+import com.ecommerce_app.repository.ProductRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageRequest;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ProductFacetIndexTest {
+
+    private final ProductRepository productRepository = mock(ProductRepository.class);
+    private final InventoryRepository inventoryRepository = mock(InventoryRepository.class);
+
+    private final Map<UUID, Product> products = new LinkedHashMap<>();
+    private final Set<UUID> inStock = new HashSet<>();
+
+    private final Category shoes = category();
+    private final Category shirts = category();
+    private final Tag sale = tag();
+
+    private ProductFacetIndex index;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        when(productRepository.findAllCategoryLinks()).thenReturn(List.of());
+        when(productRepository.findAllTagLinks()).thenReturn(List.of());
+        when(productRepository.findAllFacetRows()).thenReturn(List.of());
+        when(inventoryRepository.findProductIdsInStock()).thenReturn(List.of());
+        when(productRepository.findWithCategoriesAndTagsByIdIn(anyCollection())).thenAnswer(invocation ->
+                ((Collection<UUID>) invocation.getArgument(0)).stream()
+                        .filter(products::containsKey)
+                        .map(products::get)
+                        .toList());
+        when(inventoryRepository.findProductIdsInStock(anyCollection())).thenAnswer(invocation ->
+                ((Collection<UUID>) invocation.getArgument(0)).stream()
+                        .filter(inStock::contains)
+                        .toList());
+
+        index = new ProductFacetIndex(productRepository, inventoryRepository,
+                new BigDecimal[]{new BigDecimal("50"), new BigDecimal("100")});
+        index.rebuild();
+    }
+
+    @Test
+    void addedProductsAreCounted() {
+        save(product("30", true, Set.of(shoes), Set.of(sale)), true);
+        save(product("80", true, Set.of(shoes), Set.of()), false);
+        save(product("120", true, Set.of(shirts), Set.of(sale)), true);
+
+        ProductFacetIndex.FacetResult result = query(all());
+
+        assertThat(result.totalHits()).isEqualTo(3);
+        assertThat(result.categoryCounts()).containsOnly(Map.entry(shoes.getId(), 2), Map.entry(shirts.getId(), 1));
+        assertThat(result.tagCounts()).containsOnly(Map.entry(sale.getId(), 2));
+        assertThat(result.priceBandCounts()).containsExactly(1, 1, 1);
+        assertThat(result.inStockCount()).isEqualTo(2);
+    }
+
+    @Test
+    void updatedProductMovesBetweenFacetValues() {
+        Product product = save(product("30", true, Set.of(shoes), Set.of(sale)), true);
+        save(product("40", true, Set.of(shoes), Set.of()), true);
+
+        product.setPrice(new BigDecimal("150"));
+        product.setCategories(new HashSet<>(Set.of(shirts)));
+        product.setTags(new HashSet<>());
+        inStock.remove(product.getId());
+        changed(product);
+
+        ProductFacetIndex.FacetResult result = query(all());
+
+        assertThat(result.totalHits()).isEqualTo(2);
+        assertThat(result.categoryCounts()).containsOnly(Map.entry(shoes.getId(), 1), Map.entry(shirts.getId(), 1));
+        assertThat(result.tagCounts()).isEmpty();
+        assertThat(result.priceBandCounts()).containsExactly(1, 0, 1);
+        assertThat(result.inStockCount()).isEqualTo(1);
+        assertThat(query(new ProductFacetQuery(Set.of(shoes.getId()), null, null, null, null)).ids())
+                .doesNotContain(product.getId());
+    }
+
+    @Test
+    void deactivatedProductLeavesActiveListingButKeepsItsFacets() {
+        Product product = save(product("30", true, Set.of(shoes), Set.of()), true);
+        save(product("35", true, Set.of(shoes), Set.of()), true);
+
+        product.setActive(false);
+        changed(product);
+
+        ProductFacetIndex.FacetResult active = query(new ProductFacetQuery(null, null, null, true, null));
+        assertThat(active.totalHits()).isEqualTo(1);
+        assertThat(active.ids()).doesNotContain(product.getId());
+        assertThat(active.categoryCounts()).containsOnly(Map.entry(shoes.getId(), 1));
+
+        ProductFacetIndex.FacetResult inactive = query(new ProductFacetQuery(null, null, null, false, null));
+        assertThat(inactive.ids()).containsExactly(product.getId());
+    }
+
+    @Test
+    void deletedProductIsDropped() {
+        Product product = save(product("30", true, Set.of(shoes), Set.of(sale)), true);
+
+        products.remove(product.getId());
+        changed(product);
+
+        ProductFacetIndex.FacetResult result = query(all());
+        assertThat(result.totalHits()).isZero();
+        assertThat(result.categoryCounts()).isEmpty();
+        assertThat(result.tagCounts()).isEmpty();
+    }
+
+    @Test
+    void filtersIntersectAndEachFacetIsCountedWithoutItself() {
+        Product match = save(product("30", true, Set.of(shoes), Set.of(sale)), true);
+        save(product("30", true, Set.of(shoes), Set.of(sale)), false);
+        save(product("80", true, Set.of(shoes), Set.of(sale)), true);
+        save(product("30", true, Set.of(shirts), Set.of(sale)), true);
+        save(product("30", true, Set.of(shoes), Set.of()), true);
+        save(product("30", false, Set.of(shoes), Set.of(sale)), true);
+
+        ProductFacetIndex.FacetResult result = query(new ProductFacetQuery(
+                Set.of(shoes.getId()), Set.of(sale.getId()), Set.of(0), true, true));
+
+        assertThat(result.ids()).containsExactly(match.getId());
+        assertThat(result.totalHits()).isEqualTo(1);
+        // Category counts ignore the category filter, tag counts ignore the tag filter, and so on
+        assertThat(result.categoryCounts()).containsOnly(Map.entry(shoes.getId(), 1), Map.entry(shirts.getId(), 1));
+        assertThat(result.tagCounts()).containsOnly(Map.entry(sale.getId(), 1));
+        assertThat(result.priceBandCounts()).containsExactly(1, 1, 0);
+        assertThat(result.inStockCount()).isEqualTo(1);
+    }
+
+    private ProductFacetIndex.FacetResult query(ProductFacetQuery query) {
+        return index.query(query, PageRequest.of(0, 20));
+    }
+
+    private static ProductFacetQuery all() {
+        return new ProductFacetQuery(null, null, null, null, null);
+    }
+
+    private Product save(Product product, boolean stocked) {
+        products.put(product.getId(), product);
+        if (stocked) {
+            inStock.add(product.getId());
+        }
+        changed(product);
+        return product;
+    }
+
+    private void changed(Product product) {
+        index.onProductChanged(new ProductChangedEvent(product.getId()));
+        index.applyPendingChanges();
+    }
+
+    private static Product product(String price, boolean active, Set<Category> categories, Set<Tag> tags) {
+        return Product.builder()
+                .id(UUID.randomUUID())
+                .price(new BigDecimal(price))
+                .active(active)
+                .categories(new HashSet<>(categories))
+                .tags(new HashSet<>(tags))
+                .build();
+    }
+
+    private static Category category() {
+        Category category = new Category();
+        category.setId(UUID.randomUUID());
+        return category;
+    }
+
+    private static Tag tag() {
+        Tag tag = new Tag();
+        tag.setId(UUID.randomUUID());
+        return tag;
+    }
+}
@@ -0,0 +1,119 @@
+package com.ecommerce_app.service.search;
+
+import com.ecommerce_app.entity.Product;
+import com.ecommerce_app.event.ProductChangedEvent;
+import com.ecommerce_app.repository.ProductRepository;
+import org.apache.lucene.store.ByteBuffersDirectory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.SliceImpl;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ProductSearchServiceTest {
+
+    private final ProductSearchIndex index = new ProductSearchIndex(new ByteBuffersDirectory());
+    private final ProductRepository productRepository = mock(ProductRepository.class);
+    private final ProductSearchService service = new ProductSearchService(index, productRepository, 60_000);
+
+    @AfterEach
+    void tearDown() throws IOException {
+        index.close();
+    }
+
+    @Test
+    void committedChangesAreIndexedUpdatedAndDeleted() {
+        Product boots = product("Hiking Boots");
+        apply(boots);
+        assertThat(search("hiking")).containsExactly(boots.getId());
+
+        boots.setName("Trail Boots");
+        apply(boots);
+        assertThat(search("hiking")).isEmpty();
+        assertThat(search("trail")).containsExactly(boots.getId());
+
+        boots.setActive(false);
+        apply(boots);
+        assertThat(search("trail")).isEmpty();
+
+        // A product that no longer loads was deleted
+        when(productRepository.findWithCategoriesAndTagsByIdIn(anyCollection())).thenReturn(List.of());
+        service.onProductChanged(new ProductChangedEvent(boots.getId()));
+        service.applyPendingChanges();
+        assertThat(index.size()).isZero();
+    }
+
+    @Test
+    void failedRebuildKeepsThePreviousIndex() {
+        Product boots = product("Hiking Boots");
+        apply(boots);
+
+        when(productRepository.findAllIds(any(Pageable.class))).thenThrow(new IllegalStateException("Connection lost"));
+        assertThatThrownBy(service::rebuild).isInstanceOf(IllegalStateException.class);
+
+        assertThat(search("hiking")).containsExactly(boots.getId());
+        apply(product("Wool Socks"));
+        assertThat(index.size()).isEqualTo(2);
+    }
+
+    @Test
+    void reconcileReindexesRecentChangesAndDropsProductsDeletedElsewhere() {
+        Product boots = product("Hiking Boots");
+        Product socks = product("Wool Socks");
+        when(productRepository.findAllIds(any(Pageable.class)))
+                .thenReturn(new SliceImpl<>(List.of(boots.getId(), socks.getId()), PageRequest.of(0, 500), false));
+        when(productRepository.findWithCategoriesAndTagsByIdIn(anyCollection())).thenReturn(List.of(boots, socks));
+        service.rebuild();
+
+        // Renamed on another node, so no event arrived here
+        boots.setName("Trail Boots");
+        when(productRepository.findIdsUpdatedSince(any(LocalDateTime.class))).thenReturn(List.of(boots.getId()));
+        when(productRepository.findWithCategoriesAndTagsByIdIn(List.of(boots.getId()))).thenReturn(List.of(boots));
+        when(productRepository.count()).thenReturn(2L);
+        service.reconcile();
+        assertThat(search("trail")).containsExactly(boots.getId());
+
+        // Socks deleted on another node
+        when(productRepository.findIdsUpdatedSince(any(LocalDateTime.class))).thenReturn(List.of());
+        when(productRepository.findAllIds(any(Pageable.class)))
+                .thenReturn(new SliceImpl<>(List.of(boots.getId()), PageRequest.of(0, 500), false));
+        when(productRepository.findWithCategoriesAndTagsByIdIn(List.of(boots.getId()))).thenReturn(List.of(boots));
+        when(productRepository.count()).thenReturn(1L);
+        service.reconcile();
+        assertThat(search("socks")).isEmpty();
+        assertThat(index.size()).isEqualTo(1);
+    }
+
+    private void apply(Product product) {
+        when(productRepository.findWithCategoriesAndTagsByIdIn(anyCollection())).thenReturn(List.of(product));
+        service.onProductChanged(new ProductChangedEvent(product.getId()));
+        service.applyPendingChanges();
+    }
+
+    private List<UUID> search(String keyword) {
+        return service.search(keyword, PageRequest.of(0, 10)).ids();
+    }
+
+    private static Product product(String name) {
+        Product product = Product.builder()
+                .name(name)
+                .slug(name.toLowerCase().replace(' ', '-'))
+                .price(new BigDecimal("10.00"))
+                .build();
+        product.setId(UUID.randomUUID());
+        return product;
+    }
+}
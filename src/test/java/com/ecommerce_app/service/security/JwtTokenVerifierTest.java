@@ -0,0 +1,87 @@
+package com.ecommerce_app.service.security;
+
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.crypto.MACSigner;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.oauth2.jwt.BadJwtException;
+import org.springframework.security.oauth2.jwt.Jwt;
+
+import java.util.Date;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class JwtTokenVerifierTest {
+
+    private static final String SECRET = "a".repeat(64);
+    private static final String ROTATED_SECRET = "b".repeat(64);
+
+    private final RevokedTokenIndex revokedTokenIndex = mock(RevokedTokenIndex.class);
+
+    @Test
+    void cachedTokenIsReturnedUntilRevoked() throws Exception {
+        JwtTokenVerifier verifier = new JwtTokenVerifier(revokedTokenIndex, SECRET, 100);
+        String jti = UUID.randomUUID().toString();
+        String token = sign(SECRET, jti, 3_600_000);
+
+        Jwt first = verifier.decode(token);
+        assertThat(verifier.decode(token)).isSameAs(first);
+
+        when(revokedTokenIndex.isRevoked(jti)).thenReturn(true);
+        assertThatThrownBy(() -> verifier.decode(token))
+                .isInstanceOf(BadJwtException.class)
+                .hasMessageContaining("revoked");
+    }
+
+    @Test
+    void expiredTokenIsNotServedFromCache() throws Exception {
+        JwtTokenVerifier verifier = new JwtTokenVerifier(revokedTokenIndex, SECRET, 100);
+        // Expiry has second precision, so this token lives between one and one and a half seconds
+        String token = sign(SECRET, UUID.randomUUID().toString(), 1_500);
+
+        verifier.decode(token);
+        Thread.sleep(1_600);
+
+        assertThatThrownBy(() -> verifier.decode(token))
+                .isInstanceOf(BadJwtException.class)
+                .hasMessageContaining("expired");
+    }
+
+    @Test
+    void verifierWithADifferentSecretRejectsTokensCachedElsewhere() throws Exception {
+        // A key change means a restart with a new secret, which starts from an empty cache
+        JwtTokenVerifier verifier = new JwtTokenVerifier(revokedTokenIndex, SECRET, 100);
+        String token = sign(SECRET, UUID.randomUUID().toString(), 3_600_000);
+        verifier.decode(token);
+
+        JwtTokenVerifier rotated = new JwtTokenVerifier(revokedTokenIndex, ROTATED_SECRET, 100);
+
+        assertThatThrownBy(() -> rotated.decode(token))
+                .isInstanceOf(BadJwtException.class)
+                .hasMessageContaining("signature");
+        String newToken = sign(ROTATED_SECRET, UUID.randomUUID().toString(), 3_600_000);
+        assertThat(rotated.decode(newToken).getTokenValue()).isEqualTo(newToken);
+        assertThatThrownBy(() -> verifier.decode(newToken))
+                .isInstanceOf(BadJwtException.class);
+    }
+
+    private static String sign(String secret, String jti, long validMillis) throws JOSEException {
+        Date issueTime = new Date();
+        JWTClaimsSet claims = new JWTClaimsSet.Builder()
+                .subject("user@example.com")
+                .issueTime(issueTime)
+                .expirationTime(new Date(issueTime.getTime() + validMillis))
+                .jwtID(jti)
+                .build();
+        SignedJWT jwt = new SignedJWT(new JWSHeader(JWSAlgorithm.HS256), claims);
+        jwt.sign(new MACSigner(secret.getBytes()));
+        return jwt.serialize();
+    }
+}
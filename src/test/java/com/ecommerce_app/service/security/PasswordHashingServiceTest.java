@@ -0,0 +1,87 @@
+package com.ecommerce_app.service.security;
+
+import com.ecommerce_app.exception.TooManyRequestsException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PasswordHashingServiceTest {
+
+    private final CountDownLatch release = new CountDownLatch(1);
+    private final CountDownLatch started = new CountDownLatch(1);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+    }
+
+    @Test
+    void saturatedPoolRejectsAtOnceAndRecovers() throws Exception {
+        // One hashing thread and one queue slot, both taken by slow hashes
+        PasswordHashingService service = new PasswordHashingService(blockingEncoder(), meterRegistry, 1, 1, 10_000);
+        CompletableFuture<Boolean> running = CompletableFuture.supplyAsync(() -> service.matches("slow", "hash"));
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+        CompletableFuture<Boolean> queued = CompletableFuture.supplyAsync(() -> service.matches("slow", "hash"));
+        Thread.sleep(100);
+
+        long start = System.nanoTime();
+        assertThatThrownBy(() -> service.matches("secret", "hash"))
+                .isInstanceOf(TooManyRequestsException.class);
+        assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)).isLessThan(1_000);
+        assertThat(meterRegistry.get("password.hashing.rejected").counter().count()).isEqualTo(1);
+
+        release.countDown();
+        assertThat(running.get(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(queued.get(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(service.matches("secret", "hash")).isTrue();
+        service.shutdown();
+    }
+
+    @Test
+    void hashThatOutlivesTheTimeoutIsAbandoned() throws Exception {
+        PasswordHashingService service = new PasswordHashingService(blockingEncoder(), meterRegistry, 1, 1, 100);
+
+        assertThatThrownBy(() -> service.matches("slow", "hash"))
+                .isInstanceOf(TooManyRequestsException.class);
+        assertThat(meterRegistry.get("password.hashing.rejected").counter().count()).isEqualTo(1);
+
+        // The cancelled hash frees its thread for the next request
+        release.countDown();
+        assertThat(service.matches("secret", "hash")).isTrue();
+        service.shutdown();
+    }
+
+    /**
+     * Matches any password; "slow" ones block until {@link #release} opens
+     */
+    private PasswordEncoder blockingEncoder() {
+        return new PasswordEncoder() {
+            @Override
+            public String encode(CharSequence rawPassword) {
+                return "hash";
+            }
+
+            @Override
+            public boolean matches(CharSequence rawPassword, String encodedPassword) {
+                if ("slow".contentEquals(rawPassword)) {
+                    started.countDown();
+                    try {
+                        release.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+                return true;
+            }
+        };
+    }
+}
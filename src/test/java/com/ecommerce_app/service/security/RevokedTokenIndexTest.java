@@ -0,0 +1,92 @@
+package com.ecommerce_app.service.security;
+
+import com.ecommerce_app.entity.InvalidatedToken;
+import com.ecommerce_app.repository.InvalidatedTokenRepository;
+import org.junit.jupiter.api.Test;
+
+import java.util.Date;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class RevokedTokenIndexTest {
+
+    private final InvalidatedTokenRepository repository = mock(InvalidatedTokenRepository.class);
+
+    @Test
+    void revokedTokenIsRejectedBeforeAndAfterRefresh() {
+        when(repository.findAllByExpiryTimeAfter(any())).thenReturn(List.of());
+        RevokedTokenIndex index = newIndex();
+        index.load();
+
+        index.revoke("revoked", inOneHour());
+        assertThat(index.isRevoked("revoked")).isTrue();
+        assertThat(index.isRevoked("live")).isFalse();
+
+        // The database read may not see the revocation yet; the local entry has to survive
+        index.refresh();
+        assertThat(index.isRevoked("revoked")).isTrue();
+
+        when(repository.findAllByExpiryTimeAfter(any())).thenReturn(List.of(token("revoked", inOneHour())));
+        index.refresh();
+        assertThat(index.isRevoked("revoked")).isTrue();
+        assertThat(index.isRevoked("live")).isFalse();
+        assertThat(index.size()).isEqualTo(1);
+        verify(repository, never()).existsById(any());
+    }
+
+    @Test
+    void rebuiltIndexRejectsTokensRevokedByOtherNodes() {
+        when(repository.findAllByExpiryTimeAfter(any())).thenReturn(List.of(
+                token("other-node", inOneHour()),
+                token("second", inOneHour())));
+
+        RevokedTokenIndex index = newIndex();
+        index.load();
+
+        assertThat(index.isRevoked("other-node")).isTrue();
+        assertThat(index.isRevoked("second")).isTrue();
+        assertThat(index.isRevoked("live")).isFalse();
+        verify(repository, never()).existsById(any());
+    }
+
+    @Test
+    void expiredRevocationsAreDroppedOnRebuild() {
+        when(repository.findAllByExpiryTimeAfter(any())).thenReturn(List.of());
+        RevokedTokenIndex index = newIndex();
+        index.load();
+
+        index.revoke("expired", new Date(System.currentTimeMillis() - 1_000));
+        assertThat(index.isRevoked("expired")).isFalse();
+        assertThat(index.size()).isZero();
+    }
+
+    @Test
+    void fallsBackToDatabaseUntilFirstLoadSucceeds() {
+        when(repository.findAllByExpiryTimeAfter(any())).thenThrow(new IllegalStateException("database down"));
+        when(repository.existsById("revoked")).thenReturn(true);
+        RevokedTokenIndex index = newIndex();
+        index.load();
+
+        assertThat(index.isRevoked("revoked")).isTrue();
+        assertThat(index.isRevoked("live")).isFalse();
+        verify(repository).existsById("revoked");
+    }
+
+    private RevokedTokenIndex newIndex() {
+        return new RevokedTokenIndex(repository, 3600, 10, 0.01);
+    }
+
+    private static InvalidatedToken token(String id, Date expiryTime) {
+        return InvalidatedToken.builder().id(id).expiryTime(expiryTime).build();
+    }
+
+    private static Date inOneHour() {
+        return new Date(System.currentTimeMillis() + 3_600_000);
+    }
+}
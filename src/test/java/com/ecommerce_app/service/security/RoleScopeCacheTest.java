@@ -0,0 +1,184 @@
+package com.ecommerce_app.service.security;
+
+import com.ecommerce_app.dto.request.PermissionUpdateRequestDto;
+import com.ecommerce_app.dto.request.RoleUpdateRequest;
+import com.ecommerce_app.entity.Permission;
+import com.ecommerce_app.entity.Role;
+import com.ecommerce_app.entity.User;
+import com.ecommerce_app.mapper.PermissionMapperImpl;
+import com.ecommerce_app.mapper.RoleMapperImpl;
+import com.ecommerce_app.repository.PermissionRepository;
+import com.ecommerce_app.repository.RoleRepository;
+import com.ecommerce_app.repository.UserRepository;
+import com.ecommerce_app.service.implement.PermissionServiceImpl;
+import com.ecommerce_app.service.implement.RoleServiceImpl;
+import com.ecommerce_app.service.interfaces.PermissionService;
+import com.ecommerce_app.service.interfaces.RoleService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Hibernate;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@Import({RoleScopeCache.class, RoleServiceImpl.class, PermissionServiceImpl.class,
+        RoleMapperImpl.class, PermissionMapperImpl.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@TestPropertySource(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "spring.jpa.show-sql=false",
+        "app.security.role-scope-cache.refresh-interval=3600000"
+})
+class RoleScopeCacheTest {
+
+    @Autowired
+    private RoleScopeCache roleScopeCache;
+
+    @Autowired
+    private RoleService roleService;
+
+    @Autowired
+    private PermissionService permissionService;
+
+    @Autowired
+    private RoleRepository roleRepository;
+
+    @Autowired
+    private PermissionRepository permissionRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Permission readProducts;
+    private Permission writeProducts;
+    private Role staff;
+
+    @BeforeEach
+    void setUp() {
+        readProducts = permissionRepository.save(permission("PRODUCT_READ"));
+        writeProducts = permissionRepository.save(permission("PRODUCT_WRITE"));
+        staff = roleRepository.save(Role.builder()
+                .name("STAFF")
+                .permissions(new HashSet<>(Set.of(readProducts)))
+                .build());
+        roleScopeCache.reload();
+    }
+
+    @AfterEach
+    void tearDown() {
+        for (String table : new String[]{"user_roles", "role_permissions", "users", "roles", "permissions"}) {
+            jdbcTemplate.update("DELETE FROM " + table);
+        }
+    }
+
+    @Test
+    void addingAndRemovingPermissionsRebuildsTheScope() {
+        assertThat(scopeOf(staff)).containsExactlyInAnyOrder("ROLE_STAFF", "PRODUCT_READ");
+
+        roleService.addPermissionsToRole(staff.getId(), Set.of(writeProducts.getId()));
+        assertThat(scopeOf(staff)).containsExactlyInAnyOrder("ROLE_STAFF", "PRODUCT_READ", "PRODUCT_WRITE");
+
+        roleService.removePermissionsFromRole(staff.getId(), Set.of(readProducts.getId()));
+        assertThat(scopeOf(staff)).containsExactlyInAnyOrder("ROLE_STAFF", "PRODUCT_WRITE");
+    }
+
+    @Test
+    void updatingTheRoleRebuildsTheScope() {
+        roleService.updateRole(staff.getId(), new RoleUpdateRequest("MANAGER", null, Set.of(writeProducts.getId())));
+
+        assertThat(scopeOf(staff)).containsExactlyInAnyOrder("ROLE_MANAGER", "PRODUCT_WRITE");
+    }
+
+    @Test
+    void renamingAPermissionRebuildsTheScopeOfEveryRoleHoldingIt() {
+        Role auditor = roleRepository.save(Role.builder()
+                .name("AUDITOR")
+                .permissions(new HashSet<>(Set.of(readProducts)))
+                .build());
+        roleScopeCache.reload();
+
+        permissionService.updatePermission(readProducts.getId(), new PermissionUpdateRequestDto("CATALOG_READ", null));
+
+        assertThat(scopeOf(staff)).containsExactlyInAnyOrder("ROLE_STAFF", "CATALOG_READ");
+        assertThat(scopeOf(auditor)).containsExactlyInAnyOrder("ROLE_AUDITOR", "CATALOG_READ");
+    }
+
+    @Test
+    void deletingAPermissionRebuildsTheScope() {
+        roleService.addPermissionsToRole(staff.getId(), Set.of(writeProducts.getId()));
+        jdbcTemplate.update("DELETE FROM role_permissions WHERE permission_id = ?", writeProducts.getId());
+
+        permissionService.deletePermission(writeProducts.getId());
+
+        assertThat(scopeOf(staff)).containsExactlyInAnyOrder("ROLE_STAFF", "PRODUCT_READ");
+    }
+
+    @Test
+    void tokenScopeIsReadWithoutQueries() {
+        userRepository.save(User.builder()
+                .username("clerk")
+                .password("hash")
+                .email("clerk@example.com")
+                .active(true)
+                .roles(new HashSet<>(Set.of(staff)))
+                .build());
+        // Loaded the way login loads the user: roles eagerly, their permissions not at all
+        User user = userRepository.findByUsername("clerk").orElseThrow();
+        Role role = user.getRoles().iterator().next();
+        assertThat(Hibernate.isInitialized(role.getPermissions())).isFalse();
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        String scope = roleScopeCache.scopeFor(user.getRoles());
+
+        assertThat(scope.split(" ")).containsExactlyInAnyOrder("ROLE_STAFF", "PRODUCT_READ");
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+    }
+
+    @Test
+    void roleMissingFromTheSnapshotIsLoadedWithItsPermissions() {
+        // Saved without going through the service, as another node would, so nothing reloads the cache
+        Role editor = roleRepository.save(Role.builder()
+                .name("EDITOR")
+                .permissions(new HashSet<>(Set.of(writeProducts)))
+                .build());
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        assertThat(scopeOf(editor)).containsExactlyInAnyOrder("ROLE_EDITOR", "PRODUCT_WRITE");
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    private List<String> scopeOf(Role role) {
+        return List.of(roleScopeCache.scopeFor(List.of(role)).split(" "));
+    }
+
+    private static Permission permission(String name) {
+        Permission permission = new Permission();
+        permission.setName(name);
+        return permission;
+    }
+}
@@ -0,0 +1,5 @@
+-- H2 has no partial indexes, so the uk_cart_items_line pair from import.sql is rebuilt as one unique index
+-- over a generated column that maps a missing variant to a fixed value
+ALTER TABLE cart_items ADD COLUMN IF NOT EXISTS line_variant_id UUID
+    GENERATED ALWAYS AS (COALESCE(product_variant_id, CAST('00000000-0000-0000-0000-000000000000' AS UUID)));
+CREATE UNIQUE INDEX IF NOT EXISTS uk_cart_items_line ON cart_items (cart_id, product_id, line_variant_id);